@@ -0,0 +1,100 @@
+package springboot.yongjunstore.common.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 최대 개수와 TTL 을 가진 인메모리 LRU 캐시
+// LinkedHashMap 의 access-order 로 가장 오래 사용되지 않은 항목부터 제거
+public class LocalLruCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // 개수 초과 또는 만료로 제거될 때 호출 (메트릭 집계용)
+    private final Runnable onEviction;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public LocalLruCache(int maxSize, long ttlMillis, Runnable onEviction) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.onEviction = onEviction;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+
+    // 없거나 만료된 경우 null
+    public synchronized V get(K key) {
+
+        Entry<V> entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key);
+            onEviction.run();
+            return null;
+        }
+
+        return entry.value;
+    }
+
+
+    public synchronized void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+
+
+    // 항목마다 만료 시간이 다른 경우 (ex. JWT 의 exp), 기본 TTL 보다 길게는 저장하지 않음
+    public synchronized void put(K key, V value, long ttlMillis) {
+
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + Math.min(ttlMillis, this.ttlMillis)));
+
+        if (entries.size() <= maxSize) {
+            return;
+        }
+
+        // 가장 오래 사용되지 않은 항목부터 제거 (만료된 항목은 조회 시 제거)
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            onEviction.run();
+        }
+    }
+
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package springboot.yongjunstore.common.concurrent;
+
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// 같은 key 에 대한 동시 요청 중 하나만 loader 를 실행하고, 나머지는 그 결과를 기다려서 함께 사용
+// 결과는 저장하지 않으므로 loader 가 끝나면 다음 요청은 다시 loader 를 실행 (캐시 앞단에서 사용)
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    // 기다리는 요청의 최대 대기 시간
+    private final long timeoutMillis;
+
+    // 대기 시간을 초과한 경우 응답할 에러
+    private final ErrorCode timeoutErrorCode;
+
+    public SingleFlight(long timeoutMillis, ErrorCode timeoutErrorCode) {
+        this.timeoutMillis = timeoutMillis;
+        this.timeoutErrorCode = timeoutErrorCode;
+    }
+
+
+    public V execute(K key, Supplier<V> loader) {
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+
+        if (running != null) {
+            return await(running);
+        }
+
+        // loader 를 실행하는 요청
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            // 기다리던 요청에도 같은 예외 전달 (ex. ROOM_POST_NOT_FOUND)
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+
+    // 현재 loader 를 실행 중인 key 개수
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+
+    private V await(CompletableFuture<V> running) {
+
+        try {
+            return running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException e) {
+            throw new GlobalException(timeoutErrorCode);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GlobalException(timeoutErrorCode);
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
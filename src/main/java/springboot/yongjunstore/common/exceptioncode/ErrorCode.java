@@ -20,6 +20,7 @@ public enum ErrorCode {
     MEMBER_EMAIL_NOT_FOUND(404, HttpStatus.NOT_FOUND, "M004", "존재하지 않는 이메일입니다."),
     MEMBER_PASSWORD_UNCHECKED(400, HttpStatus.BAD_REQUEST, "M005", "비밀번호가 일치하지 않습니다."),
     MEMBER_DELETE_FAIL(400, HttpStatus.BAD_REQUEST, "M006", "회원 탈퇴에 실패하였습니다."),
+    MEMBER_PASSWORD_TOO_MANY_REQUESTS(429, HttpStatus.TOO_MANY_REQUESTS, "M007", "로그인 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."),
 
     // JWT
     JWT_UNSUPPORTED_JWT_EXCEPTION(401, HttpStatus.BAD_REQUEST, "T001", "원하는 토큰과 다른 형식의 토큰입니다."),
@@ -27,6 +28,7 @@ public enum ErrorCode {
     JWT_EXPIRED_JWT_EXCEPTION(403, HttpStatus.BAD_REQUEST, "T003", "만료된 토큰입니다."),
     JWT_SIGNATURE_EXCEPTION(404, HttpStatus.NOT_FOUND, "T004", "검증에 실패한 변조된 토큰입니다."),
     JWT_REFRESH_EXPIRED_JWT_EXCEPTION(403, HttpStatus.NOT_FOUND, "T005", "만료된 refreshToken입니다."),
+    JWT_REISSUE_TIMEOUT(503, HttpStatus.SERVICE_UNAVAILABLE, "T006", "토큰 재발급 요청이 많아 지연되고 있습니다. 잠시 후 다시 시도해주세요."),
 
     // OAuth2.0
     OAUTH_EMAIL_EXISTS(400, HttpStatus.BAD_REQUEST, "O001", "이미 일반 회원으로 등록된 이메일입니다."),
@@ -37,12 +39,27 @@ public enum ErrorCode {
     IMAGE_FILE_NOT_UPLOAD(400, HttpStatus.BAD_REQUEST, "F002", "이미지 파일이 업로드되지 못했습니다."),
     IMAGE_FILE_EXTENSION_NOT_FOUND(404, HttpStatus.NOT_FOUND, "F003", "이미지의 확장자를 찾을 수 없습니다."),
     IMAGE_FILE_MAX_UPLOAD_SIZE(413, HttpStatus.PAYLOAD_TOO_LARGE, "F004", "파일 업로드 크기 제한을 초과하였습니다."),
+    IMAGE_FILE_SIGNATURE_MISMATCH(415, HttpStatus.UNSUPPORTED_MEDIA_TYPE, "F005", "JPEG, PNG, WebP, GIF 이미지만 업로드할 수 있습니다."),
+    IMAGE_FILE_LOAD_TIMEOUT(503, HttpStatus.SERVICE_UNAVAILABLE, "F006", "이미지 조회 요청이 많아 지연되고 있습니다. 잠시 후 다시 시도해주세요."),
+
+    // UploadSession
+    UPLOAD_SESSION_NOT_FOUND(404, HttpStatus.NOT_FOUND, "U001", "업로드 세션을 찾을 수 없습니다. 만료되었거나 이미 사용된 업로드입니다."),
+    UPLOAD_SESSION_INVALID_RANGE(400, HttpStatus.BAD_REQUEST, "U002", "Content-Range 는 bytes start-end/total 형식이어야 합니다."),
+    UPLOAD_SESSION_OFFSET_MISMATCH(409, HttpStatus.CONFLICT, "U003", "업로드 위치가 맞지 않습니다. 업로드된 위치를 조회한 뒤 이어서 보내주세요."),
+    UPLOAD_SESSION_INCOMPLETE(409, HttpStatus.CONFLICT, "U004", "아직 완료되지 않은 업로드입니다."),
+    UPLOAD_SESSION_FORBIDDEN(403, HttpStatus.FORBIDDEN, "U005", "다른 회원의 업로드는 사용할 수 없습니다."),
 
     // RoomPost
     ROOM_POST_NOT_FOUND(404, HttpStatus.NOT_FOUND, "R001", "RoomPost를 찾을 수 없습니다."),
     ROOM_POST_SEARCH_OPTION_NOT_FOUND(404, HttpStatus.NOT_FOUND, "R002", "searchOption(검색 옵션)을 찾을 수 없습니다."),
     ROOM_POST_ALREADY_TERMINATED(400, HttpStatus.BAD_REQUEST, "R003", "이미 개시 중지된 글입니다."),
     ROOM_POST_DELETE_ROLE_EXISTS(400, HttpStatus.BAD_REQUEST, "R004", "삭제 권한이 없는 글입니다."),
+    ROOM_POST_INVALID_CURSOR(400, HttpStatus.BAD_REQUEST, "R005", "잘못된 커서(after) 값입니다."),
+    ROOM_POST_COUNT_OPTION_NOT_FOUND(400, HttpStatus.BAD_REQUEST, "R006", "count 옵션은 exact, approximate, none 중 하나여야 합니다."),
+    ROOM_POST_LOAD_TIMEOUT(503, HttpStatus.SERVICE_UNAVAILABLE, "R007", "글 조회 요청이 많아 지연되고 있습니다. 잠시 후 다시 시도해주세요."),
+    ROOM_POST_SORT_NOT_FOUND(400, HttpStatus.BAD_REQUEST, "R008", "정렬은 monthlyPrice, depositPrice, squareFootage, id 중 하나여야 합니다."),
+    ROOM_POST_VIEW_OPTION_NOT_FOUND(400, HttpStatus.BAD_REQUEST, "R009", "view 는 summary, full 중 하나여야 합니다."),
+    ROOM_POST_CREATE_JOB_NOT_FOUND(404, HttpStatus.NOT_FOUND, "R010", "글 생성 작업을 찾을 수 없습니다."),
 
     // GoogleEmail
     GOOGLE_EMAIL_MESSAGE_EXCEPTION(400, HttpStatus.BAD_REQUEST, "G001", "메세지 생성에 실패했습니다."),
@@ -0,0 +1,72 @@
+package springboot.yongjunstore.common.upload;
+
+import lombok.Getter;
+
+import java.util.Optional;
+
+// 파일 앞부분(magic byte)으로 판별하는 업로드 허용 이미지 형식
+// 요청의 Content-Type 이나 파일 이름은 클라이언트가 바꿀 수 있으므로 실제 내용으로 판별
+@Getter
+public enum ImageSignature {
+
+    JPEG(".jpg", "image/jpeg"),
+    PNG(".png", "image/png"),
+    GIF(".gif", "image/gif"),
+    WEBP(".webp", "image/webp");
+
+    // 판별에 필요한 최대 길이 (WebP : RIFF....WEBP)
+    public static final int HEADER_LENGTH = 12;
+
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF87A_MAGIC = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89A_MAGIC = {'G', 'I', 'F', '8', '9', 'a'};
+    private static final byte[] RIFF_MAGIC = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_MAGIC = {'W', 'E', 'B', 'P'};
+
+    private final String extension;
+    private final String contentType;
+
+    ImageSignature(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+
+    public static Optional<ImageSignature> detect(byte[] header, int length) {
+
+        if (startsWith(header, length, 0, JPEG_MAGIC)) {
+            return Optional.of(JPEG);
+        }
+
+        if (startsWith(header, length, 0, PNG_MAGIC)) {
+            return Optional.of(PNG);
+        }
+
+        if (startsWith(header, length, 0, GIF87A_MAGIC) || startsWith(header, length, 0, GIF89A_MAGIC)) {
+            return Optional.of(GIF);
+        }
+
+        if (startsWith(header, length, 0, RIFF_MAGIC) && startsWith(header, length, 8, WEBP_MAGIC)) {
+            return Optional.of(WEBP);
+        }
+
+        return Optional.empty();
+    }
+
+
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] magic) {
+
+        if (length < offset + magic.length) {
+            return false;
+        }
+
+        for (int i = 0; i < magic.length; i++) {
+            if (header[offset + i] != magic[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
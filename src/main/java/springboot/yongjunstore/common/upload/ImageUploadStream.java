@@ -0,0 +1,109 @@
+package springboot.yongjunstore.common.upload;
+
+import lombok.Getter;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+// 업로드 이미지를 읽으면서 검사하는 스트림
+// 생성 시 앞부분만 읽어 이미지 형식을 확인하고 (아니면 바로 중단), 읽은 크기가 제한을 넘는 순간 중단
+// 잘못된 업로드는 끝까지 읽거나 디스크에 저장하지 않음
+public class ImageUploadStream extends FilterInputStream {
+
+    private final long maxBytes;
+
+    private long readBytes;
+
+    @Getter
+    private final ImageSignature signature;
+
+    public ImageUploadStream(InputStream inputStream, long maxBytes) throws IOException {
+        super(new PushbackInputStream(inputStream, ImageSignature.HEADER_LENGTH));
+        this.maxBytes = maxBytes;
+
+        byte[] header = new byte[ImageSignature.HEADER_LENGTH];
+        int length = readHeader(header);
+
+        this.signature = ImageSignature.detect(header, length)
+                .orElseThrow(() -> new GlobalException(ErrorCode.IMAGE_FILE_SIGNATURE_MISMATCH));
+
+        // 확인한 앞부분은 다시 읽을 수 있도록 되돌림
+        ((PushbackInputStream) this.in).unread(header, 0, length);
+    }
+
+
+    @Override
+    public int read() throws IOException {
+
+        int read = super.read();
+
+        if (read != -1) {
+            count(1);
+        }
+
+        return read;
+    }
+
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+
+        int read = super.read(buffer, offset, length);
+
+        if (read > 0) {
+            count(read);
+        }
+
+        return read;
+    }
+
+
+    @Override
+    public long skip(long length) throws IOException {
+
+        long skipped = super.skip(length);
+
+        count(skipped);
+
+        return skipped;
+    }
+
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+
+    private void count(long bytes) {
+
+        readBytes += bytes;
+
+        if (readBytes > maxBytes) {
+            throw new MaxUploadSizeExceededException(maxBytes);
+        }
+    }
+
+
+    private int readHeader(byte[] header) throws IOException {
+
+        int length = 0;
+
+        while (length < header.length) {
+            int read = this.in.read(header, length, header.length - length);
+
+            if (read == -1) {
+                break;
+            }
+
+            length += read;
+        }
+
+        return length;
+    }
+}
@@ -0,0 +1,108 @@
+package springboot.yongjunstore.common.upload;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// StreamingMultipartResolver 가 검사를 마친 part
+// 이미지는 임시 파일, JSON 등 작은 데이터 part 는 메모리에 보관
+// 이어 올리기 업로드 파일은 글 저장이 실패해도 다시 사용할 수 있도록 이동하거나 삭제하지 않음 (retained)
+public class StreamedMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+    private final Path file;
+    private final byte[] content;
+    private final boolean retained;
+
+    private StreamedMultipartFile(String name, String originalFilename, String contentType, long size, Path file, byte[] content, boolean retained) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+        this.file = file;
+        this.content = content;
+        this.retained = retained;
+    }
+
+    public static StreamedMultipartFile ofFile(String name, String originalFilename, String contentType, Path file) throws IOException {
+        return new StreamedMultipartFile(name, originalFilename, contentType, Files.size(file), file, null, false);
+    }
+
+    public static StreamedMultipartFile ofRetainedFile(String name, String originalFilename, String contentType, Path file) throws IOException {
+        return new StreamedMultipartFile(name, originalFilename, contentType, Files.size(file), file, null, true);
+    }
+
+    public static StreamedMultipartFile ofBytes(String name, String originalFilename, String contentType, byte[] content) {
+        return new StreamedMultipartFile(name, originalFilename, contentType, content.length, null, content, false);
+    }
+
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return file != null ? Files.readAllBytes(file) : content.clone();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    // 임시 파일은 복사하지 않고 이동
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        if (file != null && retained) {
+            Files.copy(file, dest, StandardCopyOption.REPLACE_EXISTING);
+        } else if (file != null) {
+            Files.move(file, dest, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.write(dest, content);
+        }
+    }
+
+
+    // 요청이 끝나면 남아 있는 임시 파일 삭제
+    public void delete() throws IOException {
+        if (file != null && !retained) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
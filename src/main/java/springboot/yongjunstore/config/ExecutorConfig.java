@@ -0,0 +1,134 @@
+package springboot.yongjunstore.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${fileUpload.s3.upload-pool-size:8}")
+    private int s3UploadPoolSize;
+
+    @Value("${fileUpload.s3.upload-queue-capacity:64}")
+    private int s3UploadQueueCapacity;
+
+    @Value("${fileUpload.resize.pool-size:2}")
+    private int imageResizePoolSize;
+
+    @Value("${fileUpload.resize.queue-capacity:100}")
+    private int imageResizeQueueCapacity;
+
+    @Value("${roomPost.create-job.pool-size:2}")
+    private int roomPostCreateJobPoolSize;
+
+    // 0 : 사용 가능한 CPU 의 절반
+    @Value("${auth.password-hash.pool-size:0}")
+    private int passwordHashPoolSize;
+
+    @Value("${auth.password-hash.queue-capacity:20}")
+    private int passwordHashQueueCapacity;
+
+    @Value("${scheduler.pool-size:4}")
+    private int schedulerPoolSize;
+
+
+    // S3 업로드 전용 스레드 풀 (크기 제한)
+    // 큐가 가득 차면 요청 스레드가 직접 업로드해서 자연스럽게 속도를 늦춤
+    @Bean
+    public ThreadPoolTaskExecutor s3UploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(s3UploadPoolSize);
+        executor.setMaxPoolSize(s3UploadPoolSize);
+        executor.setQueueCapacity(s3UploadQueueCapacity);
+        executor.setThreadNamePrefix("s3-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+
+    // 이미지 크기 변환 전용 스레드 풀
+    // 원본 이미지를 메모리에 올려서 변환하므로 스레드 수를 작게 유지하고, 큐가 가득 차면 요청 스레드가 직접 변환
+    @Bean
+    public ThreadPoolTaskExecutor imageResizeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageResizePoolSize);
+        executor.setMaxPoolSize(imageResizePoolSize);
+        executor.setQueueCapacity(imageResizeQueueCapacity);
+        executor.setThreadNamePrefix("image-resize-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+
+    // 비동기 글 생성 작업 전용 스레드 풀
+    // 큐 없이 비어 있는 스레드 수만큼만 작업을 가져옴 (나머지는 DB 에서 대기하므로 서버가 종료되어도 유실되지 않음)
+    @Bean
+    public ThreadPoolTaskExecutor roomPostCreateExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(roomPostCreateJobPoolSize);
+        executor.setMaxPoolSize(roomPostCreateJobPoolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("room-post-create-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+
+    // 비밀번호 해시 (BCrypt) 전용 스레드 풀
+    // 로그인이 몰려도 CPU 를 이 스레드 수만큼만 사용하고, 큐가 가득 차면 바로 거절 (PasswordHashService 에서 429 응답)
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int poolSize = passwordHashPoolSize > 0
+                ? passwordHashPoolSize
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(passwordHashQueueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+
+    // 이미지 저장소 정리 (ImageGarbageCollector) 전용 스레드
+    // 삭제 속도 제한으로 오래 걸리는 정리가 @Scheduled 스레드를 점유하지 않도록 분리
+    // 스레드 1개, 큐 없음 : 이전 정리가 끝나지 않았으면 이번 실행은 건너뜀
+    @Bean
+    public ThreadPoolTaskExecutor imageGcExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("image-gc-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+
+    // @Scheduled 작업 스레드 풀 (기본값은 스레드 1개)
+    // 글 생성 작업 poll, 검색 / facet 인덱스와 Bloom filter 갱신, 업로드 세션 정리가 서로를 기다리지 않도록 여러 스레드로 실행
+    // 오래 걸리는 작업은 이 풀에서 직접 실행하지 않고 전용 스레드 풀로 넘김 (imageGcExecutor 등)
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulerPoolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+}
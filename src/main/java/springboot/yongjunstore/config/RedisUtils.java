@@ -3,9 +3,12 @@ package springboot.yongjunstore.config;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
@@ -32,11 +35,32 @@ public class RedisUtils {
         valueOperations.set(key, value, expireDuration);
     }
 
+    // key 가 없을 때만 유효 시간 동안 저장 (저장했으면 true)
+    public boolean setDataIfAbsent(String key, String value, long duration) {
+        ValueOperations<String, String> valueOperations = redisTemplate.opsForValue();
+        Duration expireDuration = Duration.ofSeconds(duration);
+        return Boolean.TRUE.equals(valueOperations.setIfAbsent(key, value, expireDuration));
+    }
+
+    // Lua script 실행 (script 안의 명령은 다른 요청 없이 한 번에 실행됨)
+    public <T> T executeScript(RedisScript<T> script, List<String> keys, String... args) {
+        return redisTemplate.execute(script, keys, (Object[]) args);
+    }
+
     // 삭제
     public void deleteData(String key) {
         redisTemplate.delete(key);
     }
 
+    // pattern 에 맞는 key 삭제 (KEYS 명령을 사용하므로 테스트, 관리용)
+    public void deleteKeys(String pattern) {
+        Set<String> keys = redisTemplate.keys(pattern);
+
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
     //전체 삭제
     public void deleteAllKeys() {
         redisTemplate.execute(connection -> {
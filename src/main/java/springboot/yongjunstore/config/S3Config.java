@@ -2,11 +2,13 @@ package springboot.yongjunstore.config;
 
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 
 @Configuration
 public class S3Config {
@@ -20,15 +22,27 @@ public class S3Config {
     @Value("${cloud.aws.region.static}")
     private String region;
 
+    // S3 호환 저장소 주소 (로컬 테스트용 MinIO, LocalStack 등), 비어 있으면 AWS S3 사용
+    @Value("${cloud.aws.s3.endpoint:}")
+    private String endpoint;
+
     @Bean
     public AmazonS3Client amazonS3Client() {
         BasicAWSCredentials credentials = new BasicAWSCredentials(accessKey, secretKey);
 
-        return (AmazonS3Client) AmazonS3ClientBuilder
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder
                 .standard()
-                .withRegion(region)
-                .withCredentials(new AWSStaticCredentialsProvider(credentials))
-                .build();
+                .withCredentials(new AWSStaticCredentialsProvider(credentials));
+
+        if (StringUtils.hasText(endpoint)) {
+            // S3 호환 저장소는 bucket 을 경로로 지정
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region))
+                    .withPathStyleAccessEnabled(true);
+        } else {
+            builder.withRegion(region);
+        }
+
+        return (AmazonS3Client) builder.build();
     }
 
 }
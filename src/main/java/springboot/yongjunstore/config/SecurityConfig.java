@@ -58,6 +58,8 @@ public class SecurityConfig {
                         .requestMatchers("/mail/**").access(new WebExpressionAuthorizationManager("hasRole('ROLE_MEMBER') or hasRole('ROLE_ADMIN')"))
                         .requestMatchers("/member/**").access(new WebExpressionAuthorizationManager("hasRole('ROLE_MEMBER') or hasRole('ROLE_ADMIN')"))
                         .requestMatchers("/room-post/create*").access(new WebExpressionAuthorizationManager("hasRole('ROLE_MEMBER') or hasRole('ROLE_ADMIN')"))
+                        .requestMatchers("/room-post/create-jobs/**").access(new WebExpressionAuthorizationManager("hasRole('ROLE_MEMBER') or hasRole('ROLE_ADMIN')"))
+                        .requestMatchers("/room-post/uploads/**").access(new WebExpressionAuthorizationManager("hasRole('ROLE_MEMBER') or hasRole('ROLE_ADMIN')"))
                         .requestMatchers("/room-post/soft-delete/*").access(new WebExpressionAuthorizationManager("hasRole('ROLE_MEMBER') or hasRole('ROLE_ADMIN')"))
                         .requestMatchers("/chat-room/**").access(new WebExpressionAuthorizationManager("hasRole('ROLE_MEMBER') or hasRole('ROLE_ADMIN')"))
                         .requestMatchers("/h2-console/*").access(new WebExpressionAuthorizationManager("hasRole('ROLE_ADMIN')"))
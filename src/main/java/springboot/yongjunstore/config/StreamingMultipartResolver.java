@@ -0,0 +1,248 @@
+package springboot.yongjunstore.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileItemStream;
+import org.apache.tomcat.util.http.fileupload.FileUpload;
+import org.apache.tomcat.util.http.fileupload.impl.SizeLimitExceededException;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletRequestContext;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.support.DefaultMultipartHttpServletRequest;
+import springboot.yongjunstore.common.upload.ImageUploadStream;
+import springboot.yongjunstore.common.upload.StreamedMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// multipart 요청을 스트림으로 읽으면서 검사하는 resolver (기본 StandardServletMultipartResolver 대체)
+// 기본 resolver 는 tomcat 이 요청 전체를 임시 폴더에 저장한 뒤에야 검사할 수 있으므로,
+// 파일 part 는 앞부분(magic byte)으로 이미지인지 먼저 확인하고 크기 제한을 넘는 순간 읽기를 중단
+@Slf4j
+@Component("multipartResolver")
+@RequiredArgsConstructor
+public class StreamingMultipartResolver implements MultipartResolver {
+
+    // JSON 등 파일이 아닌 part 의 최대 크기
+    private static final int MAX_DATA_PART_SIZE = 1024 * 1024;
+
+    private static final String TEMP_FOLDER = "yongjun-upload";
+
+    private final MultipartProperties multipartProperties;
+
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        return StringUtils.startsWithIgnoreCase(request.getContentType(), "multipart/");
+    }
+
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+
+        MultiValueMap<String, MultipartFile> multipartFiles = new LinkedMultiValueMap<>();
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        Map<String, String> parameterContentTypes = new HashMap<>();
+
+        long maxRequestSize = toBytes(multipartProperties.getMaxRequestSize());
+
+        FileUpload fileUpload = new FileUpload();
+        fileUpload.setSizeMax(maxRequestSize == Long.MAX_VALUE ? -1 : maxRequestSize);
+
+        try {
+            FileItemIterator iterator = fileUpload.getItemIterator(new ServletRequestContext(request));
+
+            while (iterator.hasNext()) {
+                FileItemStream item = iterator.next();
+                String fieldName = item.getFieldName();
+
+                if (item.isFormField()) {
+                    String value = new String(readDataPart(item), charset(request));
+
+                    parameters.merge(fieldName, new String[]{value}, this::concat);
+
+                    if (item.getContentType() != null) {
+                        parameterContentTypes.put(fieldName, item.getContentType());
+                    }
+
+                } else if (isDataPart(item.getContentType())) {
+                    // 브라우저가 Blob 으로 보낸 JSON part (@RequestPart) 는 파일 이름이 있어도 이미지 검사 대상이 아님
+                    multipartFiles.add(fieldName,
+                            StreamedMultipartFile.ofBytes(fieldName, item.getName(), item.getContentType(), readDataPart(item)));
+
+                } else if (StringUtils.hasText(item.getName())) {
+                    multipartFiles.add(fieldName, storeImagePart(item));
+                }
+            }
+
+        } catch (RuntimeException e) {
+            deleteAll(multipartFiles);
+            throw e;
+
+        } catch (Exception e) {
+            deleteAll(multipartFiles);
+
+            // 요청 전체 크기 제한 초과
+            if (hasCause(e, SizeLimitExceededException.class)) {
+                throw new MaxUploadSizeExceededException(maxRequestSize, e);
+            }
+
+            throw new MultipartException("multipart 요청을 읽지 못했습니다.", e);
+        }
+
+        return new DefaultMultipartHttpServletRequest(request, multipartFiles, parameters, parameterContentTypes);
+    }
+
+
+    @Override
+    public void cleanupMultipart(MultipartHttpServletRequest request) {
+        deleteAll(request.getMultiFileMap());
+    }
+
+
+    // 이미지 형식이 아니면 앞부분만 읽고 중단, 크기 제한을 넘으면 그 자리에서 중단하고 임시 파일 삭제
+    private StreamedMultipartFile storeImagePart(FileItemStream item) throws IOException {
+
+        long maxFileSize = toBytes(multipartProperties.getMaxFileSize());
+
+        try (ImageUploadStream imageStream = new ImageUploadStream(item.openStream(), maxFileSize)) {
+
+            Path tempFile = Files.createTempFile(tempFolder(), "upload-", ".part");
+
+            try {
+                Files.copy(imageStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+
+            // Content-Type 은 클라이언트 값 대신 실제 내용으로 판별한 값 사용
+            return StreamedMultipartFile.ofFile(item.getFieldName(), item.getName(),
+                    imageStream.getSignature().getContentType(), tempFile);
+        }
+    }
+
+
+    private byte[] readDataPart(FileItemStream item) throws IOException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+
+        try (InputStream inputStream = item.openStream()) {
+
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+
+                if (outputStream.size() > MAX_DATA_PART_SIZE) {
+                    throw new MaxUploadSizeExceededException(MAX_DATA_PART_SIZE);
+                }
+            }
+        }
+
+        return outputStream.toByteArray();
+    }
+
+
+    private boolean isDataPart(String contentType) {
+
+        if (contentType == null) {
+            return false;
+        }
+
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+
+            return MediaType.APPLICATION_JSON.includes(mediaType) || "text".equals(mediaType.getType());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+
+    private Path tempFolder() throws IOException {
+
+        String location = multipartProperties.getLocation();
+
+        Path folder = StringUtils.hasText(location)
+                ? Paths.get(location)
+                : Paths.get(System.getProperty("java.io.tmpdir"), TEMP_FOLDER);
+
+        return Files.createDirectories(folder);
+    }
+
+
+    private Charset charset(HttpServletRequest request) {
+
+        String encoding = request.getCharacterEncoding();
+
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+
+    private String[] concat(String[] values, String[] added) {
+
+        String[] result = Arrays.copyOf(values, values.length + added.length);
+        System.arraycopy(added, 0, result, values.length, added.length);
+
+        return result;
+    }
+
+
+    private void deleteAll(MultiValueMap<String, MultipartFile> multipartFiles) {
+
+        for (List<MultipartFile> files : multipartFiles.values()) {
+            for (MultipartFile file : files) {
+                if (file instanceof StreamedMultipartFile streamedMultipartFile) {
+                    try {
+                        streamedMultipartFile.delete();
+                    } catch (IOException e) {
+                        log.warn("업로드 임시 파일 삭제 실패 : " + file.getOriginalFilename(), e);
+                    }
+                }
+            }
+        }
+    }
+
+
+    private boolean hasCause(Throwable throwable, Class<? extends Throwable> type) {
+
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    // 0 이하면 제한 없음
+    private long toBytes(DataSize dataSize) {
+        return dataSize != null && dataSize.toBytes() > 0 ? dataSize.toBytes() : Long.MAX_VALUE;
+    }
+}
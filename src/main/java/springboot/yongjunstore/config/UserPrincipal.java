@@ -1,19 +1,32 @@
 package springboot.yongjunstore.config;
 
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import springboot.yongjunstore.domain.Member;
 
+import java.util.Collection;
 import java.util.List;
 
+@Getter
 public class UserPrincipal extends User {
 
     // role : 역할 -> 관리자, 사용자, 매니저
     // authority : 권한 -> 글쓰기, 읽기, 사용자 정지 시키기
 
+    private final Long memberId;
+
     public UserPrincipal(Member member){
         super(member.getEmail(), member.getPassword(), List.of(
                 new SimpleGrantedAuthority("ROLE_"+member.getRole())
         ));
+        this.memberId = member.getId();
+    }
+
+    // accessToken 의 claims 로 생성 (비밀번호 없음)
+    public UserPrincipal(Long memberId, String email, Collection<? extends GrantedAuthority> authorities){
+        super(email, "", authorities);
+        this.memberId = memberId;
     }
 }
@@ -1,6 +1,7 @@
 package springboot.yongjunstore.config.filter;
 
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -26,10 +27,12 @@ public class JwtAuthenticationFilter extends GenericFilterBean {
         // 1. Request Header 에서 JWT 토큰 추출
         String accessToken = jwtProvider.resolveToken((HttpServletRequest) request);
 
-        // 2. validateToken 으로 토큰 유효성 검사
-        if (accessToken != null && jwtProvider.validateToken(accessToken)) {
-            // 토큰이 유효할 경우 토큰에서 Authentication 객체를 가지고 와서 SecurityContext 에 저장
-            Authentication authentication = jwtProvider.getAuthentication(accessToken);
+        // 2. verifyToken 으로 토큰 유효성 검사 (토큰은 한 번만 파싱, 이미 검증된 토큰은 저장된 Claims 사용)
+        if (accessToken != null) {
+            Claims claims = jwtProvider.verifyToken(accessToken);
+
+            // 토큰이 유효할 경우 Claims 에서 Authentication 객체를 가지고 와서 SecurityContext 에 저장
+            Authentication authentication = jwtProvider.getAuthentication(claims);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         chain.doFilter(request, response);
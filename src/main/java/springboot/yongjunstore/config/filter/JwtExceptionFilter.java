@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.filter.OncePerRequestFilter;
+import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
 import springboot.yongjunstore.common.exceptioncode.ErrorCodeResponse;
 import springboot.yongjunstore.config.service.RefreshTokenService;
@@ -71,7 +72,15 @@ public class JwtExceptionFilter extends OncePerRequestFilter {
 
     private void reissueAccessToken(HttpServletResponse response, String accessToken) throws RuntimeException, IOException {
 
-        JwtDto jwtDto = refreshTokenService.reissueAccessToken(accessToken);
+        JwtDto jwtDto;
+
+        try {
+            jwtDto = refreshTokenService.reissueAccessToken(accessToken);
+        } catch (GlobalException e) {
+            // 같은 토큰의 재발급을 기다리다 시간 초과
+            setResponse(response, e.getErrorCode());
+            return;
+        }
 
         response.setContentType("application/json;charset=UTF-8");
 
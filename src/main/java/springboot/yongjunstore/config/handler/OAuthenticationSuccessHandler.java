@@ -64,19 +64,18 @@ public class OAuthenticationSuccessHandler extends SimpleUrlAuthenticationSucces
                 .getAuthority(); // Role을 가져온다.
 
 
+        //회원이 존재하지 않을 경우 DB에 회원가입 시키고 토큰 발급 (토큰에 회원 id 를 넣기 위해 먼저 가입)
+        Member member = isExist
+                ? memberRepository.findByEmail(email).orElseThrow(() -> new GlobalException(ErrorCode.MEMBER_NOT_FOUND))
+                : googleSignup(oAuth2User);
+
         // jwt token 발행을 시작한다.
-        JwtDto token = jwtProvider.googleLoginGenerateToken(email, role);
+        JwtDto token = jwtProvider.googleLoginGenerateToken(member.getId(), email, role);
         log.info("jwtToken = {}", token.getAccessToken());
 
         response.setContentType("application/json;charset=UTF-8");
         response.setStatus(HttpStatus.OK.value());
 
-        //회원이 존재하지 않을 경우 DB에 회원가입 시키고 토큰 발급
-        if (!isExist) {
-
-            googleSignup(oAuth2User);
-        }
-
         // refreshToken 저장
         refreshTokenService.saveRefreshToken(token);
 
@@ -86,7 +85,7 @@ public class OAuthenticationSuccessHandler extends SimpleUrlAuthenticationSucces
 
 
     @Transactional
-    public void googleSignup(OAuth2User oAuth2User) {
+    public Member googleSignup(OAuth2User oAuth2User) {
 
         // ex). MEMBER
         String role = oAuth2User.getAuthorities().stream().
@@ -109,7 +108,7 @@ public class OAuthenticationSuccessHandler extends SimpleUrlAuthenticationSucces
                 .role(Role.valueOf(role))
                 .build();
 
-        memberRepository.save(member);
+        return memberRepository.save(member);
     }
 
 }
@@ -0,0 +1,118 @@
+package springboot.yongjunstore.config.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import springboot.yongjunstore.common.cache.LocalLruCache;
+import springboot.yongjunstore.domain.RefreshToken;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RefreshTokenRepository;
+
+import java.util.Optional;
+
+// local profile (Redis 없이 실행) 용 RefreshToken 테이블 저장소
+// 만료된 토큰은 재발급할 때 삭제
+// 재발급은 family / 세대 조건을 건 update 로 교체, 재발급 결과는 서버 메모리에 보관 (local 은 서버 하나 기준)
+@Slf4j
+@Component
+@Profile("local")
+@Transactional(readOnly = true)
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MemberRepository memberRepository;
+
+    // 회원 id:family:세대 -> 재발급 결과
+    private final LocalLruCache<String, JwtDto> reissued;
+
+    public JpaRefreshTokenStore(RefreshTokenRepository refreshTokenRepository, MemberRepository memberRepository,
+                                @Value("${custom.jwt.reissue.window-millis:10000}") long windowMillis,
+                                @Value("${custom.jwt.reissue.max-size:10000}") int maxSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.memberRepository = memberRepository;
+        this.reissued = new LocalLruCache<>(maxSize, windowMillis, () -> { });
+    }
+
+    @Override
+    @Transactional
+    public void save(RefreshTokenFamily refreshTokenFamily) {
+
+        Long memberId = refreshTokenFamily.getMemberId();
+
+        if (refreshTokenRepository.findByMemberId(memberId).isPresent()) {
+            refreshTokenRepository.updateRefreshToken(refreshTokenFamily.getRefreshToken(),
+                    refreshTokenFamily.getFamily(), refreshTokenFamily.getGeneration(), memberId);
+            return;
+        }
+
+        RefreshToken refreshToken = RefreshToken.builder()
+                .refreshToken(refreshTokenFamily.getRefreshToken())
+                .family(refreshTokenFamily.getFamily())
+                .generation(refreshTokenFamily.getGeneration())
+                .member(memberRepository.getReferenceById(memberId))
+                .build();
+
+        refreshTokenRepository.save(refreshToken);
+    }
+
+
+    @Override
+    public Optional<RefreshTokenFamily> find(Long memberId) {
+
+        return refreshTokenRepository.findByMemberId(memberId)
+                .map((refreshToken) -> RefreshTokenFamily.builder()
+                        .memberId(memberId)
+                        .family(refreshToken.getFamily())
+                        .generation(refreshToken.getGeneration())
+                        .refreshToken(refreshToken.getRefreshToken())
+                        .build());
+    }
+
+
+    @Override
+    @Transactional
+    public void delete(Long memberId) {
+        refreshTokenRepository.deleteByMemberId(memberId);
+    }
+
+
+    @Override
+    @Transactional
+    public JwtDto rotate(RefreshTokenFamily next, int generation, JwtDto jwtDto) {
+
+        Long memberId = next.getMemberId();
+        String key = memberId + ":" + next.getFamily() + ":" + generation;
+
+        JwtDto recent = reissued.get(key);
+
+        if (recent != null) {
+            return recent;
+        }
+
+        long rotated = refreshTokenRepository.rotateRefreshToken(next.getRefreshToken(), next.getFamily(),
+                generation, next.getGeneration(), memberId);
+
+        if (rotated > 0) {
+            reissued.put(key, jwtDto);
+            return jwtDto;
+        }
+
+        // 같은 family 의 다른 세대 : 이미 재발급에 사용된 accessToken
+        find(memberId)
+                .filter((stored) -> stored.getFamily().equals(next.getFamily()))
+                .ifPresent((stored) -> {
+                    log.warn("재발급에 사용된 accessToken 이 다시 사용되어 refreshToken family 를 폐기합니다. memberId : {}", memberId);
+                    refreshTokenRepository.deleteByMemberId(memberId);
+                });
+
+        return null;
+    }
+
+
+    @Override
+    public void clearReissued() {
+        reissued.clear();
+    }
+}
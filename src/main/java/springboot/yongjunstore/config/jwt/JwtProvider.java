@@ -4,7 +4,6 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,20 +17,27 @@ import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import springboot.yongjunstore.common.cache.LocalLruCache;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
 import springboot.yongjunstore.config.UserPrincipal;
-import springboot.yongjunstore.domain.Member;
-import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.service.cache.MemberSnapshot;
+import springboot.yongjunstore.service.cache.MemberSnapshotCache;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.stream.Collectors;
 
+// 검증이 끝난 accessToken 의 Claims 는 토큰 해시 기준으로 만료 시간(exp)까지 서버 메모리에 저장
+// 같은 토큰으로 다시 요청하면 서명 검증과 파싱 없이 저장된 Claims 사용
+// accessToken 에 회원 id (mid), provider, role 을 넣어서 요청마다 회원을 조회하지 않고 Authentication 생성
+// 로그인마다 새 refreshToken family (fam) 를 만들고, 재발급할 때마다 같은 family 의 세대 (gen) 를 올림
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtProvider {
 
-    private final MemberRepository memberRepository;
+    private final MemberSnapshotCache memberSnapshotCache;
 
     // 밀리세턴드 : 1초 == 1000L
     public static final long ACCESS_TIME = 3600000L;       // accessToken 1시간
@@ -40,51 +46,61 @@ public class JwtProvider {
     //public static final long ACCESS_TIME = 3000L;
     //public static final long REFRESH_TIME = 6000L;
 
-    // application custom secretKey
-    @Value("${custom.jwt.secretKey}")
-    private String secretKey;
+    // application custom secretKey 로 한 번만 만들어서 사용
+    private final SecretKey secretKey;
 
-    // secretKeyPlain Base64 변환
-    public SecretKey jwtSecretKey() {
+    private final JwtParser jwtParser;
+
+    // 토큰 SHA-256 (hex) -> 검증된 Claims
+    private final LocalLruCache<String, Claims> claimsCache;
+
+    public JwtProvider(MemberSnapshotCache memberSnapshotCache,
+                       @Value("${custom.jwt.secretKey}") String secretKey,
+                       @Value("${custom.jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize) {
+
+        this.memberSnapshotCache = memberSnapshotCache;
+
+        // secretKeyPlain Base64 변환
         String keyBase64Encoded = Base64.getEncoder().encodeToString(secretKey.getBytes());
-        return Keys.hmacShaKeyFor(keyBase64Encoded.getBytes());
+        this.secretKey = Keys.hmacShaKeyFor(keyBase64Encoded.getBytes());
+
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(this.secretKey).build();
+
+        // accessToken 유효 시간보다 오래 저장하지 않음
+        this.claimsCache = new LocalLruCache<>(claimsCacheMaxSize, ACCESS_TIME, () -> { });
     }
 
-    // 유저 정보를 가지고 AccessToken, RefreshToken 을 생성하는 메서드
+    public SecretKey jwtSecretKey() {
+        return secretKey;
+    }
+
+    // 유저 정보를 가지고 AccessToken, RefreshToken 을 생성하는 메서드 (로그인 : 새 family)
     public JwtDto generateToken(Authentication authentication) {
+        return generateToken(authentication, newFamily(), 0);
+    }
+
+    // 재발급 : 같은 family 의 다음 세대로 생성
+    public JwtDto generateToken(Authentication authentication, String family, int generation) {
 
         // Authentication 정보
         String authorities = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining());
-
-        long now = (new Date()).getTime();
+                .collect(Collectors.joining(","));
 
-        // AccessToken
-        Date accessTokenExpiresIn = new Date(now + ACCESS_TIME);
-
-        String accessToken = Jwts.builder()
-                .setSubject(authentication.getName())
-                .claim("role", authorities)
-                .setExpiration(accessTokenExpiresIn)
-                .signWith(jwtSecretKey(), SignatureAlgorithm.HS256)
-                .compact();
+        String provider = authentication instanceof OAuth2AuthenticationToken oAuth2AuthenticationToken
+                ? oAuth2AuthenticationToken.getAuthorizedClientRegistrationId()
+                : null;
 
-        // RefreshToken
-        String refreshToken = Jwts.builder()
-                .setExpiration(new Date(now + REFRESH_TIME))
-                .signWith(jwtSecretKey(), SignatureAlgorithm.HS256)
-                .compact();
-
-        return JwtDto.builder()
-                .grantType("Bearer")
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .build();
+        return createToken(getMemberId(authentication), authentication.getName(), authorities, provider, family, generation);
     }
 
     // 유저 정보를 가지고 AccessToken, RefreshToken 을 생성하는 메서드
-    public JwtDto googleLoginGenerateToken(String email, String role) {
+    public JwtDto googleLoginGenerateToken(Long memberId, String email, String role) {
+        return createToken(memberId, email, role, "google", newFamily(), 0);
+    }
+
+
+    private JwtDto createToken(Long memberId, String email, String role, String provider, String family, int generation) {
 
         long now = (new Date()).getTime();
 
@@ -93,7 +109,11 @@ public class JwtProvider {
 
         String accessToken = Jwts.builder()
                 .setSubject(String.valueOf(email))
+                .claim("mid", memberId)
+                .claim("provider", provider)
                 .claim("role", role)
+                .claim("fam", family)
+                .claim("gen", generation)
                 .setExpiration(accessTokenExpiresIn)
                 .signWith(jwtSecretKey(), SignatureAlgorithm.HS256)
                 .compact();
@@ -111,10 +131,37 @@ public class JwtProvider {
                 .build();
     }
 
+
+    // 로그인 (UserPrincipal) 또는 토큰으로 만든 Authentication 에서 회원 id 추출
+    public Long getMemberId(Authentication authentication) {
+
+        Object principal = authentication.getPrincipal();
+
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getMemberId();
+        }
+
+        if (principal instanceof OAuth2User oAuth2User && oAuth2User.getAttribute("memberId") instanceof Number memberId) {
+            return memberId.longValue();
+        }
+
+        return null;
+    }
+
+
+    private String newFamily() {
+        return UUID.randomUUID().toString();
+    }
+
+
     // 토큰을 복호화 후, 정보를 꺼내는 메서드
     public Authentication getAuthentication(String accessToken) {
         // 토큰 복호화
-        Claims claims = parseClaims(accessToken);
+        return getAuthentication(parseClaims(accessToken));
+    }
+
+    // 검증이 끝난 Claims 로 Authentication 생성
+    public Authentication getAuthentication(Claims claims) {
 
         if (claims.get("role") == null) {
             throw new RuntimeException("권한 정보가 없습니다.");
@@ -126,14 +173,29 @@ public class JwtProvider {
                         .map(SimpleGrantedAuthority::new)
                         .collect(Collectors.toList());
 
-        Member member = memberRepository.findByEmail((String) claims.get("sub"))
-                .orElseThrow(() -> new UsernameNotFoundException("해당 계정을 찾을 수 없습니다."));
+        String email = claims.getSubject();
+        Long memberId = claims.get("mid") instanceof Number mid ? mid.longValue() : null;
+        String provider = claims.get("provider", String.class);
+
+        if (memberId == null) {
+
+            // 회원 id 가 없는 이전 형식의 토큰은 회원 정보 캐시에서 조회
+            MemberSnapshot member = memberSnapshotCache.find(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("해당 계정을 찾을 수 없습니다."));
 
+            memberId = member.getId();
+            provider = member.getProvider();
 
-        if(member.getProvider() != null && member.getProvider().equals("google")){
+        } else if (memberSnapshotCache.isDeleted(memberId)) {
+            throw new UsernameNotFoundException("해당 계정을 찾을 수 없습니다.");
+        }
+
+
+        if("google".equals(provider)){
 
             Map<String, Object> attributes = new HashMap<>();
-            attributes.put("email", member.getEmail()); // 예시: 사용자의 이메일을 추가 정보로 설정
+            attributes.put("email", email); // 예시: 사용자의 이메일을 추가 정보로 설정
+            attributes.put("memberId", memberId);
 
             return new OAuth2AuthenticationToken(
                     new DefaultOAuth2User(authorities, attributes, "email"),
@@ -144,7 +206,7 @@ public class JwtProvider {
         }else {
 
             // UserDetails 객체를 만들어서 Authentication 리턴
-            UserDetails principal = new UserPrincipal(member);
+            UserDetails principal = new UserPrincipal(memberId, email, authorities);
             return new UsernamePasswordAuthenticationToken(principal, "", authorities);
         }
     }
@@ -161,9 +223,28 @@ public class JwtProvider {
 
     // 유효성, 만료 일자 검증
     public boolean validateToken(String jwtToken) {
+        verifyToken(jwtToken);
+        return true;
+    }
+
+
+    // 유효성, 만료 일자를 검증하고 Claims 반환 (검증된 토큰은 만료 시간까지 저장해서 다시 검증하지 않음)
+    public Claims verifyToken(String jwtToken) {
+
+        String tokenHash = tokenHash(jwtToken);
+
+        Claims cached = claimsCache.get(tokenHash);
+
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(jwtSecretKey()).build().parseClaimsJws(jwtToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(jwtToken).getBody();
+
+            cacheClaims(tokenHash, claims);
+
+            return claims;
         }
 
         catch (SignatureException e) {
@@ -190,7 +271,7 @@ public class JwtProvider {
 
     public boolean validateRefreshToken(String refreshToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(jwtSecretKey()).build().parseClaimsJws(refreshToken);
+            jwtParser.parseClaimsJws(refreshToken);
             return true;
         }
         catch (ExpiredJwtException e) {
@@ -199,13 +280,49 @@ public class JwtProvider {
         }
     }
 
-    private Claims parseClaims(String accessToken) {
+    // 만료된 토큰의 Claims 도 반환 (accessToken 재발급용)
+    public Claims parseClaims(String accessToken) {
+
+        Claims cached = claimsCache.get(tokenHash(accessToken));
+
+        if (cached != null) {
+            return cached;
+        }
+
         try {
-            return Jwts.parserBuilder().setSigningKey(jwtSecretKey()).build().parseClaimsJws(accessToken).getBody();
+            return jwtParser.parseClaimsJws(accessToken).getBody();
         } catch (ExpiredJwtException e) {
             return e.getClaims();
         }
     }
 
+
+    // 만료 시간(exp)까지만 저장, exp 가 없는 토큰은 저장하지 않음
+    private void cacheClaims(String tokenHash, Claims claims) {
+
+        Date expiration = claims.getExpiration();
+
+        if (expiration == null) {
+            return;
+        }
+
+        long ttlMillis = expiration.getTime() - System.currentTimeMillis();
+
+        if (ttlMillis > 0) {
+            claimsCache.put(tokenHash, claims, ttlMillis);
+        }
+    }
+
+
+    // 토큰 원문 대신 해시를 key 로 사용 (메모리에 토큰을 그대로 남기지 않음)
+    private String tokenHash(String jwtToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwtToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
 }
 
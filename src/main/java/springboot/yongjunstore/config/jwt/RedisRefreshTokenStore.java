@@ -0,0 +1,172 @@
+package springboot.yongjunstore.config.jwt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import springboot.yongjunstore.config.RedisUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+// refresh-token:member:{memberId} -> RefreshTokenFamily (JSON)
+// refreshToken 유효 시간 (REFRESH_TIME) 을 Redis TTL 로 설정해서 만료된 토큰은 따로 정리하지 않음
+// 재발급은 Lua script 로 family / 세대 확인, 교체, 결과 저장을 한 번에 실행 (여러 서버에서 동시에 재발급해도 하나만 교체)
+// refresh-token:reissued:{memberId}:{family}:{세대} -> 재발급 결과 (window 동안 유지, 늦게 도착한 같은 토큰의 요청은 이 결과를 받음)
+@Slf4j
+@Component
+@Profile("!local")
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String KEY_PREFIX = "refresh-token:member:";
+    private static final String REISSUED_KEY_PREFIX = "refresh-token:reissued:";
+
+    // KEYS : 회원의 family, 이번 세대의 재발급 결과
+    // ARGV : family, 세대, 다음 family (JSON), family TTL (ms), 재발급 결과 (JSON), 재발급 결과 TTL (ms)
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local reissued = redis.call('GET', KEYS[2])
+            if reissued then
+                return {'REISSUED', reissued}
+            end
+            local stored = redis.call('GET', KEYS[1])
+            if not stored then
+                return {'REJECTED'}
+            end
+            local family = cjson.decode(stored)
+            if family['family'] ~= ARGV[1] then
+                return {'REJECTED'}
+            end
+            if tonumber(family['generation']) ~= tonumber(ARGV[2]) then
+                redis.call('DEL', KEYS[1])
+                return {'REUSED'}
+            end
+            redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[4])
+            redis.call('SET', KEYS[2], ARGV[5], 'PX', ARGV[6])
+            return {'ROTATED'}
+            """, List.class);
+
+    private final RedisUtils redisUtils;
+    private final ObjectMapper objectMapper;
+
+    private final long windowMillis;
+
+    public RedisRefreshTokenStore(RedisUtils redisUtils, ObjectMapper objectMapper,
+                                  @Value("${custom.jwt.reissue.window-millis:10000}") long windowMillis) {
+        this.redisUtils = redisUtils;
+        this.objectMapper = objectMapper;
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public void save(RefreshTokenFamily refreshTokenFamily) {
+
+        try {
+            redisUtils.setDataExpire(KEY_PREFIX + refreshTokenFamily.getMemberId(),
+                    objectMapper.writeValueAsString(refreshTokenFamily), JwtProvider.REFRESH_TIME / 1000);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    // 역직렬화에 실패한 값은 없는 것으로 처리 (다시 로그인)
+    @Override
+    public Optional<RefreshTokenFamily> find(Long memberId) {
+
+        String json = redisUtils.getData(KEY_PREFIX + memberId);
+
+        if (json == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(objectMapper.readValue(json, RefreshTokenFamily.class));
+        } catch (JsonProcessingException e) {
+            log.warn("refreshToken 조회 실패 : {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+
+    @Override
+    public void delete(Long memberId) {
+        redisUtils.deleteData(KEY_PREFIX + memberId);
+    }
+
+
+    @Override
+    public JwtDto rotate(RefreshTokenFamily next, int generation, JwtDto jwtDto) {
+
+        String reissuedKey = REISSUED_KEY_PREFIX + next.getMemberId() + ":" + next.getFamily() + ":" + generation;
+
+        List<?> result;
+
+        try {
+            result = redisUtils.executeScript(ROTATE_SCRIPT,
+                    List.of(KEY_PREFIX + next.getMemberId(), reissuedKey),
+                    next.getFamily(),
+                    String.valueOf(generation),
+                    objectMapper.writeValueAsString(next),
+                    String.valueOf(JwtProvider.REFRESH_TIME),
+                    objectMapper.writeValueAsString(ReissuedToken.of(jwtDto)),
+                    String.valueOf(windowMillis));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        String status = String.valueOf(result.get(0));
+
+        switch (status) {
+            case "ROTATED":
+                return jwtDto;
+
+            case "REISSUED":
+                return toJwtDto(String.valueOf(result.get(1)));
+
+            case "REUSED":
+                log.warn("재발급에 사용된 accessToken 이 다시 사용되어 refreshToken family 를 폐기합니다. memberId : {}", next.getMemberId());
+                return null;
+
+            default:
+                return null;
+        }
+    }
+
+
+    @Override
+    public void clearReissued() {
+        redisUtils.deleteKeys(REISSUED_KEY_PREFIX + "*");
+    }
+
+
+    // 역직렬화에 실패하면 재발급하지 않음 (다시 로그인)
+    private JwtDto toJwtDto(String json) {
+
+        try {
+            ReissuedToken reissuedToken = objectMapper.readValue(json, ReissuedToken.class);
+
+            return JwtDto.builder()
+                    .grantType(reissuedToken.grantType())
+                    .accessToken(reissuedToken.accessToken())
+                    .refreshToken(reissuedToken.refreshToken())
+                    .build();
+
+        } catch (JsonProcessingException e) {
+            log.warn("재발급 결과 조회 실패 : {}", e.getMessage());
+            return null;
+        }
+    }
+
+
+    // JwtDto 는 refreshToken 을 JSON 에서 제외하므로 따로 저장
+    private record ReissuedToken(String grantType, String accessToken, String refreshToken) {
+
+        private static ReissuedToken of(JwtDto jwtDto) {
+            return new ReissuedToken(jwtDto.getGrantType(), jwtDto.getAccessToken(), jwtDto.getRefreshToken());
+        }
+    }
+}
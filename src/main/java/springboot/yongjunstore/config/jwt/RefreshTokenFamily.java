@@ -0,0 +1,27 @@
+package springboot.yongjunstore.config.jwt;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 회원의 현재 refreshToken
+// family : 로그인할 때마다 새로 만들어지는 id (재발급해도 유지)
+// generation : 재발급할 때마다 1 증가 (accessToken 의 gen 과 같아야 재발급 가능)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class RefreshTokenFamily {
+
+    private Long memberId;
+    private String family;
+    private int generation;
+    private String refreshToken;
+
+    @Builder
+    public RefreshTokenFamily(Long memberId, String family, int generation, String refreshToken) {
+        this.memberId = memberId;
+        this.family = family;
+        this.generation = generation;
+        this.refreshToken = refreshToken;
+    }
+}
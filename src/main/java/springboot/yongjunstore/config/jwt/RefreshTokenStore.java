@@ -0,0 +1,23 @@
+package springboot.yongjunstore.config.jwt;
+
+import java.util.Optional;
+
+// 회원 id 당 하나의 refreshToken family 저장소
+// 기본 : Redis (RedisRefreshTokenStore) , local profile : JPA (JpaRefreshTokenStore)
+public interface RefreshTokenStore {
+
+    // 회원의 이전 family 를 대체
+    void save(RefreshTokenFamily refreshTokenFamily);
+
+    Optional<RefreshTokenFamily> find(Long memberId);
+
+    // 재발급 : 저장된 family 와 세대가 (next 의 family, generation) 일 때만 next 로 교체하고 jwtDto 를 반환
+    // 같은 세대로 이미 재발급했으면 (다른 요청, 다른 서버) 잠시 동안 (window) 그때의 결과를 반환
+    // 다른 family 이거나 없으면 null, 이미 재발급에 사용된 세대면 family 를 폐기하고 null
+    JwtDto rotate(RefreshTokenFamily next, int generation, JwtDto jwtDto);
+
+    // 재발급 결과 기록 삭제
+    void clearReissued();
+
+    void delete(Long memberId);
+}
@@ -4,15 +4,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.UserPrincipal;
 import springboot.yongjunstore.config.jwt.JwtDto;
 import springboot.yongjunstore.config.jwt.JwtProvider;
 import springboot.yongjunstore.domain.Member;
@@ -29,29 +29,27 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AuthService {
 
-    private final AuthenticationManager authenticationManager;
     private final JwtProvider jwtProvider;
     private final MemberRepository memberRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashService passwordHashService;
     private final RefreshTokenService refreshTokenService;
 
 
-    @Transactional
+    // 비밀번호 비교를 기다리는 동안 DB 커넥션을 잡고 있지 않도록 트랜잭션 없이 실행
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public JwtDto login(MemberLoginRequest memberLoginDto) {
 
         Member member = memberRepository.findByEmail(memberLoginDto.getEmail())
                 .orElseThrow(() -> new GlobalException(ErrorCode.MEMBER_EMAIL_NOT_FOUND));
 
-        if(passwordEncoder.matches(memberLoginDto.getPassword(), member.getPassword()) == false){
+        // 비밀번호 해시 전용 스레드 풀에서 한 번만 비교 (요청이 많으면 429)
+        if(passwordHashService.matches(memberLoginDto.getPassword(), member.getPassword()) == false){
             throw new GlobalException(ErrorCode.MEMBER_PASSWORD_ERROR);
         }
 
-        // Login ID/PW 로 Authentication 객체 생성
-        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(memberLoginDto.getEmail(), memberLoginDto.getPassword());
-
-        // password 체크를 하고 권한 정보 확인
-        // authenticate 매서드가 실행될 때 userDetailsService 에서 UserPrincipal 반환
-        Authentication authentication = authenticationManager.authenticate(authenticationToken);
+        // 비밀번호 확인이 끝난 회원 정보로 Authentication 객체 생성
+        UserPrincipal principal = new UserPrincipal(member);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
 
         // 인증 정보로 JWT 토큰 생성
         JwtDto tokenDto = jwtProvider.generateToken(authentication);
@@ -71,7 +69,7 @@ public class AuthService {
             throw new GlobalException(ErrorCode.MEMBER_EMAIL_EXISTS);
         }
 
-        String password = passwordEncoder.encode(signUpRequest.getPassword());
+        String password = passwordHashService.encode(signUpRequest.getPassword());
 
         Member member = Member.builder()
                 .name(signUpRequest.getName())
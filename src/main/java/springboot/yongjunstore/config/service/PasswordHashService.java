@@ -0,0 +1,92 @@
+package springboot.yongjunstore.config.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// BCrypt 비교, 해시 생성을 passwordHashExecutor 에서 실행
+// 스레드와 큐가 모두 차 있거나 대기 시간을 넘으면 MEMBER_PASSWORD_TOO_MANY_REQUESTS (429) 로 바로 거절해서
+// 로그인이 몰려도 다른 API 의 요청 스레드와 CPU 를 모두 사용하지 않도록 함
+// 메트릭 : /actuator/metrics/auth.password_hash.rejected , auth.password_hash.queue
+@Service
+public class PasswordHashService {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashExecutor;
+    private final long timeoutMillis;
+    private final Counter rejected;
+
+    public PasswordHashService(BCryptPasswordEncoder passwordEncoder, ThreadPoolTaskExecutor passwordHashExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.password-hash.timeout-millis:3000}") long timeoutMillis) {
+
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.timeoutMillis = timeoutMillis;
+
+        this.rejected = Counter.builder("auth.password_hash.rejected")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.password_hash.queue", passwordHashExecutor,
+                        (executor) -> executor.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+    }
+
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+
+    private <T> T execute(Callable<T> task) {
+
+        Future<T> future;
+
+        try {
+            future = passwordHashExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new GlobalException(ErrorCode.MEMBER_PASSWORD_TOO_MANY_REQUESTS);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new GlobalException(ErrorCode.MEMBER_PASSWORD_TOO_MANY_REQUESTS);
+
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GlobalException(ErrorCode.MEMBER_PASSWORD_TOO_MANY_REQUESTS);
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -1,81 +1,113 @@
 package springboot.yongjunstore.config.service;
 
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.concurrent.SingleFlight;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
 import springboot.yongjunstore.config.jwt.JwtDto;
 import springboot.yongjunstore.config.jwt.JwtProvider;
-import springboot.yongjunstore.domain.Member;
-import springboot.yongjunstore.domain.RefreshToken;
-import springboot.yongjunstore.repository.MemberRepository;
-import springboot.yongjunstore.repository.RefreshTokenRepository;
+import springboot.yongjunstore.config.jwt.RefreshTokenFamily;
+import springboot.yongjunstore.config.jwt.RefreshTokenStore;
 
+import java.util.Objects;
 import java.util.Optional;
 
+// refreshToken 은 회원 id 로 RefreshTokenStore 에 저장 (로그인, 재발급 시 DB 를 사용하지 않음)
+// 재발급 조건 : accessToken 의 family (fam) 와 세대 (gen) 가 저장된 값과 같아야 함
+// 다른 family : 이후 다른 곳에서 다시 로그인한 경우 -> 거절
+// 이전 세대 : 이미 재발급에 사용된 accessToken 을 다시 사용한 경우 -> family 를 폐기해서 다시 로그인하도록 함
+// 같은 accessToken 으로 들어온 재발급 요청은 잠시 동안 (window) 같은 결과를 돌려줌
+// (만료된 accessToken 으로 보낸 병렬 요청들이 서로의 토큰을 덮어쓰거나 family 가 폐기되지 않도록)
+// 재발급 결과는 RefreshTokenStore (Redis) 에 보관하므로 다른 서버로 간 요청도 같은 결과를 받음
+// 같은 서버에 동시에 들어온 요청은 저장소 호출 전에 하나로 합침
+@Slf4j
 @Service
-@RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class RefreshTokenService {
 
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final MemberRepository memberRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final JwtProvider jwtProvider;
 
-    @Transactional
-    public void saveRefreshToken(JwtDto jwtDto) {
+    // 회원 id:family:세대 -> 재발급 중인 요청
+    private final SingleFlight<String, JwtDto> reissueFlight;
 
-        // 계정 존재 유무 getAuthentication에서 체크함
-        Authentication authentication = jwtProvider.getAuthentication(jwtDto.getAccessToken());
-        String email = authentication.getName();
+    public RefreshTokenService(RefreshTokenStore refreshTokenStore, JwtProvider jwtProvider,
+                               @Value("${custom.jwt.reissue.timeout-millis:3000}") long timeoutMillis) {
 
-        Member findMember = memberRepository.findByEmail(email)
-                .orElseThrow(() -> new GlobalException(ErrorCode.MEMBER_NOT_FOUND));
+        this.refreshTokenStore = refreshTokenStore;
+        this.jwtProvider = jwtProvider;
+        this.reissueFlight = new SingleFlight<>(timeoutMillis, ErrorCode.JWT_REISSUE_TIMEOUT);
+    }
 
-        Optional<RefreshToken> optionalRefreshToken = refreshTokenRepository.findByMember(findMember);
+    public void saveRefreshToken(JwtDto jwtDto) {
 
-        //RT 존재하지 않을 경우
-        if (optionalRefreshToken.isEmpty()) {
+        // 계정 존재 유무 getAuthentication에서 체크함
+        Claims claims = jwtProvider.parseClaims(jwtDto.getAccessToken());
+        Authentication authentication = jwtProvider.getAuthentication(claims);
 
-            RefreshToken refreshToken = RefreshToken.builder()
-                    .refreshToken(jwtDto.getRefreshToken())
-                    .member(findMember)
-                    .build();
+        RefreshTokenFamily refreshTokenFamily = RefreshTokenFamily.builder()
+                .memberId(jwtProvider.getMemberId(authentication))
+                .family(claims.get("fam", String.class))
+                .generation(generation(claims))
+                .refreshToken(jwtDto.getRefreshToken())
+                .build();
 
-            refreshTokenRepository.save(refreshToken);
-        }else {
-            // RT 존재하는 경우
-            refreshTokenRepository.updateRefreshToken(jwtDto.getRefreshToken(), findMember.getId());
-        }
+        refreshTokenStore.save(refreshTokenFamily);
     }
 
-    @Transactional
     public JwtDto reissueAccessToken(String accessToken){
 
-        Authentication authentication = jwtProvider.getAuthentication(accessToken);
-        String email = authentication.getName();
+        Claims claims = jwtProvider.parseClaims(accessToken);
+        Authentication authentication = jwtProvider.getAuthentication(claims);
+        Long memberId = jwtProvider.getMemberId(authentication);
 
-        Member findMember = memberRepository.findByEmail(email)
-                .orElseThrow(() -> new GlobalException(ErrorCode.MEMBER_NOT_FOUND));
+        String key = memberId + ":" + claims.get("fam", String.class) + ":" + generation(claims);
 
-        Optional<RefreshToken> optionalRefreshToken = refreshTokenRepository.findByMember(findMember);
+        return reissueFlight.execute(key, () -> rotate(claims, authentication, memberId));
+    }
 
 
-        if(jwtProvider.validateRefreshToken(optionalRefreshToken.get().getRefreshToken())) {
+    // 방금 재발급한 토큰 기록 삭제
+    public void clearReissued() {
+        refreshTokenStore.clearReissued();
+    }
 
-            JwtDto jwtDto = jwtProvider.generateToken(authentication);
 
-            //해당 이메일의 새로 발급 받은 RT로 update 해준다.
-            refreshTokenRepository.updateRefreshToken(jwtDto.getRefreshToken(), findMember.getId());
+    private JwtDto rotate(Claims claims, Authentication authentication, Long memberId) {
 
-            return jwtDto;
+        Optional<RefreshTokenFamily> optionalRefreshToken = refreshTokenStore.find(memberId);
+        String family = claims.get("fam", String.class);
 
-        } else {
-            // RT가 만료된 경우 DB에서 해당 유저의 RT를 삭제
-            refreshTokenRepository.delete(optionalRefreshToken.get());
+        // RT가 없거나 다른 로그인으로 대체된 경우
+        if (optionalRefreshToken.isEmpty() || !Objects.equals(optionalRefreshToken.get().getFamily(), family)) {
             return null;
         }
+
+        // RT가 만료된 경우 저장소에서 해당 유저의 RT를 삭제
+        if (!jwtProvider.validateRefreshToken(optionalRefreshToken.get().getRefreshToken())) {
+            refreshTokenStore.delete(memberId);
+            return null;
+        }
+
+        int generation = generation(claims);
+
+        JwtDto jwtDto = jwtProvider.generateToken(authentication, family, generation + 1);
+
+        // 저장된 세대가 accessToken 의 세대와 같을 때만 교체 (확인과 교체는 저장소에서 한 번에 실행)
+        // 이미 재발급된 세대면 그때의 결과, 재사용이면 family 폐기 후 null
+        return refreshTokenStore.rotate(RefreshTokenFamily.builder()
+                .memberId(memberId)
+                .family(family)
+                .generation(generation + 1)
+                .refreshToken(jwtDto.getRefreshToken())
+                .build(), generation, jwtDto);
+    }
+
+
+    // gen 이 없는 토큰은 첫 세대로 처리
+    private int generation(Claims claims) {
+        return claims.get("gen") instanceof Number generation ? generation.intValue() : 0;
     }
 }
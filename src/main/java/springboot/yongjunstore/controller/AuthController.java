@@ -38,7 +38,8 @@ public class AuthController {
     })
     @SwaggerErrorCodes({
             ErrorCode.MEMBER_PASSWORD_ERROR,
-            ErrorCode.MEMBER_EMAIL_NOT_FOUND
+            ErrorCode.MEMBER_EMAIL_NOT_FOUND,
+            ErrorCode.MEMBER_PASSWORD_TOO_MANY_REQUESTS
     })
     @PostMapping("/login")
     public JwtDto login(@RequestBody MemberLoginRequest memberLoginDto) {
@@ -49,7 +50,10 @@ public class AuthController {
 
     @Operation(summary = "일반 회원 가입", description = "일반 회원의 가입을 제공합니다.")
     @ApiResponses(@ApiResponse(responseCode = "200", description = "회원 가입 성공", content = @Content))
-    @SwaggerErrorCodes(ErrorCode.MEMBER_EMAIL_EXISTS)
+    @SwaggerErrorCodes({
+            ErrorCode.MEMBER_EMAIL_EXISTS,
+            ErrorCode.MEMBER_PASSWORD_TOO_MANY_REQUESTS
+    })
     @PostMapping("/signup")
     public ResponseEntity signup(@Valid @RequestBody SignUpRequest signUpRequest) {
 
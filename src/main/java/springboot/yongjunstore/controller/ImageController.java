@@ -0,0 +1,241 @@
+package springboot.yongjunstore.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import springboot.yongjunstore.common.annotation.SwaggerErrorCodes;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.service.image.LocalImageFile;
+import springboot.yongjunstore.service.image.LocalImageService;
+import springboot.yongjunstore.service.image.S3ImageCache;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@Tag(name = "ImageController", description = "로컬, S3 에 저장된 이미지 제공 관련 명세를 제공합니다.")
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/images")
+public class ImageController {
+
+    // tomcat 이 sendfile 로 직접 전송하도록 요청하는 attribute (커널에서 파일 -> 소켓 복사)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // 이름이 내용 기준인 파일은 1년 동안 다시 확인하지 않음
+    private static final CacheControl IMMUTABLE_CACHE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl DEFAULT_CACHE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
+    private final LocalImageService localImageService;
+    private final S3ImageCache s3ImageCache;
+
+
+    @Operation(summary = "로컬 이미지 조회", description = "로컬에 저장된 이미지를 제공합니다. Range(부분 요청), ETag(If-None-Match) 를 지원합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "이미지 조회 성공", content = @Content),
+            @ApiResponse(responseCode = "206", description = "이미지 부분 조회 성공", content = @Content),
+            @ApiResponse(responseCode = "304", description = "변경 없음 (캐시 사용)", content = @Content),
+            @ApiResponse(responseCode = "416", description = "요청한 범위가 파일 크기를 벗어남", content = @Content)
+    })
+    @SwaggerErrorCodes({
+            ErrorCode.IMAGE_FILE_NOT_FOUND
+    })
+    @GetMapping("/local/{*filePath}")
+    public void localImage(
+            @Parameter(description = "업로드 폴더 기준 이미지 경로", example = "/ab/cd/image.jpg")
+            @PathVariable("filePath") String filePath,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        serve(localImageService.find(filePath), request, response);
+    }
+
+
+    @Operation(summary = "S3 이미지 조회", description = "S3 에 저장된 이미지를 서버 디스크 캐시를 거쳐 제공합니다. Range(부분 요청), ETag(If-None-Match) 를 지원합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "이미지 조회 성공", content = @Content),
+            @ApiResponse(responseCode = "206", description = "이미지 부분 조회 성공", content = @Content),
+            @ApiResponse(responseCode = "304", description = "변경 없음 (캐시 사용)", content = @Content),
+            @ApiResponse(responseCode = "416", description = "요청한 범위가 파일 크기를 벗어남", content = @Content)
+    })
+    @SwaggerErrorCodes({
+            ErrorCode.IMAGE_FILE_NOT_FOUND,
+            ErrorCode.IMAGE_FILE_LOAD_TIMEOUT
+    })
+    @GetMapping("/s3/{*key}")
+    public void s3Image(
+            @Parameter(description = "S3 object key", example = "/image.jpg")
+            @PathVariable("key") String key,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        serve(s3ImageCache.find(key), request, response);
+    }
+
+
+    private void serve(LocalImageFile imageFile, HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        response.setHeader(HttpHeaders.ETAG, imageFile.getETag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                (imageFile.isImmutable() ? IMMUTABLE_CACHE : DEFAULT_CACHE).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // 브라우저가 내용을 보고 다른 형식 (html 등) 으로 해석하지 않도록
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        // 재방문 : 파일을 읽지 않고 304
+        if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), imageFile.getETag())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long size = imageFile.getSize();
+        long start = 0;
+        long end = size - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+
+        // If-Range 의 ETag 가 다르면 (파일이 바뀐 경우) 전체를 보냄
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(imageFile.getETag())) {
+            range = null;
+        }
+
+        if (range != null) {
+            long[] byteRange = parseRange(range, size);
+
+            // 여러 구간 요청 등 지원하지 않는 형식은 전체를 보냄
+            if (byteRange != null) {
+
+                if (byteRange.length == 0) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+
+                start = byteRange[0];
+                end = byteRange[1];
+
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+
+        response.setContentType(imageFile.getMediaType().toString());
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        // tomcat 이 sendfile 을 지원하면 응답 후 tomcat 이 직접 전송
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, imageFile.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        // sendfile 을 사용할 수 없으면 FileChannel.transferTo 로 필요한 구간만 전송
+        try (FileChannel fileChannel = FileChannel.open(imageFile.getPath(), StandardOpenOption.READ)) {
+
+            WritableByteChannel outputChannel = Channels.newChannel(response.getOutputStream());
+
+            long position = start;
+            long remaining = length;
+
+            while (remaining > 0) {
+                long transferred = fileChannel.transferTo(position, remaining, outputChannel);
+
+                if (transferred <= 0) {
+                    break;
+                }
+
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+
+    private boolean matchesETag(String ifNoneMatch, String eTag) {
+
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        // If-None-Match 는 weak 비교 (W/ 접두사 무시)
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map((value) -> value.startsWith("W/") ? value.substring(2) : value)
+                .anyMatch((value) -> value.equals("*") || value.equals(eTag));
+    }
+
+
+    // "bytes=start-end", "bytes=start-", "bytes=-suffix" 한 구간만 지원
+    // 지원하지 않는 형식이면 null, 파일 범위를 벗어나면 빈 배열
+    private long[] parseRange(String range, long size) {
+
+        if (!range.startsWith("bytes=") || range.contains(",")) {
+            return null;
+        }
+
+        String[] bounds = range.substring("bytes=".length()).trim().split("-", -1);
+
+        if (bounds.length != 2) {
+            return null;
+        }
+
+        try {
+            long start;
+            long end;
+
+            if (bounds[0].isEmpty()) {
+                // 마지막 n 바이트
+                long suffixLength = Long.parseLong(bounds[1]);
+
+                if (suffixLength <= 0) {
+                    return new long[0];
+                }
+
+                start = Math.max(0, size - suffixLength);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(bounds[0]);
+                end = bounds[1].isEmpty() ? size - 1 : Math.min(Long.parseLong(bounds[1]), size - 1);
+            }
+
+            if (start >= size || start > end) {
+                return new long[0];
+            }
+
+            return new long[]{start, end};
+
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -96,6 +96,7 @@ public class MemberController {
     @SwaggerErrorCodes({
             ErrorCode.MEMBER_NOT_FOUND,
             ErrorCode.MEMBER_PASSWORD_UNCHECKED,
+            ErrorCode.MEMBER_PASSWORD_TOO_MANY_REQUESTS,
             ErrorCode.SERVER_FORBIDDEN,
             ErrorCode.SERVER_UNAUTHORIZED
     })
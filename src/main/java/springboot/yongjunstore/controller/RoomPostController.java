@@ -11,21 +11,35 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import springboot.yongjunstore.common.annotation.SwaggerErrorCodes;
+import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.jwt.JwtProvider;
+import springboot.yongjunstore.domain.room.ImageStorage;
 import springboot.yongjunstore.request.DeleteRoomPostRequest;
+import springboot.yongjunstore.request.RoomPostFilterRequest;
 import springboot.yongjunstore.request.RoomPostRequest;
+import springboot.yongjunstore.response.RoomPostCreateJobResponse;
+import springboot.yongjunstore.response.RoomPostCursorResponse;
+import springboot.yongjunstore.response.RoomPostFacetResponse;
 import springboot.yongjunstore.response.RoomPostResponse;
+import springboot.yongjunstore.response.RoomPostSummaryResponse;
 import springboot.yongjunstore.service.RoomPostService;
+import springboot.yongjunstore.service.job.RoomPostCreateJobService;
 
 import java.util.List;
+import java.util.Objects;
 
 @Tag(name = "RoomPostController", description = "글 조회, 생성 및 조작 관련 명세를 제공합니다.")
 @RestController
@@ -35,12 +49,19 @@ import java.util.List;
 public class RoomPostController {
 
     private final RoomPostService roomPostService;
+    private final RoomPostCreateJobService roomPostCreateJobService;
+    private final JwtProvider jwtProvider;
 
 
     @SecurityRequirement(name = "JWT")
-    @Operation(summary = "글 생성 (local)", description = "글 생성을 위해 local에 업로드할 파일을 포함한 요청을 제공합니다.")
+    @Operation(summary = "글 생성 (local)", description = "글 생성을 위해 local에 업로드할 파일을 포함한 요청을 제공합니다. " +
+            "async=true 이면 이미지 저장을 기다리지 않고 202 와 상태 조회 URL 을 응답합니다.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "글 생성 성공", content = @Content)
+            @ApiResponse(responseCode = "200", description = "글 생성 성공", content = @Content),
+            @ApiResponse(responseCode = "202", description = "글 생성 작업 접수 (async=true)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RoomPostCreateJobResponse.class))
+            )
     })
     @SwaggerErrorCodes({
             ErrorCode.MEMBER_NOT_FOUND,
@@ -51,14 +72,27 @@ public class RoomPostController {
             ErrorCode.SERVER_FORBIDDEN,
             ErrorCode.SERVER_UNAUTHORIZED,
             ErrorCode.IMAGE_FILE_MAX_UPLOAD_SIZE,
+            ErrorCode.IMAGE_FILE_SIGNATURE_MISMATCH,
+            ErrorCode.UPLOAD_SESSION_NOT_FOUND,
+            ErrorCode.UPLOAD_SESSION_INCOMPLETE,
+            ErrorCode.UPLOAD_SESSION_FORBIDDEN,
             ErrorCode.SERVER_FILE_SIZE_LIMIT
     })
     @PostMapping(value = "/create", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity roomPostCreate(
             @Parameter(description = "글 생성에 필요한 정보")
             @Valid @RequestPart(value = "roomPostRequest") RoomPostRequest roomPostRequest,
-            @Parameter(description = "업로드할 이미지 파일 목록")
-            @RequestPart(value = "uploadImages") List<MultipartFile> uploadImages){
+            @Parameter(description = "업로드할 이미지 파일 목록 (이어 올리기로 업로드한 경우 roomPostRequest.uploadIds 사용)")
+            @RequestPart(value = "uploadImages", required = false) List<MultipartFile> uploadImages,
+            @Parameter(description = "비동기 생성 여부 (true 이면 202 응답 후 상태 조회 URL 로 결과 확인)", example = "false")
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            @Parameter(hidden = true) Authentication authentication){
+
+        checkUploadOwner(roomPostRequest, authentication);
+
+        if (async) {
+            return createJobAccepted(roomPostCreateJobService.enqueue(roomPostRequest, uploadImages, ImageStorage.LOCAL));
+        }
 
         roomPostService.createRoom(roomPostRequest, uploadImages);
 
@@ -68,8 +102,15 @@ public class RoomPostController {
 
 
     @SecurityRequirement(name = "JWT")
-    @Operation(summary = "글 생성 (S3 사용)", description = "글 생성을 위해 S3에 업로드할 파일을 포함한 요청을 제공합니다.")
-    @ApiResponses(@ApiResponse(responseCode = "200", description = "글 생성 성공", content = @Content))
+    @Operation(summary = "글 생성 (S3 사용)", description = "글 생성을 위해 S3에 업로드할 파일을 포함한 요청을 제공합니다. " +
+            "async=true 이면 이미지 업로드를 기다리지 않고 202 와 상태 조회 URL 을 응답합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "글 생성 성공", content = @Content),
+            @ApiResponse(responseCode = "202", description = "글 생성 작업 접수 (async=true)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RoomPostCreateJobResponse.class))
+            )
+    })
     @SwaggerErrorCodes({
             ErrorCode.MEMBER_NOT_FOUND,
             ErrorCode.ROOM_POST_NOT_FOUND,
@@ -79,14 +120,27 @@ public class RoomPostController {
             ErrorCode.SERVER_FORBIDDEN,
             ErrorCode.SERVER_UNAUTHORIZED,
             ErrorCode.IMAGE_FILE_MAX_UPLOAD_SIZE,
+            ErrorCode.IMAGE_FILE_SIGNATURE_MISMATCH,
+            ErrorCode.UPLOAD_SESSION_NOT_FOUND,
+            ErrorCode.UPLOAD_SESSION_INCOMPLETE,
+            ErrorCode.UPLOAD_SESSION_FORBIDDEN,
             ErrorCode.SERVER_FILE_SIZE_LIMIT
     })
     @PostMapping(value = "/create-s3", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity roomPostCreateS3(
             @Parameter(description = "글 생성에 필요한 정보")
             @Valid @RequestPart(value = "roomPostRequest") RoomPostRequest roomPostRequest,
-            @Parameter(description = "업로드할 이미지 파일 목록")
-            @RequestPart(value = "uploadImages") List<MultipartFile> uploadImages){
+            @Parameter(description = "업로드할 이미지 파일 목록 (이어 올리기로 업로드한 경우 roomPostRequest.uploadIds 사용)")
+            @RequestPart(value = "uploadImages", required = false) List<MultipartFile> uploadImages,
+            @Parameter(description = "비동기 생성 여부 (true 이면 202 응답 후 상태 조회 URL 로 결과 확인)", example = "false")
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            @Parameter(hidden = true) Authentication authentication){
+
+        checkUploadOwner(roomPostRequest, authentication);
+
+        if (async) {
+            return createJobAccepted(roomPostCreateJobService.enqueue(roomPostRequest, uploadImages, ImageStorage.S3));
+        }
 
         roomPostService.createRoomS3(roomPostRequest, uploadImages);
 
@@ -95,6 +149,52 @@ public class RoomPostController {
 
 
 
+    @SecurityRequirement(name = "JWT")
+    @Operation(summary = "글 생성 작업 상태 조회", description = "비동기 글 생성 작업의 상태를 제공합니다. COMPLETED 이면 roomPostId 로 글을 조회할 수 있습니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "작업 상태 조회 성공",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RoomPostCreateJobResponse.class))
+            )
+    })
+    @SwaggerErrorCodes({
+            ErrorCode.ROOM_POST_CREATE_JOB_NOT_FOUND,
+            ErrorCode.SERVER_FORBIDDEN,
+            ErrorCode.SERVER_UNAUTHORIZED
+    })
+    @GetMapping("/create-jobs/{jobId}")
+    public ResponseEntity searchCreateJob(@PathVariable("jobId") String jobId){
+
+        RoomPostCreateJobResponse roomPostCreateJobResponse = roomPostCreateJobService.find(jobId);
+
+        return ResponseEntity.status(HttpStatus.OK).body(roomPostCreateJobResponse);
+    }
+
+
+    private ResponseEntity createJobAccepted(RoomPostCreateJobResponse roomPostCreateJobResponse){
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, roomPostCreateJobResponse.getStatusUrl())
+                .body(roomPostCreateJobResponse);
+    }
+
+
+    // 이어 올리기 업로드(uploadIds)는 로그인한 회원의 글에만 사용할 수 있음
+    // (업로드 세션의 회원과 비교하는 roomPostRequest.memberId 가 로그인한 회원과 같은지 먼저 확인)
+    private void checkUploadOwner(RoomPostRequest roomPostRequest, Authentication authentication){
+
+        if (roomPostRequest.getUploadIds() == null || roomPostRequest.getUploadIds().isEmpty()) {
+            return;
+        }
+
+        Long memberId = authentication == null ? null : jwtProvider.getMemberId(authentication);
+
+        if (!Objects.equals(memberId, roomPostRequest.getMemberId())) {
+            throw new GlobalException(ErrorCode.UPLOAD_SESSION_FORBIDDEN);
+        }
+    }
+
+
+
     @Operation(summary = "방 번호로 방찾기", description = "방 번호로 방을 찾는 기능을 제공합니다.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "해당 방 찾기 성공",
@@ -104,7 +204,8 @@ public class RoomPostController {
     })
     @SwaggerErrorCodes({
             ErrorCode.ROOM_POST_NOT_FOUND,
-            ErrorCode.IMAGE_FILE_NOT_FOUND
+            ErrorCode.IMAGE_FILE_NOT_FOUND,
+            ErrorCode.ROOM_POST_LOAD_TIMEOUT
     })
     @GetMapping("/posts/{roomPostId}")
     public ResponseEntity searchRoomPost(@PathVariable("roomPostId") Long roomPostId){
@@ -116,14 +217,22 @@ public class RoomPostController {
 
 
 
-    @Operation(summary = "방 목록 조회", description = "방 목록을 조회하는 기능을 제공합니다.")
+    @Operation(summary = "방 목록 조회", description = "방 목록을 조회하는 기능을 제공합니다. after 파라미터를 보내면 커서 방식으로, count=none 이면 전체 개수 없이 조회합니다. " +
+            "월세, 보증금, 평수 범위로 검색할 수 있고 sort 는 monthlyPrice, depositPrice, squareFootage, id 만 사용할 수 있습니다. (커서 방식은 항상 최신순) " +
+            "기본 응답은 목록 카드용 요약(view=summary)이며 view=full 이면 상세 정보를 포함합니다.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "방 목록 조회 성공",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Page.class, anyOf = RoomPostResponse.class))
+                            schema = @Schema(implementation = Page.class, anyOf = {RoomPostSummaryResponse.class, RoomPostResponse.class, RoomPostCursorResponse.class}))
             )
     })
-    @SwaggerErrorCodes(ErrorCode.ROOM_POST_SEARCH_OPTION_NOT_FOUND)
+    @SwaggerErrorCodes({
+            ErrorCode.ROOM_POST_SEARCH_OPTION_NOT_FOUND,
+            ErrorCode.ROOM_POST_INVALID_CURSOR,
+            ErrorCode.ROOM_POST_COUNT_OPTION_NOT_FOUND,
+            ErrorCode.ROOM_POST_SORT_NOT_FOUND,
+            ErrorCode.ROOM_POST_VIEW_OPTION_NOT_FOUND
+    })
     @GetMapping("/posts")
     public ResponseEntity searchRoomPostList(
             @Parameter(name = "searchOption", example = "title")
@@ -132,14 +241,106 @@ public class RoomPostController {
             @Parameter(name = "searchContent")
             @RequestParam(value = "searchContent", defaultValue = "", required = false) String searchContent,
 
+            @Parameter(name = "after", description = "커서 방식 조회. 첫 페이지는 빈 값, 이후에는 응답의 nextCursor 값")
+            @RequestParam(value = "after", required = false) String after,
+
+            @Parameter(name = "count", description = "전체 개수 조회 방식 (exact : 정확한 개수, approximate : 캐시된 근사값, none : 개수 없이 다음 페이지 여부만)", example = "exact")
+            @RequestParam(value = "count", defaultValue = "exact", required = false) String count,
+
+            @Parameter(name = "view", description = "응답 형태 (summary : 목록 카드용 요약, full : 상세 정보 포함)", example = "summary")
+            @RequestParam(value = "view", defaultValue = "summary", required = false) String view,
+
+            @ParameterObject @Valid @ModelAttribute RoomPostFilterRequest filter,
+
                                              Pageable pageable){
 
-        Page<RoomPostResponse> roomPostResponseList = roomPostService.searchRoomPostList(searchOption, searchContent, pageable);
+        if (view.equals("summary")) {
+            return searchRoomPostSummaryList(searchOption, searchContent, after, count, filter, pageable);
+        }
+
+        if (!view.equals("full")) {
+            throw new GlobalException(ErrorCode.ROOM_POST_VIEW_OPTION_NOT_FOUND);
+        }
+
+        // 무한 스크롤 : offset 없이 마지막 id 기준으로 조회
+        if (after != null) {
+            RoomPostCursorResponse<RoomPostResponse> roomPostCursorResponse =
+                    roomPostService.searchRoomPostListByCursor(searchOption, searchContent, filter, after, pageable.getPageSize());
+
+            return ResponseEntity.status(HttpStatus.OK).body(roomPostCursorResponse);
+        }
+
+        if (count.equals("none")) {
+            Slice<RoomPostResponse> roomPostResponseSlice = roomPostService.searchRoomPostSlice(searchOption, searchContent, filter, pageable);
+
+            return ResponseEntity.status(HttpStatus.OK).body(roomPostResponseSlice);
+        }
+
+        if (count.equals("approximate")) {
+            Page<RoomPostResponse> roomPostResponseList = roomPostService.searchRoomPostListWithApproximateCount(searchOption, searchContent, filter, pageable);
+
+            return ResponseEntity.status(HttpStatus.OK).body(roomPostResponseList);
+        }
+
+        if (!count.equals("exact")) {
+            throw new GlobalException(ErrorCode.ROOM_POST_COUNT_OPTION_NOT_FOUND);
+        }
+
+        Page<RoomPostResponse> roomPostResponseList = roomPostService.searchRoomPostList(searchOption, searchContent, filter, pageable);
 
         return ResponseEntity.status(HttpStatus.OK).body(roomPostResponseList);
     }
 
 
+    // 목록 카드용 요약 조회 (조회 방식은 full 과 동일)
+    private ResponseEntity searchRoomPostSummaryList(String searchOption, String searchContent, String after, String count,
+                                                     RoomPostFilterRequest filter, Pageable pageable){
+
+        if (after != null) {
+            RoomPostCursorResponse<RoomPostSummaryResponse> roomPostCursorResponse =
+                    roomPostService.searchRoomPostSummaryListByCursor(searchOption, searchContent, filter, after, pageable.getPageSize());
+
+            return ResponseEntity.status(HttpStatus.OK).body(roomPostCursorResponse);
+        }
+
+        if (count.equals("none")) {
+            Slice<RoomPostSummaryResponse> roomPostSummarySlice = roomPostService.searchRoomPostSummarySlice(searchOption, searchContent, filter, pageable);
+
+            return ResponseEntity.status(HttpStatus.OK).body(roomPostSummarySlice);
+        }
+
+        if (count.equals("approximate")) {
+            Page<RoomPostSummaryResponse> roomPostSummaryList = roomPostService.searchRoomPostSummaryListWithApproximateCount(searchOption, searchContent, filter, pageable);
+
+            return ResponseEntity.status(HttpStatus.OK).body(roomPostSummaryList);
+        }
+
+        if (!count.equals("exact")) {
+            throw new GlobalException(ErrorCode.ROOM_POST_COUNT_OPTION_NOT_FOUND);
+        }
+
+        Page<RoomPostSummaryResponse> roomPostSummaryList = roomPostService.searchRoomPostSummaryList(searchOption, searchContent, filter, pageable);
+
+        return ResponseEntity.status(HttpStatus.OK).body(roomPostSummaryList);
+    }
+
+
+    @Operation(summary = "방 목록 필터 개수 조회", description = "상태, 보증금 및 전세, 지역(시/구) 별 글 개수를 제공합니다. 각 항목의 개수는 나머지 조건만 적용한 개수입니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "필터 개수 조회 성공",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RoomPostFacetResponse.class))
+            )
+    })
+    @GetMapping("/posts/facets")
+    public ResponseEntity searchRoomPostFacets(@ParameterObject @ModelAttribute RoomPostFilterRequest filter){
+
+        RoomPostFacetResponse roomPostFacetResponse = roomPostService.getRoomPostFacets(filter);
+
+        return ResponseEntity.status(HttpStatus.OK).body(roomPostFacetResponse);
+    }
+
+
     @SecurityRequirement(name = "JWT")
     @Operation(summary = "글 삭제", description = "회원이 등록한 방을 삭제하는 기능을 제공합니다.")
     @ApiResponses(@ApiResponse(responseCode = "200", description = "글 삭제 성공", content = @Content))
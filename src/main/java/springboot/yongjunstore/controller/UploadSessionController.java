@@ -0,0 +1,165 @@
+package springboot.yongjunstore.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import springboot.yongjunstore.common.annotation.SwaggerErrorCodes;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.jwt.JwtProvider;
+import springboot.yongjunstore.request.UploadSessionRequest;
+import springboot.yongjunstore.response.UploadSessionResponse;
+import springboot.yongjunstore.service.image.UploadSessionService;
+
+import java.io.IOException;
+
+@Tag(name = "UploadSessionController", description = "이미지 이어 올리기(chunk) 업로드 관련 명세를 제공합니다.")
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/room-post/uploads")
+public class UploadSessionController {
+
+    private final UploadSessionService uploadSessionService;
+    private final JwtProvider jwtProvider;
+
+
+    @SecurityRequirement(name = "JWT")
+    @Operation(summary = "업로드 세션 생성", description = "이미지를 나눠서 올리기 위한 업로드 세션을 생성합니다. 응답의 uploadId 로 데이터를 전송합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "업로드 세션 생성 성공",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UploadSessionResponse.class))
+            )
+    })
+    @SwaggerErrorCodes({
+            ErrorCode.MEMBER_NOT_FOUND,
+            ErrorCode.IMAGE_FILE_MAX_UPLOAD_SIZE,
+            ErrorCode.IMAGE_FILE_NOT_UPLOAD,
+            ErrorCode.SERVER_FORBIDDEN,
+            ErrorCode.SERVER_UNAUTHORIZED
+    })
+    @PostMapping
+    public ResponseEntity createUploadSession(@Valid @RequestBody UploadSessionRequest uploadSessionRequest,
+                                              @Parameter(hidden = true) Authentication authentication){
+
+        UploadSessionResponse uploadSessionResponse = uploadSessionService.create(uploadSessionRequest, memberId(authentication));
+
+        return ResponseEntity.status(HttpStatus.OK).body(uploadSessionResponse);
+    }
+
+
+
+    @SecurityRequirement(name = "JWT")
+    @Operation(summary = "업로드 위치 조회", description = "지금까지 받은 크기(uploadedSize)를 제공합니다. 연결이 끊긴 경우 이 위치부터 이어서 전송합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "업로드 위치 조회 성공",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UploadSessionResponse.class))
+            )
+    })
+    @SwaggerErrorCodes({
+            ErrorCode.UPLOAD_SESSION_NOT_FOUND,
+            ErrorCode.UPLOAD_SESSION_FORBIDDEN,
+            ErrorCode.SERVER_FORBIDDEN,
+            ErrorCode.SERVER_UNAUTHORIZED
+    })
+    @GetMapping("/{uploadId}")
+    public ResponseEntity searchUploadSession(@PathVariable("uploadId") String uploadId,
+                                              @Parameter(hidden = true) Authentication authentication){
+
+        UploadSessionResponse uploadSessionResponse = uploadSessionService.find(uploadId, memberId(authentication));
+
+        return ResponseEntity.status(HttpStatus.OK).body(uploadSessionResponse);
+    }
+
+
+
+    @SecurityRequirement(name = "JWT")
+    @Operation(summary = "업로드 데이터 전송", description = "Content-Range(bytes start-end/total) 구간의 데이터를 전송합니다. start 는 uploadedSize 와 같아야 하며, 이미 받은 구간은 무시합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "데이터 전송 성공",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UploadSessionResponse.class))
+            )
+    })
+    @SwaggerErrorCodes({
+            ErrorCode.UPLOAD_SESSION_NOT_FOUND,
+            ErrorCode.UPLOAD_SESSION_FORBIDDEN,
+            ErrorCode.UPLOAD_SESSION_INVALID_RANGE,
+            ErrorCode.UPLOAD_SESSION_OFFSET_MISMATCH,
+            ErrorCode.IMAGE_FILE_NOT_UPLOAD,
+            ErrorCode.SERVER_FORBIDDEN,
+            ErrorCode.SERVER_UNAUTHORIZED
+    })
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity appendUploadSession(
+            @PathVariable("uploadId") String uploadId,
+            @Parameter(description = "전송하는 구간", example = "bytes 0-1048575/5242880")
+            @RequestHeader(value = HttpHeaders.CONTENT_RANGE, required = false) String contentRange,
+            @Parameter(hidden = true) Authentication authentication,
+            HttpServletRequest request) throws IOException {
+
+        UploadSessionResponse uploadSessionResponse =
+                uploadSessionService.append(uploadId, memberId(authentication), contentRange, request.getInputStream());
+
+        return ResponseEntity.status(HttpStatus.OK).body(uploadSessionResponse);
+    }
+
+
+
+    @SecurityRequirement(name = "JWT")
+    @Operation(summary = "업로드 완료", description = "모든 데이터를 받았는지 확인하고 이미지 형식을 검사합니다. 완료된 uploadId 는 글 생성 시 uploadIds 로 사용합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "업로드 완료",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UploadSessionResponse.class))
+            )
+    })
+    @SwaggerErrorCodes({
+            ErrorCode.UPLOAD_SESSION_NOT_FOUND,
+            ErrorCode.UPLOAD_SESSION_FORBIDDEN,
+            ErrorCode.UPLOAD_SESSION_INCOMPLETE,
+            ErrorCode.IMAGE_FILE_SIGNATURE_MISMATCH,
+            ErrorCode.IMAGE_FILE_NOT_UPLOAD,
+            ErrorCode.SERVER_FORBIDDEN,
+            ErrorCode.SERVER_UNAUTHORIZED
+    })
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity completeUploadSession(@PathVariable("uploadId") String uploadId,
+                                                @Parameter(hidden = true) Authentication authentication){
+
+        UploadSessionResponse uploadSessionResponse = uploadSessionService.complete(uploadId, memberId(authentication));
+
+        return ResponseEntity.status(HttpStatus.OK).body(uploadSessionResponse);
+    }
+
+
+
+    // 업로드 세션의 회원은 요청 값이 아닌 로그인한 회원 (UserPrincipal 또는 OAuth2 의 memberId)
+    private Long memberId(Authentication authentication) {
+
+        Long memberId = authentication == null ? null : jwtProvider.getMemberId(authentication);
+
+        if (memberId == null) {
+            throw new GlobalException(ErrorCode.SERVER_UNAUTHORIZED);
+        }
+
+        return memberId;
+    }
+}
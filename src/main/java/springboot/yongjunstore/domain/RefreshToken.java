@@ -19,13 +19,21 @@ public class RefreshToken extends BaseTimeEntity {
 
     private String refreshToken;
 
+    // 로그인마다 새로 만들어지는 refreshToken family id
+    private String family;
+
+    // family 안에서 재발급된 횟수
+    private int generation;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "member_id")
     private Member member;
 
     @Builder
-    public RefreshToken(String refreshToken, Member member) {
+    public RefreshToken(String refreshToken, String family, int generation, Member member) {
         this.refreshToken = refreshToken;
+        this.family = family;
+        this.generation = generation;
         this.member = member;
     }
 }
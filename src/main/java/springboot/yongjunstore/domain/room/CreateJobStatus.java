@@ -0,0 +1,6 @@
+package springboot.yongjunstore.domain.room;
+
+// 비동기 글 생성 작업 상태
+public enum CreateJobStatus {
+    PENDING, PROCESSING, COMPLETED, FAILED
+}
@@ -0,0 +1,51 @@
+package springboot.yongjunstore.domain.room;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import springboot.yongjunstore.domain.base.BaseTimeEntity;
+
+// 내용(SHA-256) 기준으로 한 번만 저장되는 이미지 원본
+// 같은 이미지를 다시 올리면 파일은 새로 저장하지 않고 Images 가 이 원본을 참조 (refCount 증가)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_image_blob_storage_content_hash", columnNames = {"storage", "content_hash"})
+})
+public class ImageBlob extends BaseTimeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "image_blob_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImageStorage storage; // 저장 위치 (local, S3)
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash; // 원본 내용의 SHA-256 (hex)
+
+    @Column(nullable = false)
+    private String storageKey; // S3 key 또는 업로드 폴더 기준 상대 경로
+
+    private String path; // Images.path 와 같은 값 (local : 폴더, S3 : bucket)
+
+    private String name; // Images.name 과 같은 값 (local : 파일 이름, S3 : URL)
+
+    @Column(nullable = false)
+    private long refCount; // 이 원본을 참조하는 Images 수
+
+    @Builder
+    public ImageBlob(ImageStorage storage, String contentHash, String storageKey, String path, String name) {
+        this.storage = storage;
+        this.contentHash = contentHash;
+        this.storageKey = storageKey;
+        this.path = path;
+        this.name = name;
+        this.refCount = 0L;
+    }
+}
@@ -0,0 +1,6 @@
+package springboot.yongjunstore.domain.room;
+
+// 이미지 원본이 저장된 위치
+public enum ImageStorage {
+    LOCAL, S3
+}
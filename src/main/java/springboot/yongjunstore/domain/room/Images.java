@@ -7,6 +7,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import springboot.yongjunstore.domain.base.BaseTimeEntity;
 
+import java.net.URI;
+
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -17,18 +19,103 @@ public class Images extends BaseTimeEntity {
     @Column(name = "images_id")
     private Long id;
 
-    private String name;
+    // 전체 URL 대신 저장소 안의 위치만 저장 (URL 은 조회 시 ImageUrlResolver 가 만듦)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private ImageStorage storage; // 저장 위치 (local, S3), 이전에 저장된 이미지는 backfill 전까지 null
+
+    private String name; // local : 파일 이름, S3 : object key
+
+    private String path; // local : 업로드 폴더 기준 폴더, S3 : null
+
+    private String thumbnailName; // 썸네일 (가로 200px)
 
-    private String path;
+    private String cardName; // 목록 카드용 (가로 480px)
+
+    private String detailName; // 상세 페이지용 (가로 1280px)
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "image_blob_id")
+    private ImageBlob imageBlob; // 내용 기준 원본 (중복 업로드 시 같은 원본을 참조)
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_post_id")
     private RoomPost roomPost;
 
     @Builder
-    public Images(String name, RoomPost roomPost, String path) {
+    public Images(ImageStorage storage, String name, RoomPost roomPost, String path, ImageBlob imageBlob) {
+        this.storage = storage;
         this.name = name;
         this.roomPost = roomPost;
         this.path = path;
+        this.imageBlob = imageBlob;
+    }
+
+    // 크기별 이미지 변환이 끝나면 기록 (변환 전에는 null 이므로 원본을 사용)
+    public void updateVariants(String thumbnailName, String cardName, String detailName) {
+        this.thumbnailName = thumbnailName;
+        this.cardName = cardName;
+        this.detailName = detailName;
+    }
+
+    // 이전에 저장된 이미지를 저장소 위치 형식으로 변환
+    // S3 : name, 크기별 이미지 이름에 저장된 전체 URL -> object key, path(bucket) -> null
+    public void backfillStorage(){
+
+        if (name != null && (name.startsWith("http://") || name.startsWith("https://"))) {
+            String bucket = path;
+
+            this.storage = ImageStorage.S3;
+            this.name = objectKey(name, bucket);
+            this.path = null;
+            this.thumbnailName = objectKey(thumbnailName, bucket);
+            this.cardName = objectKey(cardName, bucket);
+            this.detailName = objectKey(detailName, bucket);
+        } else {
+            this.storage = ImageStorage.LOCAL;
+        }
+    }
+
+    // virtual-hosted : https://{bucket}.s3.{region}.amazonaws.com/{key}
+    // path-style     : https://s3.{region}.amazonaws.com/{bucket}/{key} (bucket 이름에 . 이 있는 경우 등)
+    // path-style 이면 경로 앞의 {bucket}/ 을 제거
+    static String objectKey(String url, String bucket){
+
+        if (url == null || !(url.startsWith("http://") || url.startsWith("https://"))) {
+            return url;
+        }
+
+        try {
+            URI uri = URI.create(url);
+
+            String host = uri.getHost() == null ? "" : uri.getHost();
+            String key = uri.getPath() == null ? "" : uri.getPath();
+
+            if (key.startsWith("/")) {
+                key = key.substring(1);
+            }
+
+            if (bucket != null && !bucket.isEmpty()) {
+                // host 가 bucket 으로 시작하면 virtual-hosted (bucket 이 key 에 포함되지 않음)
+                return !host.startsWith(bucket + ".") && key.startsWith(bucket + "/")
+                        ? key.substring(bucket.length() + 1)
+                        : key;
+            }
+
+            // bucket 을 모르는 경우 S3 기본 host 이면 첫 경로를 bucket 으로 봄
+            if (isPathStyleHost(host) && key.indexOf('/') > 0) {
+                return key.substring(key.indexOf('/') + 1);
+            }
+
+            return key;
+
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    // s3.amazonaws.com , s3.{region}.amazonaws.com , s3-{region}.amazonaws.com
+    private static boolean isPathStyleHost(String host){
+        return host.endsWith(".amazonaws.com") && (host.startsWith("s3.") || host.startsWith("s3-"));
     }
 }
@@ -15,6 +15,12 @@ import java.util.List;
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = {
+        // 범위 검색 + 정렬 (room_status 조건과 함께 사용)
+        @Index(name = "idx_room_post_status_monthly_price", columnList = "room_status, monthly_price_amount"),
+        @Index(name = "idx_room_post_status_deposit_price", columnList = "room_status, deposit, deposit_price_amount"),
+        @Index(name = "idx_room_post_status_square_footage", columnList = "room_status, square_footage_amount")
+})
 public class RoomPost extends BaseTimeEntity {
 
     @Id
@@ -27,16 +33,22 @@ public class RoomPost extends BaseTimeEntity {
 
     private String monthlyPrice; // 방 월세
 
+    private Long monthlyPriceAmount; // 방 월세 (숫자, 범위 검색 및 정렬용)
+
     @Enumerated(EnumType.STRING)
     private Deposit deposit; // 보증금 및 전세
 
     private String depositPrice; // 보증금 및 전세 가격
 
+    private Long depositPriceAmount; // 보증금 및 전세 가격 (숫자, 범위 검색 및 정렬용)
+
     @NotNull
     private String roomOwner; // 방 주인
 
     private String squareFootage; // 방 평수(면적)
 
+    private Integer squareFootageAmount; // 방 평수 (숫자, 범위 검색 및 정렬용)
+
     @Lob
     @Column(columnDefinition = "TEXT")
     private String content; // 글 내용
@@ -75,6 +87,31 @@ public class RoomPost extends BaseTimeEntity {
         this.roomStatus = roomStatus;
         this.member = member;
         this.imagesList = imagesList;
+        backfillAmounts();
+    }
+
+    // 문자열 가격, 평수를 숫자 컬럼에 반영 (숫자가 아닌 값은 null)
+    public void backfillAmounts(){
+        this.monthlyPriceAmount = parseAmount(monthlyPrice);
+        this.depositPriceAmount = parseAmount(depositPrice);
+
+        Long squareFootage = parseAmount(this.squareFootage);
+        this.squareFootageAmount = squareFootage != null && squareFootage <= Integer.MAX_VALUE ? squareFootage.intValue() : null;
+    }
+
+    private static Long parseAmount(String value){
+
+        if (value == null) {
+            return null;
+        }
+
+        String digits = value.replace(",", "").trim();
+
+        if (digits.isEmpty() || digits.length() > 18 || !digits.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+
+        return Long.parseLong(digits);
     }
 
     public void addMember(Member member){
@@ -0,0 +1,69 @@
+package springboot.yongjunstore.domain.room;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import springboot.yongjunstore.domain.base.BaseTimeEntity;
+
+// 비동기 글 생성 작업 (DB 에 저장되는 작업 큐)
+// 요청 시 PENDING 으로 저장하고, 작업자가 이미지 저장과 글 저장을 마치면 COMPLETED (roomPostId 기록)
+// 서버가 재시작되어도 작업이 유실되지 않음
+// 상태 변경은 RoomPostCreateJobRepository 의 조건부 update 로만 실행 (처리 권한을 가진 작업자만 변경)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = {
+        // 작업자가 대기 중인 작업을 오래된 순으로 조회
+        @Index(name = "idx_room_post_create_job_status", columnList = "status, room_post_create_job_id")
+})
+public class RoomPostCreateJob extends BaseTimeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "room_post_create_job_id")
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String jobId; // 상태 조회에 사용하는 작업 id (UUID)
+
+    @Column(nullable = false)
+    private Long memberId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImageStorage storage; // 이미지 저장 위치 (local, S3)
+
+    @Lob
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String request; // 글 생성 요청 (RoomPostRequest JSON)
+
+    @Lob
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String images; // 임시 폴더에 옮겨 둔 이미지의 파일 이름, Content-Type (JSON)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CreateJobStatus status;
+
+    @Column(nullable = false)
+    private int attempts; // 처리 시도 횟수
+
+    private Long roomPostId; // 완료 시 생성된 글 id
+
+    private String errorCode; // 실패 시 ErrorCode.code
+
+    private String errorMessage;
+
+    @Builder
+    public RoomPostCreateJob(String jobId, Long memberId, ImageStorage storage, String request, String images) {
+        this.jobId = jobId;
+        this.memberId = memberId;
+        this.storage = storage;
+        this.request = request;
+        this.images = images;
+        this.status = CreateJobStatus.PENDING;
+        this.attempts = 0;
+    }
+}
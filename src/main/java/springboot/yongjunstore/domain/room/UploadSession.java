@@ -0,0 +1,57 @@
+package springboot.yongjunstore.domain.room;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import springboot.yongjunstore.domain.base.BaseTimeEntity;
+
+// 이미지를 여러 번에 나눠 올리는 업로드 세션
+// 받은 데이터는 업로드 폴더의 임시 파일에 쌓고, 어디까지 받았는지(uploadedSize)를 기록해서 끊긴 위치부터 이어 올림
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UploadSession extends BaseTimeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "upload_session_id")
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String uploadId; // 클라이언트에 제공하는 업로드 id (UUID)
+
+    @Column(nullable = false)
+    private Long memberId; // 업로드한 회원 (글 생성 시 같은 회원만 사용 가능)
+
+    @Column(nullable = false)
+    private String fileName; // 원본 파일 이름
+
+    @Column(nullable = false)
+    private long totalSize; // 전체 크기
+
+    @Column(nullable = false)
+    private long uploadedSize; // 지금까지 받은 크기 (다음 chunk 의 시작 위치)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UploadStatus status;
+
+    private String contentType; // 완료 시 실제 내용으로 판별한 형식
+
+    @Builder
+    public UploadSession(String uploadId, Long memberId, String fileName, long totalSize) {
+        this.uploadId = uploadId;
+        this.memberId = memberId;
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+        this.uploadedSize = 0L;
+        this.status = UploadStatus.UPLOADING;
+    }
+
+    public void complete(String contentType) {
+        this.contentType = contentType;
+        this.status = UploadStatus.COMPLETED;
+    }
+}
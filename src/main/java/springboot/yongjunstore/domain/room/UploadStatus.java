@@ -0,0 +1,6 @@
+package springboot.yongjunstore.domain.room;
+
+// 이어 올리기(chunk) 업로드 상태
+public enum UploadStatus {
+    UPLOADING, COMPLETED
+}
@@ -0,0 +1,56 @@
+package springboot.yongjunstore.repository;
+
+import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import springboot.yongjunstore.domain.room.ImageBlob;
+import springboot.yongjunstore.domain.room.ImageStorage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, Long> {
+
+    Optional<ImageBlob> findByStorageAndContentHash(ImageStorage storage, String contentHash);
+
+    // 삭제 중 (refCount -1) 이 아닌 원본
+    @Query("select b from ImageBlob b where b.storage = :storage and b.contentHash = :contentHash and b.refCount >= 0")
+    Optional<ImageBlob> findRegistered(@Param("storage") ImageStorage storage, @Param("contentHash") String contentHash);
+
+    // 저장소 정리용 : 이미 등록된 원본의 해시
+    @Query("select b.contentHash from ImageBlob b where b.storage = :storage and b.contentHash in :contentHashes")
+    List<String> findContentHashes(@Param("storage") ImageStorage storage, @Param("contentHashes") Collection<String> contentHashes);
+
+    // 저장소 정리용 : lastImageBlobId 이후부터 참조가 없거나 삭제 중이고 cutoff 이전에 등록된 원본
+    @Query("select b from ImageBlob b where b.id > :lastImageBlobId and b.refCount <= 0 and b.createAt <= :cutoff order by b.id asc")
+    List<ImageBlob> findUnreferenced(@Param("lastImageBlobId") Long lastImageBlobId, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // 동시에 같은 원본을 참조해도 참조 수가 유실되지 않도록 DB 에서 증가 (삭제 중인 원본은 제외)
+    @Modifying
+    @Query("update ImageBlob b set b.refCount = b.refCount + 1 where b.id = :imageBlobId and b.refCount >= 0")
+    int incrementRefCount(@Param("imageBlobId") Long imageBlobId);
+
+    @Modifying
+    @Query("update ImageBlob b set b.refCount = b.refCount - :count where b.id = :imageBlobId and b.refCount >= :count")
+    int decrementRefCount(@Param("imageBlobId") Long imageBlobId, @Param("count") long count);
+
+    // 참조하는 Images 가 없는 경우에만 삭제
+    @Modifying
+    @Query("delete from ImageBlob b where b.id = :imageBlobId and b.refCount = 0")
+    int deleteUnreferenced(@Param("imageBlobId") Long imageBlobId);
+
+    // 참조하는 Images 가 없는 경우에만 삭제 중 (refCount -1) 으로 표시 (이미 삭제 중인 원본 포함)
+    @Modifying
+    @Query("update ImageBlob b set b.refCount = -1 where b.id = :imageBlobId and b.refCount <= 0")
+    int markDeleting(@Param("imageBlobId") Long imageBlobId);
+
+    @Modifying
+    @Query("delete from ImageBlob b where b.id = :imageBlobId and b.refCount = -1")
+    int deleteMarked(@Param("imageBlobId") Long imageBlobId);
+}
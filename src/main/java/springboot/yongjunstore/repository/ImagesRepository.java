@@ -1,20 +1,45 @@
 package springboot.yongjunstore.repository;
 
 import org.hibernate.annotations.Where;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.stereotype.Repository;
 import springboot.yongjunstore.domain.room.Images;
+import springboot.yongjunstore.domain.room.RoomStatus;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ImagesRepository extends JpaRepository<Images, Long> {
 
     List<Images> findByRoomPostId(Long roomPostId);
 
+    // 목록 조회 시 여러 글의 이미지를 IN 쿼리 한 번으로 조회
+    List<Images> findByRoomPostIdIn(Collection<Long> roomPostIds);
+
+    // 같은 원본으로 크기별 변환이 끝난 이미지
+    Optional<Images> findFirstByImageBlobIdAndThumbnailNameIsNotNull(Long imageBlobId);
+
+    // 회원 삭제 시 함께 삭제되는 이미지가 참조하는 원본 (원본 참조 수 감소용)
+    @Query("select i.imageBlob.id from Images i where i.roomPost.member.id = :memberId and i.imageBlob is not null")
+    List<Long> findImageBlobIdsByMemberId(@Param("memberId") Long memberId);
+
+    // 저장 위치 backfill 용 : lastImagesId 이후부터 저장 위치가 비어 있는 이미지 (이전 형식으로 저장된 이미지)
+    @Query("select i from Images i where i.id > :lastImagesId and i.storage is null order by i.id asc")
+    List<Images> findStorageBackfillTargets(@Param("lastImagesId") Long lastImagesId, Pageable pageable);
+
+    // 저장소 정리용 : cutoff 이전에 종료된 글의 이미지 (원본을 참조하는 이미지만)
+    @Query("select i from Images i join i.roomPost rp" +
+            " where rp.roomStatus = :roomStatus and rp.updateAt <= :cutoff and i.imageBlob is not null" +
+            " order by i.id asc")
+    List<Images> findByTerminatedRoomPost(@Param("roomStatus") RoomStatus roomStatus, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
     @Modifying
     @Query("DELETE FROM Images i WHERE i.roomPost.id = :roomPostId")
     void deleteImagesByRoomPostId(@Param("roomPostId") Long roomPostId);
@@ -17,4 +17,8 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
 
     RefreshToken findByRefreshToken(String refreshToken);
 
+    Optional<RefreshToken> findByMemberId(Long memberId);
+
+    void deleteByMemberId(Long memberId);
+
 }
@@ -0,0 +1,75 @@
+package springboot.yongjunstore.repository;
+
+import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import springboot.yongjunstore.domain.room.CreateJobStatus;
+import springboot.yongjunstore.domain.room.RoomPostCreateJob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RoomPostCreateJobRepository extends JpaRepository<RoomPostCreateJob, Long> {
+
+    Optional<RoomPostCreateJob> findByJobId(String jobId);
+
+    List<RoomPostCreateJob> findByStatusOrderByIdAsc(CreateJobStatus status, Pageable pageable);
+
+    // 대기 중인 작업만 처리 중으로 변경 (서버가 여러 대여도 한 작업은 한 곳에서만 처리)
+    // 조회한 attempts 와 같을 때만 변경하고 1 증가 -> 증가한 attempts 가 이번 작업자의 처리 권한
+    @Modifying
+    @Query("update RoomPostCreateJob j set j.status = :to, j.attempts = j.attempts + 1, j.updateAt = :now " +
+            "where j.id = :roomPostCreateJobId and j.status = :from and j.attempts = :attempts")
+    int claim(@Param("roomPostCreateJobId") Long roomPostCreateJobId,
+              @Param("from") CreateJobStatus from,
+              @Param("to") CreateJobStatus to,
+              @Param("attempts") int attempts,
+              @Param("now") LocalDateTime now);
+
+    // 아래 변경은 작업을 가져간 작업자 (claimedAttempts) 가 아직 처리 중일 때만 적용
+    // (멈춘 작업으로 판단되어 다른 작업자가 다시 가져간 경우 이전 작업자의 변경은 무시)
+    @Modifying
+    @Query("update RoomPostCreateJob j set j.status = :to, j.roomPostId = :roomPostId, j.updateAt = :now " +
+            "where j.id = :roomPostCreateJobId and j.status = :from and j.attempts = :claimedAttempts")
+    int complete(@Param("roomPostCreateJobId") Long roomPostCreateJobId,
+                 @Param("roomPostId") Long roomPostId,
+                 @Param("from") CreateJobStatus from,
+                 @Param("to") CreateJobStatus to,
+                 @Param("claimedAttempts") int claimedAttempts,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update RoomPostCreateJob j set j.status = :to, j.errorCode = :errorCode, j.errorMessage = :errorMessage, j.updateAt = :now " +
+            "where j.id = :roomPostCreateJobId and j.status = :from and j.attempts = :claimedAttempts")
+    int fail(@Param("roomPostCreateJobId") Long roomPostCreateJobId,
+             @Param("errorCode") String errorCode,
+             @Param("errorMessage") String errorMessage,
+             @Param("from") CreateJobStatus from,
+             @Param("to") CreateJobStatus to,
+             @Param("claimedAttempts") int claimedAttempts,
+             @Param("now") LocalDateTime now);
+
+    // 일시적인 오류는 다시 대기 상태로
+    @Modifying
+    @Query("update RoomPostCreateJob j set j.status = :to, j.updateAt = :now " +
+            "where j.id = :roomPostCreateJobId and j.status = :from and j.attempts = :claimedAttempts")
+    int retry(@Param("roomPostCreateJobId") Long roomPostCreateJobId,
+              @Param("from") CreateJobStatus from,
+              @Param("to") CreateJobStatus to,
+              @Param("claimedAttempts") int claimedAttempts,
+              @Param("now") LocalDateTime now);
+
+    // 처리 중에 서버가 종료되어 오래 멈춘 작업을 다시 대기 상태로
+    @Modifying
+    @Query("update RoomPostCreateJob j set j.status = :to, j.updateAt = :now " +
+            "where j.status = :from and j.updateAt < :staleBefore")
+    int resetStale(@Param("from") CreateJobStatus from,
+                   @Param("to") CreateJobStatus to,
+                   @Param("staleBefore") LocalDateTime staleBefore,
+                   @Param("now") LocalDateTime now);
+}
@@ -1,6 +1,7 @@
 package springboot.yongjunstore.repository;
 
 import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,8 @@ import org.springframework.stereotype.Repository;
 import springboot.yongjunstore.domain.room.RoomPost;
 import springboot.yongjunstore.repository.custom.RoomPostRepositoryCustom;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,8 +19,15 @@ public interface RoomPostRepository extends JpaRepository<RoomPost, Long>, RoomP
     @Query("select rp from RoomPost rp where rp.id = :roomPostId")
     Optional<RoomPost> findById(@Param("roomPostId") Long roomPostId);
 
+    // 종료 시간을 updateAt 에 기록 (bulk update 는 auditing 이 동작하지 않음, 종료된 글의 이미지 정리 기준)
     @Modifying
-    @Query("update RoomPost rp set rp.roomStatus = '종료' WHERE rp.id = :roomPostId")
-    void deleteByRoomPostId(@Param("roomPostId") Long roomPostId);
+    @Query("update RoomPost rp set rp.roomStatus = '종료', rp.updateAt = :now WHERE rp.id = :roomPostId")
+    void deleteByRoomPostId(@Param("roomPostId") Long roomPostId, @Param("now") LocalDateTime now);
+
+    // 숫자 컬럼이 추가되기 전에 저장된 글 (가격, 평수 숫자 컬럼이 모두 비어 있는 글)
+    @Query("select rp from RoomPost rp where rp.id > :lastRoomPostId" +
+            " and rp.monthlyPriceAmount is null and rp.depositPriceAmount is null and rp.squareFootageAmount is null" +
+            " order by rp.id asc")
+    List<RoomPost> findAmountBackfillTargets(@Param("lastRoomPostId") Long lastRoomPostId, Pageable pageable);
 
 }
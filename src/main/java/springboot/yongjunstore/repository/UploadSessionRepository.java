@@ -0,0 +1,31 @@
+package springboot.yongjunstore.repository;
+
+import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import springboot.yongjunstore.domain.room.UploadSession;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, Long> {
+
+    Optional<UploadSession> findByUploadId(String uploadId);
+
+    List<UploadSession> findByUploadIdIn(List<String> uploadIds);
+
+    List<UploadSession> findTop100ByUpdateAtBefore(LocalDateTime updateAt);
+
+    // 받은 위치가 그대로인 경우에만 증가 (같은 위치에 동시에 보낸 chunk 는 하나만 반영)
+    @Modifying
+    @Query("update UploadSession s set s.uploadedSize = :uploadedSize, s.updateAt = :now " +
+            "where s.id = :uploadSessionId and s.uploadedSize = :offset")
+    int advance(@Param("uploadSessionId") Long uploadSessionId,
+                @Param("offset") long offset,
+                @Param("uploadedSize") long uploadedSize,
+                @Param("now") LocalDateTime now);
+}
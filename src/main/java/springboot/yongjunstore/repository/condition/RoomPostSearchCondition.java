@@ -0,0 +1,62 @@
+package springboot.yongjunstore.repository.condition;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomStatus;
+
+import java.util.List;
+
+@Getter
+@ToString
+public class RoomPostSearchCondition {
+
+    private String searchOption; // 검색 옵션 (email, titleContent, title, address)
+
+    private String searchContent; // 검색 내용
+
+    // 인메모리 인덱스가 걸러낸 후보 id (null 이면 후보 제한 없이 DB 에서 검색)
+    private List<Long> candidateIds;
+
+    // 인덱스에 반영된 마지막 id (이후에 저장된 글은 후보와 상관없이 DB 에서 검색)
+    private Long indexedRoomPostId;
+
+    // facet 인덱스(상태, 보증금/전세, 지역)가 걸러낸 후보 id 와 인덱스에 반영된 마지막 id
+    private List<Long> facetCandidateIds;
+    private Long facetIndexedRoomPostId;
+
+    // 필터 및 범위 검색 (null 이면 조건 없음)
+    private RoomStatus roomStatus;
+    private String region;
+    private Deposit deposit;
+    private Long minMonthlyPrice;
+    private Long maxMonthlyPrice;
+    private Long minDepositPrice;
+    private Long maxDepositPrice;
+    private Integer minSquareFootage;
+    private Integer maxSquareFootage;
+
+    @Builder(toBuilder = true)
+    public RoomPostSearchCondition(String searchOption, String searchContent, List<Long> candidateIds, Long indexedRoomPostId,
+                                   List<Long> facetCandidateIds, Long facetIndexedRoomPostId,
+                                   RoomStatus roomStatus, String region, Deposit deposit, Long minMonthlyPrice, Long maxMonthlyPrice,
+                                   Long minDepositPrice, Long maxDepositPrice,
+                                   Integer minSquareFootage, Integer maxSquareFootage) {
+        this.searchOption = searchOption;
+        this.searchContent = searchContent;
+        this.candidateIds = candidateIds;
+        this.indexedRoomPostId = indexedRoomPostId;
+        this.facetCandidateIds = facetCandidateIds;
+        this.facetIndexedRoomPostId = facetIndexedRoomPostId;
+        this.roomStatus = roomStatus;
+        this.region = region;
+        this.deposit = deposit;
+        this.minMonthlyPrice = minMonthlyPrice;
+        this.maxMonthlyPrice = maxMonthlyPrice;
+        this.minDepositPrice = minDepositPrice;
+        this.maxDepositPrice = maxDepositPrice;
+        this.minSquareFootage = minSquareFootage;
+        this.maxSquareFootage = maxSquareFootage;
+    }
+}
@@ -4,6 +4,9 @@ import springboot.yongjunstore.domain.Member;
 
 public interface RefreshTokenRepositoryCustom {
 
-    void updateRefreshToken(String token, Long memberId);
+    void updateRefreshToken(String token, String family, int generation, Long memberId);
+
+    // family 와 세대가 같을 때만 다음 세대로 교체 (교체한 행 수)
+    long rotateRefreshToken(String token, String family, int generation, int nextGeneration, Long memberId);
 
 }
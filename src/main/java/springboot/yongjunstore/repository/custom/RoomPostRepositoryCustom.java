@@ -3,12 +3,43 @@ package springboot.yongjunstore.repository.custom;
 import org.hibernate.annotations.Where;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.repository.condition.RoomPostSearchCondition;
+import springboot.yongjunstore.repository.dto.RoomPostFacetDocument;
+import springboot.yongjunstore.repository.dto.RoomPostSearchDocument;
+import springboot.yongjunstore.response.RoomPostSummaryResponse;
+
+import java.util.List;
 
 public interface RoomPostRepositoryCustom {
 
     RoomPost SelectRoomPostPosts(Long roomPostId);
 
-    Page<RoomPost> searchRoomPostList(String searchOption, String searchContent, Pageable pageable);
+    Page<RoomPost> searchRoomPostList(RoomPostSearchCondition condition, Pageable pageable);
+
+    // 목록 카드용 : 필요한 컬럼과 첫 번째 이미지만 조회
+    Page<RoomPostSummaryResponse> searchRoomPostSummaryList(RoomPostSearchCondition condition, Pageable pageable);
+
+    // count 쿼리 없이 pageSize + 1 개를 조회해서 다음 페이지 존재 여부만 계산
+    Slice<RoomPost> searchRoomPostSlice(RoomPostSearchCondition condition, Pageable pageable);
+
+    Slice<RoomPostSummaryResponse> searchRoomPostSummarySlice(RoomPostSearchCondition condition, Pageable pageable);
+
+    long countRoomPostList(RoomPostSearchCondition condition);
+
+    // cursorId 보다 작은 id 부터 최대 size + 1 개 조회 (마지막 1개는 다음 페이지 존재 여부 확인용)
+    List<RoomPost> searchRoomPostListByCursor(RoomPostSearchCondition condition, Long cursorId, int size);
+
+    List<RoomPostSummaryResponse> searchRoomPostSummaryListByCursor(RoomPostSearchCondition condition, Long cursorId, int size);
+
+    // 검색 인덱스 생성용 : 종료되지 않은 글을 lastRoomPostId 이후부터 id 순으로 size 개 조회
+    List<RoomPostSearchDocument> findSearchDocuments(Long lastRoomPostId, int size);
+
+    // facet 인덱스 생성용 : 종료되지 않은 글을 lastRoomPostId 이후부터 id 순으로 size 개 조회
+    List<RoomPostFacetDocument> findFacetDocuments(Long lastRoomPostId, int size);
+
+    // id Bloom filter 생성용 : 상태와 상관없이 lastRoomPostId 이후의 id 를 순서대로 size 개 조회
+    List<Long> findRoomPostIds(Long lastRoomPostId, int size);
 
 }
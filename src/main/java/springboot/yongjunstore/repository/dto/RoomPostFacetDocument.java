@@ -0,0 +1,27 @@
+package springboot.yongjunstore.repository.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomStatus;
+
+// facet 인덱스 생성에 필요한 컬럼만 조회하는 projection
+@Getter
+@ToString
+public class RoomPostFacetDocument {
+
+    private Long id;
+
+    private RoomStatus roomStatus;
+
+    private Deposit deposit;
+
+    private String address;
+
+    public RoomPostFacetDocument(Long id, RoomStatus roomStatus, Deposit deposit, String address) {
+        this.id = id;
+        this.roomStatus = roomStatus;
+        this.deposit = deposit;
+        this.address = address;
+    }
+}
@@ -0,0 +1,25 @@
+package springboot.yongjunstore.repository.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+// 검색 인덱스 생성에 필요한 컬럼만 조회하는 projection
+@Getter
+@ToString
+public class RoomPostSearchDocument {
+
+    private Long id;
+
+    private String title;
+
+    private String content;
+
+    private String address;
+
+    public RoomPostSearchDocument(Long id, String title, String content, String address) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.address = address;
+    }
+}
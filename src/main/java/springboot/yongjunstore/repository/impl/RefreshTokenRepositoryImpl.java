@@ -17,12 +17,28 @@ public class RefreshTokenRepositoryImpl implements RefreshTokenRepositoryCustom
 
     @Override
     @Transactional
-    public void updateRefreshToken(String token, Long memberId){
+    public void updateRefreshToken(String token, String family, int generation, Long memberId){
 
         jpaQueryFactory
                 .update(refreshToken1)
                 .set(refreshToken1.refreshToken, token)
+                .set(refreshToken1.family, family)
+                .set(refreshToken1.generation, generation)
                 .where(refreshToken1.member.id.eq(memberId))
                 .execute();
     }
+
+    @Override
+    @Transactional
+    public long rotateRefreshToken(String token, String family, int generation, int nextGeneration, Long memberId){
+
+        return jpaQueryFactory
+                .update(refreshToken1)
+                .set(refreshToken1.refreshToken, token)
+                .set(refreshToken1.generation, nextGeneration)
+                .where(refreshToken1.member.id.eq(memberId),
+                        refreshToken1.family.eq(family),
+                        refreshToken1.generation.eq(generation))
+                .execute();
+    }
 }
@@ -1,22 +1,37 @@
 package springboot.yongjunstore.repository.impl;
 
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.QImages;
 import springboot.yongjunstore.domain.room.RoomPost;
 import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.condition.RoomPostSearchCondition;
+import springboot.yongjunstore.repository.dto.RoomPostFacetDocument;
+import springboot.yongjunstore.repository.dto.RoomPostSearchDocument;
 import springboot.yongjunstore.repository.custom.RoomPostRepositoryCustom;
+import springboot.yongjunstore.response.RoomPostSummaryResponse;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import static springboot.yongjunstore.domain.QMember.member;
 import static springboot.yongjunstore.domain.room.QRoomPost.roomPost;
@@ -24,6 +39,9 @@ import static springboot.yongjunstore.domain.room.QRoomPost.roomPost;
 @RequiredArgsConstructor
 public class RoomPostRepositoryImpl implements RoomPostRepositoryCustom {
 
+    // 목록에서 보여줄 주소 길이
+    private static final int ADDRESS_PREFIX_LENGTH = 20;
+
     private final JPAQueryFactory jpaQueryFactory;
 
     @Override
@@ -39,31 +57,298 @@ public class RoomPostRepositoryImpl implements RoomPostRepositoryCustom {
 
 
     @Override
-    public Page<RoomPost> searchRoomPostList(String searchOption, String searchContent, Pageable pageable){
+    public Page<RoomPost> searchRoomPostList(RoomPostSearchCondition condition, Pageable pageable){
+
+        List<Long> roomPostIds = searchIds(condition, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+
+        List<RoomPost> roomPostList = fetchRoomPosts(roomPostIds, pageable.getSort());
+
+        return PageableExecutionUtils.getPage(roomPostList, pageable, countQuery(condition)::fetchOne);
+    }
+
+
+    @Override
+    public Page<RoomPostSummaryResponse> searchRoomPostSummaryList(RoomPostSearchCondition condition, Pageable pageable){
+
+        List<Long> roomPostIds = searchIds(condition, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+
+        List<RoomPostSummaryResponse> summaries = fetchSummaries(roomPostIds, pageable.getSort());
+
+        return PageableExecutionUtils.getPage(summaries, pageable, countQuery(condition)::fetchOne);
+    }
+
+
+    @Override
+    public Slice<RoomPost> searchRoomPostSlice(RoomPostSearchCondition condition, Pageable pageable){
+        return toSlice(condition, pageable, (roomPostIds) -> fetchRoomPosts(roomPostIds, pageable.getSort()));
+    }
+
+
+    @Override
+    public Slice<RoomPostSummaryResponse> searchRoomPostSummarySlice(RoomPostSearchCondition condition, Pageable pageable){
+        return toSlice(condition, pageable, (roomPostIds) -> fetchSummaries(roomPostIds, pageable.getSort()));
+    }
+
+
+    @Override
+    public long countRoomPostList(RoomPostSearchCondition condition){
+
+        Long count = jpaQueryFactory
+                .select(roomPost.count())
+                .from(roomPost)
+                .where(searchCondition(condition))
+                .fetchOne();
+
+        return count != null ? count : 0L;
+    }
+
+
+    @Override
+    public List<RoomPost> searchRoomPostListByCursor(RoomPostSearchCondition condition, Long cursorId, int size){
+        return fetchRoomPosts(searchIdsByCursor(condition, cursorId, size), Sort.unsorted());
+    }
+
 
-        List<Long> roomPostIds = jpaQueryFactory
+    @Override
+    public List<RoomPostSummaryResponse> searchRoomPostSummaryListByCursor(RoomPostSearchCondition condition, Long cursorId, int size){
+        return fetchSummaries(searchIdsByCursor(condition, cursorId, size), Sort.unsorted());
+    }
+
+
+    // 1단계 : 조건에 맞는 id 만 조회 (정렬 + offset)
+    private List<Long> searchIds(RoomPostSearchCondition condition, Sort sort, long offset, int limit){
+
+        return jpaQueryFactory
+                .select(roomPost.id)
+                .from(roomPost)
+                .where(searchCondition(condition))
+                .orderBy(orderSpecifiers(sort))
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+
+    private List<Long> searchIdsByCursor(RoomPostSearchCondition condition, Long cursorId, int size){
+
+        // offset 없이 PK 인덱스를 cursorId 부터 역순으로 탐색 (seek)
+        return jpaQueryFactory
                 .select(roomPost.id)
                 .from(roomPost)
-                .where(containsSearch(searchOption, searchContent))
+                .where(searchCondition(condition), ltCursor(cursorId))
                 .orderBy(roomPost.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
+                .limit(size + 1)
                 .fetch();
+    }
+
 
-        List<RoomPost> roomPostList = jpaQueryFactory
+    // pageSize + 1 개의 id 를 조회해서 다음 페이지 존재 여부를 계산
+    private <T> Slice<T> toSlice(RoomPostSearchCondition condition, Pageable pageable, Function<List<Long>, List<T>> fetcher){
+
+        List<Long> roomPostIds = searchIds(condition, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+
+        // pageSize 보다 많이 조회되면 다음 페이지가 존재
+        boolean hasNext = roomPostIds.size() > pageable.getPageSize();
+
+        if (hasNext) {
+            roomPostIds = roomPostIds.subList(0, pageable.getPageSize());
+        }
+
+        return new SliceImpl<>(fetcher.apply(roomPostIds), pageable, hasNext);
+    }
+
+
+    // 2단계 : id 로 엔티티 조회, member 는 fetchJoin 으로 함께 조회 (글마다 member 를 추가 조회하지 않도록)
+    private List<RoomPost> fetchRoomPosts(List<Long> roomPostIds, Sort sort){
+
+        if (roomPostIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return jpaQueryFactory
                 .selectFrom(roomPost)
-                .join(roomPost.member, member)
+                .join(roomPost.member, member).fetchJoin()
+                .where(roomPost.id.in(roomPostIds))
+                .orderBy(orderSpecifiers(sort))
+                .fetch();
+    }
+
+
+    // 2단계 : 목록 카드에 필요한 컬럼만 조회 (content 는 조회하지 않고 address 는 앞부분만, 이미지는 첫 번째 1개)
+    private List<RoomPostSummaryResponse> fetchSummaries(List<Long> roomPostIds, Sort sort){
+
+        if (roomPostIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        QImages firstImages = new QImages("firstImages");
+
+        return jpaQueryFactory
+                .select(Projections.constructor(RoomPostSummaryResponse.class,
+                        roomPost.id,
+                        roomPost.title,
+                        roomPost.monthlyPrice,
+                        roomPost.deposit,
+                        roomPost.depositPrice,
+                        roomPost.squareFootage,
+                        roomPost.roomStatus,
+                        roomPost.address.substring(0, ADDRESS_PREFIX_LENGTH),
+                        // 첫 번째 이미지 ID (URL 은 서비스에서 ImageUrlResolver 로 만듦)
+                        JPAExpressions
+                                .select(firstImages.id.min())
+                                .from(firstImages)
+                                .where(firstImages.roomPost.id.eq(roomPost.id))))
+                .from(roomPost)
                 .where(roomPost.id.in(roomPostIds))
+                .orderBy(orderSpecifiers(sort))
                 .fetch();
+    }
 
-        JPAQuery<Long> count = jpaQueryFactory
+
+    private JPAQuery<Long> countQuery(RoomPostSearchCondition condition){
+
+        return jpaQueryFactory
                 .select(roomPost.count())
                 .from(roomPost)
                 .join(roomPost.member, member)
-                .where(containsSearch(searchOption, searchContent));
+                .where(searchCondition(condition));
+    }
+
+
+    @Override
+    public List<RoomPostSearchDocument> findSearchDocuments(Long lastRoomPostId, int size){
+
+        return jpaQueryFactory
+                .select(Projections.constructor(RoomPostSearchDocument.class,
+                        roomPost.id, roomPost.title, roomPost.content, roomPost.address))
+                .from(roomPost)
+                .where(roomPost.roomStatus.ne(RoomStatus.종료), roomPost.id.gt(lastRoomPostId))
+                .orderBy(roomPost.id.asc())
+                .limit(size)
+                .fetch();
+    }
+
+
+    @Override
+    public List<RoomPostFacetDocument> findFacetDocuments(Long lastRoomPostId, int size){
+
+        return jpaQueryFactory
+                .select(Projections.constructor(RoomPostFacetDocument.class,
+                        roomPost.id, roomPost.roomStatus, roomPost.deposit, roomPost.address))
+                .from(roomPost)
+                .where(roomPost.roomStatus.ne(RoomStatus.종료), roomPost.id.gt(lastRoomPostId))
+                .orderBy(roomPost.id.asc())
+                .limit(size)
+                .fetch();
+    }
+
+
+    @Override
+    public List<Long> findRoomPostIds(Long lastRoomPostId, int size){
+
+        return jpaQueryFactory
+                .select(roomPost.id)
+                .from(roomPost)
+                .where(roomPost.id.gt(lastRoomPostId))
+                .orderBy(roomPost.id.asc())
+                .limit(size)
+                .fetch();
+    }
+
+
+    private BooleanExpression searchCondition(RoomPostSearchCondition condition){
+        return containsSearch(condition.getSearchOption(), condition.getSearchContent())
+                .and(inCandidates(condition.getCandidateIds(), condition.getIndexedRoomPostId()))
+                .and(inCandidates(condition.getFacetCandidateIds(), condition.getFacetIndexedRoomPostId()))
+                .and(roomStatusEq(condition.getRoomStatus()))
+                .and(regionMatches(condition.getRegion()))
+                .and(depositEq(condition.getDeposit()))
+                .and(between(roomPost.monthlyPriceAmount, condition.getMinMonthlyPrice(), condition.getMaxMonthlyPrice()))
+                .and(between(roomPost.depositPriceAmount, condition.getMinDepositPrice(), condition.getMaxDepositPrice()))
+                .and(between(roomPost.squareFootageAmount, condition.getMinSquareFootage(), condition.getMaxSquareFootage()));
+    }
+
+
+    private BooleanExpression roomStatusEq(RoomStatus roomStatus){
+        return roomStatus != null ? roomPost.roomStatus.eq(roomStatus) : null;
+    }
+
+
+    // 지역(시/구) : 주소의 앞 단어가 지역과 같은 글 (RoomPostFacetIndex 의 지역 bitmap 과 같은 기준)
+    // region 은 RoomPostFacetIndex.normalizeRegion 으로 앞 두 단어까지만 남긴 값
+    // "서울시" 는 "서울시", "서울시 강남구 ..." 와 일치하고 "서울시강남구 ..." 와는 일치하지 않음
+    private BooleanExpression regionMatches(String region){
+        return StringUtils.hasText(region)
+                ? roomPost.address.eq(region).or(roomPost.address.startsWith(region + " "))
+                : null;
+    }
+
+
+    private BooleanExpression depositEq(Deposit deposit){
+        return deposit != null ? roomPost.deposit.eq(deposit) : null;
+    }
+
+
+    // min, max 중 없는 쪽은 조건 없음
+    private <T extends Number & Comparable<?>> BooleanExpression between(NumberPath<T> path, T min, T max){
+
+        BooleanExpression goe = min != null ? path.goe(min) : null;
+        BooleanExpression loe = max != null ? path.loe(max) : null;
+
+        if (goe == null) {
+            return loe;
+        }
+
+        return goe.and(loe);
+    }
+
+
+    // 허용된 정렬 키만 숫자 컬럼으로 정렬하고, 같은 값은 id 역순
+    // 정렬 키 : monthlyPrice, depositPrice, squareFootage, id
+    private OrderSpecifier<?>[] orderSpecifiers(Sort sort){
+
+        List<OrderSpecifier<?>> orderSpecifiers = new ArrayList<>();
+
+        for (Sort.Order order : sort != null ? sort : Sort.unsorted()) {
+            Order direction = order.isAscending() ? Order.ASC : Order.DESC;
+
+            switch (order.getProperty()) {
+                case "monthlyPrice" -> orderSpecifiers.add(new OrderSpecifier<>(direction, roomPost.monthlyPriceAmount).nullsLast());
+                case "depositPrice" -> orderSpecifiers.add(new OrderSpecifier<>(direction, roomPost.depositPriceAmount).nullsLast());
+                case "squareFootage" -> orderSpecifiers.add(new OrderSpecifier<>(direction, roomPost.squareFootageAmount).nullsLast());
+                case "id" -> orderSpecifiers.add(new OrderSpecifier<>(direction, roomPost.id));
+                default -> throw new GlobalException(ErrorCode.ROOM_POST_SORT_NOT_FOUND);
+            }
+        }
+
+        orderSpecifiers.add(roomPost.id.desc());
+
+        return orderSpecifiers.toArray(new OrderSpecifier[0]);
+    }
+
+
+    private BooleanExpression inCandidates(List<Long> candidateIds, Long indexedRoomPostId){
+
+        // 인덱스를 사용하지 않은 경우
+        if (candidateIds == null) {
+            return null;
+        }
+
+        // 인덱스에 아직 반영되지 않은 글
+        BooleanExpression notIndexed = indexedRoomPostId != null ? roomPost.id.gt(indexedRoomPostId) : null;
+
+        // 인덱스 결과가 없으면 반영되지 않은 글만 검색 (PK 는 null 이 될 수 없으므로 id.isNull() 은 항상 거짓)
+        if (candidateIds.isEmpty()) {
+            return notIndexed != null ? notIndexed : roomPost.id.isNull();
+        }
+
+        return roomPost.id.in(candidateIds).or(notIndexed);
+    }
 
-        return PageableExecutionUtils.getPage(roomPostList, pageable, count::fetchOne);
 
+    private BooleanExpression ltCursor(Long cursorId){
+        // 첫 페이지는 커서 조건 없음
+        return cursorId != null ? roomPost.id.lt(cursorId) : null;
     }
 
 
@@ -0,0 +1,62 @@
+package springboot.yongjunstore.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomStatus;
+
+@Schema(description = "방 목록 범위 검색 Request")
+@Data
+@NoArgsConstructor
+@ToString
+public class RoomPostFilterRequest {
+
+    @Schema(description = "상태 (매매, 임대)", example = "임대")
+    private RoomStatus roomStatus;
+
+    @Schema(description = "지역 (주소의 시/구)", example = "서울시 강남구")
+    private String region;
+
+    @Schema(description = "보증금 및 전세", example = "전세")
+    private Deposit deposit;
+
+    @Schema(description = "최소 월세 (1만원 단위)", example = "30")
+    @PositiveOrZero
+    private Long minMonthlyPrice;
+
+    @Schema(description = "최대 월세 (1만원 단위)", example = "50")
+    @PositiveOrZero
+    private Long maxMonthlyPrice;
+
+    @Schema(description = "최소 보증금 및 전세 가격 (1만원 단위)", example = "1000")
+    @PositiveOrZero
+    private Long minDepositPrice;
+
+    @Schema(description = "최대 보증금 및 전세 가격 (1만원 단위)", example = "20000")
+    @PositiveOrZero
+    private Long maxDepositPrice;
+
+    @Schema(description = "최소 평수", example = "10")
+    @PositiveOrZero
+    private Integer minSquareFootage;
+
+    @Schema(description = "최대 평수", example = "30")
+    @PositiveOrZero
+    private Integer maxSquareFootage;
+
+    @Builder
+    public RoomPostFilterRequest(RoomStatus roomStatus, String region, Deposit deposit, Long minMonthlyPrice, Long maxMonthlyPrice,
+                                 Long minDepositPrice, Long maxDepositPrice,
+                                 Integer minSquareFootage, Integer maxSquareFootage) {
+        this.roomStatus = roomStatus;
+        this.region = region;
+        this.deposit = deposit;
+        this.minMonthlyPrice = minMonthlyPrice;
+        this.maxMonthlyPrice = maxMonthlyPrice;
+        this.minDepositPrice = minDepositPrice;
+        this.maxDepositPrice = maxDepositPrice;
+        this.minSquareFootage = minSquareFootage;
+        this.maxSquareFootage = maxSquareFootage;
+    }
+}
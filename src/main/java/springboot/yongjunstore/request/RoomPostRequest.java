@@ -9,6 +9,9 @@ import lombok.*;
 import springboot.yongjunstore.domain.room.Deposit;
 import springboot.yongjunstore.domain.room.RoomStatus;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @ToString
@@ -62,8 +65,11 @@ public class RoomPostRequest {
     @NotNull(message = "/member/find/{email}을 호출하지 못해 id를 받아 오지못했습니다.")
     private Long memberId; // 방 주인 정보
 
+    @Schema(description = "이어 올리기로 업로드를 완료한 uploadId 목록 (uploadImages 대신 또는 함께 사용)", example = "[\"3f1c2d9e-8a7b-4c6d-9e0f-1a2b3c4d5e6f\"]")
+    private List<String> uploadIds = new ArrayList<>(); // 이어 올리기 업로드 id
+
     @Builder
-    public RoomPostRequest(Long id, String title, String monthlyPrice, Deposit deposit, String depositPrice, String roomOwner, String squareFootage, String content, String address, String detailAddress, RoomStatus roomStatus, Long memberId) {
+    public RoomPostRequest(Long id, String title, String monthlyPrice, Deposit deposit, String depositPrice, String roomOwner, String squareFootage, String content, String address, String detailAddress, RoomStatus roomStatus, Long memberId, List<String> uploadIds) {
         this.id = id;
         this.title = title;
         this.monthlyPrice = monthlyPrice;
@@ -76,5 +82,6 @@ public class RoomPostRequest {
         this.detailAddress = detailAddress;
         this.roomStatus = roomStatus;
         this.memberId = memberId;
+        this.uploadIds = uploadIds != null ? uploadIds : new ArrayList<>();
     }
 }
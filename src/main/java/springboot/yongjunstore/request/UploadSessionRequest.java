@@ -0,0 +1,26 @@
+package springboot.yongjunstore.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@ToString
+public class UploadSessionRequest {
+
+    @Schema(description = "파일 이름", example = "room.jpg")
+    @NotBlank(message = "파일 이름은 필수값입니다.")
+    private String fileName;
+
+    @Schema(description = "전체 파일 크기 (byte)", example = "5242880")
+    @Positive(message = "파일 크기는 1 byte 이상이어야 합니다.")
+    private long totalSize;
+
+    @Builder
+    public UploadSessionRequest(String fileName, long totalSize) {
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+    }
+}
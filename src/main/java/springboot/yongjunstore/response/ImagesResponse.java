@@ -2,7 +2,9 @@ package springboot.yongjunstore.response;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
+import springboot.yongjunstore.domain.room.ImageStorage;
 import springboot.yongjunstore.domain.room.Images;
+import springboot.yongjunstore.service.image.ImageUrlResolver;
 
 @Data
 @NoArgsConstructor
@@ -12,12 +14,36 @@ public class ImagesResponse {
     @Schema(description = "이미지 ID", example = "1")
     private Long id;
 
-    @Schema(description = "이미지 이름", example = "이미지 이름")
+    @Schema(description = "저장 위치", example = "S3")
+    private ImageStorage storage;
+
+    @Schema(description = "이미지 이름 (local : 파일 이름, S3 : object key)", example = "이미지 이름")
     private String name;
 
-    @Schema(description = "이미지 경로", example = "이미지 경로")
+    @Schema(description = "이미지 경로 (local : 업로드 폴더 기준 폴더, S3 : null)", example = "이미지 경로")
     private String path;
 
+    @Schema(description = "썸네일 이미지 이름 (가로 200px, 변환 전에는 null)", example = "썸네일 이미지 이름")
+    private String thumbnailName;
+
+    @Schema(description = "목록 카드용 이미지 이름 (가로 480px, 변환 전에는 null)", example = "카드 이미지 이름")
+    private String cardName;
+
+    @Schema(description = "상세 페이지용 이미지 이름 (가로 1280px, 변환 전에는 null)", example = "상세 이미지 이름")
+    private String detailName;
+
+    @Schema(description = "원본 이미지 URL", example = "https://cdn.example.com/image.jpg")
+    private String url;
+
+    @Schema(description = "썸네일 이미지 URL (변환 전에는 null)", example = "https://cdn.example.com/image.jpg_thumbnail.jpg")
+    private String thumbnailUrl;
+
+    @Schema(description = "목록 카드용 이미지 URL (변환 전에는 null)", example = "https://cdn.example.com/image.jpg_card.jpg")
+    private String cardUrl;
+
+    @Schema(description = "상세 페이지용 이미지 URL (변환 전에는 null)", example = "https://cdn.example.com/image.jpg_detail.jpg")
+    private String detailUrl;
+
     @Builder
     public ImagesResponse(Long id, String name, String path) {
         this.id = id;
@@ -25,10 +51,19 @@ public class ImagesResponse {
         this.path = path;
     }
 
-    public ImagesResponse (Images images){
+    // URL 은 저장하지 않고 조회할 때 만듦 (CDN 주소가 바뀌어도 DB 는 그대로)
+    public ImagesResponse (Images images, ImageUrlResolver imageUrlResolver){
         this.id = images.getId();
+        this.storage = images.getStorage();
         this.name = images.getName();
         this.path = images.getPath();
+        this.thumbnailName = images.getThumbnailName();
+        this.cardName = images.getCardName();
+        this.detailName = images.getDetailName();
+        this.url = imageUrlResolver.resolve(storage, path, name);
+        this.thumbnailUrl = imageUrlResolver.resolve(storage, path, thumbnailName);
+        this.cardUrl = imageUrlResolver.resolve(storage, path, cardName);
+        this.detailUrl = imageUrlResolver.resolve(storage, path, detailName);
     }
 
 }
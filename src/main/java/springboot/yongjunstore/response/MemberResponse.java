@@ -3,11 +3,13 @@ package springboot.yongjunstore.response;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.ToString;
 import springboot.yongjunstore.domain.Member;
 
 @Getter
 @ToString
+@NoArgsConstructor
 public class MemberResponse {
 
     @Schema(description = "방 주인 ID", example = "1")
@@ -0,0 +1,39 @@
+package springboot.yongjunstore.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import springboot.yongjunstore.domain.room.CreateJobStatus;
+import springboot.yongjunstore.domain.room.RoomPostCreateJob;
+
+@Data
+@NoArgsConstructor
+@ToString
+public class RoomPostCreateJobResponse {
+
+    @Schema(description = "글 생성 작업 ID", example = "3f1c2d9e-8a7b-4c6d-9e0f-1a2b3c4d5e6f")
+    private String jobId;
+
+    @Schema(description = "작업 상태 (PENDING, PROCESSING, COMPLETED, FAILED)", example = "PENDING")
+    private CreateJobStatus status;
+
+    @Schema(description = "상태 조회 URL", example = "/room-post/create-jobs/3f1c2d9e-8a7b-4c6d-9e0f-1a2b3c4d5e6f")
+    private String statusUrl;
+
+    @Schema(description = "생성된 글 ID (COMPLETED 인 경우)", example = "1")
+    private Long roomPostId;
+
+    @Schema(description = "실패 코드 (FAILED 인 경우)", example = "F005")
+    private String errorCode;
+
+    @Schema(description = "실패 메세지 (FAILED 인 경우)", example = "JPEG, PNG, WebP, GIF 이미지만 업로드할 수 있습니다.")
+    private String errorMessage;
+
+    public RoomPostCreateJobResponse(RoomPostCreateJob roomPostCreateJob) {
+        this.jobId = roomPostCreateJob.getJobId();
+        this.status = roomPostCreateJob.getStatus();
+        this.statusUrl = "/room-post/create-jobs/" + roomPostCreateJob.getJobId();
+        this.roomPostId = roomPostCreateJob.getRoomPostId();
+        this.errorCode = roomPostCreateJob.getErrorCode();
+        this.errorMessage = roomPostCreateJob.getErrorMessage();
+    }
+}
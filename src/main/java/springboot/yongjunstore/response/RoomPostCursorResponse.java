@@ -0,0 +1,30 @@
+package springboot.yongjunstore.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@ToString
+public class RoomPostCursorResponse<T> {
+
+    @Schema(description = "방 목록", example = "방 목록")
+    private List<T> content = new ArrayList<>();
+
+    @Schema(description = "다음 요청의 after 값 (마지막 페이지면 null)", example = "MTA")
+    private String nextCursor;
+
+    @Schema(description = "다음 페이지 존재 여부", example = "true")
+    private boolean hasNext;
+
+    @Builder
+    public RoomPostCursorResponse(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,39 @@
+package springboot.yongjunstore.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@ToString
+public class RoomPostFacetResponse {
+
+    @Schema(description = "상태 별 개수", example = "{\"임대\": 10, \"매매\": 3}")
+    private Map<String, Long> roomStatus = new LinkedHashMap<>();
+
+    @Schema(description = "보증금 및 전세 별 개수", example = "{\"전세\": 8, \"보증금\": 5}")
+    private Map<String, Long> deposit = new LinkedHashMap<>();
+
+    @Schema(description = "지역(시/구) 별 개수", example = "{\"서울시 강남구\": 7}")
+    private Map<String, Long> region = new LinkedHashMap<>();
+
+    @Schema(description = "모든 조건을 만족하는 글 개수", example = "13")
+    private long total;
+
+    @Schema(description = "인덱스 생성 완료 여부 (false 면 개수가 비어 있을 수 있음)", example = "true")
+    private boolean indexed;
+
+    @Builder
+    public RoomPostFacetResponse(Map<String, Long> roomStatus, Map<String, Long> deposit, Map<String, Long> region,
+                                 long total, boolean indexed) {
+        this.roomStatus = roomStatus;
+        this.deposit = deposit;
+        this.region = region;
+        this.total = total;
+        this.indexed = indexed;
+    }
+}
@@ -0,0 +1,61 @@
+package springboot.yongjunstore.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomStatus;
+
+// 방 목록 카드용 응답 (content, 상세 주소, 회원 정보, 전체 이미지 목록은 상세 조회에서만 제공)
+@Data
+@NoArgsConstructor
+@ToString
+public class RoomPostSummaryResponse {
+
+    @Schema(description = "방 ID", example = "1")
+    private Long id;
+
+    @Schema(description = "제목", example = "제목입니다.")
+    private String title; // 제목
+
+    @Schema(description = "월세", example = "10")
+    private String monthlyPrice; // 방 월세
+
+    @Schema(description = "보증금 및 전세", example = "전세")
+    private Deposit deposit; // 보증금 및 전세
+
+    @Schema(description = "보증금 및 전세 가격", example = "10000")
+    private String depositPrice; // 보증금 및 전세 가격
+
+    @Schema(description = "평수(면적)", example = "5")
+    private String squareFootage; // 방 평수(면적)
+
+    @Schema(description = "상태", example = "매매")
+    private RoomStatus roomStatus; // 방 상태
+
+    @Schema(description = "주소 앞부분", example = "서울시 강남구")
+    private String addressPrefix; // 방 주소 앞부분
+
+    @Schema(description = "대표 이미지 URL", example = "https://cdn.example.com/image.jpg_thumbnail.jpg")
+    private String thumbnailPath; // 첫 번째 이미지의 썸네일 URL (변환 전에는 원본, 이미지가 없으면 null)
+
+    @JsonIgnore
+    private Long thumbnailImagesId; // 첫 번째 이미지 ID (조회 후 thumbnailPath 를 만들 때 사용)
+
+    // querydsl Projections.constructor 순서와 동일
+    public RoomPostSummaryResponse(Long id, String title, String monthlyPrice, Deposit deposit,
+                                   String depositPrice, String squareFootage, RoomStatus roomStatus,
+                                   String addressPrefix, Long thumbnailImagesId) {
+        this.id = id;
+        this.title = title;
+        this.monthlyPrice = monthlyPrice;
+        this.deposit = deposit;
+        this.depositPrice = depositPrice;
+        this.squareFootage = squareFootage;
+        this.roomStatus = roomStatus;
+        this.addressPrefix = addressPrefix;
+        this.thumbnailImagesId = thumbnailImagesId;
+    }
+}
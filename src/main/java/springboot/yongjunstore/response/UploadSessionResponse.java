@@ -0,0 +1,35 @@
+package springboot.yongjunstore.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import springboot.yongjunstore.domain.room.UploadSession;
+import springboot.yongjunstore.domain.room.UploadStatus;
+
+@Data
+@NoArgsConstructor
+@ToString
+public class UploadSessionResponse {
+
+    @Schema(description = "업로드 ID (글 생성 시 uploadIds 에 사용)", example = "3f1c2d9e-8a7b-4c6d-9e0f-1a2b3c4d5e6f")
+    private String uploadId;
+
+    @Schema(description = "파일 이름", example = "room.jpg")
+    private String fileName;
+
+    @Schema(description = "전체 파일 크기 (byte)", example = "5242880")
+    private long totalSize;
+
+    @Schema(description = "지금까지 받은 크기 (다음 chunk 의 시작 위치)", example = "1048576")
+    private long uploadedSize;
+
+    @Schema(description = "업로드 상태", example = "UPLOADING")
+    private UploadStatus status;
+
+    public UploadSessionResponse(UploadSession uploadSession) {
+        this.uploadId = uploadSession.getUploadId();
+        this.fileName = uploadSession.getFileName();
+        this.totalSize = uploadSession.getTotalSize();
+        this.uploadedSize = uploadSession.getUploadedSize();
+        this.status = uploadSession.getStatus();
+    }
+}
@@ -5,27 +5,40 @@ import com.amazonaws.services.s3.model.ObjectMetadata;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.common.upload.ImageSignature;
+import springboot.yongjunstore.common.upload.ImageUploadStream;
+import springboot.yongjunstore.domain.room.ImageBlob;
+import springboot.yongjunstore.domain.room.ImageStorage;
 import springboot.yongjunstore.domain.room.Images;
 import springboot.yongjunstore.domain.room.RoomPost;
 import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.service.image.ImageBlobService;
+import springboot.yongjunstore.service.image.ImageResizePipeline;
+import springboot.yongjunstore.service.image.StoredImage;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +46,9 @@ import java.util.UUID;
 @Slf4j
 public class FileService {
 
+    // 해시 계산 전 업로드 파일을 잠시 저장하는 폴더 (원본과 같은 디스크에 두어야 이동이 rename 으로 끝남)
+    private static final String TEMP_FOLDER = "tmp";
+
     @Value("${fileUpload.upload.local.path}")
     private String uploadPath;
 
@@ -41,169 +57,300 @@ public class FileService {
 
     private final ImagesRepository imagesRepository;
     private final AmazonS3 amazonS3;
+    private final ThreadPoolTaskExecutor s3UploadExecutor;
+    private final ImageResizePipeline imageResizePipeline;
+    private final ImageBlobService imageBlobService;
 
     @Value("${spring.servlet.multipart.max-file-size}")
     private String maxFileSize;
 
 
-    @Transactional
-    public List<String> uploadS3Images(List<MultipartFile> uploadImages, RoomPost roomPost) {
+    // S3 업로드는 DB 트랜잭션 밖에서 병렬로 실행 (업로드하는 동안 DB 커넥션을 점유하지 않도록)
+    // 저장된 원본 목록을 요청 순서대로 반환, 하나라도 실패하면 이번 요청에서 새로 올린 객체는 삭제
+    // 같은 내용(SHA-256)의 원본이 이미 있으면 업로드하지 않고 재사용
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<StoredImage> uploadS3Objects(List<MultipartFile> uploadImages) {
 
-        List<String> imageUrls = new ArrayList<>();
+        // 업로드 전에 모든 파일을 먼저 검사
+        List<ImageSignature> signatures = new ArrayList<>();
 
+        for (MultipartFile uploadFile : uploadImages) {
+            signatures.add(validateImage(uploadFile));
+        }
 
-            for (MultipartFile uploadFile : uploadImages) {
+        List<CompletableFuture<StoredImage>> uploads = new ArrayList<>();
 
-                // 이미지 파일만 업로드
-                if (!Objects.requireNonNull(uploadFile.getContentType()).startsWith("image")) {
-                    log.warn("이미지 파일이 아닙니다.");
-                    throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
-                }
+        for (int i = 0; i < uploadImages.size(); i++) {
+            MultipartFile uploadFile = uploadImages.get(i);
+            ImageSignature signature = signatures.get(i);
 
-                // 파일 크기가 최대 허용 크기를 초과
-                if (uploadFile.getSize() > convertMaxFileSize()) {
-                    log.warn("파일 크기 제한 초과: " + uploadFile.getSize() + " bytes");
-                    throw new MaxUploadSizeExceededException(uploadFile.getSize());
+            uploads.add(CompletableFuture.supplyAsync(() -> storeS3Object(uploadFile, signature), s3UploadExecutor));
+        }
+
+        List<StoredImage> storedImages = new ArrayList<>();
+        RuntimeException failure = null;
+
+        // 실패한 업로드가 있어도 나머지 업로드가 끝날 때까지 기다려야 업로드된 객체를 모두 삭제할 수 있음
+        for (CompletableFuture<StoredImage> upload : uploads) {
+            try {
+                storedImages.add(upload.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof GlobalException globalException
+                            ? globalException : new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
                 }
+            }
+        }
 
-                String orginalName = StringUtils.cleanPath(uploadFile.getOriginalFilename());
-                String fileName = orginalName.substring(orginalName.lastIndexOf("/") + 1); // 수정
+        if (failure != null) {
+            discardStoredImages(storedImages);
+            throw failure;
+        }
 
-                log.info("orginalName: " + orginalName);
-                log.info("fileName: " + fileName);
+        return storedImages;
+    }
 
-                //확장자
-                String extension = "";
 
-                int lastIndex = fileName.lastIndexOf(".");
-                if (lastIndex != -1) {
-                    extension = fileName.substring(lastIndex); // 수정
-                    System.out.println("확장자: " + extension);
-                } else {
-                    throw new GlobalException(ErrorCode.IMAGE_FILE_EXTENSION_NOT_FOUND);
-                }
+    // 로컬 저장도 DB 트랜잭션 밖에서 실행, 같은 내용의 원본이 이미 있으면 재사용
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<StoredImage> storeLocalFiles(List<MultipartFile> uploadImages) {
 
-                // UUID
-                String uuid = UUID.randomUUID().toString();
+        List<StoredImage> storedImages = new ArrayList<>();
 
-                //파일 name 빼고 uuid만 사용해서 만들기
-                String saveName = orginalName + uuid + extension;
+        try {
+            for (MultipartFile uploadFile : uploadImages) {
+                storedImages.add(storeLocalFile(uploadFile));
+            }
+        } catch (RuntimeException e) {
+            discardStoredImages(storedImages);
+            throw e;
+        }
 
+        return storedImages;
+    }
 
-                ObjectMetadata metadata = new ObjectMetadata();
-                metadata.setContentLength(uploadFile.getSize());
-                metadata.setContentType(uploadFile.getContentType());
 
-                try {
+    // 저장된 원본을 참조하는 이미지 정보만 DB에 저장 (짧은 트랜잭션 안에서 호출)
+    @Transactional
+    public void saveImages(List<StoredImage> storedImages, RoomPost roomPost) {
 
-                    // Amazon S3에 이미지 업로드
-                    amazonS3.putObject(bucket, saveName, uploadFile.getInputStream(), metadata);
+        for (StoredImage storedImage : storedImages) {
 
-                    // 업로드된 이미지의 URL을 리스트에 추가
-                    String imageUrl = amazonS3.getUrl(bucket, saveName).toString();
-                    imageUrls.add(imageUrl);
+            ImageBlob imageBlob = imageBlobService.acquire(storedImage.getImageBlobId());
 
-                    // 경로에 이미지 저장 완료
-                    Images images = Images.builder()
-                            .path(bucket)
-                            .name(imageUrl)
-                            .roomPost(roomPost)
-                            .build();
+            // 같은 원본으로 이미 변환된 이미지가 있으면 다시 변환하지 않음
+            Optional<Images> resizedImages =
+                    imagesRepository.findFirstByImageBlobIdAndThumbnailNameIsNotNull(storedImage.getImageBlobId());
 
-                    // DB에 이미지 저장 완료
-                    imagesRepository.save(images);
+            // 경로에 이미지 저장 완료
+            Images images = Images.builder()
+                    .storage(storedImage.getStorage())
+                    .path(storedImage.getPath())
+                    .name(storedImage.getName())
+                    .roomPost(roomPost)
+                    .imageBlob(imageBlob)
+                    .build();
 
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
-                }
+            resizedImages.ifPresent((resized) ->
+                    images.updateVariants(resized.getThumbnailName(), resized.getCardName(), resized.getDetailName()));
+
+            // DB에 이미지 저장 완료
+            imagesRepository.save(images);
+
+            if (resizedImages.isPresent()) {
+                continue;
             }
 
-        // 모든 이미지의 URL을 반환
-        return imageUrls;
+            // 커밋 후 크기별 이미지 변환
+            if (storedImage.getStorage() == ImageStorage.S3) {
+                imageResizePipeline.resizeS3AfterCommit(images.getId(), storedImage.getStorageKey());
+            } else {
+                imageResizePipeline.resizeLocalAfterCommit(images.getId(), Paths.get(uploadPath, storedImage.getStorageKey()));
+            }
+        }
     }
 
 
     @Transactional
     public void mainPhotoUpload(List<MultipartFile> uploadImages, RoomPost roomPost){
+        saveImages(storeLocalFiles(uploadImages), roomPost);
+    }
+
 
-        for (MultipartFile uploadFile: uploadImages) {
+    // DB 저장이 실패한 경우 이번 요청에서 새로 저장한 원본 삭제 (보상 처리)
+    // 그 사이 다른 글이 같은 원본을 참조했다면 삭제하지 않음
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void discardStoredImages(List<StoredImage> storedImages) {
 
-            // 이미지 파일만 업로드
-            if (!Objects.requireNonNull(uploadFile.getContentType()).startsWith("image")) {
-                log.warn("이미지 파일이 아닙니다.");
-                throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+        for (StoredImage storedImage : storedImages) {
+
+            if (!storedImage.isNewlyStored()) {
+                continue;
             }
 
-            // 실제 파일 이름 IE나 Edge는 전체 경로가 들어오므로 => 바뀐 듯 ..
-            // cleanPath()를 통해서 ../ 내부 점들에 대해서 사용을 억제
-            String orginalName = StringUtils.cleanPath(uploadFile.getOriginalFilename());
-            String fileName = orginalName.substring(orginalName.lastIndexOf("\\") + 1);
+            try {
+                if (!imageBlobService.deleteIfUnreferenced(storedImage.getImageBlobId())) {
+                    continue;
+                }
 
-            log.info("orginalName: " + orginalName);
-            log.info("fileName: " + fileName);
+                if (storedImage.getStorage() == ImageStorage.S3) {
+                    amazonS3.deleteObject(bucket, storedImage.getStorageKey());
+                } else {
+                    Files.deleteIfExists(Paths.get(uploadPath, storedImage.getStorageKey()));
+                }
+            } catch (IOException | RuntimeException e) {
+                // 삭제에 실패한 원본은 로그로 남기고 나머지는 계속 삭제
+                log.error("이미지 원본 삭제 실패 : " + storedImage.getStorageKey(), e);
+            }
+        }
+    }
 
-            //확장자
-            String extension = "";
 
-            int lastIndex = fileName.lastIndexOf(".");
-            if (lastIndex != -1) {
-                extension = "."+fileName.substring(lastIndex + 1);
-                System.out.println("확장자: " + extension);
-            } else {
-               throw new GlobalException(ErrorCode.IMAGE_FILE_EXTENSION_NOT_FOUND);
+    // 업로드 이미지 검사 : 요청 정보(Content-Type, 확장자, 크기)를 먼저 확인하고 실제 내용(magic byte)으로 형식 판별
+    // multipart 요청은 StreamingMultipartResolver 가 이미 검사했지만, 다른 경로로 들어온 파일도 같은 기준으로 검사
+    private ImageSignature validateImage(MultipartFile uploadFile) {
+
+        // 이미지 파일만 업로드
+        if (!Objects.requireNonNull(uploadFile.getContentType()).startsWith("image")) {
+            log.warn("이미지 파일이 아닙니다.");
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+        }
+
+        // 실제 파일 이름 IE나 Edge는 전체 경로가 들어오므로 => 바뀐 듯 ..
+        // cleanPath()를 통해서 ../ 내부 점들에 대해서 사용을 억제
+        String orginalName = StringUtils.cleanPath(Objects.requireNonNull(uploadFile.getOriginalFilename()));
+        String fileName = orginalName.substring(orginalName.lastIndexOf("/") + 1);
+
+        log.info("orginalName: " + orginalName);
+        log.info("fileName: " + fileName);
+
+        //확장자
+        if (fileName.lastIndexOf(".") == -1) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_EXTENSION_NOT_FOUND);
+        }
+
+        // 파일 크기가 최대 허용 크기를 초과
+        if (uploadFile.getSize() > convertMaxFileSize()) {
+            log.warn("파일 크기 제한 초과: " + uploadFile.getSize() + " bytes");
+            throw new MaxUploadSizeExceededException(uploadFile.getSize());
+        }
+
+        // 앞부분만 읽어서 형식 판별 (Content-Type, 확장자는 클라이언트가 바꿀 수 있음)
+        try (ImageUploadStream imageStream = new ImageUploadStream(uploadFile.getInputStream(), convertMaxFileSize())) {
+            return imageStream.getSignature();
+        } catch (IOException e) {
+            log.error("업로드 파일 읽기 실패 : " + uploadFile.getOriginalFilename(), e);
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+        }
+    }
+
+
+    private StoredImage storeS3Object(MultipartFile uploadFile, ImageSignature signature) {
+
+        try {
+            String contentHash;
+
+            try (InputStream inputStream = uploadFile.getInputStream()) {
+                contentHash = ImageBlobService.sha256(inputStream);
+            }
+
+            // 같은 내용의 원본이 이미 있으면 업로드 생략
+            Optional<ImageBlob> findImageBlob = imageBlobService.find(ImageStorage.S3, contentHash);
+
+            if (findImageBlob.isPresent()) {
+                return StoredImage.of(findImageBlob.get(), false);
             }
 
-            // 날짜 폴더 생성
-            String folderPath = makeFolder();
+            // 내용 기준 key (같은 내용이면 항상 같은 key), 확장자와 Content-Type 은 실제 형식 기준
+            String saveName = contentHash + signature.getExtension();
 
-            // UUID
-            String uuid = UUID.randomUUID().toString();
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(uploadFile.getSize());
+            metadata.setContentType(signature.getContentType());
 
-            //파일 name 빼고 uuid만 사용해서 만들기
-            String pathSaveName = uuid + extension;
+            // 파일 내용을 메모리에 모두 올리지 않고 스트림으로 전송
+            try (InputStream inputStream = uploadFile.getInputStream()) {
 
-            String saveFileName = pathSaveName.replaceAll("\\s+", "");
+                // Amazon S3에 이미지 업로드
+                amazonS3.putObject(bucket, saveName, inputStream, metadata);
+            }
 
+            // URL 은 저장하지 않고 key 만 저장 (조회 시 ImageUrlResolver 가 URL 로 변환)
+            return imageBlobService.register(ImageStorage.S3, contentHash, saveName, null, saveName);
 
-            //저장할 때 필요한 전체 경로
-            String saveName = uploadPath + File.separator + folderPath + File.separator + saveFileName;
+        } catch (IOException e) {
+            log.error("S3 업로드 실패 : " + uploadFile.getOriginalFilename(), e);
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+        }
+    }
 
-            Path savePath = Paths.get(saveName);
 
+    private StoredImage storeLocalFile(MultipartFile uploadFile) {
 
-            try {
-                // 경로에 이미지 저장 완료
-                uploadFile.transferTo(savePath);
+        // 확장자는 실제 형식 기준
+        String extension = validateImage(uploadFile).getExtension();
 
-                 Images images = Images.builder()
-                        .name(saveFileName)
-                        .path(folderPath)
-                        .roomPost(roomPost)
-                        .build();
+        Path tempPath = Paths.get(uploadPath, TEMP_FOLDER, UUID.randomUUID() + ".upload");
 
-                // DB에 이미지 저장 완료
-                 imagesRepository.save(images);
+        try {
+            Files.createDirectories(tempPath.getParent());
 
-            } catch (IOException e) {
-                e.printStackTrace();
-                throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+            // 임시 경로에 저장 (디스크에 있는 업로드 파일이면 이동만 일어남)
+            uploadFile.transferTo(tempPath);
+
+            String contentHash;
+
+            try (InputStream inputStream = Files.newInputStream(tempPath)) {
+                contentHash = ImageBlobService.sha256(inputStream);
+            }
+
+            // 같은 내용의 원본이 이미 있으면 임시 파일은 버리고 재사용
+            Optional<ImageBlob> findImageBlob = imageBlobService.find(ImageStorage.LOCAL, contentHash);
+
+            if (findImageBlob.isPresent() && Files.exists(Paths.get(uploadPath, findImageBlob.get().getStorageKey()))) {
+                return StoredImage.of(findImageBlob.get(), false);
             }
+
+            // 내용 기준 폴더, 파일 이름 (같은 내용이면 항상 같은 경로)
+            String folderPath = makeContentFolder(contentHash);
+
+            String saveFileName = contentHash + extension;
+
+            String storageKey = folderPath + File.separator + saveFileName;
+
+            // 경로에 이미지 저장 완료
+            Files.move(tempPath, Paths.get(uploadPath, storageKey), StandardCopyOption.ATOMIC_MOVE);
+
+            return imageBlobService.register(ImageStorage.LOCAL, contentHash, storageKey, folderPath, saveFileName);
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+        } finally {
+            deleteTempFile(tempPath);
+        }
+    }
+
+
+    private void deleteTempFile(Path tempPath) {
+        try {
+            Files.deleteIfExists(tempPath);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패 : " + tempPath, e);
         }
     }
 
+
     private Long convertMaxFileSize(){
         String sizeString = maxFileSize.replaceAll("[^0-9]", "");
         // byte 로 변환해서 리턴
         return (Long.parseLong(sizeString) * 1024 * 1024);
     }
 
-    /*날짜 폴더 생성*/
-    private String makeFolder() {
-
-        String str = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM"));
+    /*내용(해시) 기준 폴더 생성 : 해시 앞 4글자로 두 단계 폴더를 만들어 한 폴더에 파일이 몰리지 않게 함*/
+    private String makeContentFolder(String contentHash) {
 
-        String folderPath = str.replace("/", File.separator);
+        String folderPath = contentHash.substring(0, 2) + File.separator + contentHash.substring(2, 4);
 
         // make folder --------
         File uploadPathFolder = new File(uploadPath, folderPath);
@@ -219,5 +366,3 @@ public class FileService {
     }
 
 }
-
-
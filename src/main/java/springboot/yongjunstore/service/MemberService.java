@@ -1,16 +1,24 @@
 package springboot.yongjunstore.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.jwt.RefreshTokenStore;
+import springboot.yongjunstore.config.service.PasswordHashService;
 import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.repository.ImagesRepository;
 import springboot.yongjunstore.repository.MemberRepository;
 import springboot.yongjunstore.request.PasswordEditRequest;
 import springboot.yongjunstore.response.MemberResponse;
 import springboot.yongjunstore.response.MyProfileResponse;
+import springboot.yongjunstore.service.cache.MemberSnapshotCache;
+import springboot.yongjunstore.service.cache.RoomPostCache;
+import springboot.yongjunstore.service.image.ImageBlobService;
+import springboot.yongjunstore.service.index.RoomPostFacetIndex;
+import springboot.yongjunstore.service.index.RoomPostSearchIndex;
 
 @Service
 @Transactional(readOnly = true)
@@ -18,7 +26,14 @@ import springboot.yongjunstore.response.MyProfileResponse;
 public class MemberService {
 
     private final MemberRepository memberRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashService passwordHashService;
+    private final ImagesRepository imagesRepository;
+    private final ImageBlobService imageBlobService;
+    private final MemberSnapshotCache memberSnapshotCache;
+    private final RefreshTokenStore refreshTokenStore;
+    private final RoomPostCache roomPostCache;
+    private final RoomPostSearchIndex roomPostSearchIndex;
+    private final RoomPostFacetIndex roomPostFacetIndex;
 
 
     public MemberResponse findMember(String email){
@@ -47,7 +62,22 @@ public class MemberService {
         Member findMember = memberRepository.findByEmail(email)
                 .orElseThrow(() -> new GlobalException(ErrorCode.MEMBER_NOT_FOUND));
 
+        // 회원의 글과 이미지는 cascade 로 함께 삭제되므로 이미지 원본의 참조 수를 먼저 감소
+        imageBlobService.release(imagesRepository.findImageBlobIdsByMemberId(findMember.getId()));
+
+        // cascade 로 삭제되는 글은 커밋 후 캐시와 검색 / facet 인덱스에서도 제거 (글 삭제와 같은 처리)
+        for (RoomPost roomPost : findMember.getRoomPosts()) {
+            roomPostSearchIndex.removeAfterCommit(roomPost);
+            roomPostFacetIndex.removeAfterCommit(roomPost.getId());
+            roomPostCache.evictAsMissing(roomPost.getId());
+        }
+
         memberRepository.delete(findMember);
+
+        refreshTokenStore.delete(findMember.getId());
+
+        // 탈퇴한 회원의 accessToken 은 만료 전이라도 거절
+        memberSnapshotCache.evictAsDeleted(findMember.getEmail(), findMember.getId());
     }
 
 
@@ -60,9 +90,11 @@ public class MemberService {
         if(passwordEditRequest.getPasswordCheck()
                 .equals(passwordEditRequest.getPassword())){
 
-            String encodePassword = passwordEncoder.encode(passwordEditRequest.getPassword());
+            String encodePassword = passwordHashService.encode(passwordEditRequest.getPassword());
 
             memberRepository.updateMemberPassword(findMember.getEmail(), encodePassword);
+
+            memberSnapshotCache.evict(findMember.getEmail());
         }else {
 
             // 비밀번호가 일치하지 않는 경우.
@@ -4,8 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
@@ -16,12 +20,33 @@ import springboot.yongjunstore.domain.room.RoomPost;
 import springboot.yongjunstore.repository.ImagesRepository;
 import springboot.yongjunstore.repository.MemberRepository;
 import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.repository.condition.RoomPostSearchCondition;
 import springboot.yongjunstore.request.DeleteRoomPostRequest;
+import springboot.yongjunstore.request.RoomPostFilterRequest;
 import springboot.yongjunstore.request.RoomPostRequest;
 import springboot.yongjunstore.response.ImagesResponse;
+import springboot.yongjunstore.response.RoomPostCursorResponse;
+import springboot.yongjunstore.response.RoomPostFacetResponse;
 import springboot.yongjunstore.response.RoomPostResponse;
-
+import springboot.yongjunstore.response.RoomPostSummaryResponse;
+import springboot.yongjunstore.service.cache.RoomPostCache;
+import springboot.yongjunstore.service.cache.RoomPostCountCache;
+import springboot.yongjunstore.service.image.ImageUrlResolver;
+import springboot.yongjunstore.service.image.StoredImage;
+import springboot.yongjunstore.service.image.UploadSessionService;
+import springboot.yongjunstore.service.index.RoomPostFacetIndex;
+import springboot.yongjunstore.service.index.RoomPostIdBloomFilter;
+import springboot.yongjunstore.service.index.RoomPostSearchIndex;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,38 +58,97 @@ public class RoomPostService {
     private final MemberRepository memberRepository;
     private final FileService fileService;
     private final ImagesRepository imagesRepository;
+    private final RoomPostCountCache roomPostCountCache;
+    private final RoomPostSearchIndex roomPostSearchIndex;
+    private final RoomPostCache roomPostCache;
+    private final RoomPostIdBloomFilter roomPostIdBloomFilter;
+    private final RoomPostFacetIndex roomPostFacetIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final UploadSessionService uploadSessionService;
+    private final ImageUrlResolver imageUrlResolver;
+
+    // 파일 저장은 트랜잭션 밖에서 먼저 실행하고, DB 저장만 짧은 트랜잭션으로 처리
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long createRoom(RoomPostRequest roomDto, List<MultipartFile> uploadImages){
+        return createRoom(roomDto, uploadImages, (roomPostId) -> {});
+    }
 
-    @Transactional
-    public void createRoom(RoomPostRequest roomDto, List<MultipartFile> uploadImages){
 
-        Member findMember = memberRepository.findById(roomDto.getMemberId())
-                .orElseThrow(() -> new GlobalException(ErrorCode.MEMBER_NOT_FOUND));
+    // afterSave 는 글 저장 트랜잭션 안에서 실행 (비동기 작업의 완료 기록을 글 저장과 함께 커밋)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long createRoom(RoomPostRequest roomDto, List<MultipartFile> uploadImages, Consumer<Long> afterSave){
 
-        RoomPost roomPost = RoomPost.builder()
-                .title(roomDto.getTitle())
-                .roomOwner(roomDto.getRoomOwner())
-                .content(roomDto.getContent())
-                .monthlyPrice(roomDto.getMonthlyPrice())
-                .deposit(roomDto.getDeposit())
-                .depositPrice(roomDto.getDepositPrice())
-                .squareFootage(roomDto.getSquareFootage())
-                .address(roomDto.getAddress())
-                .detailAddress(roomDto.getDetailAddress())
-                .roomStatus(roomDto.getRoomStatus())
-                .member(findMember)
-                .build();
+        // 없는 회원이면 저장 전에 실패
+        if (!memberRepository.existsById(roomDto.getMemberId())) {
+            throw new GlobalException(ErrorCode.MEMBER_NOT_FOUND);
+        }
 
-        RoomPost saveRoom = roomPostRepository.save(roomPost);
+        return saveRoom(roomDto, fileService.storeLocalFiles(uploadImages(roomDto, uploadImages)), afterSave);
+    }
 
-        RoomPost findRoomPost = roomPostRepository.findById(saveRoom.getId())
-                .orElseThrow(() -> new GlobalException(ErrorCode.ROOM_POST_NOT_FOUND));
 
-        fileService.mainPhotoUpload(uploadImages, findRoomPost);
+    // S3 업로드는 트랜잭션 밖에서 병렬로 먼저 실행하고, DB 저장만 짧은 트랜잭션으로 처리
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long createRoomS3(RoomPostRequest roomDto, List<MultipartFile> uploadImages){
+        return createRoomS3(roomDto, uploadImages, (roomPostId) -> {});
     }
 
 
-    @Transactional
-    public void createRoomS3(RoomPostRequest roomDto, List<MultipartFile> uploadImages){
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long createRoomS3(RoomPostRequest roomDto, List<MultipartFile> uploadImages, Consumer<Long> afterSave){
+
+        // 없는 회원이면 업로드 전에 실패
+        if (!memberRepository.existsById(roomDto.getMemberId())) {
+            throw new GlobalException(ErrorCode.MEMBER_NOT_FOUND);
+        }
+
+        return saveRoom(roomDto, fileService.uploadS3Objects(uploadImages(roomDto, uploadImages)), afterSave);
+    }
+
+
+    // 요청에 포함된 이미지 + 이어 올리기로 업로드를 완료한 이미지 (uploadIds)
+    private List<MultipartFile> uploadImages(RoomPostRequest roomDto, List<MultipartFile> uploadImages){
+
+        List<MultipartFile> images = new ArrayList<>();
+
+        if (uploadImages != null) {
+            images.addAll(uploadImages);
+        }
+
+        images.addAll(uploadSessionService.loadCompletedFiles(roomDto.getUploadIds(), roomDto.getMemberId()));
+
+        if (images.isEmpty()) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+        }
+
+        return images;
+    }
+
+
+    private Long saveRoom(RoomPostRequest roomDto, List<StoredImage> storedImages, Consumer<Long> afterSave){
+
+        Long roomPostId;
+
+        try {
+            roomPostId = transactionTemplate.execute(status -> {
+                Long saveRoomPostId = saveRoomPost(roomDto, storedImages);
+                afterSave.accept(saveRoomPostId);
+                return saveRoomPostId;
+            });
+        } catch (RuntimeException e) {
+            // DB 저장이 실패하면 이번 요청에서 새로 저장한 원본 삭제
+            fileService.discardStoredImages(storedImages);
+            throw e;
+        }
+
+        // 글 저장이 끝난 업로드 세션 정리 (실패한 경우에는 같은 uploadIds 로 다시 요청할 수 있도록 남겨 둠)
+        uploadSessionService.delete(roomDto.getUploadIds());
+
+        return roomPostId;
+    }
+
+
+    private Long saveRoomPost(RoomPostRequest roomDto, List<StoredImage> storedImages){
 
         Member findMember = memberRepository.findById(roomDto.getMemberId())
                 .orElseThrow(() -> new GlobalException(ErrorCode.MEMBER_NOT_FOUND));
@@ -85,16 +169,33 @@ public class RoomPostService {
 
         RoomPost saveRoom = roomPostRepository.save(roomPost);
 
-        RoomPost findRoomPost = roomPostRepository.findById(saveRoom.getId())
-                .orElseThrow(() -> new GlobalException(ErrorCode.ROOM_POST_NOT_FOUND));
+        roomPostIdBloomFilter.add(saveRoom.getId());
+
+        fileService.saveImages(storedImages, saveRoom);
 
-        fileService.uploadS3Images(uploadImages, findRoomPost);
+        roomPostSearchIndex.addAfterCommit(saveRoom);
+        roomPostFacetIndex.addAfterCommit(saveRoom);
+        roomPostCache.evict(saveRoom.getId());
+
+        return saveRoom.getId();
     }
 
 
-    @Transactional
+    // 캐시 hit 인 경우 DB 커넥션을 사용하지 않도록 트랜잭션 없이 실행 (각 조회 쿼리는 자체 트랜잭션으로 실행)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public RoomPostResponse getRoomPost(Long roomPostId){
 
+        // 존재하지 않는 id 이거나 최근에 종료된 글이면 DB 조회 없이 거절
+        if (!roomPostIdBloomFilter.mightContain(roomPostId) || roomPostCache.isMissing(roomPostId)) {
+            throw new GlobalException(ErrorCode.ROOM_POST_NOT_FOUND);
+        }
+
+        return roomPostCache.get(roomPostId, () -> loadRoomPost(roomPostId));
+    }
+
+
+    private RoomPostResponse loadRoomPost(Long roomPostId){
+
         RoomPost findRoomPost = roomPostRepository.SelectRoomPostPosts(roomPostId);
 
         if (findRoomPost == null) {
@@ -108,32 +209,140 @@ public class RoomPostService {
         }
 
         List<ImagesResponse> imagesResponse = imagesList.stream()
-                .map((i) -> new ImagesResponse(i))
+                .map((i) -> new ImagesResponse(i, imageUrlResolver))
                 .collect(Collectors.toList());
 
         return new RoomPostResponse(findRoomPost, imagesResponse);
     }
 
 
-    public Page<RoomPostResponse> searchRoomPostList(String searchOption, String searchContent , Pageable pageable) {
+    public Page<RoomPostResponse> searchRoomPostList(String searchOption, String searchContent, RoomPostFilterRequest filter, Pageable pageable) {
 
-        if(searchOption.isEmpty() || searchOption == null){
-            throw new GlobalException(ErrorCode.ROOM_POST_SEARCH_OPTION_NOT_FOUND);
+        Page<RoomPost> roomPostList = roomPostRepository.searchRoomPostList(searchCondition(searchOption, searchContent, filter), pageable);
+
+        List<RoomPostResponse> roomPostResponses = toRoomPostResponses(roomPostList.getContent());
+
+        return new PageImpl<>(roomPostResponses, roomPostList.getPageable(), roomPostList.getTotalElements());
+    }
+
+
+    // count 쿼리 없이 다음 페이지 존재 여부만 제공
+    public Slice<RoomPostResponse> searchRoomPostSlice(String searchOption, String searchContent, RoomPostFilterRequest filter, Pageable pageable) {
+
+        Slice<RoomPost> roomPostSlice = roomPostRepository.searchRoomPostSlice(searchCondition(searchOption, searchContent, filter), pageable);
+
+        List<RoomPostResponse> roomPostResponses = toRoomPostResponses(roomPostSlice.getContent());
+
+        return new SliceImpl<>(roomPostResponses, roomPostSlice.getPageable(), roomPostSlice.hasNext());
+    }
+
+
+    // 전체 개수는 캐시된 근사값 사용
+    public Page<RoomPostResponse> searchRoomPostListWithApproximateCount(String searchOption, String searchContent, RoomPostFilterRequest filter, Pageable pageable) {
+
+        RoomPostSearchCondition condition = searchCondition(searchOption, searchContent, filter);
+
+        Slice<RoomPost> roomPostList = roomPostRepository.searchRoomPostSlice(condition, pageable);
+
+        Slice<RoomPostResponse> roomPostSlice = new SliceImpl<>(
+                toRoomPostResponses(roomPostList.getContent()), pageable, roomPostList.hasNext());
+
+        return withApproximateCount(condition, roomPostSlice, pageable);
+    }
+
+
+    public RoomPostCursorResponse<RoomPostResponse> searchRoomPostListByCursor(String searchOption, String searchContent, RoomPostFilterRequest filter, String after, int size) {
+
+        RoomPostSearchCondition condition = searchCondition(searchOption, searchContent, filter);
+
+        // after 가 비어 있으면 첫 페이지
+        Long cursorId = decodeCursor(after);
+
+        List<RoomPost> roomPostList = roomPostRepository.searchRoomPostListByCursor(condition, cursorId, size);
+
+        // size + 1 개를 조회했으므로 초과분이 있으면 다음 페이지가 존재
+        boolean hasNext = roomPostList.size() > size;
+
+        if (hasNext) {
+            roomPostList = roomPostList.subList(0, size);
         }
 
-        Page<RoomPost> roomPostList = roomPostRepository.searchRoomPostList(searchOption, searchContent, pageable);
+        List<RoomPostResponse> roomPostResponses = toRoomPostResponses(roomPostList);
+
+        String nextCursor = hasNext ? encodeCursor(roomPostList.get(roomPostList.size() - 1).getId()) : null;
 
-        List<RoomPostResponse> roomPostResponses = roomPostList.stream()
-                .map((roomPost) -> {
+        return RoomPostCursorResponse.<RoomPostResponse>builder()
+                .content(roomPostResponses)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
 
-                    List<ImagesResponse> imagesResponse = roomPost.getImagesList().stream()
-                            .map((i) -> new ImagesResponse(i))
-                            .collect(Collectors.toList());
 
-                    return new RoomPostResponse(roomPost, imagesResponse);
-                }).collect(Collectors.toList());
+    // 목록 카드용 (content, 전체 주소, 회원 정보, 전체 이미지 없이 조회)
+    public Page<RoomPostSummaryResponse> searchRoomPostSummaryList(String searchOption, String searchContent, RoomPostFilterRequest filter, Pageable pageable) {
 
-        return new PageImpl<>(roomPostResponses, roomPostList.getPageable(), roomPostList.getTotalElements());
+        Page<RoomPostSummaryResponse> summaries = roomPostRepository.searchRoomPostSummaryList(searchCondition(searchOption, searchContent, filter), pageable);
+
+        resolveThumbnails(summaries.getContent());
+
+        return summaries;
+    }
+
+
+    public Slice<RoomPostSummaryResponse> searchRoomPostSummarySlice(String searchOption, String searchContent, RoomPostFilterRequest filter, Pageable pageable) {
+
+        Slice<RoomPostSummaryResponse> summaries = roomPostRepository.searchRoomPostSummarySlice(searchCondition(searchOption, searchContent, filter), pageable);
+
+        resolveThumbnails(summaries.getContent());
+
+        return summaries;
+    }
+
+
+    public Page<RoomPostSummaryResponse> searchRoomPostSummaryListWithApproximateCount(String searchOption, String searchContent, RoomPostFilterRequest filter, Pageable pageable) {
+
+        RoomPostSearchCondition condition = searchCondition(searchOption, searchContent, filter);
+
+        Slice<RoomPostSummaryResponse> roomPostSlice = roomPostRepository.searchRoomPostSummarySlice(condition, pageable);
+
+        resolveThumbnails(roomPostSlice.getContent());
+
+        return withApproximateCount(condition, roomPostSlice, pageable);
+    }
+
+
+    public RoomPostCursorResponse<RoomPostSummaryResponse> searchRoomPostSummaryListByCursor(String searchOption, String searchContent, RoomPostFilterRequest filter, String after, int size) {
+
+        RoomPostSearchCondition condition = searchCondition(searchOption, searchContent, filter);
+
+        // after 가 비어 있으면 첫 페이지
+        Long cursorId = decodeCursor(after);
+
+        List<RoomPostSummaryResponse> summaries = roomPostRepository.searchRoomPostSummaryListByCursor(condition, cursorId, size);
+
+        // size + 1 개를 조회했으므로 초과분이 있으면 다음 페이지가 존재
+        boolean hasNext = summaries.size() > size;
+
+        if (hasNext) {
+            summaries = summaries.subList(0, size);
+        }
+
+        resolveThumbnails(summaries);
+
+        String nextCursor = hasNext ? encodeCursor(summaries.get(summaries.size() - 1).getId()) : null;
+
+        return RoomPostCursorResponse.<RoomPostSummaryResponse>builder()
+                .content(summaries)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+
+    // 필터 사이드바의 facet 별 개수 (bitmap 인덱스로 계산)
+    public RoomPostFacetResponse getRoomPostFacets(RoomPostFilterRequest filter) {
+        return roomPostFacetIndex.facetCounts(filter.getRoomStatus(), filter.getDeposit(), filter.getRegion());
     }
 
 
@@ -147,7 +356,10 @@ public class RoomPostService {
         if(roomPost.getMember().getId() == deleteRoomPostRequest.getMemberId() || roomPost.getMember().getRole().equals(Role.ADMIN)){
 
             if(!roomPost.getRoomStatus().equals("종료")){
-                roomPostRepository.deleteByRoomPostId(deleteRoomPostRequest.getRoomPostId());
+                roomPostRepository.deleteByRoomPostId(deleteRoomPostRequest.getRoomPostId(), LocalDateTime.now());
+                roomPostSearchIndex.removeAfterCommit(roomPost);
+                roomPostFacetIndex.removeAfterCommit(roomPost.getId());
+                roomPostCache.evictAsMissing(roomPost.getId());
 
             }else{
                 // 이미 개시 중지된 글인 경우
@@ -161,4 +373,110 @@ public class RoomPostService {
 
 
     }
+
+
+    // 검색어의 bigram 역색인으로 후보 id 를 먼저 좁힌다. (인덱스를 사용할 수 없으면 전체 LIKE 검색)
+    private RoomPostSearchCondition searchCondition(String searchOption, String searchContent, RoomPostFilterRequest filter) {
+
+        if(searchOption == null || searchOption.isEmpty()){
+            throw new GlobalException(ErrorCode.ROOM_POST_SEARCH_OPTION_NOT_FOUND);
+        }
+
+        RoomPostSearchCondition condition = roomPostSearchIndex.searchCondition(searchOption, searchContent).toBuilder()
+                .roomStatus(filter.getRoomStatus())
+                .region(RoomPostFacetIndex.normalizeRegion(filter.getRegion()))
+                .deposit(filter.getDeposit())
+                .minMonthlyPrice(filter.getMinMonthlyPrice())
+                .maxMonthlyPrice(filter.getMaxMonthlyPrice())
+                .minDepositPrice(filter.getMinDepositPrice())
+                .maxDepositPrice(filter.getMaxDepositPrice())
+                .minSquareFootage(filter.getMinSquareFootage())
+                .maxSquareFootage(filter.getMaxSquareFootage())
+                .build();
+
+        // 상태, 보증금/전세, 지역 조건은 bitmap 인덱스로 후보 id 를 좁힌다.
+        return roomPostFacetIndex.narrow(condition);
+    }
+
+
+    // 전체 개수는 count 쿼리 대신 캐시된 근사값을 사용한다.
+    private <T> Page<T> withApproximateCount(RoomPostSearchCondition condition, Slice<T> slice, Pageable pageable) {
+
+        long approximateCount = roomPostCountCache.getApproximateCount(condition);
+
+        // 캐시된 값이 실제 조회 결과보다 작으면 현재 페이지 기준으로 보정
+        long minimumCount = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+
+        return new PageImpl<>(slice.getContent(), pageable, Math.max(approximateCount, minimumCount));
+    }
+
+
+    // 글 목록의 이미지를 IN 쿼리 한 번으로 조회해서 글 별로 묶는다. (글마다 getImagesList() 를 호출하는 N+1 방지)
+    private List<RoomPostResponse> toRoomPostResponses(List<RoomPost> roomPostList) {
+
+        if (roomPostList.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> roomPostIds = roomPostList.stream()
+                .map(RoomPost::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<ImagesResponse>> imagesByRoomPostId = imagesRepository.findByRoomPostIdIn(roomPostIds).stream()
+                .collect(Collectors.groupingBy(
+                        (images) -> images.getRoomPost().getId(),
+                        Collectors.mapping((i) -> new ImagesResponse(i, imageUrlResolver), Collectors.toList())));
+
+        return roomPostList.stream()
+                .map((roomPost) -> new RoomPostResponse(roomPost,
+                        imagesByRoomPostId.getOrDefault(roomPost.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    // 목록 카드의 첫 번째 이미지를 IN 쿼리 한 번으로 조회해서 썸네일 URL 로 변환 (변환 전이면 원본)
+    private void resolveThumbnails(List<RoomPostSummaryResponse> summaries) {
+
+        List<Long> imagesIds = summaries.stream()
+                .map(RoomPostSummaryResponse::getThumbnailImagesId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        if (imagesIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Images> imagesById = imagesRepository.findAllById(imagesIds).stream()
+                .collect(Collectors.toMap(Images::getId, Function.identity()));
+
+        for (RoomPostSummaryResponse summary : summaries) {
+
+            Images images = imagesById.get(summary.getThumbnailImagesId());
+
+            if (images != null) {
+                String name = images.getThumbnailName() != null ? images.getThumbnailName() : images.getName();
+                summary.setThumbnailPath(imageUrlResolver.resolve(images.getStorage(), images.getPath(), name));
+            }
+        }
+    }
+
+    // 마지막 room_post_id 를 클라이언트가 해석하지 않도록 불투명한 토큰으로 변환
+    private String encodeCursor(Long roomPostId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(roomPostId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String after) {
+
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            return Long.parseLong(decoded);
+        } catch (IllegalArgumentException e) {
+            // Base64 형식이 아니거나 숫자가 아닌 경우 (NumberFormatException 포함)
+            throw new GlobalException(ErrorCode.ROOM_POST_INVALID_CURSOR);
+        }
+    }
 }
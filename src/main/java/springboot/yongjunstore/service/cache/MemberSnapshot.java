@@ -0,0 +1,24 @@
+package springboot.yongjunstore.service.cache;
+
+import lombok.Getter;
+import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.Role;
+
+// 서버 메모리에 저장하는 회원 정보 (비밀번호와 연관 엔티티는 제외)
+@Getter
+public class MemberSnapshot {
+
+    private final Long id;
+    private final String email;
+    private final String name;
+    private final Role role;
+    private final String provider;
+
+    public MemberSnapshot(Member member) {
+        this.id = member.getId();
+        this.email = member.getEmail();
+        this.name = member.getName();
+        this.role = member.getRole();
+        this.provider = member.getProvider();
+    }
+}
@@ -0,0 +1,178 @@
+package springboot.yongjunstore.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springboot.yongjunstore.common.cache.LocalLruCache;
+import springboot.yongjunstore.config.RedisUtils;
+import springboot.yongjunstore.config.jwt.JwtProvider;
+import springboot.yongjunstore.repository.MemberRepository;
+
+import java.util.Optional;
+
+// email -> 회원 정보 (MemberSnapshot) 서버 메모리 캐시
+// accessToken 의 claims 만으로 부족한 경우 (ex. 회원 id 가 없는 이전 형식의 토큰) 에 사용
+// 비밀번호 변경, 회원 탈퇴 시 삭제하고, 탈퇴한 회원 id 는 accessToken 유효 시간 동안 기록해서 DB 조회 없이 거절
+// 탈퇴 기록 : member:deleted:{memberId} (Redis, TTL = accessToken 유효 시간) -> 모든 서버에서 거절
+// 탈퇴하지 않은 회원도 짧은 시간 (deleted-check-ttl-millis) 동안 서버 메모리에 기록해서 요청마다 Redis 를 조회하지 않음
+// 다른 서버의 회원 정보 캐시는 비워지지 않으므로 TTL 만큼은 이전 값이 보일 수 있음 (탈퇴 확인은 deleted-check-ttl-millis 만큼)
+// 메트릭 : /actuator/metrics/member.snapshot_cache.requests
+@Slf4j
+@Component
+public class MemberSnapshotCache {
+
+    private static final String DELETED_KEY_PREFIX = "member:deleted:";
+
+    private final MemberRepository memberRepository;
+    private final RedisUtils redisUtils;
+
+    private final LocalLruCache<String, MemberSnapshot> snapshots;
+
+    // 탈퇴한 회원 id (Redis 에서 확인한 기록을 서버 메모리에도 보관)
+    private final LocalLruCache<Long, Boolean> deletedMembers;
+
+    // Redis 에서 탈퇴 기록이 없다고 확인한 회원 id (짧은 TTL)
+    private final LocalLruCache<Long, Boolean> activeMembers;
+
+    private final Counter hit;
+    private final Counter miss;
+
+    public MemberSnapshotCache(MemberRepository memberRepository, RedisUtils redisUtils, MeterRegistry meterRegistry,
+                               @Value("${member.snapshot-cache.max-size:10000}") int maxSize,
+                               @Value("${member.snapshot-cache.ttl-seconds:60}") long ttlSeconds,
+                               @Value("${member.snapshot-cache.deleted-check-ttl-millis:3000}") long deletedCheckTtlMillis) {
+
+        this.memberRepository = memberRepository;
+        this.redisUtils = redisUtils;
+
+        this.snapshots = new LocalLruCache<>(maxSize, ttlSeconds * 1000, () -> { });
+        this.deletedMembers = new LocalLruCache<>(maxSize, JwtProvider.ACCESS_TIME, () -> { });
+        this.activeMembers = new LocalLruCache<>(maxSize, deletedCheckTtlMillis, () -> { });
+
+        this.hit = requestCounter(meterRegistry, "hit");
+        this.miss = requestCounter(meterRegistry, "miss");
+
+        Gauge.builder("member.snapshot_cache.size", snapshots, LocalLruCache::size)
+                .register(meterRegistry);
+    }
+
+
+    // 캐시에 없으면 DB 에서 조회 후 저장 (없는 회원은 저장하지 않음)
+    public Optional<MemberSnapshot> find(String email) {
+
+        MemberSnapshot cached = snapshots.get(email);
+
+        if (cached != null) {
+            hit.increment();
+            return Optional.of(cached);
+        }
+
+        miss.increment();
+
+        Optional<MemberSnapshot> loaded = memberRepository.findByEmail(email).map(MemberSnapshot::new);
+
+        loaded.ifPresent((snapshot) -> snapshots.put(email, snapshot));
+
+        return loaded;
+    }
+
+
+    // 서버 메모리에 없으면 Redis 의 탈퇴 기록 확인 (Redis 장애 시 탈퇴하지 않은 회원으로 처리)
+    // 탈퇴 기록이 없으면 짧은 TTL 동안 서버 메모리에 기록
+    public boolean isDeleted(Long memberId) {
+
+        if (memberId == null) {
+            return false;
+        }
+
+        if (deletedMembers.get(memberId) != null) {
+            return true;
+        }
+
+        if (activeMembers.get(memberId) != null) {
+            return false;
+        }
+
+        try {
+            if (redisUtils.getData(DELETED_KEY_PREFIX + memberId) == null) {
+                activeMembers.put(memberId, Boolean.TRUE);
+                return false;
+            }
+        } catch (RuntimeException e) {
+            log.warn("탈퇴 회원 기록 조회 실패 : {}", e.getMessage());
+            return false;
+        }
+
+        deletedMembers.put(memberId, Boolean.TRUE);
+
+        return true;
+    }
+
+
+    // 지금 바로 삭제하고, 트랜잭션 중이면 커밋 후에 한 번 더 삭제
+    // (커밋 전에 다른 요청이 이전 값을 다시 캐시에 넣는 경우 방지)
+    public void evict(String email) {
+
+        snapshots.remove(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshots.remove(email);
+                }
+            });
+        }
+    }
+
+
+    // 회원 탈퇴 : 캐시를 비우고, 커밋 후에는 탈퇴한 회원으로 기록
+    public void evictAsDeleted(String email, Long memberId) {
+
+        evict(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markDeleted(memberId);
+                }
+            });
+        } else {
+            markDeleted(memberId);
+        }
+    }
+
+
+    // 서버 메모리 캐시만 비움 (Redis 의 탈퇴 기록은 TTL 이 지나면 삭제)
+    public void clear() {
+        snapshots.clear();
+        deletedMembers.clear();
+        activeMembers.clear();
+    }
+
+
+    private void markDeleted(Long memberId) {
+
+        deletedMembers.put(memberId, Boolean.TRUE);
+        activeMembers.remove(memberId);
+
+        try {
+            redisUtils.setDataExpire(DELETED_KEY_PREFIX + memberId, "1", JwtProvider.ACCESS_TIME / 1000);
+        } catch (RuntimeException e) {
+            log.warn("탈퇴 회원 기록 저장 실패 : {}", e.getMessage());
+        }
+    }
+
+
+    private Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("member.snapshot_cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
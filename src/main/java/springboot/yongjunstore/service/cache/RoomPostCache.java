@@ -0,0 +1,305 @@
+package springboot.yongjunstore.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springboot.yongjunstore.common.cache.LocalLruCache;
+import springboot.yongjunstore.common.concurrent.SingleFlight;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.RedisUtils;
+import springboot.yongjunstore.response.RoomPostResponse;
+import springboot.yongjunstore.service.index.RoomPostIdBloomFilter;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// 방 상세 조회 결과(RoomPostResponse) 캐시
+// 1차 : 서버 메모리 LRU (짧은 TTL) -> 2차 : Redis (여러 서버가 공유) -> DB
+// 캐시 miss 가 동시에 발생하면 글 id 별로 하나의 요청만 Redis / DB 를 조회하고 나머지는 그 결과를 기다림
+// 없는 글(ROOM_POST_NOT_FOUND)과 방금 종료된 글은 짧은 TTL 동안 서버 메모리에 기록해서 DB 조회 없이 거절
+// 없는 글은 Bloom filter 의 스캔이 끝난 id 만 기록 (그보다 큰 id 는 아직 커밋되지 않은 글일 수 있음)
+// 다른 서버의 1차 캐시는 삭제 시 비워지지 않으므로 1차 TTL 만큼은 이전 값이 보일 수 있음
+// 삭제할 때마다 글 id 별 세대(room-post:detail:generation:{id})를 올리고, 조회 시작 시점의 세대가 그대로일 때만 캐시에 저장
+// (삭제 전에 시작한 조회가 이전 값을 Redis TTL 동안 다시 저장하는 경우 방지)
+// 메트릭 : /actuator/metrics/room_post.cache.requests , room_post.cache.evictions
+@Slf4j
+@Component
+public class RoomPostCache {
+
+    private static final String KEY_PREFIX = "room-post:detail:";
+    private static final String GENERATION_KEY_PREFIX = "room-post:detail:generation:";
+
+    // KEYS : 상세 조회 결과, 세대
+    // ARGV : 세대 TTL (초)
+    private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            local generation = redis.call('INCR', KEYS[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[1])
+            return generation
+            """, Long.class);
+
+    // KEYS : 상세 조회 결과, 세대
+    // ARGV : 조회 시작 시점의 세대, 상세 조회 결과 (JSON), TTL (초)
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            local generation = redis.call('GET', KEYS[2]) or '0'
+            if generation ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final RedisUtils redisUtils;
+    private final ObjectMapper objectMapper;
+    private final RoomPostIdBloomFilter roomPostIdBloomFilter;
+
+    private final LocalLruCache<Long, RoomPostResponse> localCache;
+
+    private final SingleFlight<Long, RoomPostResponse> singleFlight;
+
+    // 없는 글 id (negative cache)
+    private final LocalLruCache<Long, Boolean> missingCache;
+
+    private final long redisTtlSeconds;
+
+    private final Counter localHit;
+    private final Counter localMiss;
+    private final Counter redisHit;
+    private final Counter redisMiss;
+    private final Counter negativeHit;
+
+    public RoomPostCache(RedisUtils redisUtils, ObjectMapper objectMapper, RoomPostIdBloomFilter roomPostIdBloomFilter,
+                         MeterRegistry meterRegistry,
+                         @Value("${roomPost.cache.local.max-size:1000}") int localMaxSize,
+                         @Value("${roomPost.cache.local.ttl-seconds:30}") long localTtlSeconds,
+                         @Value("${roomPost.cache.redis.ttl-seconds:600}") long redisTtlSeconds,
+                         @Value("${roomPost.cache.load-timeout-millis:3000}") long loadTimeoutMillis,
+                         @Value("${roomPost.cache.negative.max-size:10000}") int negativeMaxSize,
+                         @Value("${roomPost.cache.negative.ttl-seconds:30}") long negativeTtlSeconds) {
+
+        this.redisUtils = redisUtils;
+        this.objectMapper = objectMapper;
+        this.roomPostIdBloomFilter = roomPostIdBloomFilter;
+        this.redisTtlSeconds = redisTtlSeconds;
+
+        Counter localEviction = Counter.builder("room_post.cache.evictions")
+                .tag("tier", "local")
+                .register(meterRegistry);
+
+        this.localCache = new LocalLruCache<>(localMaxSize, localTtlSeconds * 1000, localEviction::increment);
+
+        this.singleFlight = new SingleFlight<>(loadTimeoutMillis, ErrorCode.ROOM_POST_LOAD_TIMEOUT);
+
+        Counter negativeEviction = Counter.builder("room_post.cache.evictions")
+                .tag("tier", "negative")
+                .register(meterRegistry);
+
+        this.missingCache = new LocalLruCache<>(negativeMaxSize, negativeTtlSeconds * 1000, negativeEviction::increment);
+
+        this.localHit = requestCounter(meterRegistry, "local", "hit");
+        this.localMiss = requestCounter(meterRegistry, "local", "miss");
+        this.redisHit = requestCounter(meterRegistry, "redis", "hit");
+        this.redisMiss = requestCounter(meterRegistry, "redis", "miss");
+        this.negativeHit = requestCounter(meterRegistry, "negative", "hit");
+
+        Gauge.builder("room_post.cache.size", localCache, LocalLruCache::size)
+                .tag("tier", "local")
+                .register(meterRegistry);
+
+        Gauge.builder("room_post.cache.in_flight", singleFlight, SingleFlight::inFlightCount)
+                .register(meterRegistry);
+    }
+
+
+    // 캐시에 없으면 loader 로 조회한 후 두 캐시에 저장
+    public RoomPostResponse get(Long roomPostId, Supplier<RoomPostResponse> loader) {
+
+        RoomPostResponse cached = localCache.get(roomPostId);
+
+        if (cached != null) {
+            localHit.increment();
+            return cached;
+        }
+
+        localMiss.increment();
+
+        return singleFlight.execute(roomPostId, () -> load(roomPostId, loader));
+    }
+
+
+    private RoomPostResponse load(Long roomPostId, Supplier<RoomPostResponse> loader) {
+
+        // 직전에 끝난 다른 요청이 이미 저장했을 수 있음
+        RoomPostResponse cached = localCache.get(roomPostId);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        cached = getFromRedis(roomPostId);
+
+        if (cached != null) {
+            redisHit.increment();
+            localCache.put(roomPostId, cached);
+            return cached;
+        }
+
+        redisMiss.increment();
+
+        // DB 조회 전에 세대를 읽어야 조회 중에 발생한 삭제를 알 수 있음
+        String generation = getGeneration(roomPostId);
+
+        RoomPostResponse loaded;
+
+        try {
+            loaded = loader.get();
+        } catch (GlobalException e) {
+            if (e.getErrorCode() == ErrorCode.ROOM_POST_NOT_FOUND && roomPostIdBloomFilter.isIndexed(roomPostId)) {
+                missingCache.put(roomPostId, Boolean.TRUE);
+            }
+            throw e;
+        }
+
+        // 조회 중에 삭제되었으면 이번 결과는 저장하지 않음 (다음 조회에서 다시 읽음)
+        if (putToRedis(roomPostId, loaded, generation)) {
+            localCache.put(roomPostId, loaded);
+        }
+
+        return loaded;
+    }
+
+
+    // 최근에 없는 글로 확인된 id 인지
+    public boolean isMissing(Long roomPostId) {
+
+        if (missingCache.get(roomPostId) == null) {
+            return false;
+        }
+
+        negativeHit.increment();
+        return true;
+    }
+
+
+    // 글 종료 : 캐시를 비우고, 커밋 후에는 없는 글로 기록
+    public void evictAsMissing(Long roomPostId) {
+
+        evict(roomPostId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    missingCache.put(roomPostId, Boolean.TRUE);
+                }
+            });
+        } else {
+            missingCache.put(roomPostId, Boolean.TRUE);
+        }
+    }
+
+
+    // 지금 바로 삭제하고, 트랜잭션 중이면 커밋 후에 한 번 더 삭제
+    // (커밋 전에 다른 요청이 이전 값을 다시 캐시에 넣는 경우 방지)
+    public void evict(Long roomPostId) {
+
+        evictNow(roomPostId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(roomPostId);
+                }
+            });
+        }
+    }
+
+
+    // 서버 메모리 캐시 전체 삭제
+    public void clearLocal() {
+        localCache.clear();
+        missingCache.clear();
+    }
+
+
+    private void evictNow(Long roomPostId) {
+
+        localCache.remove(roomPostId);
+        missingCache.remove(roomPostId);
+
+        try {
+            redisUtils.executeScript(EVICT_SCRIPT,
+                    List.of(KEY_PREFIX + roomPostId, GENERATION_KEY_PREFIX + roomPostId),
+                    String.valueOf(redisTtlSeconds));
+        } catch (RuntimeException e) {
+            log.warn("room post cache 삭제 실패 : {}", e.getMessage());
+        }
+    }
+
+
+    // Redis 장애 또는 역직렬화 실패 시 캐시 miss 로 처리
+    private RoomPostResponse getFromRedis(Long roomPostId) {
+
+        try {
+            String json = redisUtils.getData(KEY_PREFIX + roomPostId);
+            return json != null ? objectMapper.readValue(json, RoomPostResponse.class) : null;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("room post cache 조회 실패 : {}", e.getMessage());
+            return null;
+        }
+    }
+
+
+    // Redis 장애 시 null (세대를 확인할 수 없으므로 서버 메모리에만 저장)
+    private String getGeneration(Long roomPostId) {
+
+        try {
+            String generation = redisUtils.getData(GENERATION_KEY_PREFIX + roomPostId);
+            return generation != null ? generation : "0";
+        } catch (RuntimeException e) {
+            log.warn("room post cache 세대 조회 실패 : {}", e.getMessage());
+            return null;
+        }
+    }
+
+
+    // 조회 시작 후 세대가 바뀌었으면 (삭제되었으면) 저장하지 않고 false
+    private boolean putToRedis(Long roomPostId, RoomPostResponse roomPostResponse, String generation) {
+
+        if (generation == null) {
+            return true;
+        }
+
+        try {
+            Long stored = redisUtils.executeScript(PUT_SCRIPT,
+                    List.of(KEY_PREFIX + roomPostId, GENERATION_KEY_PREFIX + roomPostId),
+                    generation,
+                    objectMapper.writeValueAsString(roomPostResponse),
+                    String.valueOf(redisTtlSeconds));
+
+            return stored == null || stored == 1L;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("room post cache 저장 실패 : {}", e.getMessage());
+            return true;
+        }
+    }
+
+
+    private Counter requestCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("room_post.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
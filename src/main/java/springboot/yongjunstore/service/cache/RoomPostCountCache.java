@@ -0,0 +1,59 @@
+package springboot.yongjunstore.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import springboot.yongjunstore.config.RedisUtils;
+import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.repository.condition.RoomPostSearchCondition;
+
+// 방 목록의 전체 개수를 검색 조건 별로 Redis 에 TTL 동안 저장
+// contains 검색의 count 는 전체 테이블 스캔이므로, 정확한 값이 필요 없는 클라이언트는 이 근사값을 사용
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomPostCountCache {
+
+    private static final String KEY_PREFIX = "room-post:count:";
+
+    private final RedisUtils redisUtils;
+    private final RoomPostRepository roomPostRepository;
+
+    @Value("${roomPost.count-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+
+    public long getApproximateCount(RoomPostSearchCondition condition) {
+
+        // 후보 id 는 검색어로부터 만들어지므로 key 에 포함하지 않음
+        String key = KEY_PREFIX + String.join(":",
+                condition.getSearchOption(), condition.getSearchContent(),
+                String.valueOf(condition.getRoomStatus()), String.valueOf(condition.getRegion()),
+                String.valueOf(condition.getDeposit()),
+                condition.getMinMonthlyPrice() + "-" + condition.getMaxMonthlyPrice(),
+                condition.getMinDepositPrice() + "-" + condition.getMaxDepositPrice(),
+                condition.getMinSquareFootage() + "-" + condition.getMaxSquareFootage());
+
+        try {
+            String cached = redisUtils.getData(key);
+
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (RuntimeException e) {
+            // Redis 장애 시 count 쿼리로 대체
+            log.warn("room post count cache 조회 실패 : {}", e.getMessage());
+        }
+
+        long count = roomPostRepository.countRoomPostList(condition);
+
+        try {
+            redisUtils.setDataExpire(key, String.valueOf(count), ttlSeconds);
+        } catch (RuntimeException e) {
+            log.warn("room post count cache 저장 실패 : {}", e.getMessage());
+        }
+
+        return count;
+    }
+}
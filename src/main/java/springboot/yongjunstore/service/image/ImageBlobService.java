@@ -0,0 +1,156 @@
+package springboot.yongjunstore.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.domain.room.ImageBlob;
+import springboot.yongjunstore.domain.room.ImageStorage;
+import springboot.yongjunstore.repository.ImageBlobRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 내용 기준 이미지 원본 (ImageBlob) 의 등록과 참조 수 관리
+// refCount -1 : 저장소 정리가 파일을 삭제 중인 원본 (조회, 참조, 같은 내용의 재등록 불가)
+@Slf4j
+@Service
+public class ImageBlobService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ImageBlobRepository imageBlobRepository;
+    private final TransactionTemplate newTransactionTemplate;
+
+    public ImageBlobService(ImageBlobRepository imageBlobRepository, PlatformTransactionManager transactionManager) {
+        this.imageBlobRepository = imageBlobRepository;
+
+        // 원본 등록은 글 저장 트랜잭션과 분리 (중복 등록 충돌이 글 저장을 실패시키지 않도록)
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+
+    // 삭제 중인 원본은 없는 것으로 처리
+    public Optional<ImageBlob> find(ImageStorage storage, String contentHash) {
+        return imageBlobRepository.findRegistered(storage, contentHash);
+    }
+
+
+    // 저장이 끝난 원본을 등록 (참조 수 0 으로 등록, Images 저장 시 증가)
+    // 같은 원본을 동시에 등록하면 unique 제약으로 하나만 저장되고 나머지는 먼저 등록된 원본을 사용
+    // 이번 호출이 등록한 경우에만 newlyStored = true (다른 요청이 등록한 원본은 보상 처리에서 삭제하면 안 됨)
+    public StoredImage register(ImageStorage storage, String contentHash, String storageKey, String path, String name) {
+
+        Optional<ImageBlob> findImageBlob = find(storage, contentHash);
+
+        if (findImageBlob.isPresent()) {
+            return StoredImage.of(findImageBlob.get(), false);
+        }
+
+        try {
+            ImageBlob imageBlob = newTransactionTemplate.execute((status) -> imageBlobRepository.save(ImageBlob.builder()
+                    .storage(storage)
+                    .contentHash(contentHash)
+                    .storageKey(storageKey)
+                    .path(path)
+                    .name(name)
+                    .build()));
+
+            return StoredImage.of(imageBlob, true);
+
+        } catch (DataIntegrityViolationException e) {
+            return find(storage, contentHash)
+                    .map((imageBlob) -> StoredImage.of(imageBlob, false))
+                    .orElseThrow(() -> new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD));
+        }
+    }
+
+
+    // Images 저장 트랜잭션 안에서 호출
+    public ImageBlob acquire(Long imageBlobId) {
+
+        // 그 사이 참조가 없는 원본으로 정리되었거나 정리 중인 경우
+        if (imageBlobRepository.incrementRefCount(imageBlobId) == 0) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+        }
+
+        return imageBlobRepository.getReferenceById(imageBlobId);
+    }
+
+
+    // 삭제되는 Images 가 참조하던 원본의 참조 수 감소 (0 이 된 원본은 정리 대상)
+    public void release(List<Long> imageBlobIds) {
+
+        Map<Long, Long> countByImageBlobId = imageBlobIds.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        countByImageBlobId.forEach((imageBlobId, count) -> {
+            if (imageBlobRepository.decrementRefCount(imageBlobId, count) == 0) {
+                log.warn("이미지 원본 참조 수가 맞지 않습니다. imageBlobId={}", imageBlobId);
+            }
+        });
+    }
+
+
+    // 참조하는 Images 가 없으면 원본 등록을 삭제하고 true (실제 파일은 호출한 쪽에서 삭제)
+    public boolean deleteIfUnreferenced(Long imageBlobId) {
+
+        Integer deleted = newTransactionTemplate.execute((status) -> imageBlobRepository.deleteUnreferenced(imageBlobId));
+
+        return deleted != null && deleted > 0;
+    }
+
+
+    // 저장소 정리 1단계 : 참조가 없는 원본을 삭제 중으로 표시 (파일 삭제 전)
+    // 표시한 뒤에는 같은 내용이 다시 등록되거나 참조되지 않으므로 파일을 지워도 새 글이 잃어버리지 않음
+    // 이전 정리가 파일 삭제 중에 멈춘 원본도 다시 표시됨
+    public boolean markDeleting(Long imageBlobId) {
+
+        Integer marked = newTransactionTemplate.execute((status) -> imageBlobRepository.markDeleting(imageBlobId));
+
+        return marked != null && marked > 0;
+    }
+
+
+    // 저장소 정리 2단계 : 파일을 모두 삭제한 원본의 등록 삭제
+    public void deleteMarked(Long imageBlobId) {
+        newTransactionTemplate.executeWithoutResult((status) -> imageBlobRepository.deleteMarked(imageBlobId));
+    }
+
+
+    // 스트림을 한 번 읽으면서 SHA-256 계산
+    public static String sha256(InputStream inputStream) throws IOException {
+
+        MessageDigest messageDigest = sha256Digest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            messageDigest.update(buffer, 0, read);
+        }
+
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
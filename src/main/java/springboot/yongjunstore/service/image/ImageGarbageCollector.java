@@ -0,0 +1,503 @@
+package springboot.yongjunstore.service.image;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.domain.room.ImageBlob;
+import springboot.yongjunstore.domain.room.ImageStorage;
+import springboot.yongjunstore.domain.room.Images;
+import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.ImageBlobRepository;
+import springboot.yongjunstore.repository.ImagesRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// 참조하는 Images 가 없는 이미지 원본 정리 (백그라운드 작업)
+// 1. grace 시간 전에 종료된 글의 Images 를 삭제하고 원본 참조 수 감소
+// 2. 참조 수가 0 이고 grace 시간 전에 등록된 ImageBlob 과 파일 (크기별 이미지 포함) 삭제
+//    ImageBlob 을 삭제 중 (refCount -1) 으로 표시 -> 파일 삭제 -> ImageBlob 삭제 순서 (파일을 지우는 동안 같은 내용이 다시 등록되지 않도록)
+// 3. 저장은 끝났지만 DB 에 등록되지 못한 파일 (ImageBlob 이 없는 해시 이름 파일) 을 저장소 목록과 비교해서 삭제
+//    local : 해시 앞 2글자 폴더를 한 번에 local-folders-per-run 개씩, S3 : 목록 한 page 씩 이어서 확인
+// 4. 업로드 중 서버가 종료되어 남은 임시 파일 (tmp/*.upload) 삭제
+// 한 번에 page-size 개씩 처리하고, 실행당 max-deletes-per-run 개, 초당 deletes-per-second 개까지만 삭제
+// 원본 등록 전 / Images 저장 전의 업로드를 지우지 않도록 grace 시간이 지난 대상만 삭제
+// 정리는 전용 스레드 (imageGcExecutor) 에서 실행 : 삭제 간격을 맞추는 대기가 다른 @Scheduled 작업을 막지 않도록
+// 메트릭 : /actuator/metrics/image.gc.deleted , image.gc.reclaimed.bytes , image.gc.released
+@Slf4j
+@Component
+public class ImageGarbageCollector {
+
+    // {hash}.jpg, {hash}_thumbnail.jpg (local) , {hash}.jpg_thumbnail.jpg (S3)
+    private static final Pattern CONTENT_NAME = Pattern.compile("^([0-9a-f]{64})[._][A-Za-z0-9._]+$");
+
+    private static final Pattern CONTENT_FOLDER = Pattern.compile("^[0-9a-f]{2}$");
+
+    private static final String TEMP_FOLDER = "tmp";
+
+    private static final String TEMP_UPLOAD_SUFFIX = ".upload";
+
+    private static final String VARIANT_EXTENSION = ".jpg";
+
+    private final ImagesRepository imagesRepository;
+    private final ImageBlobRepository imageBlobRepository;
+    private final ImageBlobService imageBlobService;
+    private final AmazonS3 amazonS3;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor imageGcExecutor;
+
+    @Value("${fileUpload.upload.local.path}")
+    private String uploadPath;
+
+    @Value("${cloud.aws.s3.bucket}")
+    private String bucket;
+
+    private final boolean enabled;
+    private final long graceMinutes;
+    private final int pageSize;
+    private final int maxDeletesPerRun;
+    private final long deleteIntervalNanos;
+    private final int localFoldersPerRun;
+    private final boolean s3Enabled;
+
+    // 다음 실행에서 이어서 확인할 위치
+    private long lastImageBlobId = 0L;
+    private int nextLocalFolder = 0;
+    private String s3ContinuationToken;
+
+    // 이번 실행에서 삭제한 수, 마지막 삭제 시간 (속도 제한용)
+    private int deletedInRun;
+    private long lastDeleteNanos;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter released;
+
+    public ImageGarbageCollector(ImagesRepository imagesRepository, ImageBlobRepository imageBlobRepository,
+                                 ImageBlobService imageBlobService, AmazonS3 amazonS3,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                 ThreadPoolTaskExecutor imageGcExecutor,
+                                 @Value("${fileUpload.gc.enabled:true}") boolean enabled,
+                                 @Value("${fileUpload.gc.grace-minutes:1440}") long graceMinutes,
+                                 @Value("${fileUpload.gc.page-size:100}") int pageSize,
+                                 @Value("${fileUpload.gc.max-deletes-per-run:500}") int maxDeletesPerRun,
+                                 @Value("${fileUpload.gc.deletes-per-second:20}") int deletesPerSecond,
+                                 @Value("${fileUpload.gc.local-folders-per-run:16}") int localFoldersPerRun,
+                                 @Value("${fileUpload.gc.s3.enabled:true}") boolean s3Enabled) {
+
+        this.imagesRepository = imagesRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.imageBlobService = imageBlobService;
+        this.amazonS3 = amazonS3;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.imageGcExecutor = imageGcExecutor;
+
+        this.enabled = enabled;
+        this.graceMinutes = graceMinutes;
+        this.pageSize = pageSize;
+        this.maxDeletesPerRun = maxDeletesPerRun;
+        // 0 이하이면 속도 제한 없음
+        this.deleteIntervalNanos = deletesPerSecond > 0 ? 1_000_000_000L / deletesPerSecond : 0L;
+        this.localFoldersPerRun = localFoldersPerRun;
+        this.s3Enabled = s3Enabled;
+
+        this.released = Counter.builder("image.gc.released").register(meterRegistry);
+    }
+
+
+    @Scheduled(initialDelayString = "${fileUpload.gc.initial-delay-millis:600000}",
+            fixedDelayString = "${fileUpload.gc.interval-millis:600000}")
+    public void scheduledSweep() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            imageGcExecutor.execute(this::sweep);
+        } catch (TaskRejectedException e) {
+            // 이전 정리가 아직 실행 중
+            log.info("이미지 저장소 정리가 실행 중이라 이번 실행은 건너뜀");
+        }
+    }
+
+
+    public synchronized void sweep() {
+
+        deletedInRun = 0;
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(graceMinutes);
+
+        // 한 단계가 실패해도 나머지 단계는 실행
+        runStep("terminated room post", () -> releaseTerminatedRoomPosts(cutoff));
+        runStep("unreferenced blob", () -> deleteUnreferencedBlobs(cutoff));
+        runStep("local orphan", () -> deleteLocalOrphans(cutoff));
+        runStep("temp upload", () -> deleteTempUploads(cutoff));
+
+        if (s3Enabled) {
+            runStep("s3 orphan", () -> deleteS3Orphans(cutoff));
+        }
+
+        if (deletedInRun > 0) {
+            log.info("이미지 저장소 정리 : {}개 삭제", deletedInRun);
+        }
+    }
+
+
+    // 종료된 글의 이미지는 더 이상 조회되지 않으므로 Images 를 삭제하고 원본 참조 수 감소
+    private void releaseTerminatedRoomPosts(LocalDateTime cutoff) {
+
+        while (!isRunLimitReached()) {
+
+            Integer count = transactionTemplate.execute((status) -> {
+
+                List<Images> imagesList = imagesRepository.findByTerminatedRoomPost(RoomStatus.종료, cutoff, PageRequest.of(0, pageSize));
+
+                if (imagesList.isEmpty()) {
+                    return 0;
+                }
+
+                imageBlobService.release(imagesList.stream()
+                        .map((images) -> images.getImageBlob().getId())
+                        .toList());
+
+                imagesRepository.deleteAllInBatch(imagesList);
+
+                return imagesList.size();
+            });
+
+            if (count == null || count == 0) {
+                return;
+            }
+
+            released.increment(count);
+
+            if (count < pageSize) {
+                return;
+            }
+        }
+    }
+
+
+    private void deleteUnreferencedBlobs(LocalDateTime cutoff) {
+
+        while (!isRunLimitReached()) {
+
+            List<ImageBlob> imageBlobs = imageBlobRepository.findUnreferenced(lastImageBlobId, cutoff, PageRequest.of(0, pageSize));
+
+            if (imageBlobs.isEmpty()) {
+                // 끝까지 확인했으면 다음 실행은 처음부터
+                lastImageBlobId = 0L;
+                return;
+            }
+
+            for (ImageBlob imageBlob : imageBlobs) {
+
+                if (isRunLimitReached()) {
+                    return;
+                }
+
+                lastImageBlobId = imageBlob.getId();
+
+                // 그 사이 다른 글이 참조했으면 삭제하지 않음
+                if (!imageBlobService.markDeleting(imageBlob.getId())) {
+                    continue;
+                }
+
+                if (imageBlob.getStorage() == ImageStorage.S3) {
+                    deleteS3Object(imageBlob.getStorageKey(), "unreferenced");
+
+                    for (ImageVariant variant : ImageVariant.values()) {
+                        deleteS3Object(imageBlob.getStorageKey() + "_" + variant.getSuffix() + VARIANT_EXTENSION, "unreferenced");
+                    }
+                } else {
+                    Path file = Paths.get(uploadPath, imageBlob.getStorageKey());
+                    deleteLocalFile(file, "unreferenced");
+
+                    for (ImageVariant variant : ImageVariant.values()) {
+                        deleteLocalFile(file.resolveSibling(imageBlob.getContentHash() + "_" + variant.getSuffix() + VARIANT_EXTENSION), "unreferenced");
+                    }
+                }
+
+                // 실행당 삭제 수 제한으로 파일이 남았으면 삭제 중 표시를 유지하고 다음 실행에서 이어서 삭제
+                if (isRunLimitReached()) {
+                    return;
+                }
+
+                imageBlobService.deleteMarked(imageBlob.getId());
+            }
+
+            if (imageBlobs.size() < pageSize) {
+                lastImageBlobId = 0L;
+                return;
+            }
+        }
+    }
+
+
+    // 업로드 폴더의 {해시 2글자}/{해시 2글자}/{hash}... 파일 중 ImageBlob 이 없는 파일 삭제
+    private void deleteLocalOrphans(LocalDateTime cutoff) throws IOException {
+
+        Path root = Paths.get(uploadPath);
+
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        List<Path> folders;
+
+        try (Stream<Path> stream = Files.list(root)) {
+            folders = stream
+                    .filter(Files::isDirectory)
+                    .filter((folder) -> CONTENT_FOLDER.matcher(folder.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+
+        if (folders.isEmpty()) {
+            return;
+        }
+
+        for (int i = 0; i < Math.min(localFoldersPerRun, folders.size()) && !isRunLimitReached(); i++) {
+
+            Path folder = folders.get(nextLocalFolder % folders.size());
+            nextLocalFolder = (nextLocalFolder + 1) % folders.size();
+
+            Map<String, List<Path>> filesByHash = new HashMap<>();
+
+            try (Stream<Path> stream = Files.walk(folder, 2)) {
+                stream.filter(Files::isRegularFile)
+                        .filter((file) -> isBefore(file, cutoff))
+                        .forEach((file) -> {
+                            Matcher matcher = CONTENT_NAME.matcher(file.getFileName().toString());
+
+                            if (matcher.matches()) {
+                                filesByHash.computeIfAbsent(matcher.group(1), (hash) -> new ArrayList<>()).add(file);
+                            }
+                        });
+            }
+
+            for (String contentHash : findOrphanHashes(ImageStorage.LOCAL, filesByHash.keySet())) {
+                for (Path file : filesByHash.get(contentHash)) {
+                    deleteLocalFile(file, "orphan");
+                }
+            }
+        }
+    }
+
+
+    // 업로드 중 서버가 종료되어 남은 임시 파일 (FileService 가 해시 계산 전에 저장하는 파일)
+    private void deleteTempUploads(LocalDateTime cutoff) throws IOException {
+
+        Path tempFolder = Paths.get(uploadPath, TEMP_FOLDER);
+
+        if (!Files.isDirectory(tempFolder)) {
+            return;
+        }
+
+        List<Path> tempFiles;
+
+        try (Stream<Path> stream = Files.list(tempFolder)) {
+            tempFiles = stream
+                    .filter(Files::isRegularFile)
+                    .filter((file) -> file.getFileName().toString().endsWith(TEMP_UPLOAD_SUFFIX))
+                    .filter((file) -> isBefore(file, cutoff))
+                    .limit(pageSize)
+                    .toList();
+        }
+
+        for (Path tempFile : tempFiles) {
+            deleteLocalFile(tempFile, "temp");
+        }
+    }
+
+
+    // bucket 목록을 한 page 씩 이어서 확인하고, ImageBlob 이 없는 해시 이름 객체 삭제
+    private void deleteS3Orphans(LocalDateTime cutoff) {
+
+        ListObjectsV2Result result = amazonS3.listObjectsV2(new ListObjectsV2Request()
+                .withBucketName(bucket)
+                .withMaxKeys(pageSize)
+                .withContinuationToken(s3ContinuationToken));
+
+        if (result == null) {
+            return;
+        }
+
+        // 마지막 page 이면 다음 실행은 처음부터
+        s3ContinuationToken = result.isTruncated() ? result.getNextContinuationToken() : null;
+
+        Map<String, List<S3ObjectSummary>> objectsByHash = new HashMap<>();
+
+        for (S3ObjectSummary summary : result.getObjectSummaries()) {
+
+            Matcher matcher = CONTENT_NAME.matcher(summary.getKey());
+
+            if (matcher.matches() && summary.getLastModified() != null
+                    && LocalDateTime.ofInstant(summary.getLastModified().toInstant(), ZoneId.systemDefault()).isBefore(cutoff)) {
+                objectsByHash.computeIfAbsent(matcher.group(1), (hash) -> new ArrayList<>()).add(summary);
+            }
+        }
+
+        for (String contentHash : findOrphanHashes(ImageStorage.S3, objectsByHash.keySet())) {
+            for (S3ObjectSummary summary : objectsByHash.get(contentHash)) {
+
+                if (isRunLimitReached()) {
+                    return;
+                }
+
+                throttle();
+                amazonS3.deleteObject(bucket, summary.getKey());
+                recordDeleted(ImageStorage.S3, "orphan", summary.getSize());
+            }
+        }
+    }
+
+
+    private Set<String> findOrphanHashes(ImageStorage storage, Set<String> contentHashes) {
+
+        Set<String> orphanHashes = new HashSet<>(contentHashes);
+
+        List<String> hashes = new ArrayList<>(contentHashes);
+
+        // IN 쿼리가 너무 길어지지 않도록 page-size 개씩 조회
+        for (int from = 0; from < hashes.size(); from += pageSize) {
+            orphanHashes.removeAll(imageBlobRepository.findContentHashes(storage, hashes.subList(from, Math.min(from + pageSize, hashes.size()))));
+        }
+
+        return orphanHashes;
+    }
+
+
+    private void deleteS3Object(String key, String reason) {
+
+        if (isRunLimitReached()) {
+            return;
+        }
+
+        try {
+            long size = amazonS3.getObjectMetadata(bucket, key).getContentLength();
+
+            throttle();
+            amazonS3.deleteObject(bucket, key);
+            recordDeleted(ImageStorage.S3, reason, size);
+
+        } catch (AmazonS3Exception e) {
+            // 크기별 이미지가 없는 경우 (변환 전에 삭제되었거나 원본이 작아서 만들지 않은 경우)
+            if (e.getStatusCode() != 404) {
+                log.warn("S3 이미지 삭제 실패 : key={}", key, e);
+            }
+        } catch (RuntimeException e) {
+            log.warn("S3 이미지 삭제 실패 : key={}", key, e);
+        }
+    }
+
+
+    private void deleteLocalFile(Path file, String reason) {
+
+        if (isRunLimitReached() || !Files.isRegularFile(file)) {
+            return;
+        }
+
+        try {
+            long size = Files.size(file);
+
+            throttle();
+
+            if (Files.deleteIfExists(file)) {
+                recordDeleted(ImageStorage.LOCAL, reason, size);
+            }
+        } catch (IOException e) {
+            log.warn("이미지 파일 삭제 실패 : {}", file, e);
+        }
+    }
+
+
+    private void recordDeleted(ImageStorage storage, String reason, long size) {
+
+        deletedInRun++;
+
+        String storageTag = storage.name().toLowerCase();
+
+        meterRegistry.counter("image.gc.deleted", "storage", storageTag, "reason", reason).increment();
+        meterRegistry.counter("image.gc.reclaimed.bytes", "storage", storageTag).increment(size);
+    }
+
+
+    private boolean isRunLimitReached() {
+        return deletedInRun >= maxDeletesPerRun;
+    }
+
+
+    // 저장소에 삭제 요청이 몰리지 않도록 삭제 사이 간격 유지
+    private void throttle() {
+
+        if (deleteIntervalNanos <= 0) {
+            return;
+        }
+
+        long waitNanos = lastDeleteNanos + deleteIntervalNanos - System.nanoTime();
+
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        lastDeleteNanos = System.nanoTime();
+    }
+
+
+    private boolean isBefore(Path file, LocalDateTime cutoff) {
+
+        try {
+            return LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault()).isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+
+    private void runStep(String step, SweepStep sweepStep) {
+
+        try {
+            sweepStep.run();
+        } catch (IOException | RuntimeException e) {
+            log.warn("이미지 저장소 정리 실패 : {}", step, e);
+        }
+    }
+
+
+    @FunctionalInterface
+    private interface SweepStep {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,297 @@
+package springboot.yongjunstore.service.image;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.domain.room.Images;
+import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.service.cache.RoomPostCache;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+// 업로드된 원본 이미지로 썸네일, 카드, 상세용 이미지를 만드는 백그라운드 작업
+// 업로드 요청은 원본 저장까지만 하고, 크기 변환은 커밋 후 크기 제한이 있는 스레드 풀에서 실행
+// (큐가 가득 차면 요청 스레드가 직접 변환하므로 업로드가 몰리면 업로드 속도가 같이 느려짐)
+// 가로 x 세로가 max-pixels 를 넘는 이미지는 디코딩하지 않고 원본만 사용 (작은 파일로 큰 메모리를 쓰게 하는 이미지 방지)
+@Slf4j
+@Component
+public class ImageResizePipeline {
+
+    private static final String VARIANT_EXTENSION = ".jpg";
+
+    private final ImagesRepository imagesRepository;
+    private final AmazonS3 amazonS3;
+    private final RoomPostCache roomPostCache;
+    private final ThreadPoolTaskExecutor imageResizeExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${fileUpload.resize.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fileUpload.resize.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${fileUpload.resize.max-pixels:25000000}")
+    private long maxPixels;
+
+    @Value("${cloud.aws.s3.bucket}")
+    private String bucket;
+
+    public ImageResizePipeline(ImagesRepository imagesRepository, AmazonS3 amazonS3, RoomPostCache roomPostCache,
+                               ThreadPoolTaskExecutor imageResizeExecutor, PlatformTransactionManager transactionManager) {
+        this.imagesRepository = imagesRepository;
+        this.amazonS3 = amazonS3;
+        this.roomPostCache = roomPostCache;
+        this.imageResizeExecutor = imageResizeExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+
+    // 로컬에 저장된 원본 (savePath) 옆에 변환된 이미지를 저장
+    public void resizeLocalAfterCommit(Long imagesId, Path savePath) {
+        afterCommit(() -> resizeLocal(imagesId, savePath));
+    }
+
+
+    // S3 에 저장된 원본 (key) 을 읽어서 변환된 이미지를 같은 bucket 에 저장
+    public void resizeS3AfterCommit(Long imagesId, String key) {
+        afterCommit(() -> resizeS3(imagesId, key));
+    }
+
+
+    public void resizeLocal(Long imagesId, Path savePath) {
+
+        String fileName = savePath.getFileName().toString();
+        String baseName = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf(".")) : fileName;
+
+        try (InputStream inputStream = Files.newInputStream(savePath)) {
+
+            resize(imagesId, inputStream, fileName, (variant, bytes) -> {
+
+                String variantName = baseName + "_" + variant.getSuffix() + VARIANT_EXTENSION;
+
+                try {
+                    Files.write(savePath.resolveSibling(variantName), bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                return variantName;
+            });
+
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("이미지 변환 실패 : imagesId={}", imagesId, e);
+        }
+    }
+
+
+    public void resizeS3(Long imagesId, String key) {
+
+        try (S3Object s3Object = amazonS3.getObject(bucket, key);
+             InputStream inputStream = s3Object.getObjectContent()) {
+
+            resize(imagesId, inputStream, key, (variant, bytes) -> {
+
+                String variantKey = key + "_" + variant.getSuffix() + VARIANT_EXTENSION;
+
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentLength(bytes.length);
+                metadata.setContentType("image/jpeg");
+
+                amazonS3.putObject(bucket, variantKey, new ByteArrayInputStream(bytes), metadata);
+
+                return variantKey;
+            });
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("이미지 변환 실패 : imagesId={}", imagesId, e);
+        }
+    }
+
+
+    // 원본을 한 번만 읽어서 크기별로 변환하고, 저장된 이름을 Images 에 기록
+    // 원본이 변환할 크기보다 작으면 원본 이름을 그대로 사용
+    private void resize(Long imagesId, InputStream inputStream, String originalName,
+                        BiFunction<ImageVariant, byte[], String> store) throws IOException {
+
+        BufferedImage original = read(imagesId, inputStream);
+
+        if (original == null) {
+            return;
+        }
+
+        Map<ImageVariant, String> variantNames = new EnumMap<>(ImageVariant.class);
+
+        for (ImageVariant variant : ImageVariant.values()) {
+
+            if (original.getWidth() <= variant.getMaxWidth()) {
+                variantNames.put(variant, originalName);
+                continue;
+            }
+
+            variantNames.put(variant, store.apply(variant, encodeJpeg(scale(original, variant.getMaxWidth()))));
+        }
+
+        Long roomPostId = transactionTemplate.execute((status) -> imagesRepository.findById(imagesId)
+                .map((images) -> {
+                    // 변경 감지로 커밋 시 update
+                    images.updateVariants(
+                            variantNames.get(ImageVariant.THUMBNAIL),
+                            variantNames.get(ImageVariant.CARD),
+                            variantNames.get(ImageVariant.DETAIL));
+
+                    return images.getRoomPost().getId();
+                })
+                .orElse(null));
+
+        // 캐시된 상세 조회 결과에 변환된 이미지가 반영되도록 삭제
+        if (roomPostId != null) {
+            roomPostCache.evict(roomPostId);
+        }
+    }
+
+
+    // 헤더의 가로, 세로만 먼저 읽고 max-pixels 이하일 때만 디코딩
+    // ImageIO 가 읽을 수 없는 형식 (webp 등) 이거나 너무 큰 이미지는 null
+    private BufferedImage read(Long imagesId, InputStream inputStream) throws IOException {
+
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+
+            Iterator<ImageReader> readers = imageInputStream != null
+                    ? ImageIO.getImageReaders(imageInputStream)
+                    : null;
+
+            if (readers == null || !readers.hasNext()) {
+                log.info("변환할 수 없는 이미지 형식입니다. imagesId={}", imagesId);
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+
+            try {
+                reader.setInput(imageInputStream, true, true);
+
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+
+                if (pixels > maxPixels) {
+                    log.warn("이미지가 너무 커서 변환하지 않습니다. imagesId={}, width={}, height={}",
+                            imagesId, reader.getWidth(0), reader.getHeight(0));
+                    return null;
+                }
+
+                return reader.read(0);
+
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+
+    // 한 번에 크게 줄이면 품질이 떨어지므로 목표 크기의 2배가 될 때까지 절반씩 줄인 뒤 마지막에 맞춘다.
+    static BufferedImage scale(BufferedImage original, int maxWidth) {
+
+        int targetHeight = (int) Math.max(1, Math.round((double) original.getHeight() * maxWidth / original.getWidth()));
+
+        BufferedImage current = original;
+        int width = original.getWidth();
+        int height = original.getHeight();
+
+        while (width / 2 >= maxWidth) {
+            width = width / 2;
+            height = Math.max(1, height / 2);
+            current = draw(current, width, height);
+        }
+
+        return draw(current, maxWidth, targetHeight);
+    }
+
+
+    // jpeg 는 투명도를 지원하지 않으므로 흰 배경의 RGB 이미지로 그린다.
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return target;
+    }
+
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        return outputStream.toByteArray();
+    }
+
+
+    private void afterCommit(Runnable task) {
+
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    imageResizeExecutor.execute(task);
+                }
+            });
+        } else {
+            imageResizeExecutor.execute(task);
+        }
+    }
+}
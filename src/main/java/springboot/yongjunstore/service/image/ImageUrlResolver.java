@@ -0,0 +1,86 @@
+package springboot.yongjunstore.service.image;
+
+import com.amazonaws.services.s3.AmazonS3;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import springboot.yongjunstore.domain.room.ImageStorage;
+
+import java.net.URL;
+
+// 저장된 이미지 위치 (저장소 + key) 를 응답용 URL 로 변환
+// CDN host 를 설정하면 DB 의 데이터를 바꾸지 않고 CDN 주소로 제공
+// S3 : {s3-host}/{key} (설정하지 않으면 S3 URL) , local : {local-host}/images/local/{path}/{name}
+@Component
+public class ImageUrlResolver {
+
+    private static final String LOCAL_IMAGE_PATH = "/images/local/";
+
+    private final AmazonS3 amazonS3;
+
+    private final String bucket;
+
+    private final String s3Host;
+
+    private final String localHost;
+
+    public ImageUrlResolver(AmazonS3 amazonS3,
+                            @Value("${cloud.aws.s3.bucket}") String bucket,
+                            @Value("${fileUpload.image.cdn.s3-host:}") String s3Host,
+                            @Value("${fileUpload.image.cdn.local-host:}") String localHost) {
+        this.amazonS3 = amazonS3;
+        this.bucket = bucket;
+        this.s3Host = stripTrailingSlash(s3Host);
+        this.localHost = stripTrailingSlash(localHost);
+    }
+
+
+    // storage 가 null 이면 이전 형식 (S3 는 name 에 전체 URL 이 저장됨)
+    public String resolve(ImageStorage storage, String path, String name) {
+
+        if (name == null) {
+            return null;
+        }
+
+        if (storage == null) {
+            if (name.startsWith("http://") || name.startsWith("https://")) {
+                return name;
+            }
+            storage = ImageStorage.LOCAL;
+        }
+
+        if (storage == ImageStorage.S3) {
+            return resolveS3(LocalImageService.stripLeadingSlash(name));
+        }
+
+        String relativePath = StringUtils.hasText(path)
+                ? LocalImageService.stripLeadingSlash(path.replace('\\', '/')) + "/" + name
+                : name;
+
+        return localHost + LOCAL_IMAGE_PATH + relativePath;
+    }
+
+
+    private String resolveS3(String key) {
+
+        if (StringUtils.hasText(s3Host)) {
+            return s3Host + "/" + key;
+        }
+
+        URL url = amazonS3.getUrl(bucket, key);
+
+        return url != null ? url.toString() : key;
+    }
+
+
+    private String stripTrailingSlash(String host) {
+
+        String value = host == null ? "" : host.trim();
+
+        while (value.endsWith("/")) {
+            value = value.substring(0, value.length() - 1);
+        }
+
+        return value;
+    }
+}
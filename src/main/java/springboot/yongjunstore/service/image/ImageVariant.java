@@ -0,0 +1,20 @@
+package springboot.yongjunstore.service.image;
+
+import lombok.Getter;
+
+// 업로드된 원본 이미지로 만드는 크기별 이미지 (가로 기준, 비율 유지)
+@Getter
+public enum ImageVariant {
+
+    THUMBNAIL("thumbnail", 200),  // 목록 카드 작은 썸네일
+    CARD("card", 480),            // 목록 카드
+    DETAIL("detail", 1280);       // 상세 페이지
+
+    private final String suffix;
+    private final int maxWidth;
+
+    ImageVariant(String suffix, int maxWidth) {
+        this.suffix = suffix;
+        this.maxWidth = maxWidth;
+    }
+}
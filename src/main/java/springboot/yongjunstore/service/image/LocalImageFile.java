@@ -0,0 +1,33 @@
+package springboot.yongjunstore.service.image;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+
+// 로컬 업로드 폴더에서 찾은 이미지 파일 정보
+@Getter
+@ToString
+public class LocalImageFile {
+
+    private final Path path;
+
+    private final long size;
+
+    private final String eTag; // 따옴표를 포함한 strong ETag
+
+    private final boolean immutable; // 이름이 내용(해시) 또는 UUID 기준이라 같은 이름의 내용이 바뀌지 않는 파일
+
+    private final MediaType mediaType;
+
+    @Builder
+    public LocalImageFile(Path path, long size, String eTag, boolean immutable, MediaType mediaType) {
+        this.path = path;
+        this.size = size;
+        this.eTag = eTag;
+        this.immutable = immutable;
+        this.mediaType = mediaType;
+    }
+}
@@ -0,0 +1,101 @@
+package springboot.yongjunstore.service.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Pattern;
+
+// 로컬 업로드 폴더의 이미지 파일 조회 (이미지 제공 API 용)
+// 인증 없이 제공되므로 이미지 형식 (svg 제외) 파일만 제공 (html, svg 등 스크립트를 실행할 수 있는 파일은 404)
+@Service
+public class LocalImageService {
+
+    // 해시(64자리) 또는 UUID 이름 + 크기별 이미지 접미사 (예 : {hash}_thumbnail.jpg)
+    private static final Pattern IMMUTABLE_NAME =
+            Pattern.compile("^([0-9a-f]{64}|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})(_[a-z]+)?\\.[A-Za-z0-9]+$");
+
+    // 업로드 중인 임시 파일 폴더는 제공하지 않음
+    private static final String TEMP_FOLDER = "tmp";
+
+    @Value("${fileUpload.upload.local.path}")
+    private String uploadPath;
+
+
+    // filePath : 업로드 폴더 기준 상대 경로 (예 : ab/cd/{hash}.jpg, 2024/03/{uuid}.jpg)
+    public LocalImageFile find(String filePath) {
+
+        Path root = Paths.get(uploadPath).toAbsolutePath().normalize();
+        Path file = root.resolve(stripLeadingSlash(filePath)).normalize();
+
+        // ../ 로 업로드 폴더 밖의 파일에 접근하지 못하도록 차단
+        if (!file.startsWith(root) || file.startsWith(root.resolve(TEMP_FOLDER)) || !Files.isRegularFile(file)) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+        }
+
+        String fileName = file.getFileName().toString();
+        MediaType mediaType = MediaTypeFactory.getMediaType(fileName).orElse(null);
+
+        if (!isServableImage(mediaType)) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+        }
+
+        // ETag 에는 따옴표를 사용할 수 없으므로 제거
+        String relativePath = root.relativize(file).toString().replace(File.separatorChar, '/').replace("\"", "");
+        boolean immutable = isImmutableName(fileName);
+
+        try {
+            long size = Files.size(file);
+
+            // 이름이 내용 기준이면 이름만으로 ETag 를 만들고, 아니면 크기와 수정 시간을 함께 사용
+            String eTag = immutable
+                    ? "\"" + relativePath + "\""
+                    : "\"" + relativePath + "-" + size + "-" + Files.getLastModifiedTime(file).toMillis() + "\"";
+
+            return LocalImageFile.builder()
+                    .path(file)
+                    .size(size)
+                    .eTag(eTag)
+                    .immutable(immutable)
+                    .mediaType(mediaType)
+                    .build();
+
+        } catch (IOException e) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+        }
+    }
+
+
+    // 이름이 내용(해시) 또는 UUID 기준이라 같은 이름의 내용이 바뀌지 않는 파일 (S3 key 에도 사용)
+    static boolean isImmutableName(String fileName) {
+        return IMMUTABLE_NAME.matcher(fileName).matches();
+    }
+
+
+    // image/* 만 제공, svg 는 스크립트를 포함할 수 있어 제외 (S3 이미지 제공에도 사용)
+    static boolean isServableImage(MediaType mediaType) {
+        return mediaType != null
+                && "image".equals(mediaType.getType())
+                && !mediaType.getSubtype().toLowerCase().contains("svg");
+    }
+
+
+    static String stripLeadingSlash(String filePath) {
+
+        String path = filePath;
+
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+
+        return path;
+    }
+}
@@ -0,0 +1,446 @@
+package springboot.yongjunstore.service.image;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.S3Object;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import springboot.yongjunstore.common.concurrent.SingleFlight;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// S3 이미지를 서버 디스크에 저장해두고 제공하는 read-through 캐시 (이미지 제공 API 용)
+// 파일 이름 : sha256(S3 key) + 확장자, 전체 크기가 max-bytes 를 넘으면 가장 오래 사용하지 않은 파일부터 캐시에서 제외
+// 제외한 파일은 delete-delay-seconds 동안 디스크에 남겨두고 이후 sweep 에서 삭제
+// (조회 결과의 경로를 tomcat sendfile 이 응답 후에 여는 경우, 전송 중인 파일이 먼저 삭제되지 않도록)
+// S3 에서 받은 내용은 임시 파일(.tmp)에 쓴 뒤 rename 하므로 다른 요청이 쓰다 만 파일을 읽지 않음
+// 같은 key 의 동시 miss 는 하나의 요청만 S3 에서 받음
+// 이름이 해시 / UUID 기준인 key 는 내용이 바뀌지 않으므로 계속 사용하고, 나머지는 mutable-ttl-seconds 후 다시 받음
+// 메트릭 : /actuator/metrics/image.s3_cache.requests , image.s3_cache.evictions , image.s3_cache.bytes
+@Slf4j
+@Component
+public class S3ImageCache {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final AmazonS3 amazonS3;
+
+    private final String bucket;
+
+    private final Path cacheRoot;
+
+    private final long maxBytes;
+
+    private final long mutableTtlMillis;
+
+    private final long deleteDelayMillis;
+
+    private final SingleFlight<String, LocalImageFile> singleFlight;
+
+    // 캐시 파일 이름 -> 항목 (접근 순서, 가장 오래 사용하지 않은 항목이 앞)
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Object lock = new Object();
+
+    // 캐시에서 제외했지만 아직 삭제하지 않은 파일 이름 -> 제외한 시간 (제외한 순서)
+    private final LinkedHashMap<String, Long> evicted = new LinkedHashMap<>();
+
+    private long totalBytes;
+
+    private final Counter hit;
+    private final Counter miss;
+    private final Counter eviction;
+
+    public S3ImageCache(AmazonS3 amazonS3, MeterRegistry meterRegistry,
+                        @Value("${cloud.aws.s3.bucket}") String bucket,
+                        @Value("${fileUpload.s3.cache.path:}") String cachePath,
+                        @Value("${fileUpload.s3.cache.max-bytes:1073741824}") long maxBytes,
+                        @Value("${fileUpload.s3.cache.mutable-ttl-seconds:300}") long mutableTtlSeconds,
+                        @Value("${fileUpload.s3.cache.delete-delay-seconds:300}") long deleteDelaySeconds,
+                        @Value("${fileUpload.s3.cache.load-timeout-millis:10000}") long loadTimeoutMillis) {
+
+        this.amazonS3 = amazonS3;
+        this.bucket = bucket;
+        this.maxBytes = maxBytes;
+        this.mutableTtlMillis = mutableTtlSeconds * 1000;
+        this.deleteDelayMillis = deleteDelaySeconds * 1000;
+
+        // 경로를 지정하지 않으면 OS 임시 폴더 사용
+        this.cacheRoot = (StringUtils.hasText(cachePath)
+                ? Paths.get(cachePath)
+                : Paths.get(System.getProperty("java.io.tmpdir"), "yongjun-s3-cache")).toAbsolutePath().normalize();
+
+        this.singleFlight = new SingleFlight<>(loadTimeoutMillis, ErrorCode.IMAGE_FILE_LOAD_TIMEOUT);
+
+        this.hit = requestCounter(meterRegistry, "hit");
+        this.miss = requestCounter(meterRegistry, "miss");
+        this.eviction = Counter.builder("image.s3_cache.evictions").register(meterRegistry);
+
+        Gauge.builder("image.s3_cache.bytes", this, S3ImageCache::totalBytes)
+                .register(meterRegistry);
+
+        Gauge.builder("image.s3_cache.in_flight", singleFlight, SingleFlight::inFlightCount)
+                .register(meterRegistry);
+
+        loadEntries();
+    }
+
+
+    // key : S3 object key (예 : {hash}.jpg, {hash}.jpg_thumbnail.jpg)
+    public LocalImageFile find(String key) {
+
+        String objectKey = LocalImageService.stripLeadingSlash(key);
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(objectKey).orElse(null);
+
+        // 이미지가 아닌 object 는 제공하지 않음
+        if (objectKey.isEmpty() || !LocalImageService.isServableImage(mediaType)) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+        }
+
+        String fileName = cacheFileName(objectKey);
+
+        LocalImageFile cached = findCached(objectKey, fileName, mediaType);
+
+        if (cached != null) {
+            hit.increment();
+            return cached;
+        }
+
+        miss.increment();
+
+        return singleFlight.execute(fileName, () -> load(objectKey, fileName, mediaType));
+    }
+
+
+    // 캐시 전체 삭제 (삭제 대기 중인 파일 포함, 바로 삭제)
+    public void clear() {
+
+        synchronized (lock) {
+            for (String fileName : entries.keySet()) {
+                deleteQuietly(cacheRoot.resolve(fileName));
+            }
+
+            for (String fileName : evicted.keySet()) {
+                deleteQuietly(cacheRoot.resolve(fileName));
+            }
+
+            entries.clear();
+            evicted.clear();
+            totalBytes = 0;
+        }
+    }
+
+
+    // 캐시에서 제외한 지 delete-delay-seconds 가 지난 파일 삭제
+    @Scheduled(fixedDelayString = "${fileUpload.s3.cache.sweep-millis:10000}")
+    public void sweepEvicted() {
+        sweepEvicted(System.currentTimeMillis());
+    }
+
+
+    void sweepEvicted(long now) {
+
+        synchronized (lock) {
+            Iterator<Map.Entry<String, Long>> iterator = evicted.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<String, Long> oldest = iterator.next();
+
+                // 제외한 순서대로 저장되어 있으므로 아직 기다려야 하는 파일이 나오면 종료
+                if (now - oldest.getValue() < deleteDelayMillis) {
+                    break;
+                }
+
+                iterator.remove();
+                deleteQuietly(cacheRoot.resolve(oldest.getKey()));
+            }
+        }
+    }
+
+
+    public long totalBytes() {
+
+        synchronized (lock) {
+            return totalBytes;
+        }
+    }
+
+
+    private LocalImageFile load(String objectKey, String fileName, MediaType mediaType) {
+
+        // 직전에 끝난 다른 요청이 이미 저장했을 수 있음
+        LocalImageFile cached = findCached(objectKey, fileName, mediaType);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        Path target = cacheRoot.resolve(fileName);
+        Path temp = cacheRoot.resolve(fileName + "." + UUID.randomUUID() + TEMP_SUFFIX);
+
+        try (S3Object s3Object = amazonS3.getObject(bucket, objectKey);
+             InputStream inputStream = s3Object.getObjectContent()) {
+
+            Files.createDirectories(cacheRoot);
+            long size = Files.copy(inputStream, temp);
+
+            long storedAt = System.currentTimeMillis();
+
+            synchronized (lock) {
+                // 다 받은 파일만 캐시 이름으로 보이도록 rename (읽는 중인 이전 파일은 그대로 유지됨)
+                // 같은 이름의 파일이 삭제 대기 중이면 sweep 에서 새 파일을 삭제하지 않도록 lock 안에서 rename 후 대기 목록에서 제거
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                evicted.remove(fileName);
+
+                CacheEntry previous = entries.put(fileName, new CacheEntry(size, storedAt));
+
+                if (previous != null) {
+                    totalBytes -= previous.size;
+                }
+
+                totalBytes += size;
+                evictOverflow();
+            }
+
+            return toImageFile(objectKey, target, size, storedAt, mediaType);
+
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+            }
+            log.warn("S3 이미지 조회 실패 : key={}", objectKey, e);
+            throw new GlobalException(ErrorCode.SERVER_INTERNAL_SERVER_ERROR);
+
+        } catch (AmazonClientException | IOException e) {
+            log.warn("S3 이미지 캐시 저장 실패 : key={}", objectKey, e);
+            throw new GlobalException(ErrorCode.SERVER_INTERNAL_SERVER_ERROR);
+
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+
+    private LocalImageFile findCached(String objectKey, String fileName, MediaType mediaType) {
+
+        boolean immutable = LocalImageService.isImmutableName(fileNameOf(objectKey));
+
+        CacheEntry entry;
+
+        synchronized (lock) {
+            entry = entries.get(fileName);
+
+            if (entry == null) {
+                return null;
+            }
+
+            // 내용이 바뀔 수 있는 key 는 TTL 이 지나면 다시 받음
+            if (!immutable && System.currentTimeMillis() - entry.storedAt > mutableTtlMillis) {
+                return null;
+            }
+        }
+
+        Path file = cacheRoot.resolve(fileName);
+
+        // 캐시 폴더를 직접 지운 경우
+        if (!Files.isRegularFile(file)) {
+            remove(fileName, entry);
+            return null;
+        }
+
+        return toImageFile(objectKey, file, entry.size, entry.storedAt, mediaType);
+    }
+
+
+    // 전체 크기가 max-bytes 이하가 될 때까지 가장 오래 사용하지 않은 파일을 캐시에서 제외하고 삭제 대기 목록에 추가
+    // 방금 저장한 파일(가장 최근)은 max-bytes 보다 커도 남겨둠
+    // lock 안에서 호출
+    private void evictOverflow() {
+
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        long now = System.currentTimeMillis();
+
+        while (totalBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> oldest = iterator.next();
+
+            iterator.remove();
+            totalBytes -= oldest.getValue().size;
+
+            evicted.remove(oldest.getKey());
+            evicted.put(oldest.getKey(), now);
+            eviction.increment();
+        }
+    }
+
+
+    private void remove(String fileName, CacheEntry entry) {
+
+        synchronized (lock) {
+            if (entries.remove(fileName, entry)) {
+                totalBytes -= entry.size;
+            }
+        }
+    }
+
+
+    // 서버 재시작 시 남아있는 캐시 파일을 수정 시간 순서로 다시 등록하고, 쓰다 만 임시 파일은 삭제
+    private void loadEntries() {
+
+        if (!Files.isDirectory(cacheRoot)) {
+            return;
+        }
+
+        List<Path> files = new ArrayList<>();
+
+        try (Stream<Path> stream = Files.list(cacheRoot)) {
+            stream.filter(Files::isRegularFile).forEach(files::add);
+        } catch (IOException e) {
+            log.warn("S3 이미지 캐시 폴더 조회 실패 : {}", cacheRoot, e);
+            return;
+        }
+
+        try {
+            files.sort(Comparator.comparing(this::lastModified));
+        } catch (UncheckedIOException e) {
+            log.warn("S3 이미지 캐시 폴더 조회 실패 : {}", cacheRoot, e);
+            return;
+        }
+
+        synchronized (lock) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+
+                if (fileName.endsWith(TEMP_SUFFIX)) {
+                    deleteQuietly(file);
+                    continue;
+                }
+
+                try {
+                    long size = Files.size(file);
+
+                    entries.put(fileName, new CacheEntry(size, lastModified(file).toMillis()));
+                    totalBytes += size;
+
+                } catch (IOException e) {
+                    log.warn("S3 이미지 캐시 파일 조회 실패 : {}", file, e);
+                }
+            }
+
+            evictOverflow();
+        }
+    }
+
+
+    private LocalImageFile toImageFile(String objectKey, Path file, long size, long storedAt, MediaType mediaType) {
+
+        boolean immutable = LocalImageService.isImmutableName(fileNameOf(objectKey));
+
+        // ETag 에는 따옴표를 사용할 수 없으므로 제거
+        String tag = "s3/" + objectKey.replace("\"", "");
+
+        // 이름이 내용 기준이면 key 만으로 ETag 를 만들고, 아니면 크기와 받은 시간을 함께 사용
+        String eTag = immutable
+                ? "\"" + tag + "\""
+                : "\"" + tag + "-" + size + "-" + storedAt + "\"";
+
+        return LocalImageFile.builder()
+                .path(file)
+                .size(size)
+                .eTag(eTag)
+                .immutable(immutable)
+                .mediaType(mediaType)
+                .build();
+    }
+
+
+    // key 에 폴더나 특수 문자가 있어도 캐시 폴더 바로 아래에 저장되도록 해시 사용
+    private String cacheFileName(String objectKey) {
+
+        String fileName = fileNameOf(objectKey);
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot >= 0 ? fileName.substring(dot + 1).toLowerCase().replaceAll("[^a-z0-9]", "") : "";
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + (extension.isEmpty() ? "" : "." + extension);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private String fileNameOf(String objectKey) {
+        return objectKey.substring(objectKey.lastIndexOf('/') + 1);
+    }
+
+
+    private FileTime lastModified(Path file) {
+
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private void deleteQuietly(Path file) {
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("S3 이미지 캐시 파일 삭제 실패 : {}", file, e);
+        }
+    }
+
+
+    private Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("image.s3_cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+
+    private static class CacheEntry {
+
+        private final long size;
+
+        private final long storedAt;
+
+        private CacheEntry(long size, long storedAt) {
+            this.size = size;
+            this.storedAt = storedAt;
+        }
+    }
+}
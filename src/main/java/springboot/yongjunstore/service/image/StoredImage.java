@@ -0,0 +1,50 @@
+package springboot.yongjunstore.service.image;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import springboot.yongjunstore.domain.room.ImageBlob;
+import springboot.yongjunstore.domain.room.ImageStorage;
+
+// 저장이 끝난 (또는 이미 저장되어 있던) 이미지 원본, Images 저장에 사용
+@Getter
+@ToString
+public class StoredImage {
+
+    private final Long imageBlobId;
+
+    private final ImageStorage storage;
+
+    private final String storageKey; // S3 key 또는 업로드 폴더 기준 상대 경로
+
+    private final String path; // local : 업로드 폴더 기준 폴더, S3 : null
+
+    private final String name; // local : 파일 이름, S3 : object key
+
+    private final boolean newlyStored; // 이번 요청에서 새로 저장했는지 (중복이면 false)
+
+    @Builder
+    public StoredImage(Long imageBlobId, ImageStorage storage, String storageKey, String path, String name, boolean newlyStored) {
+        this.imageBlobId = imageBlobId;
+        this.storage = storage;
+        this.storageKey = storageKey;
+        this.path = path;
+        this.name = name;
+        this.newlyStored = newlyStored;
+    }
+
+    // S3 는 key 만 사용 (이전에 등록된 원본은 name 에 URL, path 에 bucket 이 저장되어 있음)
+    public static StoredImage of(ImageBlob imageBlob, boolean newlyStored) {
+
+        boolean s3 = imageBlob.getStorage() == ImageStorage.S3;
+
+        return StoredImage.builder()
+                .imageBlobId(imageBlob.getId())
+                .storage(imageBlob.getStorage())
+                .storageKey(imageBlob.getStorageKey())
+                .path(s3 ? null : imageBlob.getPath())
+                .name(s3 ? imageBlob.getStorageKey() : imageBlob.getName())
+                .newlyStored(newlyStored)
+                .build();
+    }
+}
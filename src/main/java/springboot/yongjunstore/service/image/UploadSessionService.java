@@ -0,0 +1,353 @@
+package springboot.yongjunstore.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.common.upload.ImageUploadStream;
+import springboot.yongjunstore.common.upload.StreamedMultipartFile;
+import springboot.yongjunstore.domain.room.UploadSession;
+import springboot.yongjunstore.domain.room.UploadStatus;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.UploadSessionRepository;
+import springboot.yongjunstore.request.UploadSessionRequest;
+import springboot.yongjunstore.response.UploadSessionResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// 이어 올리기(chunk) 업로드
+// 세션 생성 -> Content-Range 로 나눠서 전송 (끊기면 uploadedSize 부터 다시 전송) -> 완료 -> 글 생성 시 uploadIds 로 사용
+// 받은 데이터는 업로드 폴더의 임시 폴더에 파일로 쌓고, 네트워크로 받는 동안에는 DB 트랜잭션을 열지 않음
+// memberId 는 로그인한 회원 (컨트롤러에서 인증 정보로 전달), 세션을 만든 회원만 조회, 전송, 완료, 글 생성에 사용할 수 있음
+@Slf4j
+@Service
+public class UploadSessionService {
+
+    // 업로드 폴더 안이지만 이미지 제공(LocalImageService)에서 제외되는 임시 폴더
+    private static final String SESSION_FOLDER = "tmp" + File.separator + "sessions";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("^bytes (\\d+)-(\\d+)/(\\d+)$");
+
+    @Value("${fileUpload.upload.local.path}")
+    private String uploadPath;
+
+    // 마지막 전송 후 이 시간이 지난 세션은 정리
+    @Value("${fileUpload.upload-session.expire-hours:24}")
+    private long expireHours;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final MemberRepository memberRepository;
+    private final MultipartProperties multipartProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public UploadSessionService(UploadSessionRepository uploadSessionRepository,
+                                MemberRepository memberRepository,
+                                MultipartProperties multipartProperties,
+                                PlatformTransactionManager transactionManager) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.memberRepository = memberRepository;
+        this.multipartProperties = multipartProperties;
+
+        // 세션 기록만 짧은 트랜잭션으로 처리
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+
+    public UploadSessionResponse create(UploadSessionRequest uploadSessionRequest, Long memberId) {
+
+        if (memberId == null || !memberRepository.existsById(memberId)) {
+            throw new GlobalException(ErrorCode.MEMBER_NOT_FOUND);
+        }
+
+        // 한 번에 올리는 경우와 같은 파일 크기 제한
+        if (uploadSessionRequest.getTotalSize() > maxFileSize()) {
+            throw new MaxUploadSizeExceededException(maxFileSize());
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+
+        try {
+            Path sessionFile = sessionFile(uploadId);
+            Files.createDirectories(sessionFile.getParent());
+            Files.createFile(sessionFile);
+        } catch (IOException e) {
+            log.error("업로드 세션 파일 생성 실패 : " + uploadId, e);
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+        }
+
+        UploadSession uploadSession = transactionTemplate.execute((status) -> uploadSessionRepository.save(UploadSession.builder()
+                .uploadId(uploadId)
+                .memberId(memberId)
+                .fileName(uploadSessionRequest.getFileName())
+                .totalSize(uploadSessionRequest.getTotalSize())
+                .build()));
+
+        return new UploadSessionResponse(uploadSession);
+    }
+
+
+    // 재개할 위치 확인
+    public UploadSessionResponse find(String uploadId, Long memberId) {
+        return new UploadSessionResponse(findUploadSession(uploadId, memberId));
+    }
+
+
+    // Content-Range 구간을 받은 위치에 이어서 기록
+    // 이미 받은 구간이면 (응답만 유실된 재전송) 기록하지 않고 현재 위치를 응답
+    // 전송 중 연결이 끊겨도 받은 만큼은 기록되므로 다음 요청은 그 위치부터 보내면 됨
+    public UploadSessionResponse append(String uploadId, Long memberId, String contentRange, InputStream inputStream) {
+
+        UploadSession uploadSession = findUploadSession(uploadId, memberId);
+
+        long[] range = parseContentRange(contentRange, uploadSession.getTotalSize());
+        long start = range[0];
+        long end = range[1];
+
+        if (uploadSession.getStatus() != UploadStatus.UPLOADING || end < uploadSession.getUploadedSize()) {
+            return new UploadSessionResponse(uploadSession);
+        }
+
+        if (start != uploadSession.getUploadedSize()) {
+            throw new GlobalException(ErrorCode.UPLOAD_SESSION_OFFSET_MISMATCH);
+        }
+
+        long written = 0;
+        IOException failure = null;
+
+        try (FileChannel fileChannel = FileChannel.open(sessionFile(uploadId), StandardOpenOption.WRITE)) {
+
+            fileChannel.position(start);
+
+            long length = end - start + 1;
+            byte[] buffer = new byte[BUFFER_SIZE];
+
+            while (written < length) {
+                int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, length - written));
+
+                if (read == -1) {
+                    break;
+                }
+
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    fileChannel.write(byteBuffer);
+                }
+
+                written += read;
+            }
+
+        } catch (IOException e) {
+            log.warn("업로드 chunk 수신 중단 : " + uploadId + " (" + written + " bytes 수신)", e);
+            failure = e;
+        }
+
+        long uploadedSize = start + written;
+
+        if (written > 0) {
+            Integer advanced = transactionTemplate.execute((status) ->
+                    uploadSessionRepository.advance(uploadSession.getId(), start, uploadedSize, LocalDateTime.now()));
+
+            // 같은 위치의 chunk 가 동시에 들어와 다른 요청이 먼저 반영한 경우
+            if (advanced == null || advanced == 0) {
+                throw new GlobalException(ErrorCode.UPLOAD_SESSION_OFFSET_MISMATCH);
+            }
+        }
+
+        if (failure != null) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+        }
+
+        return find(uploadId, memberId);
+    }
+
+
+    // 모든 데이터를 받았는지 확인하고 실제 내용(magic byte)으로 이미지 형식 판별
+    public UploadSessionResponse complete(String uploadId, Long memberId) {
+
+        UploadSession uploadSession = findUploadSession(uploadId, memberId);
+
+        if (uploadSession.getStatus() == UploadStatus.COMPLETED) {
+            return new UploadSessionResponse(uploadSession);
+        }
+
+        if (uploadSession.getUploadedSize() != uploadSession.getTotalSize()) {
+            throw new GlobalException(ErrorCode.UPLOAD_SESSION_INCOMPLETE);
+        }
+
+        String contentType;
+
+        try (ImageUploadStream imageStream = new ImageUploadStream(Files.newInputStream(sessionFile(uploadId)), maxFileSize())) {
+            contentType = imageStream.getSignature().getContentType();
+        } catch (IOException e) {
+            log.error("업로드 세션 파일 읽기 실패 : " + uploadId, e);
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+        }
+
+        UploadSession completed = transactionTemplate.execute((status) -> {
+            UploadSession findUploadSession = findUploadSession(uploadId, memberId);
+            findUploadSession.complete(contentType);
+            return findUploadSession;
+        });
+
+        return new UploadSessionResponse(completed);
+    }
+
+
+    // 글 생성에 사용할 완료된 업로드 파일 (요청한 순서대로)
+    // 파일은 이동하지 않고 복사해서 사용하므로 글 저장이 실패해도 같은 uploadIds 로 다시 요청할 수 있음
+    public List<MultipartFile> loadCompletedFiles(List<String> uploadIds, Long memberId) {
+
+        if (uploadIds == null || uploadIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, UploadSession> uploadSessions = uploadSessionRepository.findByUploadIdIn(uploadIds).stream()
+                .collect(Collectors.toMap(UploadSession::getUploadId, Function.identity()));
+
+        List<MultipartFile> files = new ArrayList<>();
+
+        for (String uploadId : uploadIds) {
+
+            UploadSession uploadSession = uploadSessions.get(uploadId);
+
+            if (uploadSession == null) {
+                throw new GlobalException(ErrorCode.UPLOAD_SESSION_NOT_FOUND);
+            }
+
+            if (!uploadSession.getMemberId().equals(memberId)) {
+                throw new GlobalException(ErrorCode.UPLOAD_SESSION_FORBIDDEN);
+            }
+
+            if (uploadSession.getStatus() != UploadStatus.COMPLETED) {
+                throw new GlobalException(ErrorCode.UPLOAD_SESSION_INCOMPLETE);
+            }
+
+            try {
+                files.add(StreamedMultipartFile.ofRetainedFile("uploadImages", uploadSession.getFileName(),
+                        uploadSession.getContentType(), sessionFile(uploadId)));
+            } catch (IOException e) {
+                log.error("업로드 세션 파일을 찾지 못했습니다 : " + uploadId, e);
+                throw new GlobalException(ErrorCode.UPLOAD_SESSION_NOT_FOUND);
+            }
+        }
+
+        return files;
+    }
+
+
+    // 글 저장이 끝난 업로드 세션과 임시 파일 삭제
+    public void delete(List<String> uploadIds) {
+
+        if (uploadIds == null || uploadIds.isEmpty()) {
+            return;
+        }
+
+        List<UploadSession> uploadSessions = uploadSessionRepository.findByUploadIdIn(uploadIds);
+
+        deleteSessions(uploadSessions);
+    }
+
+
+    // 완료되지 않았거나 글 생성에 사용되지 않고 방치된 세션 정리
+    @Scheduled(fixedDelayString = "${fileUpload.upload-session.cleanup-millis:3600000}")
+    public void deleteExpired() {
+
+        List<UploadSession> expired = uploadSessionRepository.findTop100ByUpdateAtBefore(LocalDateTime.now().minusHours(expireHours));
+
+        if (!expired.isEmpty()) {
+            log.info("만료된 업로드 세션 정리 : {}건", expired.size());
+            deleteSessions(expired);
+        }
+    }
+
+
+    private void deleteSessions(List<UploadSession> uploadSessions) {
+
+        transactionTemplate.executeWithoutResult((status) -> uploadSessionRepository.deleteAllInBatch(uploadSessions));
+
+        for (UploadSession uploadSession : uploadSessions) {
+            try {
+                Files.deleteIfExists(sessionFile(uploadSession.getUploadId()));
+            } catch (IOException e) {
+                log.warn("업로드 세션 파일 삭제 실패 : " + uploadSession.getUploadId(), e);
+            }
+        }
+    }
+
+
+    // 세션을 만든 회원만 사용할 수 있음
+    private UploadSession findUploadSession(String uploadId, Long memberId) {
+
+        UploadSession uploadSession = uploadSessionRepository.findByUploadId(uploadId)
+                .orElseThrow(() -> new GlobalException(ErrorCode.UPLOAD_SESSION_NOT_FOUND));
+
+        if (!uploadSession.getMemberId().equals(memberId)) {
+            throw new GlobalException(ErrorCode.UPLOAD_SESSION_FORBIDDEN);
+        }
+
+        return uploadSession;
+    }
+
+
+    // "bytes start-end/total" 만 지원, total 은 세션 생성 시 크기와 같아야 함
+    private long[] parseContentRange(String contentRange, long totalSize) {
+
+        Matcher matcher = contentRange == null ? null : CONTENT_RANGE.matcher(contentRange.trim());
+
+        if (matcher == null || !matcher.matches()) {
+            throw new GlobalException(ErrorCode.UPLOAD_SESSION_INVALID_RANGE);
+        }
+
+        try {
+            long start = Long.parseLong(matcher.group(1));
+            long end = Long.parseLong(matcher.group(2));
+            long total = Long.parseLong(matcher.group(3));
+
+            if (total != totalSize || start > end || end >= totalSize) {
+                throw new GlobalException(ErrorCode.UPLOAD_SESSION_INVALID_RANGE);
+            }
+
+            return new long[]{start, end};
+
+        } catch (NumberFormatException e) {
+            throw new GlobalException(ErrorCode.UPLOAD_SESSION_INVALID_RANGE);
+        }
+    }
+
+
+    private Path sessionFile(String uploadId) {
+        return Paths.get(uploadPath, SESSION_FOLDER, uploadId + ".part");
+    }
+
+
+    private long maxFileSize() {
+        long maxFileSize = multipartProperties.getMaxFileSize().toBytes();
+        return maxFileSize > 0 ? maxFileSize : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,467 @@
+package springboot.yongjunstore.service.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.repository.condition.RoomPostSearchCondition;
+import springboot.yongjunstore.repository.dto.RoomPostFacetDocument;
+import springboot.yongjunstore.response.RoomPostFacetResponse;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// 종료되지 않은 글의 상태(매매/임대), 보증금/전세, 지역(주소의 시/구) 별 id bitmap
+// 필터 조건은 bitmap AND 로 후보 id 를 만들고, 같은 bitmap 으로 facet 별 개수도 계산 (GROUP BY 조회 없이)
+// 마지막으로 스캔한 id 이후의 글은 DB 조건으로 검색 (목록) 되고, 개수에는 다음 refresh 부터 반영
+// 서비스를 거치지 않고 저장된 글 중 스캔한 id 보다 작은 id 로 늦게 커밋된 글 (IDENTITY id 는 커밋 순서와 다를 수 있음) 은
+// 다음 갱신에서 스캔 위치 아래 lookback-ids 개 범위를 다시 스캔할 때 반영된다.
+// 재생성 중에 들어온 추가, 삭제는 기록해 두었다가 새 인덱스로 교체할 때 다시 적용한다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomPostFacetIndex {
+
+    private final RoomPostRepository roomPostRepository;
+
+    @Value("${roomPost.facet-index.enabled:true}")
+    private boolean enabled;
+
+    // 후보가 이보다 많으면 IN 조건 대신 DB 의 인덱스(room_status, deposit ...)로 검색
+    @Value("${roomPost.facet-index.max-candidates:1000}")
+    private int maxCandidates;
+
+    @Value("${roomPost.facet-index.batch-size:1000}")
+    private int batchSize;
+
+    // 갱신할 때 다시 스캔하는 범위 : 동시에 처리 중인 글 생성 트랜잭션 수보다 충분히 크게
+    @Value("${roomPost.facet-index.lookback-ids:1000}")
+    private long lookbackIds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Facets facets = new Facets();
+
+    // 재생성 중에 들어온 추가, 삭제 (재생성 중이 아니면 null, lock 으로 보호)
+    private List<Consumer<Facets>> pendingMutations;
+
+    private volatile boolean ready = false;
+
+
+    // 서버 시작 시 전체 인덱스 생성
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingMutations = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Facets newFacets = new Facets();
+            loadInto(newFacets);
+
+            // 생성 중에 들어온 추가, 삭제를 새 인덱스에 다시 적용한 후 교체
+            lock.writeLock().lock();
+            try {
+                pendingMutations.forEach((mutation) -> mutation.accept(newFacets));
+                facets = newFacets;
+            } finally {
+                pendingMutations = null;
+                lock.writeLock().unlock();
+            }
+
+            // 생성 중에 커밋된 글 반영
+            loadInto(null);
+
+            ready = true;
+
+            log.info("room post facet index 생성 완료 : {} ms", System.currentTimeMillis() - start);
+
+        } catch (ArithmeticException e) {
+            // BitSet 은 int 범위의 id 만 사용할 수 있음
+            ready = false;
+            log.warn("room post facet index 사용 중지 : id 가 int 범위를 초과했습니다.");
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingMutations = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+
+    // 서비스를 거치지 않고 저장된 글 반영
+    @Scheduled(fixedDelayString = "${roomPost.facet-index.refresh-millis:5000}")
+    public synchronized void refresh() {
+
+        if (!enabled || !ready) {
+            return;
+        }
+
+        try {
+            loadInto(null);
+        } catch (ArithmeticException e) {
+            ready = false;
+            log.warn("room post facet index 사용 중지 : id 가 int 범위를 초과했습니다.");
+        }
+    }
+
+
+    // 트랜잭션이 커밋된 후 인덱스에 추가
+    public void addAfterCommit(RoomPost roomPost) {
+
+        RoomPostFacetDocument document = new RoomPostFacetDocument(
+                roomPost.getId(), roomPost.getRoomStatus(), roomPost.getDeposit(), roomPost.getAddress());
+
+        afterCommit(() -> add(document));
+    }
+
+
+    // 트랜잭션이 커밋된 후 모든 bitmap 에서 제거 (글 종료)
+    public void removeAfterCommit(Long roomPostId) {
+        afterCommit(() -> remove(roomPostId));
+    }
+
+
+    public void add(RoomPostFacetDocument document) {
+
+        if (document.getId() > Integer.MAX_VALUE) {
+            ready = false;
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            facets.add(document);
+
+            if (pendingMutations != null) {
+                pendingMutations.add((target) -> target.add(document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    public void remove(Long roomPostId) {
+
+        if (roomPostId > Integer.MAX_VALUE) {
+            return;
+        }
+
+        int id = roomPostId.intValue();
+
+        lock.writeLock().lock();
+        try {
+            facets.remove(id);
+
+            if (pendingMutations != null) {
+                pendingMutations.add((target) -> target.remove(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    // 상태, 보증금/전세, 지역 조건을 bitmap AND 로 계산해서 후보 id 를 추가한 검색 조건
+    // 조건이 없거나 후보가 너무 많으면 그대로 반환 (DB 조건으로만 검색)
+    public RoomPostSearchCondition narrow(RoomPostSearchCondition condition) {
+
+        if (!enabled || !ready) {
+            return condition;
+        }
+
+        String region = normalizeRegion(condition.getRegion());
+
+        if (condition.getRoomStatus() == null && condition.getDeposit() == null && region == null) {
+            return condition;
+        }
+
+        BitSet matched;
+        long indexedRoomPostId;
+
+        lock.readLock().lock();
+        try {
+            indexedRoomPostId = facets.indexedRoomPostId;
+            matched = facets.matching(condition.getRoomStatus(), condition.getDeposit(), region);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (matched.cardinality() > maxCandidates) {
+            return condition;
+        }
+
+        List<Long> candidateIds = new ArrayList<>(matched.cardinality());
+
+        for (int id = matched.previousSetBit(matched.length()); id >= 0; id = matched.previousSetBit(id - 1)) {
+            candidateIds.add((long) id);
+        }
+
+        return condition.toBuilder()
+                .facetCandidateIds(candidateIds)
+                .facetIndexedRoomPostId(indexedRoomPostId)
+                .build();
+    }
+
+
+    // facet 별 개수 : 각 facet 의 개수는 나머지 facet 조건만 적용해서 계산 (사이드바에서 다른 값으로 바꿨을 때의 개수)
+    public RoomPostFacetResponse facetCounts(RoomStatus roomStatus, Deposit deposit, String region) {
+
+        String normalizedRegion = normalizeRegion(region);
+
+        lock.readLock().lock();
+        try {
+            BitSet statusFilter = facets.matching(roomStatus, null, null);
+            BitSet depositFilter = facets.matching(null, deposit, null);
+            BitSet regionFilter = facets.matching(null, null, normalizedRegion);
+
+            BitSet total = and(statusFilter, depositFilter, regionFilter);
+
+            return RoomPostFacetResponse.builder()
+                    .roomStatus(counts(facets.byRoomStatus, Enum::name, and(depositFilter, regionFilter)))
+                    .deposit(counts(facets.byDeposit, Enum::name, and(statusFilter, regionFilter)))
+                    .region(counts(facets.byRegion, Function.identity(), and(statusFilter, depositFilter)))
+                    .total(total.cardinality())
+                    .indexed(ready)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    // 주소의 앞 두 단어 (ex. "서울시 강남구 역삼동 ..." -> "서울시 강남구")
+    public static String normalizeRegion(String address) {
+
+        if (address == null || address.isBlank()) {
+            return null;
+        }
+
+        String[] tokens = address.trim().split("\\s+");
+
+        return tokens.length == 1 ? tokens[0] : tokens[0] + " " + tokens[1];
+    }
+
+
+    // 지역 조건 : 단어 단위로 앞부분이 같은 지역 (RoomPostRepositoryImpl.regionMatches 와 같은 기준)
+    // "서울시" 는 "서울시", "서울시 강남구" 와 일치하고 "서울시강남구" 와는 일치하지 않음
+    static boolean matchesRegion(String regionKey, String region) {
+        return regionKey.equals(region) || regionKey.startsWith(region + " ");
+    }
+
+
+    private <K> Map<String, Long> counts(Map<K, BitSet> bitmaps, Function<K, String> name, BitSet filter) {
+
+        Map<String, Long> counts = new HashMap<>();
+
+        bitmaps.forEach((key, bitmap) -> {
+            BitSet matched = (BitSet) bitmap.clone();
+            matched.and(filter);
+
+            if (!matched.isEmpty()) {
+                counts.put(name.apply(key), (long) matched.cardinality());
+            }
+        });
+
+        // 개수가 많은 순서
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .forEach((entry) -> sorted.put(entry.getKey(), entry.getValue()));
+
+        return sorted;
+    }
+
+
+    private BitSet and(BitSet... bitSets) {
+
+        BitSet result = (BitSet) bitSets[0].clone();
+
+        for (int i = 1; i < bitSets.length; i++) {
+            result.and(bitSets[i]);
+        }
+
+        return result;
+    }
+
+
+    // target 이 null 이면 현재 인덱스에 추가 (스캔 위치 아래 lookback-ids 개부터 다시 스캔, 이미 있는 글은 그대로)
+    private void loadInto(Facets target) {
+
+        long lastRoomPostId = target != null ? target.indexedRoomPostId : Math.max(0L, currentIndexedRoomPostId() - lookbackIds);
+
+        while (true) {
+            List<RoomPostFacetDocument> documents = roomPostRepository.findFacetDocuments(lastRoomPostId, batchSize);
+
+            if (documents.isEmpty()) {
+                return;
+            }
+
+            lastRoomPostId = documents.get(documents.size() - 1).getId();
+            Math.toIntExact(lastRoomPostId); // int 범위를 넘으면 ArithmeticException
+
+            if (target != null) {
+                documents.forEach(target::add);
+                target.indexedRoomPostId = lastRoomPostId;
+                continue;
+            }
+
+            lock.writeLock().lock();
+            try {
+                documents.forEach(facets::add);
+                // 다시 스캔할 때는 내려가지 않음
+                facets.indexedRoomPostId = Math.max(facets.indexedRoomPostId, lastRoomPostId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+
+    private long currentIndexedRoomPostId() {
+
+        lock.readLock().lock();
+        try {
+            return facets.indexedRoomPostId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    private void afterCommit(Runnable runnable) {
+
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+
+
+    // facet 값 별 id bitmap
+    private static class Facets {
+
+        private final BitSet active = new BitSet();
+        private final Map<RoomStatus, BitSet> byRoomStatus = new EnumMap<>(RoomStatus.class);
+        private final Map<Deposit, BitSet> byDeposit = new EnumMap<>(Deposit.class);
+        private final Map<String, BitSet> byRegion = new HashMap<>();
+
+        // 이 id 까지의 글은 모두 스캔되어 bitmap 에 반영됨
+        private long indexedRoomPostId = 0L;
+
+        void add(RoomPostFacetDocument document) {
+
+            // 종료된 글은 인덱스에 넣지 않음
+            if (document.getRoomStatus() == RoomStatus.종료) {
+                return;
+            }
+
+            int id = Math.toIntExact(document.getId());
+
+            active.set(id);
+
+            if (document.getRoomStatus() != null) {
+                byRoomStatus.computeIfAbsent(document.getRoomStatus(), (key) -> new BitSet()).set(id);
+            }
+
+            if (document.getDeposit() != null) {
+                byDeposit.computeIfAbsent(document.getDeposit(), (key) -> new BitSet()).set(id);
+            }
+
+            String region = normalizeRegion(document.getAddress());
+
+            if (region != null) {
+                byRegion.computeIfAbsent(region, (key) -> new BitSet()).set(id);
+            }
+        }
+
+        void remove(int id) {
+            active.clear(id);
+            byRoomStatus.values().forEach((bitmap) -> bitmap.clear(id));
+            byDeposit.values().forEach((bitmap) -> bitmap.clear(id));
+            byRegion.values().removeIf((bitmap) -> {
+                bitmap.clear(id);
+                return bitmap.isEmpty();
+            });
+        }
+
+        // "서울시 강남구" 는 해당 지역만, "서울시" 처럼 한 단어면 그 시의 모든 구를 OR
+        private BitSet regionBitmap(String region) {
+
+            if (region.contains(" ")) {
+                return byRegion.getOrDefault(region, new BitSet());
+            }
+
+            BitSet result = new BitSet();
+
+            byRegion.forEach((key, bitmap) -> {
+                if (matchesRegion(key, region)) {
+                    result.or(bitmap);
+                }
+            });
+
+            return result;
+        }
+
+        // null 인 조건은 전체(active)
+        BitSet matching(RoomStatus roomStatus, Deposit deposit, String region) {
+
+            BitSet result = (BitSet) active.clone();
+
+            if (roomStatus != null) {
+                result.and(byRoomStatus.getOrDefault(roomStatus, new BitSet()));
+            }
+
+            if (deposit != null) {
+                result.and(byDeposit.getOrDefault(deposit, new BitSet()));
+            }
+
+            if (region != null) {
+                result.and(regionBitmap(region));
+            }
+
+            return result;
+        }
+    }
+}
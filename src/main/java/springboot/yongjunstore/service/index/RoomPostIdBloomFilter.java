@@ -0,0 +1,228 @@
+package springboot.yongjunstore.service.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import springboot.yongjunstore.repository.RoomPostRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 존재하는 room_post_id 의 Bloom filter
+// mightContain 이 false 면 DB 에 없는 id 이므로 조회 없이 바로 ROOM_POST_NOT_FOUND 처리 (true 는 오탐 가능)
+// 마지막으로 스캔한 id 보다 큰 id 는 아직 반영되지 않았을 수 있으므로 항상 true
+// IDENTITY id 는 발급 순서와 커밋 순서가 다를 수 있음 (늦게 커밋된 작은 id 는 스캔 위치보다 아래에 나타남)
+// -> 갱신할 때마다 스캔 위치 아래 lookback-ids 개 범위를 다시 스캔해서 늦게 커밋된 id 도 반영
+@Slf4j
+@Component
+public class RoomPostIdBloomFilter {
+
+    private final RoomPostRepository roomPostRepository;
+
+    private final int bitCount;
+    private final int hashCount;
+
+    private final Counter rejected;
+
+    @Value("${roomPost.bloom-filter.batch-size:10000}")
+    private int batchSize;
+
+    // 다시 스캔하는 범위 : 동시에 처리 중인 글 생성 트랜잭션 수보다 충분히 크게
+    @Value("${roomPost.bloom-filter.lookback-ids:1000}")
+    private long lookbackIds;
+
+    private volatile Bits bits;
+
+    // 재생성 중인 filter (재생성 중에 생성된 글은 양쪽에 추가)
+    private volatile Bits building;
+
+    private volatile boolean ready = false;
+
+    public RoomPostIdBloomFilter(RoomPostRepository roomPostRepository, MeterRegistry meterRegistry,
+                                 @Value("${roomPost.bloom-filter.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${roomPost.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+
+        this.roomPostRepository = roomPostRepository;
+
+        // m = -n ln(p) / (ln 2)^2 , k = m / n * ln 2
+        long optimalBitCount = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Math.max(optimalBitCount, 64), Integer.MAX_VALUE - 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+
+        this.bits = new Bits(bitCount);
+
+        this.rejected = Counter.builder("room_post.bloom_filter.rejections")
+                .register(meterRegistry);
+    }
+
+
+    // 서버 시작 시 전체 id 로 생성
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+
+        long start = System.currentTimeMillis();
+
+        Bits newBits = new Bits(bitCount);
+        building = newBits;
+
+        try {
+            load(newBits, 0L);
+            bits = newBits;
+        } finally {
+            building = null;
+        }
+
+        // 재생성 중에 저장된 글 반영
+        load(bits, lookbackFrom(bits));
+
+        ready = true;
+
+        log.info("room post id bloom filter 생성 완료 : {} bits, {} hashes, {} ms",
+                bitCount, hashCount, System.currentTimeMillis() - start);
+    }
+
+
+    // 서비스를 거치지 않고 저장된 글도 주기적으로 반영
+    @Scheduled(fixedDelayString = "${roomPost.bloom-filter.refresh-millis:5000}")
+    public synchronized void refresh() {
+
+        if (!ready) {
+            return;
+        }
+
+        load(bits, lookbackFrom(bits));
+    }
+
+
+    // 글 생성 시 커밋 전에 추가 (롤백되더라도 오탐이 하나 늘어날 뿐)
+    public void add(Long roomPostId) {
+
+        bits.add(roomPostId, hashCount);
+
+        Bits next = building;
+
+        if (next != null) {
+            next.add(roomPostId, hashCount);
+        }
+    }
+
+
+    public boolean mightContain(Long roomPostId) {
+
+        Bits current = bits;
+
+        if (!ready || roomPostId > current.indexedRoomPostId) {
+            return true;
+        }
+
+        if (current.mightContain(roomPostId, hashCount)) {
+            return true;
+        }
+
+        rejected.increment();
+        return false;
+    }
+
+
+    // 스캔이 끝난 범위의 id 인지 (이 범위에서 DB 에 없는 id 는 늦게 커밋될 글이 아님)
+    public boolean isIndexed(Long roomPostId) {
+        return ready && roomPostId <= bits.indexedRoomPostId;
+    }
+
+
+    // 스캔 위치 아래 lookback-ids 개부터 다시 스캔 (이미 반영된 id 는 다시 설정해도 그대로)
+    private long lookbackFrom(Bits target) {
+        return Math.max(0L, target.indexedRoomPostId - lookbackIds);
+    }
+
+
+    private void load(Bits target, long fromRoomPostId) {
+
+        long lastRoomPostId = fromRoomPostId;
+
+        while (true) {
+            List<Long> roomPostIds = roomPostRepository.findRoomPostIds(lastRoomPostId, batchSize);
+
+            if (roomPostIds.isEmpty()) {
+                return;
+            }
+
+            roomPostIds.forEach((roomPostId) -> target.add(roomPostId, hashCount));
+
+            lastRoomPostId = roomPostIds.get(roomPostIds.size() - 1);
+
+            // 비트를 모두 설정한 후에 올려야 그 사이의 조회가 false 를 받지 않음 (다시 스캔할 때는 내려가지 않음)
+            target.indexedRoomPostId = Math.max(target.indexedRoomPostId, lastRoomPostId);
+        }
+    }
+
+
+    private static class Bits {
+
+        private final AtomicLongArray words;
+        private final int bitCount;
+
+        // 이 id 까지는 모두 반영됨
+        private volatile long indexedRoomPostId = 0L;
+
+        Bits(int bitCount) {
+            this.bitCount = bitCount;
+            this.words = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        void add(long roomPostId, int hashCount) {
+
+            long hash = mix(roomPostId);
+            int hash1 = (int) hash;
+            int hash2 = (int) (hash >>> 32);
+
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = index(hash1 + i * hash2);
+                int word = bit >>> 6;
+                long mask = 1L << bit;
+
+                long current = words.get(word);
+                while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                    current = words.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(long roomPostId, int hashCount) {
+
+            long hash = mix(roomPostId);
+            int hash1 = (int) hash;
+            int hash2 = (int) (hash >>> 32);
+
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = index(hash1 + i * hash2);
+
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private int index(int combinedHash) {
+            // 음수가 되지 않도록 부호 비트 제거
+            return (combinedHash & Integer.MAX_VALUE) % bitCount;
+        }
+
+        // 연속된 id 가 고르게 퍼지도록 섞음 (MurmurHash3 fmix64)
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb93fe53a87c5L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package springboot.yongjunstore.service.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.repository.condition.RoomPostSearchCondition;
+import springboot.yongjunstore.repository.dto.RoomPostSearchDocument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// 종료되지 않은 글의 title, content, address 에 대한 bigram(2글자) 역색인
+// LIKE '%검색어%' 는 B-tree 인덱스를 사용할 수 없으므로, 검색어의 bigram 을 모두 포함하는 글 id 를 먼저 찾고
+// DB 에서는 그 후보 id 만 LIKE 로 다시 확인한다. (bigram 교집합은 실제 결과의 상위 집합)
+// 서비스로 저장, 삭제된 글은 커밋 후 바로 반영하고, 마지막으로 스캔한 id 이후의 글은 항상 DB 에서 LIKE 로 검색한다.
+// 서비스를 거치지 않고 저장된 글 중 스캔한 id 보다 작은 id 로 늦게 커밋된 글 (IDENTITY id 는 커밋 순서와 다를 수 있음) 은
+// 다음 갱신에서 스캔 위치 아래 lookback-ids 개 범위를 다시 스캔할 때 반영되므로, 그 전까지는 검색 결과에서 빠질 수 있다.
+// 재생성 중에 들어온 추가, 삭제는 기록해 두었다가 새 인덱스로 교체할 때 다시 적용한다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomPostSearchIndex {
+
+    private final RoomPostRepository roomPostRepository;
+
+    @Value("${roomPost.search-index.enabled:true}")
+    private boolean enabled;
+
+    // 후보가 이보다 많으면 선택도가 낮은 검색어이므로 인덱스 없이 DB 에서 조회 (id desc + limit 으로 금방 끝남)
+    @Value("${roomPost.search-index.max-candidates:1000}")
+    private int maxCandidates;
+
+    @Value("${roomPost.search-index.batch-size:1000}")
+    private int batchSize;
+
+    // 갱신할 때 다시 스캔하는 범위 : 동시에 처리 중인 글 생성 트랜잭션 수보다 충분히 크게
+    @Value("${roomPost.search-index.lookback-ids:1000}")
+    private long lookbackIds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Fields fields = new Fields();
+
+    // 재생성 중에 들어온 추가, 삭제 (재생성 중이 아니면 null, lock 으로 보호)
+    private List<Consumer<Fields>> pendingMutations;
+
+    private volatile boolean ready = false;
+
+
+    // 서버 시작 시 전체 인덱스 생성
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingMutations = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Fields newFields = new Fields();
+            loadInto(newFields);
+
+            // 생성 중에 들어온 추가, 삭제를 새 인덱스에 다시 적용한 후 교체
+            lock.writeLock().lock();
+            try {
+                pendingMutations.forEach((mutation) -> mutation.accept(newFields));
+                fields = newFields;
+            } finally {
+                pendingMutations = null;
+                lock.writeLock().unlock();
+            }
+
+            // 생성 중에 커밋된 글 반영
+            loadInto(null);
+
+            ready = true;
+
+            log.info("room post search index 생성 완료 : {} ms", System.currentTimeMillis() - start);
+
+        } catch (ArithmeticException e) {
+            // posting list 는 int 로 id 를 저장하므로 범위를 넘으면 인덱스를 사용하지 않음
+            ready = false;
+            log.warn("room post search index 사용 중지 : id 가 int 범위를 초과했습니다.");
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingMutations = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+
+    // 마지막으로 스캔한 id 이후에 저장된 글을 주기적으로 반영 (DB 에서 LIKE 로 검색하는 범위를 작게 유지)
+    @Scheduled(fixedDelayString = "${roomPost.search-index.refresh-millis:5000}")
+    public synchronized void refresh() {
+
+        if (!enabled || !ready) {
+            return;
+        }
+
+        try {
+            loadInto(null);
+        } catch (ArithmeticException e) {
+            ready = false;
+            log.warn("room post search index 사용 중지 : id 가 int 범위를 초과했습니다.");
+        }
+    }
+
+
+    // 트랜잭션이 커밋된 후 인덱스에 추가 (롤백된 글이 인덱스에 남지 않도록)
+    public void addAfterCommit(RoomPost roomPost) {
+
+        RoomPostSearchDocument document = new RoomPostSearchDocument(
+                roomPost.getId(), roomPost.getTitle(), roomPost.getContent(), roomPost.getAddress());
+
+        afterCommit(() -> add(document));
+    }
+
+
+    public void removeAfterCommit(RoomPost roomPost) {
+
+        RoomPostSearchDocument document = new RoomPostSearchDocument(
+                roomPost.getId(), roomPost.getTitle(), roomPost.getContent(), roomPost.getAddress());
+
+        afterCommit(() -> remove(document));
+    }
+
+
+    public void add(RoomPostSearchDocument document) {
+
+        if (document.getId() > Integer.MAX_VALUE) {
+            ready = false;
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            fields.add(document);
+
+            if (pendingMutations != null) {
+                pendingMutations.add((target) -> target.add(document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    public void remove(RoomPostSearchDocument document) {
+
+        if (document.getId() > Integer.MAX_VALUE) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            fields.remove(document);
+
+            if (pendingMutations != null) {
+                pendingMutations.add((target) -> target.remove(document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    // 검색 후보 id (내림차순) 와 인덱스에 반영된 마지막 id 를 담은 검색 조건
+    // 인덱스를 사용할 수 없는 경우 (인덱스 생성 전, 1글자 검색어, email 검색, 후보가 너무 많은 경우) 는 후보 없이 DB 에서 검색
+    public RoomPostSearchCondition searchCondition(String searchOption, String searchContent) {
+
+        RoomPostSearchCondition.RoomPostSearchConditionBuilder condition = RoomPostSearchCondition.builder()
+                .searchOption(searchOption)
+                .searchContent(searchContent);
+
+        if (!enabled || !ready || searchContent == null || searchContent.isBlank()) {
+            return condition.build();
+        }
+
+        int[] bigrams = bigrams(searchContent);
+
+        if (bigrams.length == 0) {
+            return condition.build();
+        }
+
+        int[] candidates;
+        long indexedRoomPostId;
+
+        lock.readLock().lock();
+        try {
+            indexedRoomPostId = fields.indexedRoomPostId;
+
+            if (searchOption.equals("title")) {
+                candidates = intersect(fields.title, bigrams);
+            } else if (searchOption.equals("address")) {
+                candidates = intersect(fields.address, bigrams);
+            } else if (searchOption.equals("titleContent")) {
+                int[] titleCandidates = intersect(fields.title, bigrams);
+                int[] contentCandidates = titleCandidates == null ? null : intersect(fields.content, bigrams);
+                candidates = contentCandidates == null ? null : union(titleCandidates, contentCandidates);
+            } else {
+                return condition.build();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (candidates == null || candidates.length > maxCandidates) {
+            return condition.build();
+        }
+
+        List<Long> candidateIds = new ArrayList<>(candidates.length);
+
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            candidateIds.add((long) candidates[i]);
+        }
+
+        return condition
+                .candidateIds(candidateIds)
+                .indexedRoomPostId(indexedRoomPostId)
+                .build();
+    }
+
+
+    // target 이 null 이면 현재 인덱스에 추가 (스캔 위치 아래 lookback-ids 개부터 다시 스캔, 이미 있는 글은 그대로)
+    // 배치를 모두 반영한 후에 indexedRoomPostId 를 올린다. (검색 시 그 이하의 글은 posting list 에 존재)
+    private void loadInto(Fields target) {
+
+        long lastRoomPostId = target != null ? target.indexedRoomPostId : Math.max(0L, currentIndexedRoomPostId() - lookbackIds);
+
+        while (true) {
+            List<RoomPostSearchDocument> documents = roomPostRepository.findSearchDocuments(lastRoomPostId, batchSize);
+
+            if (documents.isEmpty()) {
+                return;
+            }
+
+            lastRoomPostId = documents.get(documents.size() - 1).getId();
+            Math.toIntExact(lastRoomPostId); // int 범위를 넘으면 ArithmeticException
+
+            if (target != null) {
+                documents.forEach(target::add);
+                target.indexedRoomPostId = lastRoomPostId;
+                continue;
+            }
+
+            lock.writeLock().lock();
+            try {
+                documents.forEach(fields::add);
+                // 다시 스캔할 때는 내려가지 않음
+                fields.indexedRoomPostId = Math.max(fields.indexedRoomPostId, lastRoomPostId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+
+    private long currentIndexedRoomPostId() {
+
+        lock.readLock().lock();
+        try {
+            return fields.indexedRoomPostId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    // 가장 짧은 posting list 부터 교집합 (maxCandidates 를 넘으면 중단하고 null)
+    private int[] intersect(Map<Integer, PostingList> index, int[] bigrams) {
+
+        PostingList[] lists = new PostingList[bigrams.length];
+
+        for (int i = 0; i < bigrams.length; i++) {
+            PostingList postingList = index.get(bigrams[i]);
+
+            // 검색어의 bigram 을 가진 글이 하나도 없으면 결과 없음
+            if (postingList == null) {
+                return new int[0];
+            }
+            lists[i] = postingList;
+        }
+
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        PostingList smallest = lists[0];
+        int[] result = new int[Math.min(smallest.size, maxCandidates + 1)];
+        int count = 0;
+
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            boolean containsAll = true;
+
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(id)) {
+                    containsAll = false;
+                    break;
+                }
+            }
+
+            if (containsAll) {
+                if (count > maxCandidates) {
+                    return null;
+                }
+                result[count++] = id;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+
+    private int[] union(int[] a, int[] b) {
+
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, count = 0;
+
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[count++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[count++] = b[j++];
+            } else {
+                result[count++] = a[i++];
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+
+    // 두 글자를 하나의 int 로 (중복 제거, 정렬)
+    static int[] bigrams(String text) {
+
+        if (text == null || text.length() < 2) {
+            return new int[0];
+        }
+
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int[] bigrams = new int[normalized.length() - 1];
+
+        for (int i = 0; i < bigrams.length; i++) {
+            bigrams[i] = (normalized.charAt(i) << 16) | normalized.charAt(i + 1);
+        }
+
+        return Arrays.stream(bigrams).distinct().sorted().toArray();
+    }
+
+
+    private void afterCommit(Runnable runnable) {
+
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+
+
+    // 필드 별 bigram -> posting list
+    private static class Fields {
+
+        private final Map<Integer, PostingList> title = new HashMap<>();
+        private final Map<Integer, PostingList> content = new HashMap<>();
+        private final Map<Integer, PostingList> address = new HashMap<>();
+
+        // 이 id 까지의 글은 모두 스캔되어 posting list 에 반영됨
+        private long indexedRoomPostId = 0L;
+
+        void add(RoomPostSearchDocument document) {
+            int id = toIndexId(document.getId());
+            addField(title, id, document.getTitle());
+            addField(content, id, document.getContent());
+            addField(address, id, document.getAddress());
+        }
+
+        void remove(RoomPostSearchDocument document) {
+            int id = toIndexId(document.getId());
+            removeField(title, id, document.getTitle());
+            removeField(content, id, document.getContent());
+            removeField(address, id, document.getAddress());
+        }
+
+        private static void addField(Map<Integer, PostingList> index, int id, String text) {
+            for (int bigram : bigrams(text)) {
+                index.computeIfAbsent(bigram, (key) -> new PostingList()).add(id);
+            }
+        }
+
+        private static void removeField(Map<Integer, PostingList> index, int id, String text) {
+            for (int bigram : bigrams(text)) {
+                PostingList postingList = index.get(bigram);
+
+                if (postingList != null && postingList.remove(id) && postingList.size == 0) {
+                    index.remove(bigram);
+                }
+            }
+        }
+
+        private static int toIndexId(Long roomPostId) {
+            return Math.toIntExact(roomPostId);
+        }
+    }
+
+
+    // 오름차순으로 정렬된 int 배열 (id 는 증가하면서 생성되므로 대부분 끝에 추가)
+    static class PostingList {
+
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        void add(int id) {
+
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+
+                if (index >= 0) {
+                    return;
+                }
+
+                insertAt(-(index + 1), id);
+                return;
+            }
+
+            insertAt(size, id);
+        }
+
+        boolean remove(int id) {
+
+            int index = Arrays.binarySearch(ids, 0, size, id);
+
+            if (index < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insertAt(int index, int id) {
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package springboot.yongjunstore.service.job;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.common.upload.StreamedMultipartFile;
+import springboot.yongjunstore.domain.room.CreateJobStatus;
+import springboot.yongjunstore.domain.room.ImageStorage;
+import springboot.yongjunstore.domain.room.RoomPostCreateJob;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RoomPostCreateJobRepository;
+import springboot.yongjunstore.request.RoomPostRequest;
+import springboot.yongjunstore.response.RoomPostCreateJobResponse;
+import springboot.yongjunstore.service.RoomPostService;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// 비동기 글 생성 (202 Accepted + 상태 조회)
+// 요청 스레드는 이미지를 작업 폴더로 옮기고 작업을 DB 에 PENDING 으로 저장한 뒤 바로 응답
+// 작업자가 주기적으로 대기 중인 작업을 가져와 기존 글 생성(이미지 저장 -> 짧은 트랜잭션으로 글 저장)을 실행
+// 글은 처리가 끝난 뒤에 저장되므로 그 전에는 조회, 검색 결과에 나타나지 않음
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomPostCreateJobService {
+
+    // 업로드 폴더 안이지만 이미지 제공(LocalImageService)에서 제외되는 임시 폴더
+    private static final String JOB_FOLDER = "tmp" + File.separator + "jobs";
+
+    @Value("${fileUpload.upload.local.path}")
+    private String uploadPath;
+
+    // 일시적인 오류(S3, DB 등)로 실패한 작업의 최대 시도 횟수
+    @Value("${roomPost.create-job.max-attempts:3}")
+    private int maxAttempts;
+
+    // 처리 중 상태로 이 시간이 지난 작업은 서버가 종료된 것으로 보고 다시 처리
+    @Value("${roomPost.create-job.stale-millis:600000}")
+    private long staleMillis;
+
+    private final RoomPostCreateJobRepository roomPostCreateJobRepository;
+    private final MemberRepository memberRepository;
+    private final RoomPostService roomPostService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor roomPostCreateExecutor;
+
+
+    public RoomPostCreateJobResponse enqueue(RoomPostRequest roomDto, List<MultipartFile> uploadImages, ImageStorage storage) {
+
+        // 없는 회원이거나 이미지가 없으면 작업을 만들기 전에 실패
+        if (!memberRepository.existsById(roomDto.getMemberId())) {
+            throw new GlobalException(ErrorCode.MEMBER_NOT_FOUND);
+        }
+
+        if ((uploadImages == null || uploadImages.isEmpty()) && roomDto.getUploadIds().isEmpty()) {
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_FOUND);
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        Path jobFolder = jobFolder(jobId);
+
+        try {
+            Files.createDirectories(jobFolder);
+
+            List<StagedImage> stagedImages = new ArrayList<>();
+
+            if (uploadImages != null) {
+                for (int i = 0; i < uploadImages.size(); i++) {
+                    MultipartFile uploadImage = uploadImages.get(i);
+
+                    // multipart 임시 파일은 이동만 일어남
+                    uploadImage.transferTo(jobFolder.resolve(String.valueOf(i)));
+                    stagedImages.add(new StagedImage(uploadImage.getOriginalFilename(), uploadImage.getContentType()));
+                }
+            }
+
+            String request = objectMapper.writeValueAsString(roomDto);
+            String images = objectMapper.writeValueAsString(stagedImages);
+
+            RoomPostCreateJob roomPostCreateJob = transactionTemplate.execute((status) -> roomPostCreateJobRepository.save(
+                    RoomPostCreateJob.builder()
+                            .jobId(jobId)
+                            .memberId(roomDto.getMemberId())
+                            .storage(storage)
+                            .request(request)
+                            .images(images)
+                            .build()));
+
+            return new RoomPostCreateJobResponse(roomPostCreateJob);
+
+        } catch (IOException e) {
+            log.error("글 생성 작업 저장 실패 : " + jobId, e);
+            deleteJobFolder(jobFolder);
+            throw new GlobalException(ErrorCode.IMAGE_FILE_NOT_UPLOAD);
+        } catch (RuntimeException e) {
+            deleteJobFolder(jobFolder);
+            throw e;
+        }
+    }
+
+
+    public RoomPostCreateJobResponse find(String jobId) {
+
+        RoomPostCreateJob roomPostCreateJob = roomPostCreateJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new GlobalException(ErrorCode.ROOM_POST_CREATE_JOB_NOT_FOUND));
+
+        return new RoomPostCreateJobResponse(roomPostCreateJob);
+    }
+
+
+    // 비어 있는 작업 스레드 수만큼 대기 중인 작업을 가져와 처리
+    @Scheduled(fixedDelayString = "${roomPost.create-job.poll-millis:1000}")
+    public void poll() {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer reset = transactionTemplate.execute((status) -> roomPostCreateJobRepository.resetStale(
+                CreateJobStatus.PROCESSING, CreateJobStatus.PENDING, now.minus(Duration.ofMillis(staleMillis)), now));
+
+        if (reset != null && reset > 0) {
+            log.warn("처리가 멈춘 글 생성 작업 {}건을 다시 대기 상태로 변경", reset);
+        }
+
+        int available = roomPostCreateExecutor.getMaxPoolSize() - roomPostCreateExecutor.getActiveCount();
+
+        if (available <= 0) {
+            return;
+        }
+
+        List<RoomPostCreateJob> pendingJobs =
+                roomPostCreateJobRepository.findByStatusOrderByIdAsc(CreateJobStatus.PENDING, PageRequest.of(0, available));
+
+        for (RoomPostCreateJob pendingJob : pendingJobs) {
+
+            Long roomPostCreateJobId = pendingJob.getId();
+            int claimedAttempts = pendingJob.getAttempts() + 1;
+
+            Integer claimed = transactionTemplate.execute((status) -> roomPostCreateJobRepository.claim(
+                    roomPostCreateJobId, CreateJobStatus.PENDING, CreateJobStatus.PROCESSING, pendingJob.getAttempts(), LocalDateTime.now()));
+
+            // 다른 서버가 먼저 가져간 작업
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+
+            try {
+                roomPostCreateExecutor.execute(() -> process(roomPostCreateJobId, claimedAttempts));
+            } catch (TaskRejectedException e) {
+                // 스레드가 모두 사용 중이면 다음 주기에 다시 처리
+                retryJob(roomPostCreateJobId, claimedAttempts);
+                break;
+            }
+        }
+    }
+
+
+    // claimedAttempts : claim 으로 증가시킨 attempts (완료, 실패, 재시도는 이 값이 그대로일 때만 적용)
+    void process(Long roomPostCreateJobId, int claimedAttempts) {
+
+        RoomPostCreateJob roomPostCreateJob = roomPostCreateJobRepository.findById(roomPostCreateJobId).orElse(null);
+
+        if (roomPostCreateJob == null) {
+            return;
+        }
+
+        String jobId = roomPostCreateJob.getJobId();
+
+        try {
+            RoomPostRequest roomDto = objectMapper.readValue(roomPostCreateJob.getRequest(), RoomPostRequest.class);
+            List<StagedImage> stagedImages = objectMapper.readValue(roomPostCreateJob.getImages(), new TypeReference<List<StagedImage>>() {});
+
+            List<MultipartFile> uploadImages = stagedFiles(jobId, stagedImages);
+
+            // 작업 완료 기록은 글 저장과 같은 트랜잭션으로 커밋 (완료된 작업이 다시 처리되어 글이 중복 생성되지 않도록)
+            Consumer<Long> complete = (roomPostId) -> completeJob(roomPostCreateJobId, roomPostId, claimedAttempts);
+
+            if (roomPostCreateJob.getStorage() == ImageStorage.S3) {
+                roomPostService.createRoomS3(roomDto, uploadImages, complete);
+            } else {
+                roomPostService.createRoom(roomDto, uploadImages, complete);
+            }
+
+            deleteJobFolder(jobFolder(jobId));
+
+        } catch (ClaimLostException e) {
+            // 다른 작업자가 다시 가져간 작업 : 글 저장은 롤백되었고, 작업 상태와 폴더는 그 작업자가 처리
+            log.warn("다른 작업자가 처리 중인 글 생성 작업이라 이번 처리를 취소 : " + jobId);
+
+        } catch (GlobalException e) {
+            // 잘못된 요청 (이미지 형식, 회원 없음 등) 은 다시 시도해도 실패하므로 바로 실패 처리
+            failJob(roomPostCreateJobId, claimedAttempts, e.getErrorCode());
+
+        } catch (MaxUploadSizeExceededException e) {
+            failJob(roomPostCreateJobId, claimedAttempts, ErrorCode.IMAGE_FILE_MAX_UPLOAD_SIZE);
+
+        } catch (IOException | RuntimeException e) {
+            log.error("글 생성 작업 처리 실패 : " + jobId + " (" + claimedAttempts + "회)", e);
+
+            if (claimedAttempts >= maxAttempts) {
+                failJob(roomPostCreateJobId, claimedAttempts, ErrorCode.SERVER_INTERNAL_SERVER_ERROR);
+            } else {
+                retryJob(roomPostCreateJobId, claimedAttempts);
+            }
+        }
+    }
+
+
+    // 글 저장 트랜잭션 안에서 실행
+    // 멈춘 작업으로 판단되어 다른 작업자가 다시 가져간 경우 (1건도 변경되지 않음) 이번 글 저장은 롤백
+    private void completeJob(Long roomPostCreateJobId, Long roomPostId, int claimedAttempts) {
+
+        int completed = roomPostCreateJobRepository.complete(roomPostCreateJobId, roomPostId,
+                CreateJobStatus.PROCESSING, CreateJobStatus.COMPLETED, claimedAttempts, LocalDateTime.now());
+
+        if (completed != 1) {
+            throw new ClaimLostException();
+        }
+    }
+
+
+    private void failJob(Long roomPostCreateJobId, int claimedAttempts, ErrorCode errorCode) {
+
+        Integer failed = transactionTemplate.execute((status) -> roomPostCreateJobRepository.fail(roomPostCreateJobId,
+                errorCode.getCode(), errorCode.getMessage(), CreateJobStatus.PROCESSING, CreateJobStatus.FAILED,
+                claimedAttempts, LocalDateTime.now()));
+
+        // 다른 작업자가 처리 중이면 작업 폴더를 남겨 둠
+        if (failed == null || failed == 0) {
+            return;
+        }
+
+        roomPostCreateJobRepository.findById(roomPostCreateJobId)
+                .ifPresent((roomPostCreateJob) -> deleteJobFolder(jobFolder(roomPostCreateJob.getJobId())));
+    }
+
+
+    private void retryJob(Long roomPostCreateJobId, int claimedAttempts) {
+        transactionTemplate.executeWithoutResult((status) -> roomPostCreateJobRepository.retry(
+                roomPostCreateJobId, CreateJobStatus.PROCESSING, CreateJobStatus.PENDING, claimedAttempts, LocalDateTime.now()));
+    }
+
+
+    // 작업 폴더의 이미지는 이동하지 않고 복사해서 사용 (일시적인 오류로 다시 처리할 수 있도록)
+    private List<MultipartFile> stagedFiles(String jobId, List<StagedImage> stagedImages) throws IOException {
+
+        List<MultipartFile> uploadImages = new ArrayList<>();
+
+        for (int i = 0; i < stagedImages.size(); i++) {
+            StagedImage stagedImage = stagedImages.get(i);
+
+            uploadImages.add(StreamedMultipartFile.ofRetainedFile("uploadImages", stagedImage.getFileName(),
+                    stagedImage.getContentType(), jobFolder(jobId).resolve(String.valueOf(i))));
+        }
+
+        return uploadImages;
+    }
+
+
+    private Path jobFolder(String jobId) {
+        return Paths.get(uploadPath, JOB_FOLDER, jobId);
+    }
+
+
+    private void deleteJobFolder(Path jobFolder) {
+        try {
+            FileSystemUtils.deleteRecursively(jobFolder);
+        } catch (IOException e) {
+            log.warn("글 생성 작업 폴더 삭제 실패 : " + jobFolder, e);
+        }
+    }
+
+
+    // 작업의 처리 권한을 잃은 경우 글 저장 트랜잭션을 롤백하기 위한 예외
+    private static class ClaimLostException extends RuntimeException {
+    }
+}
@@ -0,0 +1,16 @@
+package springboot.yongjunstore.service.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 비동기 글 생성 작업의 임시 폴더에 옮겨 둔 이미지 정보 (파일은 작업 폴더의 순번 이름으로 저장)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StagedImage {
+
+    private String fileName; // 원본 파일 이름
+
+    private String contentType;
+}
@@ -0,0 +1,102 @@
+package springboot.yongjunstore.service.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.config.RedisUtils;
+import springboot.yongjunstore.domain.room.Images;
+import springboot.yongjunstore.repository.ImagesRepository;
+
+import java.util.List;
+
+// 이전 형식으로 저장된 이미지 (S3 : name 에 전체 URL, path 에 bucket) 를 저장 위치 + key 형식으로 옮기는 backfill
+// 서버 시작 시 저장 위치가 비어 있는 이미지를 id 순으로 batch 단위 트랜잭션으로 처리 (여러 번 실행해도 같은 결과)
+// 서버가 여러 대여도 Redis lock 을 얻은 한 곳에서만 실행하고, 끝까지 처리하면 완료 표시를 남겨 다음 시작부터는 실행하지 않음
+@Slf4j
+@Component
+public class ImagesStorageBackfill {
+
+    private static final String LOCK_KEY = "migration:images-storage:lock";
+    private static final String DONE_KEY = "migration:images-storage:done";
+
+    private final ImagesRepository imagesRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisUtils redisUtils;
+
+    @Value("${fileUpload.storage-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fileUpload.storage-backfill.batch-size:500}")
+    private int batchSize;
+
+    // 실행 중인 서버가 종료되어도 lock 이 남지 않도록 유효 시간 지정
+    @Value("${fileUpload.storage-backfill.lock-seconds:600}")
+    private long lockSeconds;
+
+    public ImagesStorageBackfill(ImagesRepository imagesRepository, PlatformTransactionManager transactionManager,
+                                 RedisUtils redisUtils) {
+        this.imagesRepository = imagesRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.redisUtils = redisUtils;
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+
+        if (!enabled || redisUtils.getData(DONE_KEY) != null) {
+            return;
+        }
+
+        // 다른 서버가 실행 중
+        if (!redisUtils.setDataIfAbsent(LOCK_KEY, "running", lockSeconds)) {
+            log.info("이미지 저장 위치 backfill 을 다른 서버에서 실행 중이라 건너뜀");
+            return;
+        }
+
+        try {
+            run();
+            redisUtils.setData(DONE_KEY, "done");
+        } finally {
+            redisUtils.deleteData(LOCK_KEY);
+        }
+    }
+
+
+    private void run() {
+
+        long lastImagesId = 0L;
+        long count = 0L;
+
+        while (true) {
+            final long fromImagesId = lastImagesId;
+
+            List<Long> updatedIds = transactionTemplate.execute((status) -> {
+
+                List<Images> imagesList =
+                        imagesRepository.findStorageBackfillTargets(fromImagesId, PageRequest.of(0, batchSize));
+
+                // 변경 감지로 커밋 시 update
+                imagesList.forEach(Images::backfillStorage);
+
+                return imagesList.stream().map(Images::getId).toList();
+            });
+
+            if (updatedIds == null || updatedIds.isEmpty()) {
+                break;
+            }
+
+            count += updatedIds.size();
+            lastImagesId = updatedIds.get(updatedIds.size() - 1);
+        }
+
+        if (count > 0) {
+            log.info("이미지 저장 위치 backfill 완료 : {} 건", count);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package springboot.yongjunstore.service.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.repository.RoomPostRepository;
+
+import java.util.List;
+
+// 문자열 가격, 평수(monthlyPrice, depositPrice, squareFootage)를 숫자 컬럼으로 옮기는 backfill
+// 서버 시작 시 숫자 컬럼이 비어 있는 글을 id 순으로 batch 단위 트랜잭션으로 처리 (여러 번 실행해도 같은 결과)
+@Slf4j
+@Component
+public class RoomPostAmountBackfill {
+
+    private final RoomPostRepository roomPostRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${roomPost.amount-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${roomPost.amount-backfill.batch-size:500}")
+    private int batchSize;
+
+    public RoomPostAmountBackfill(RoomPostRepository roomPostRepository, PlatformTransactionManager transactionManager) {
+        this.roomPostRepository = roomPostRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+
+        if (!enabled) {
+            return;
+        }
+
+        long lastRoomPostId = 0L;
+        long count = 0L;
+
+        while (true) {
+            final long fromRoomPostId = lastRoomPostId;
+
+            List<Long> updatedIds = transactionTemplate.execute((status) -> {
+
+                List<RoomPost> roomPostList =
+                        roomPostRepository.findAmountBackfillTargets(fromRoomPostId, PageRequest.of(0, batchSize));
+
+                // 변경 감지로 커밋 시 update
+                roomPostList.forEach(RoomPost::backfillAmounts);
+
+                return roomPostList.stream().map(RoomPost::getId).toList();
+            });
+
+            if (updatedIds == null || updatedIds.isEmpty()) {
+                break;
+            }
+
+            count += updatedIds.size();
+            lastRoomPostId = updatedIds.get(updatedIds.size() - 1);
+        }
+
+        if (count > 0) {
+            log.info("room post 가격, 평수 숫자 컬럼 backfill 완료 : {} 건", count);
+        }
+    }
+}
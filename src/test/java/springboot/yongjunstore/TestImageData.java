@@ -0,0 +1,30 @@
+package springboot.yongjunstore;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+// 업로드 검증 (파일 앞부분의 jpeg magic byte) 을 통과하는 테스트용 이미지 데이터
+public final class TestImageData {
+
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 'i', 'm', 'a', 'g', 'e', 'D', 'a', 't', 'a'};
+
+    private TestImageData() {
+    }
+
+    // 호출할 때마다 새 배열 (테스트에서 내용을 바꿔도 다른 테스트에 영향 없음)
+    public static byte[] jpeg() {
+        return JPEG.clone();
+    }
+
+    // 다른 테스트에서 저장한 파일과 내용 (해시) 이 겹치지 않도록 뒤에 UUID 를 붙인 jpeg
+    public static byte[] uniqueJpeg() {
+
+        byte[] uuid = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        byte[] imageData = Arrays.copyOf(JPEG, JPEG.length + uuid.length);
+
+        System.arraycopy(uuid, 0, imageData, JPEG.length, uuid.length);
+
+        return imageData;
+    }
+}
@@ -0,0 +1,109 @@
+package springboot.yongjunstore.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import springboot.yongjunstore.TestImageData;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class StreamingMultipartResolverTest {
+
+    private static final String BOUNDARY = "yongjunBoundary";
+
+    private final byte[] imageData = TestImageData.jpeg();
+
+    @Autowired
+    private StreamingMultipartResolver streamingMultipartResolver;
+
+
+    @Test
+    @DisplayName("multipart 요청 읽기 성공 : 이미지는 실제 형식으로, JSON part 와 form field 는 그대로")
+    void resolveMultipart() throws IOException {
+        // given
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writePart(body, "uploadImages", "filename.png", "image/png", imageData);
+        writePart(body, "roomPostRequest", "blob", "application/json", "{\"title\":\"제목\"}".getBytes(StandardCharsets.UTF_8));
+        writeField(body, "memberId", "1");
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        MockHttpServletRequest request = multipartRequest(body.toByteArray());
+
+        // when
+        MultipartHttpServletRequest multipartRequest = streamingMultipartResolver.resolveMultipart(request);
+
+        // then
+        MultipartFile uploadImage = multipartRequest.getFile("uploadImages");
+        MultipartFile roomPostRequest = multipartRequest.getFile("roomPostRequest");
+
+        assertThat(uploadImage.getOriginalFilename()).isEqualTo("filename.png");
+        // Content-Type 은 실제 내용 기준
+        assertThat(uploadImage.getContentType()).isEqualTo("image/jpeg");
+        assertThat(uploadImage.getBytes()).isEqualTo(imageData);
+
+        assertThat(roomPostRequest.getContentType()).isEqualTo("application/json");
+        assertThat(new String(roomPostRequest.getBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"title\":\"제목\"}");
+
+        assertThat(multipartRequest.getParameter("memberId")).isEqualTo("1");
+
+        streamingMultipartResolver.cleanupMultipart(multipartRequest);
+    }
+
+
+    @Test
+    @DisplayName("multipart 요청 읽기 실패 : 실제 내용이 이미지가 아닌 파일")
+    void resolveMultipartSignatureFail() throws IOException {
+        // given
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writePart(body, "uploadImages", "filename.jpg", "image/jpeg", "%PDF-1.7 testData".getBytes(StandardCharsets.UTF_8));
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        MockHttpServletRequest request = multipartRequest(body.toByteArray());
+
+        // when, then
+        assertThatThrownBy(() -> streamingMultipartResolver.resolveMultipart(request))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.IMAGE_FILE_SIGNATURE_MISMATCH.getMessage());
+    }
+
+
+    private MockHttpServletRequest multipartRequest(byte[] body) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/room/create");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setCharacterEncoding("UTF-8");
+        request.setContent(body);
+
+        return request;
+    }
+
+
+    private void writePart(ByteArrayOutputStream body, String name, String filename, String contentType, byte[] content) throws IOException {
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private void writeField(ByteArrayOutputStream body, String name, String value) throws IOException {
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
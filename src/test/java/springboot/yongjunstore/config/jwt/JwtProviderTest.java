@@ -1,5 +1,6 @@
 package springboot.yongjunstore.config.jwt;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -20,9 +21,11 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.test.context.ActiveProfiles;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.UserPrincipal;
 import springboot.yongjunstore.domain.Member;
 import springboot.yongjunstore.domain.Role;
 import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.service.cache.MemberSnapshotCache;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
@@ -45,9 +48,12 @@ class JwtProviderTest {
 
     @Autowired JwtProvider getJwtProvider;
 
+    @Autowired MemberSnapshotCache memberSnapshotCache;
+
     @BeforeEach
     void setUp() {
         getMemberRepository.deleteAll();
+        memberSnapshotCache.clear();
         MockitoAnnotations.openMocks(this); // 목 객체 주입
     }
 
@@ -89,7 +95,7 @@ class JwtProviderTest {
         String authorities = "ROLE_MEMBER";
 
         // when
-        JwtDto jwtDto = getJwtProvider.googleLoginGenerateToken(username, authorities);
+        JwtDto jwtDto = getJwtProvider.googleLoginGenerateToken(1L, username, authorities);
 
         // then
         assertThat(jwtDto).isNotNull();
@@ -142,6 +148,48 @@ class JwtProviderTest {
     }
 
 
+    @Test
+    @DisplayName("토큰을 복호화 후 정보 조회 성공 : 회원 id 가 있는 토큰은 회원을 조회하지 않음")
+    void getAuthenticationFromClaims() {
+
+        // given
+        Authentication login = new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(10L, "test@gmail.com", List.of(new SimpleGrantedAuthority("ROLE_MEMBER"))),
+                "", List.of(new SimpleGrantedAuthority("ROLE_MEMBER")));
+
+        JwtDto jwtDto = getJwtProvider.generateToken(login);
+
+        // when (DB 에 회원이 없어도 claims 로 생성)
+        Authentication authentication = getJwtProvider.getAuthentication(jwtDto.getAccessToken());
+
+        // then
+        assertThat(authentication.getPrincipal()).isInstanceOf(UserPrincipal.class);
+        assertThat(((UserPrincipal) authentication.getPrincipal()).getMemberId()).isEqualTo(10L);
+        assertThat(authentication.getName()).isEqualTo("test@gmail.com");
+        assertThat(authentication.getAuthorities().iterator().next().getAuthority()).isEqualTo("ROLE_MEMBER");
+    }
+
+    @Test
+    @DisplayName("토큰을 복호화 후 google 회원 정보 조회 성공 : 재발급한 토큰에도 회원 id 와 provider 유지")
+    void getAuthenticationGoogleFromClaims() {
+
+        // given
+        JwtDto jwtDto = getJwtProvider.googleLoginGenerateToken(20L, "test@gmail.com", "ROLE_MEMBER");
+
+        Authentication authentication = getJwtProvider.getAuthentication(jwtDto.getAccessToken());
+
+        // when
+        JwtDto reissued = getJwtProvider.generateToken(authentication);
+
+        // then
+        Claims claims = getJwtProvider.verifyToken(reissued.getAccessToken());
+
+        assertThat(authentication).isInstanceOf(OAuth2AuthenticationToken.class);
+        assertThat(claims.get("mid", Long.class)).isEqualTo(20L);
+        assertThat(claims.get("provider", String.class)).isEqualTo("google");
+        assertThat(claims.getSubject()).isEqualTo("test@gmail.com");
+    }
+
     @Test
     @DisplayName("토큰을 복호 실패 : 해당 계정을 찾을 수 없습니다.")
     void getAuthenticationMemberNotFound() {
@@ -379,6 +427,50 @@ class JwtProviderTest {
         assertThat(result).isNotNull();
     }
 
+    @Test
+    @DisplayName("검증된 토큰은 Claims 를 저장해서 다시 검증하지 않음")
+    void verifyTokenCached() {
+
+        // given
+        String accessToken = Jwts.builder()
+                .setSubject("test@gmail.com")
+                .claim("role", "MEMBER")
+                .setExpiration(new Date(new Date().getTime() + 3000000L))
+                .signWith(getJwtProvider.jwtSecretKey(), SignatureAlgorithm.HS256)
+                .compact();
+
+        // when
+        Claims first = getJwtProvider.verifyToken(accessToken);
+        Claims second = getJwtProvider.verifyToken(accessToken);
+
+        // then
+        assertThat(first.getSubject()).isEqualTo("test@gmail.com");
+        assertThat(second).isSameAs(first);
+        assertThat(getJwtProvider.jwtSecretKey()).isSameAs(getJwtProvider.jwtSecretKey());
+    }
+
+    @Test
+    @DisplayName("만료된 토큰은 저장하지 않고 검증 실패")
+    void verifyTokenExpired() {
+
+        // given
+        String accessToken = Jwts.builder()
+                .setSubject("test@gmail.com")
+                .claim("role", "MEMBER")
+                .setExpiration(new Date(new Date().getTime() - 1000L))
+                .signWith(getJwtProvider.jwtSecretKey(), SignatureAlgorithm.HS256)
+                .compact();
+
+        // expected
+        assertThatThrownBy(() -> getJwtProvider.verifyToken(accessToken))
+                .isInstanceOf(JwtException.class)
+                .hasMessageContaining(ErrorCode.JWT_EXPIRED_JWT_EXCEPTION.getMessage());
+
+        assertThatThrownBy(() -> getJwtProvider.verifyToken(accessToken))
+                .isInstanceOf(JwtException.class)
+                .hasMessageContaining(ErrorCode.JWT_EXPIRED_JWT_EXCEPTION.getMessage());
+    }
+
     @Test
     @DisplayName("RefreshToken 만료된 토큰 false 리턴")
     void validateRefreshTokenFail() throws InterruptedException {
@@ -0,0 +1,65 @@
+package springboot.yongjunstore.config.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest
+// 스레드 1개, 대기 큐 없이 실행
+@TestPropertySource(properties = {
+        "auth.password-hash.pool-size=1",
+        "auth.password-hash.queue-capacity=0"})
+class PasswordHashServiceTest {
+
+    @Autowired private PasswordHashService passwordHashService;
+    @Autowired private ThreadPoolTaskExecutor passwordHashExecutor;
+
+    @Test
+    @DisplayName("비밀번호 해시 성공 : 전용 스레드 풀에서 생성하고 비교")
+    void encodeAndMatches() {
+
+        // when
+        String encoded = passwordHashService.encode("qwer!1234");
+
+        // then
+        assertThat(passwordHashService.matches("qwer!1234", encoded)).isTrue();
+        assertThat(passwordHashService.matches("qwer!4567", encoded)).isFalse();
+    }
+
+    @Test
+    @DisplayName("비밀번호 해시 실패 : 스레드와 큐가 모두 사용 중이면 바로 거절")
+    void rejectWhenBusy() {
+
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+
+        passwordHashExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // expected
+        try {
+            assertThatThrownBy(() -> passwordHashService.encode("qwer!1234"))
+                    .isInstanceOf(GlobalException.class)
+                    .hasMessageContaining(ErrorCode.MEMBER_PASSWORD_TOO_MANY_REQUESTS.getMessage());
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package springboot.yongjunstore.config.service;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,13 +12,23 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.ActiveProfiles;
 import springboot.yongjunstore.config.jwt.JwtDto;
 import springboot.yongjunstore.config.jwt.JwtProvider;
+import springboot.yongjunstore.config.jwt.RefreshTokenFamily;
+import springboot.yongjunstore.config.jwt.RefreshTokenStore;
 import springboot.yongjunstore.domain.Member;
-import springboot.yongjunstore.domain.RefreshToken;
 import springboot.yongjunstore.domain.Role;
 import springboot.yongjunstore.repository.MemberRepository;
-import springboot.yongjunstore.repository.RefreshTokenRepository;
+import springboot.yongjunstore.service.cache.MemberSnapshotCache;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -28,19 +39,18 @@ class RefreshTokenServiceTest {
 
     @Autowired private RefreshTokenService refreshTokenService;
     @Autowired private JwtProvider jwtProvider;
-    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private RefreshTokenStore refreshTokenStore;
     @Autowired private MemberRepository memberRepository;
+    @Autowired private MemberSnapshotCache memberSnapshotCache;
 
     @BeforeEach
     void setUp(){
         memberRepository.deleteAll();
-        refreshTokenRepository.deleteAll();
+        memberSnapshotCache.clear();
+        refreshTokenService.clearReissued();
     }
 
-    JwtDto beforeJwt(Member member){
-
-        Long accessTime = 3000000L;
-        Long refreshTime = 6000000L;
+    JwtDto beforeJwt(Member member, long accessTime, long refreshTime, String family, int generation){
 
         long now = (new Date()).getTime();
 
@@ -49,7 +59,11 @@ class RefreshTokenServiceTest {
 
         String accessToken = Jwts.builder()
                 .setSubject(String.valueOf(member.getEmail()))
+                .claim("mid", member.getId())
+                .claim("provider", member.getProvider())
                 .claim("role", member.getRole())
+                .claim("fam", family)
+                .claim("gen", generation)
                 .setExpiration(accessTokenExpiresIn)
                 .signWith(jwtProvider.jwtSecretKey(), SignatureAlgorithm.HS256)
                 .compact();
@@ -67,63 +81,64 @@ class RefreshTokenServiceTest {
                 .build();
     }
 
-    @Test
-    @DisplayName("refreshToken 저장 성공 : accessToken에서 정보를 조회하고 RefreshToken 정보가 없다면 새로 저장")
-    void saveRefreshToken(){
-
-        // given
-        Member member = Member.builder()
+    Member saveMember(){
+        return memberRepository.save(Member.builder()
                 .email("test@gmail.com")
                 .password("qwer!1234")
                 .role(Role.MEMBER)
                 .provider("google")
-                .build();
+                .build());
+    }
 
-        Member findMember = memberRepository.save(member);
+    void saveFamily(Member member, String family, int generation, String refreshToken){
+        refreshTokenStore.save(RefreshTokenFamily.builder()
+                .memberId(member.getId())
+                .family(family)
+                .generation(generation)
+                .refreshToken(refreshToken)
+                .build());
+    }
+
+    @Test
+    @DisplayName("refreshToken 저장 성공 : accessToken의 회원 id 와 family 로 저장")
+    void saveRefreshToken(){
 
-        JwtDto jwtDto = beforeJwt(findMember);
+        // given
+        Member findMember = saveMember();
+
+        JwtDto jwtDto = beforeJwt(findMember, 3000000L, 6000000L, "family-1", 0);
 
         // when
         refreshTokenService.saveRefreshToken(jwtDto);
 
-        RefreshToken refreshToken = refreshTokenRepository.findByRefreshToken(jwtDto.getRefreshToken());
+        RefreshTokenFamily refreshToken = refreshTokenStore.find(findMember.getId()).get();
 
         //then
-        assertThat(refreshToken.getMember().getId()).isEqualTo(findMember.getId());
+        assertThat(refreshToken.getMemberId()).isEqualTo(findMember.getId());
+        assertThat(refreshToken.getFamily()).isEqualTo("family-1");
+        assertThat(refreshToken.getGeneration()).isEqualTo(0);
         assertThat(refreshToken.getRefreshToken()).isEqualTo(jwtDto.getRefreshToken());
     }
 
     @Test
-    @DisplayName("refreshToken update 성공 : accessToken에서 정보를 조회하고 RefreshToken 정보가 있다면 기존 정보에 업데이트")
+    @DisplayName("refreshToken update 성공 : 다시 로그인하면 이전 family 를 새 family 로 대체")
     void saveRefreshTokenUpdate(){
 
         // given
-        Member member = Member.builder()
-                .email("test@gmail.com")
-                .password("qwer!1234")
-                .role(Role.MEMBER)
-                .provider("google")
-                .build();
+        Member findMember = saveMember();
 
-        Member findMember = memberRepository.save(member);
-
-        JwtDto jwtDto = beforeJwt(findMember);
-
-        RefreshToken refreshToken = RefreshToken.builder()
-                .refreshToken(jwtDto.getRefreshToken())
-                .member(findMember)
-                .build();
-
-        refreshTokenRepository.save(refreshToken);
+        saveFamily(findMember, "family-1", 3, "이전 refreshToken");
 
+        JwtDto jwtDto = beforeJwt(findMember, 3000000L, 6000000L, "family-2", 0);
 
         // when
         refreshTokenService.saveRefreshToken(jwtDto);
 
-        RefreshToken findRefreshToken = refreshTokenRepository.findByRefreshToken(jwtDto.getRefreshToken());
+        RefreshTokenFamily findRefreshToken = refreshTokenStore.find(findMember.getId()).get();
 
         //then
-        assertThat(findRefreshToken.getMember().getId()).isEqualTo(findMember.getId());
+        assertThat(findRefreshToken.getFamily()).isEqualTo("family-2");
+        assertThat(findRefreshToken.getGeneration()).isEqualTo(0);
         assertThat(findRefreshToken.getRefreshToken()).isEqualTo(jwtDto.getRefreshToken());
     }
 
@@ -139,7 +154,8 @@ class RefreshTokenServiceTest {
                 .provider("google")
                 .build();
 
-        JwtDto jwtDto = beforeJwt(member);
+        // 회원 id 가 없는 이전 형식의 토큰
+        JwtDto jwtDto = beforeJwt(member, 3000000L, 6000000L, null, 0);
 
         // then
         assertThatThrownBy(() -> refreshTokenService.saveRefreshToken(jwtDto))
@@ -148,123 +164,170 @@ class RefreshTokenServiceTest {
     }
 
     @Test
-    @DisplayName("토큰 재발급 성공 : accessToken이 만료되면 refreshToken을 확인해서 만료 전이라면 accessToken과 refreshToken을 재발급")
+    @DisplayName("토큰 재발급 성공 : accessToken이 만료되면 refreshToken을 확인해서 만료 전이라면 같은 family 의 다음 세대로 재발급")
     void reissueAccessToken(){
 
         // given
-        Member member = Member.builder()
-                .email("test@gmail.com")
-                .password("qwer!1234")
-                .role(Role.MEMBER)
-                .provider("google")
-                .build();
+        Member saveMember = saveMember();
 
-        Member saveMember = memberRepository.save(member);
+        // 현재 시간에서 accessTime을 빼서 과거 시간을 설정
+        JwtDto createJwtDto = beforeJwt(saveMember, -3000000L, 6000000L, "family-1", 0);
 
-        Long accessTime = 3000000L;
-        Long refreshTime = 6000000L;
+        saveFamily(saveMember, "family-1", 0, createJwtDto.getRefreshToken());
 
-        long now = (new Date()).getTime();
+        // when
+        JwtDto updateJwtDto = refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
 
-        // AccessToken
-        // 현재 시간에서 accessTime을 빼서 과거 시간을 설정
-        Date accessTokenExpiresIn = new Date(now - accessTime);
+        // then
+        // accessTime 만료로 JwtDto을 새로 발급해서 기본 토큰과 업데이트 된 토큰이 달라야 함.
+        assertThat(updateJwtDto.getGrantType()).isEqualTo(createJwtDto.getGrantType());
+        assertThat(updateJwtDto.getAccessToken()).isNotEqualTo(createJwtDto.getAccessToken());
+        assertThat(updateJwtDto.getRefreshToken()).isNotEqualTo(createJwtDto.getRefreshToken());
 
-        String accessToken = Jwts.builder()
-                .setSubject(String.valueOf(member.getEmail()))
-                .claim("role", member.getRole())
-                .setExpiration(accessTokenExpiresIn)
-                .signWith(jwtProvider.jwtSecretKey(), SignatureAlgorithm.HS256)
-                .compact();
+        Claims claims = jwtProvider.verifyToken(updateJwtDto.getAccessToken());
+        RefreshTokenFamily refreshTokenFamily = refreshTokenStore.find(saveMember.getId()).get();
 
-        // RefreshToken
-        String refreshToken = Jwts.builder()
-                .setExpiration(new Date(now + refreshTime))
-                .signWith(jwtProvider.jwtSecretKey(), SignatureAlgorithm.HS256)
-                .compact();
+        assertThat(claims.get("fam", String.class)).isEqualTo("family-1");
+        assertThat(claims.get("gen", Integer.class)).isEqualTo(1);
+        assertThat(refreshTokenFamily.getGeneration()).isEqualTo(1);
+        assertThat(refreshTokenFamily.getRefreshToken()).isEqualTo(updateJwtDto.getRefreshToken());
+    }
 
-        JwtDto createJwtDto = JwtDto.builder()
-                .grantType("Bearer")
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .build();
 
-        RefreshToken saveRefreshToken = RefreshToken.builder()
-                .refreshToken(createJwtDto.getRefreshToken())
-                .member(saveMember)
-                .build();
+    @Test
+    @DisplayName("토큰 재발급 실패 : 이미 재발급에 사용된 accessToken 을 다시 사용하면 family 폐기")
+    void reissueAccessTokenReused(){
 
-        refreshTokenRepository.save(saveRefreshToken);
+        // given
+        Member saveMember = saveMember();
+
+        JwtDto createJwtDto = beforeJwt(saveMember, -3000000L, 6000000L, "family-1", 0);
+
+        saveFamily(saveMember, "family-1", 0, createJwtDto.getRefreshToken());
+
+        refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
+
+        // 같은 결과를 돌려주는 시간이 지난 후
+        refreshTokenService.clearReissued();
 
         // when
-        JwtDto updateJwtDto = refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
+        JwtDto reusedJwtDto = refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
 
         // then
-        // accessTime 만료로 JwtDto을 새로 발급해서 기본 토큰과 업데이트 된 토큰이 달라야 함.
-        assertThat(updateJwtDto.getGrantType()).isEqualTo(createJwtDto.getGrantType());
-        assertThat(updateJwtDto.getAccessToken()).isNotEqualTo(createJwtDto.getAccessToken());
-        assertThat(updateJwtDto.getRefreshToken()).isNotEqualTo(createJwtDto.getRefreshToken());
+        assertThat(reusedJwtDto).isNull();
+        assertThat(refreshTokenStore.find(saveMember.getId())).isEmpty();
     }
 
 
     @Test
-    @DisplayName("토큰 재발급 실패 : accessToken과 refreshToken 모두 만료로 RefreshToken Entity 정보 삭제")
-    void reissueAccessTokenExpiredJwtException() {
+    @DisplayName("토큰 재발급 성공 : 같은 accessToken 으로 동시에 재발급하면 한 번만 재발급하고 같은 토큰을 돌려줌")
+    void reissueAccessTokenConcurrent() throws Exception {
 
         // given
-        Member member = Member.builder()
-                .email("test@gmail.com")
-                .password("qwer!1234")
-                .role(Role.MEMBER)
-                .provider("google")
-                .build();
+        Member saveMember = saveMember();
 
-        Member saveMember = memberRepository.save(member);
+        JwtDto createJwtDto = beforeJwt(saveMember, -3000000L, 6000000L, "family-1", 0);
 
-        Long accessTime = 1L;
-        Long refreshTime = 1L;
+        saveFamily(saveMember, "family-1", 0, createJwtDto.getRefreshToken());
 
-        long now = (new Date()).getTime();
+        int requestCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(requestCount);
+        CountDownLatch start = new CountDownLatch(1);
 
-        // AccessToken
-        Date accessTokenExpiresIn = new Date(now - accessTime);
+        List<Future<JwtDto>> futures = new ArrayList<>();
 
-        String accessToken = Jwts.builder()
-                .setSubject(String.valueOf(member.getEmail()))
-                .claim("role", member.getRole())
-                .setExpiration(accessTokenExpiresIn)
-                .signWith(jwtProvider.jwtSecretKey(), SignatureAlgorithm.HS256)
-                .compact();
+        for (int i = 0; i < requestCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
+            }));
+        }
 
-        // RefreshToken
-        String refreshToken = Jwts.builder()
-                .setExpiration(new Date(now - refreshTime))
-                .signWith(jwtProvider.jwtSecretKey(), SignatureAlgorithm.HS256)
-                .compact();
+        // when
+        start.countDown();
 
-        JwtDto createJwtDto = JwtDto.builder()
-                .grantType("Bearer")
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .build();
+        Set<String> accessTokens = new HashSet<>();
 
+        for (Future<JwtDto> future : futures) {
+            accessTokens.add(future.get(10, TimeUnit.SECONDS).getAccessToken());
+        }
 
-        RefreshToken saveRefreshToken = RefreshToken.builder()
-                .refreshToken(createJwtDto.getRefreshToken())
-                .member(saveMember)
-                .build();
+        executorService.shutdown();
+
+        // then
+        RefreshTokenFamily refreshTokenFamily = refreshTokenStore.find(saveMember.getId()).get();
+
+        assertThat(accessTokens).hasSize(1);
+        assertThat(refreshTokenFamily.getGeneration()).isEqualTo(1);
+    }
+
+
+    @Test
+    @DisplayName("토큰 재발급 성공 : 다른 서버에서 같은 accessToken 으로 늦게 재발급해도 family 를 폐기하지 않고 같은 토큰을 돌려줌")
+    void reissueAccessTokenOtherServer(){
+
+        // given
+        Member saveMember = saveMember();
+
+        JwtDto createJwtDto = beforeJwt(saveMember, -3000000L, 6000000L, "family-1", 0);
+
+        saveFamily(saveMember, "family-1", 0, createJwtDto.getRefreshToken());
 
-        refreshTokenRepository.save(saveRefreshToken);
+        // 같은 저장소를 사용하는 다른 서버 (서버 메모리의 요청 합치기를 공유하지 않음)
+        RefreshTokenService otherServer = new RefreshTokenService(refreshTokenStore, jwtProvider, 3000L);
+
+        JwtDto reissued = refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
 
         // when
-        refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
+        JwtDto lateReissued = otherServer.reissueAccessToken(createJwtDto.getAccessToken());
 
-        RefreshToken findRefreshToken = refreshTokenRepository.findByRefreshToken(saveRefreshToken.getRefreshToken());
+        // then
+        RefreshTokenFamily refreshTokenFamily = refreshTokenStore.find(saveMember.getId()).get();
 
-        //then
-        assertThat(findRefreshToken).isNull();
+        assertThat(lateReissued.getAccessToken()).isEqualTo(reissued.getAccessToken());
+        assertThat(lateReissued.getRefreshToken()).isEqualTo(reissued.getRefreshToken());
+        assertThat(refreshTokenFamily.getGeneration()).isEqualTo(1);
+        assertThat(refreshTokenFamily.getRefreshToken()).isEqualTo(reissued.getRefreshToken());
+    }
+
+
+    @Test
+    @DisplayName("토큰 재발급 실패 : 다른 곳에서 다시 로그인해서 family 가 바뀐 경우")
+    void reissueAccessTokenOtherFamily(){
+
+        // given
+        Member saveMember = saveMember();
+
+        JwtDto createJwtDto = beforeJwt(saveMember, -3000000L, 6000000L, "family-1", 0);
+
+        saveFamily(saveMember, "family-2", 0, createJwtDto.getRefreshToken());
+
+        // when
+        JwtDto updateJwtDto = refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
+
+        // then
+        assertThat(updateJwtDto).isNull();
+        assertThat(refreshTokenStore.find(saveMember.getId()).get().getFamily()).isEqualTo("family-2");
     }
 
 
+    @Test
+    @DisplayName("토큰 재발급 실패 : accessToken과 refreshToken 모두 만료로 저장된 refreshToken 삭제")
+    void reissueAccessTokenExpiredJwtException() {
+
+        // given
+        Member saveMember = saveMember();
+
+        JwtDto createJwtDto = beforeJwt(saveMember, -1L, -1L, "family-1", 0);
+
+        saveFamily(saveMember, "family-1", 0, createJwtDto.getRefreshToken());
+
+        // when
+        JwtDto updateJwtDto = refreshTokenService.reissueAccessToken(createJwtDto.getAccessToken());
+
+        //then
+        assertThat(updateJwtDto).isNull();
+        assertThat(refreshTokenStore.find(saveMember.getId())).isEmpty();
+    }
 
-}
\ No newline at end of file
+}
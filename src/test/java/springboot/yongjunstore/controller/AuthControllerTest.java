@@ -15,10 +15,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.jwt.RefreshTokenStore;
 import springboot.yongjunstore.domain.Member;
 import springboot.yongjunstore.domain.Role;
 import springboot.yongjunstore.repository.MemberRepository;
-import springboot.yongjunstore.repository.RefreshTokenRepository;
 import springboot.yongjunstore.request.MemberLoginRequest;
 import springboot.yongjunstore.request.SignUpRequest;
 
@@ -37,11 +37,10 @@ class AuthControllerTest {
     @Autowired private MemberRepository memberRepository;
     @Autowired private ObjectMapper objectMapper;
     @Autowired private BCryptPasswordEncoder passwordEncoder;
-    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private RefreshTokenStore refreshTokenStore;
 
     @BeforeEach
     void delete(){
-        refreshTokenRepository.deleteAll();
         memberRepository.deleteAll();
     }
 
@@ -162,7 +161,7 @@ class AuthControllerTest {
                 .andDo(print());
 
 
-        assertThat(refreshTokenRepository.findByMember(member).get().getRefreshToken()).isNotNull();
+        assertThat(refreshTokenStore.find(member.getId()).get().getRefreshToken()).isNotNull();
     }
 
 
@@ -193,7 +192,7 @@ class AuthControllerTest {
                 .andExpect(status().isBadRequest())
                 .andDo(print());
 
-        assertThat(refreshTokenRepository.count()).isEqualTo(0);
+        assertThat(refreshTokenStore.find(member.getId())).isEmpty();
     }
 
 
@@ -214,7 +213,5 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(memberLoginDto)))
                 .andExpect(status().isNotFound())
                 .andDo(print());
-
-        assertThat(refreshTokenRepository.count()).isEqualTo(0);
     }
 }
\ No newline at end of file
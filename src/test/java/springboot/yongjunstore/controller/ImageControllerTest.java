@@ -0,0 +1,135 @@
+package springboot.yongjunstore.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"fileUpload.upload.local.path=/uploads"})
+class ImageControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    private final byte[] imageData = new byte[100];
+
+    private String fileName;
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        for (int i = 0; i < imageData.length; i++) {
+            imageData[i] = (byte) i;
+        }
+
+        fileName = UUID.randomUUID() + ".jpg";
+
+        Path imagePath = Paths.get("/uploads", "2024", "03", fileName);
+        Files.createDirectories(imagePath.getParent());
+        Files.write(imagePath, imageData);
+    }
+
+    @Test
+    @DisplayName("이미지 조회 성공 : 전체 파일, ETag, immutable 캐시")
+    void localImage() throws Exception {
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/local/2024/03/{fileName}", fileName))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2024/03/" + fileName + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(imageData))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("이미지 조회 성공 : Range 요청은 206 으로 일부만 전송")
+    void localImageRange() throws Exception {
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/local/2024/03/{fileName}", fileName)
+                        .header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(imageData, 10, 20)))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("이미지 조회 실패 : 파일 범위를 벗어난 Range 요청")
+    void localImageRangeNotSatisfiable() throws Exception {
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/local/2024/03/{fileName}", fileName)
+                        .header(HttpHeaders.RANGE, "bytes=200-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("이미지 조회 성공 : ETag 가 같으면 304")
+    void localImageNotModified() throws Exception {
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/local/2024/03/{fileName}", fileName)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2024/03/" + fileName + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("이미지 조회 실패 : 존재하지 않는 파일")
+    void localImageNotFound() throws Exception {
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/local/2024/03/{fileName}", UUID.randomUUID() + ".jpg"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("이미지 조회 실패 : 이미지가 아니거나 svg 인 파일은 제공하지 않음")
+    void localImageNotImage() throws Exception {
+
+        // given
+        Path htmlPath = Paths.get("/uploads", "2024", "03", UUID.randomUUID() + ".html");
+        Path svgPath = Paths.get("/uploads", "2024", "03", UUID.randomUUID() + ".svg");
+        Files.write(htmlPath, "<script>alert(1)</script>".getBytes());
+        Files.write(svgPath, "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>".getBytes());
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/local/2024/03/{fileName}", htmlPath.getFileName().toString()))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/local/2024/03/{fileName}", svgPath.getFileName().toString()))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+    }
+}
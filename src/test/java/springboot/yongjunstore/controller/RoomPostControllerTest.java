@@ -21,16 +21,22 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.multipart.MultipartFile;
+import springboot.yongjunstore.TestImageData;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
 import springboot.yongjunstore.config.jwt.JwtDto;
+import springboot.yongjunstore.config.RedisUtils;
 import springboot.yongjunstore.domain.Member;
 import springboot.yongjunstore.domain.Role;
 import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.ImageStorage;
 import springboot.yongjunstore.domain.room.Images;
 import springboot.yongjunstore.domain.room.RoomPost;
 import springboot.yongjunstore.domain.room.RoomStatus;
 import springboot.yongjunstore.repository.MemberRepository;
 import springboot.yongjunstore.repository.RoomPostRepository;
 import springboot.yongjunstore.request.RoomPostRequest;
+import springboot.yongjunstore.service.cache.RoomPostCache;
+import springboot.yongjunstore.service.index.RoomPostFacetIndex;
 
 import javax.crypto.SecretKey;
 import java.util.ArrayList;
@@ -48,6 +54,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @TestPropertySource(properties = {"fileUpload.upload.local.path=/uploads"})
 class RoomPostControllerTest {
 
+    private final byte[] imageData = TestImageData.jpeg();
+
     @Value("${custom.jwt.secretKey}")
     private String secretKey;
 
@@ -59,11 +67,16 @@ class RoomPostControllerTest {
     @Autowired private MockMvc mockMvc;
     @Autowired private BCryptPasswordEncoder passwordEncoder;
     @Autowired private ObjectMapper objectMapper;
+    @Autowired private RedisUtils redisUtils;
+    @Autowired private RoomPostCache roomPostCache;
+    @Autowired private RoomPostFacetIndex roomPostFacetIndex;
 
     @BeforeEach
     void setUp(){
         memberRepository.deleteAll();
         roomPostRepository.deleteAll();
+        redisUtils.deleteAllKeys();
+        roomPostCache.clearLocal();
     }
 
     @Test
@@ -90,9 +103,9 @@ class RoomPostControllerTest {
                 .build();
 
         MockMultipartFile file1 = new MockMultipartFile(
-                "uploadImages", "filename.jpg", "image/jpeg", "imageData".getBytes());
+                "uploadImages", "filename.jpg", "image/jpeg", imageData);
         MockMultipartFile file2 = new MockMultipartFile(
-                "uploadImages", "filename2.jpg", "image/jpeg", "imageData".getBytes());
+                "uploadImages", "filename2.jpg", "image/jpeg", imageData);
 
         List<MultipartFile> files = new ArrayList<>();
         files.add(file1);
@@ -133,9 +146,9 @@ class RoomPostControllerTest {
                 .build();
 
         MockMultipartFile file1 = new MockMultipartFile(
-                "uploadImages", "filename.jpg", "image/jpeg", "imageData".getBytes());
+                "uploadImages", "filename.jpg", "image/jpeg", imageData);
         MockMultipartFile file2 = new MockMultipartFile(
-                "uploadImages", "filename2.jpg", "image/jpeg", "imageData".getBytes());
+                "uploadImages", "filename2.jpg", "image/jpeg", imageData);
 
         List<MultipartFile> files = new ArrayList<>();
         files.add(file1);
@@ -376,6 +389,313 @@ class RoomPostControllerTest {
 
 
 
+    @Test
+    @DisplayName("글 리스트 커서 조회 성공 : nextCursor로 다음 페이지를 이어서 조회")
+    void searchRoomPostListByCursor() throws Exception {
+
+        // given
+        Member member = createMember(email, role);
+
+        for (int i= 0; i<3; i++) {
+
+            RoomPost roomPost = RoomPost.builder()
+                    .title("제목" + i)
+                    .roomOwner("방주인")
+                    .depositPrice("100")
+                    .roomStatus(RoomStatus.임대)
+                    .deposit(Deposit.전세)
+                    .content("내용입니다. 10글자 이상입니다...")
+                    .member(member)
+                    .monthlyPrice("10000")
+                    .squareFootage("4")
+                    .address("주소")
+                    .detailAddress("상세 주소")
+                    .build();
+
+            roomPostRepository.save(roomPost);
+        }
+
+        // 첫 페이지 : after 빈 값
+        String firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("after", "")
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("제목2"))
+                .andExpect(jsonPath("$.content[1].title").value("제목1"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andDo(print())
+                .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("after", nextCursor)
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("제목0"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andDo(print());
+    }
+
+
+    @Test
+    @DisplayName("글 리스트 커서 조회 실패 : 잘못된 커서인 경우")
+    void searchRoomPostListByInvalidCursor() throws Exception {
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("after", "잘못된 커서")
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+
+
+    @Test
+    @DisplayName("글 리스트 조회 성공 : count=none 이면 전체 개수 없이 다음 페이지 여부만 조회")
+    void searchRoomPostSlice() throws Exception {
+
+        // given
+        Member member = createMember(email, role);
+
+        for (int i= 0; i<3; i++) {
+
+            RoomPost roomPost = RoomPost.builder()
+                    .title("제목" + i)
+                    .roomOwner("방주인")
+                    .depositPrice("100")
+                    .roomStatus(RoomStatus.임대)
+                    .deposit(Deposit.전세)
+                    .content("내용입니다. 10글자 이상입니다...")
+                    .member(member)
+                    .monthlyPrice("10000")
+                    .squareFootage("4")
+                    .address("주소")
+                    .detailAddress("상세 주소")
+                    .build();
+
+            roomPostRepository.save(roomPost);
+        }
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("count", "none")
+                        .param("page", "0")
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andDo(print());
+    }
+
+
+    @Test
+    @DisplayName("글 리스트 조회 실패 : 지원하지 않는 count 옵션인 경우")
+    void searchRoomPostListCountOptionNotFound() throws Exception {
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("count", "unknown")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+
+
+    @Test
+    @DisplayName("글 리스트 조회 성공 : 월세 범위 검색 + 월세 내림차순 정렬")
+    void searchRoomPostListByRange() throws Exception {
+
+        // given
+        Member member = createMember(email, role);
+
+        for (String monthlyPrice : List.of("20", "45", "40", "60")) {
+
+            roomPostRepository.save(RoomPost.builder()
+                    .title("제목" + monthlyPrice)
+                    .roomOwner("방주인")
+                    .depositPrice("1000")
+                    .roomStatus(RoomStatus.임대)
+                    .deposit(Deposit.보증금)
+                    .content("내용입니다. 10글자 이상입니다...")
+                    .member(member)
+                    .monthlyPrice(monthlyPrice)
+                    .squareFootage("10")
+                    .address("주소")
+                    .detailAddress("상세 주소")
+                    .build());
+        }
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("deposit", "보증금")
+                        .param("minMonthlyPrice", "30")
+                        .param("maxMonthlyPrice", "50")
+                        .param("minSquareFootage", "10")
+                        .param("sort", "monthlyPrice,desc")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].monthlyPrice").value("45"))
+                .andExpect(jsonPath("$.content[1].monthlyPrice").value("40"))
+                .andDo(print());
+    }
+
+
+    @Test
+    @DisplayName("글 리스트 조회 실패 : 허용되지 않은 정렬 키")
+    void searchRoomPostListSortNotFound() throws Exception {
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("sort", "content,asc")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(ErrorCode.ROOM_POST_SORT_NOT_FOUND.getCode()))
+                .andDo(print());
+    }
+
+
+    @Test
+    @DisplayName("글 리스트 조회 성공 : 기본 응답은 목록 카드용 요약 (content 제외, 첫 번째 이미지)")
+    void searchRoomPostSummaryList() throws Exception {
+
+        // given
+        Member member = createMember(email, role);
+
+        RoomPost roomPost = roomPostRepository.save(RoomPost.builder()
+                .title("요약 제목")
+                .roomOwner("방주인")
+                .depositPrice("1000")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.보증금)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(member)
+                .monthlyPrice("50")
+                .squareFootage("10")
+                .address("서울시 강남구 역삼동")
+                .detailAddress("상세 주소")
+                .build());
+
+        List<Images> imagesList = new ArrayList<>();
+        imagesList.add(Images.builder().storage(ImageStorage.LOCAL).roomPost(roomPost).path("2024/03").name("image1.jpg").build());
+        imagesList.add(Images.builder().storage(ImageStorage.LOCAL).roomPost(roomPost).path("2024/04").name("image2.jpg").build());
+
+        roomPost.addImagesList(imagesList);
+        roomPostRepository.save(roomPost);
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("searchContent", "요약")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("요약 제목"))
+                .andExpect(jsonPath("$.content[0].addressPrefix").value("서울시 강남구 역삼동"))
+                .andExpect(jsonPath("$.content[0].thumbnailPath").value("/images/local/2024/03/image1.jpg"))
+                .andExpect(jsonPath("$.content[0].content").doesNotExist())
+                .andExpect(jsonPath("$.content[0].member").doesNotExist())
+                .andDo(print());
+    }
+
+
+    @Test
+    @DisplayName("글 리스트 조회 성공 : view=full 이면 상세 정보 포함")
+    void searchRoomPostFullList() throws Exception {
+
+        // given
+        Member member = createMember(email, role);
+
+        roomPostRepository.save(RoomPost.builder()
+                .title("상세 제목")
+                .roomOwner("방주인")
+                .depositPrice("1000")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.보증금)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(member)
+                .monthlyPrice("50")
+                .squareFootage("10")
+                .address("서울시 강남구 역삼동")
+                .detailAddress("상세 주소")
+                .build());
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts")
+                        .param("searchOption", "title")
+                        .param("searchContent", "상세")
+                        .param("view", "full")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].content").value("내용입니다. 10글자 이상입니다..."))
+                .andExpect(jsonPath("$.content[0].member.email").value(member.getEmail()))
+                .andDo(print());
+    }
+
+
+    @Test
+    @DisplayName("글 리스트 필터 개수 조회 성공")
+    void searchRoomPostFacets() throws Exception {
+
+        // given
+        Member member = createMember(email, role);
+
+        for (String address : List.of("서울시 강남구 역삼동", "서울시 강남구 논현동", "서울시 마포구 합정동")) {
+
+            roomPostRepository.save(RoomPost.builder()
+                    .title("제목")
+                    .roomOwner("방주인")
+                    .roomStatus(RoomStatus.임대)
+                    .deposit(Deposit.전세)
+                    .content("내용입니다. 10글자 이상입니다...")
+                    .member(member)
+                    .address(address)
+                    .detailAddress("상세 주소")
+                    .build());
+        }
+
+        roomPostFacetIndex.rebuild();
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/room-post/posts/facets")
+                        .param("region", "서울시 강남구")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.deposit.전세").value(2))
+                .andExpect(jsonPath("$.region['서울시 마포구']").value(1))
+                .andDo(print());
+    }
+
+
     private Member createMember(String email, Role role){
 
         Member member = Member.builder()
@@ -0,0 +1,63 @@
+package springboot.yongjunstore.domain.room;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImagesTest {
+
+    @Test
+    @DisplayName("저장 위치 backfill : virtual-hosted URL 은 경로가 object key")
+    void backfillStorageVirtualHosted() {
+
+        // given
+        Images images = Images.builder()
+                .name("https://yongjun-store.s3.ap-northeast-2.amazonaws.com/2024/03/room.jpg")
+                .path("yongjun-store")
+                .build();
+
+        // when
+        images.backfillStorage();
+
+        // then
+        assertThat(images.getStorage()).isEqualTo(ImageStorage.S3);
+        assertThat(images.getName()).isEqualTo("2024/03/room.jpg");
+        assertThat(images.getPath()).isNull();
+    }
+
+    @Test
+    @DisplayName("저장 위치 backfill : path-style URL 은 경로 앞의 bucket 을 제거")
+    void backfillStoragePathStyle() {
+
+        // given
+        Images images = Images.builder()
+                .name("https://s3.ap-northeast-2.amazonaws.com/yongjun.store/2024/03/room.jpg")
+                .path("yongjun.store")
+                .build();
+
+        // when
+        images.backfillStorage();
+
+        // then
+        assertThat(images.getStorage()).isEqualTo(ImageStorage.S3);
+        assertThat(images.getName()).isEqualTo("2024/03/room.jpg");
+    }
+
+    @Test
+    @DisplayName("object key : bucket 이름에 . 이 있는 virtual-hosted URL, bucket 을 모르는 path-style URL")
+    void objectKey() {
+
+        assertThat(Images.objectKey("https://yongjun.store.s3.ap-northeast-2.amazonaws.com/yongjun.store/room.jpg", "yongjun.store"))
+                .isEqualTo("yongjun.store/room.jpg");
+
+        assertThat(Images.objectKey("https://s3-ap-northeast-2.amazonaws.com/yongjun.store/room.jpg", null))
+                .isEqualTo("room.jpg");
+
+        assertThat(Images.objectKey("https://yongjun-store.s3.amazonaws.com/room.jpg", null))
+                .isEqualTo("room.jpg");
+
+        assertThat(Images.objectKey("2024/03/room.jpg", "yongjun-store"))
+                .isEqualTo("2024/03/room.jpg");
+    }
+}
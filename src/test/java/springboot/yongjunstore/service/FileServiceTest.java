@@ -9,17 +9,26 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.multipart.MultipartFile;
+import springboot.yongjunstore.TestImageData;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.domain.room.ImageStorage;
 import springboot.yongjunstore.domain.room.Images;
 import springboot.yongjunstore.domain.room.RoomPost;
 import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.service.image.ImageBlobService;
+import springboot.yongjunstore.service.image.StoredImage;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -30,9 +39,14 @@ import static org.mockito.Mockito.*;
 @TestPropertySource(properties = {"fileUpload.upload.local.path=/uploads"})
 class FileServiceTest {
 
+    private final byte[] imageData = TestImageData.jpeg();
+
     @Autowired
     private FileService fileService;
 
+    @Autowired
+    private ImageBlobService imageBlobService;
+
     @MockBean
     private ImagesRepository imagesRepository;
 
@@ -53,9 +67,9 @@ class FileServiceTest {
                 .build();
 
         MockMultipartFile file1 = new MockMultipartFile(
-                "file", "filename.jpg", "image/jpeg", "imageData".getBytes());
+                "file", "filename.jpg", "image/jpeg", imageData);
         MockMultipartFile file2 = new MockMultipartFile(
-                "file", "filename2.jpg", "image/jpeg", "imageData".getBytes());
+                "file", "filename2.jpg", "image/jpeg", imageData);
 
         List<MultipartFile> files = new ArrayList<>();
         files.add(file1);
@@ -136,6 +150,37 @@ class FileServiceTest {
     }
 
 
+    @Test
+    @DisplayName("파일 업로드 실패 : Content-Type 과 확장자는 이미지지만 실제 내용이 이미지가 아닌 경우")
+    void mainPhotoUploadSignatureFail() {
+        // given
+        RoomPost roomPost = RoomPost.builder()
+                .title("제목 입니다.")
+                .address("주소입니다.")
+                .detailAddress("상세 주소")
+                .content("내용입니다. 내용입니다.")
+                .roomOwner("방주인")
+                .depositPrice("10000")
+                .monthlyPrice("10")
+                .squareFootage("4")
+                .build();
+
+        // 이름만 이미지인 가짜 파일 생성
+        MockMultipartFile file1 = new MockMultipartFile(
+                "file", "filename.jpg", "image/jpeg", "%PDF-1.7 testData".getBytes());
+
+        List<MultipartFile> files = new ArrayList<>();
+        files.add(file1);
+
+        // when, then
+        assertThatThrownBy(() -> fileService.mainPhotoUpload(files, roomPost))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.IMAGE_FILE_SIGNATURE_MISMATCH.getMessage());
+
+        verify(imagesRepository, never()).save(any(Images.class));
+    }
+
+
     @Test
     @DisplayName("파일 업로드 실패 : 경로에 업로드가 실패한 경우")
     void mainPhotoUploadPathFail() throws IOException {
@@ -159,6 +204,7 @@ class FileServiceTest {
         when(file1.getOriginalFilename()).thenReturn("test.jpg");
         when(file1.getContentType()).thenReturn("image/jpeg");
         when(file1.getName()).thenReturn("file");
+        when(file1.getInputStream()).thenReturn(new ByteArrayInputStream(imageData));
 
         List<MultipartFile> files = new ArrayList<>();
         files.add(file1);
@@ -172,4 +218,48 @@ class FileServiceTest {
                 .isInstanceOf(GlobalException.class)
                 .hasMessageContaining(ErrorCode.IMAGE_FILE_NOT_UPLOAD.getMessage());
     }
-}
\ No newline at end of file
+
+
+    @Test
+    @DisplayName("파일 업로드 성공 : 같은 내용의 파일은 원본을 한 번만 저장")
+    void storeLocalFilesDeduplicate() {
+        // given
+        byte[] uniqueImageData = TestImageData.uniqueJpeg();
+
+        MockMultipartFile file1 = new MockMultipartFile(
+                "file", "filename.jpg", "image/jpeg", uniqueImageData);
+        MockMultipartFile file2 = new MockMultipartFile(
+                "file", "repost.jpg", "image/jpeg", uniqueImageData);
+
+        // when
+        List<StoredImage> storedImages = fileService.storeLocalFiles(List.of(file1, file2));
+
+        // then
+        StoredImage first = storedImages.get(0);
+        StoredImage second = storedImages.get(1);
+
+        assertThat(first.isNewlyStored()).isTrue();
+        assertThat(second.isNewlyStored()).isFalse();
+        assertThat(second.getImageBlobId()).isEqualTo(first.getImageBlobId());
+        assertThat(second.getName()).isEqualTo(first.getName());
+        assertThat(Files.exists(Paths.get("/uploads", first.getStorageKey()))).isTrue();
+    }
+
+
+    @Test
+    @DisplayName("원본 등록 : 같은 key 로 등록해도 먼저 등록한 요청만 새로 저장한 원본으로 처리")
+    void registerNewlyStoredOnlyOnce() {
+        // given
+        String contentHash = UUID.randomUUID().toString();
+        String storageKey = contentHash + ".jpg";
+
+        // when
+        StoredImage first = imageBlobService.register(ImageStorage.S3, contentHash, storageKey, null, storageKey);
+        StoredImage second = imageBlobService.register(ImageStorage.S3, contentHash, storageKey, null, storageKey);
+
+        // then
+        assertThat(first.isNewlyStored()).isTrue();
+        assertThat(second.isNewlyStored()).isFalse();
+        assertThat(second.getImageBlobId()).isEqualTo(first.getImageBlobId());
+    }
+}
@@ -12,12 +12,19 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.RedisUtils;
 import springboot.yongjunstore.domain.Member;
 import springboot.yongjunstore.domain.Role;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.domain.room.RoomStatus;
 import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RoomPostRepository;
 import springboot.yongjunstore.request.PasswordEditRequest;
 import springboot.yongjunstore.response.MemberResponse;
 import springboot.yongjunstore.response.MyProfileResponse;
+import springboot.yongjunstore.service.cache.MemberSnapshotCache;
+import springboot.yongjunstore.service.cache.RoomPostCache;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,6 +36,10 @@ class MemberServiceTest {
     @Autowired private MemberRepository memberRepository;
     @Autowired private MemberService memberService;
     @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private RoomPostRepository roomPostRepository;
+    @Autowired private RoomPostCache roomPostCache;
+    @Autowired private MemberSnapshotCache memberSnapshotCache;
+    @Autowired private RedisUtils redisUtils;
 
     @BeforeEach
     void setUp(){
@@ -138,6 +149,88 @@ class MemberServiceTest {
         assertThat(memberRepository.count()).isEqualTo(0);
     }
 
+    @Test
+    @DisplayName("회원 삭제 성공 : 함께 삭제된 회원의 글은 캐시에서 없는 글로 기록")
+    void deleteMemberAndRoomPostCache() {
+
+        // given
+        Member member = memberRepository.save(Member.builder()
+                .email("yongjun@gmail.com")
+                .password(passwordEncoder.encode("qwer!1234"))
+                .role(Role.MEMBER)
+                .name("김용준")
+                .build());
+
+        RoomPost roomPost = roomPostRepository.save(RoomPost.builder()
+                .title("제목")
+                .roomOwner("방주인")
+                .depositPrice("1000")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.보증금)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(member)
+                .monthlyPrice("50")
+                .squareFootage("10")
+                .address("주소")
+                .detailAddress("상세 주소")
+                .build());
+
+        // when
+        memberService.deleteMemberAndRoomPostAndImages(member.getEmail());
+
+        // then
+        assertThat(roomPostRepository.findById(roomPost.getId())).isEmpty();
+        assertThat(roomPostCache.isMissing(roomPost.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("회원 삭제 성공 : 탈퇴 기록은 Redis 에 저장되어 서버 메모리가 비어도 탈퇴한 회원으로 확인")
+    void deleteMemberMarkedInRedis() {
+
+        // given
+        Member member = memberRepository.save(Member.builder()
+                .email("yongjun@gmail.com")
+                .password(passwordEncoder.encode("qwer!1234"))
+                .role(Role.MEMBER)
+                .name("김용준")
+                .build());
+
+        // when
+        memberService.deleteMemberAndRoomPostAndImages(member.getEmail());
+
+        // 다른 서버 (서버 메모리에 탈퇴 기록이 없음)
+        memberSnapshotCache.clear();
+
+        // then
+        assertThat(redisUtils.getData("member:deleted:" + member.getId())).isNotNull();
+        assertThat(memberSnapshotCache.isDeleted(member.getId())).isTrue();
+
+        redisUtils.deleteData("member:deleted:" + member.getId());
+    }
+
+    @Test
+    @DisplayName("회원 삭제 성공 : 탈퇴하지 않은 회원으로 확인한 기록이 있어도 이 서버에서는 바로 탈퇴한 회원으로 확인")
+    void deleteMemberAfterActiveCheck() {
+
+        // given
+        Member member = memberRepository.save(Member.builder()
+                .email("yongjun@gmail.com")
+                .password(passwordEncoder.encode("qwer!1234"))
+                .role(Role.MEMBER)
+                .name("김용준")
+                .build());
+
+        assertThat(memberSnapshotCache.isDeleted(member.getId())).isFalse();
+
+        // when
+        memberService.deleteMemberAndRoomPostAndImages(member.getEmail());
+
+        // then
+        assertThat(memberSnapshotCache.isDeleted(member.getId())).isTrue();
+
+        redisUtils.deleteData("member:deleted:" + member.getId());
+    }
+
     @Test
     @DisplayName("회원 삭제 실패 : 회원을 찾지 못한 경우")
     void deleteMemberAndRoomPostAndImagesNotFound() {
@@ -7,14 +7,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.multipart.MultipartFile;
+import springboot.yongjunstore.TestImageData;
 import springboot.yongjunstore.common.exception.GlobalException;
 import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.config.RedisUtils;
 import springboot.yongjunstore.domain.Member;
 import springboot.yongjunstore.domain.Role;
 import springboot.yongjunstore.domain.room.Deposit;
@@ -24,8 +27,12 @@ import springboot.yongjunstore.domain.room.RoomStatus;
 import springboot.yongjunstore.repository.ImagesRepository;
 import springboot.yongjunstore.repository.MemberRepository;
 import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.request.DeleteRoomPostRequest;
+import springboot.yongjunstore.request.RoomPostFilterRequest;
 import springboot.yongjunstore.request.RoomPostRequest;
+import springboot.yongjunstore.service.cache.RoomPostCache;
 import springboot.yongjunstore.response.RoomPostResponse;
+import springboot.yongjunstore.service.index.RoomPostSearchIndex;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,17 +45,24 @@ import static org.mockito.Mockito.when;
 @TestPropertySource(properties = {"fileUpload.upload.local.path=/uploads"})
 class RoomPostServiceTest {
 
+    private final byte[] imageData = TestImageData.jpeg();
+
     @Autowired private RoomPostRepository roomPostRepository;
     @Autowired private MemberRepository memberRepository;
     @Autowired private RoomPostService roomPostService;
     @Autowired private ImagesRepository imagesRepository;
     @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private RoomPostSearchIndex roomPostSearchIndex;
+    @Autowired private RedisUtils redisUtils;
+    @Autowired private RoomPostCache roomPostCache;
 
     @BeforeEach
     void setUp(){
         memberRepository.deleteAll();
         imagesRepository.deleteAll();
         roomPostRepository.deleteAll();
+        redisUtils.deleteAllKeys();
+        roomPostCache.clearLocal();
     }
 
     @Test
@@ -66,9 +80,9 @@ class RoomPostServiceTest {
         Member saveMember = memberRepository.save(member);
 
         MockMultipartFile file1 = new MockMultipartFile(
-                "file", "filename.jpg", "image/jpeg", "imageData".getBytes());
+                "file", "filename.jpg", "image/jpeg", imageData);
         MockMultipartFile file2 = new MockMultipartFile(
-                "file", "filename2.jpg", "image/jpeg", "imageData".getBytes());
+                "file", "filename2.jpg", "image/jpeg", imageData);
 
         List<MultipartFile> files = new ArrayList<>();
         files.add(file1);
@@ -101,9 +115,9 @@ class RoomPostServiceTest {
 
         // given
         MockMultipartFile file1 = new MockMultipartFile(
-                "file", "filename.jpg", "image/jpeg", "imageData".getBytes());
+                "file", "filename.jpg", "image/jpeg", imageData);
         MockMultipartFile file2 = new MockMultipartFile(
-                "file", "filename2.jpg", "image/jpeg", "imageData".getBytes());
+                "file", "filename2.jpg", "image/jpeg", imageData);
 
         List<MultipartFile> files = new ArrayList<>();
         files.add(file1);
@@ -184,6 +198,59 @@ class RoomPostServiceTest {
     }
 
 
+    @Test
+    @DisplayName("글조회 성공 : 두 번째 조회는 캐시에서 반환되고, 삭제하면 캐시도 비워진다")
+    void getRoomPostCached(){
+
+        // given
+        Member member = Member.builder()
+                .email("yongjun@gmail.com")
+                .password(passwordEncoder.encode("qwer!1234"))
+                .role(Role.ADMIN)
+                .name("김용준")
+                .build();
+
+        Member saveMember = memberRepository.save(member);
+
+        RoomPost saveRoomPost = roomPostRepository.save(RoomPost.builder()
+                .title("제목")
+                .roomOwner("방주인")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.전세)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(saveMember)
+                .address("주소")
+                .build());
+
+        imagesRepository.save(Images.builder()
+                .roomPost(saveRoomPost)
+                .path("테스트 경로")
+                .name("테스트 이름")
+                .build());
+
+        roomPostService.getRoomPost(saveRoomPost.getId());
+
+        // 캐시된 이후 DB 의 이미지를 삭제해도 캐시된 값을 반환
+        imagesRepository.deleteAll();
+
+        // when
+        RoomPostResponse cachedResponse = roomPostService.getRoomPost(saveRoomPost.getId());
+
+        DeleteRoomPostRequest deleteRoomPostRequest = new DeleteRoomPostRequest();
+        deleteRoomPostRequest.setRoomPostId(saveRoomPost.getId());
+        deleteRoomPostRequest.setMemberId(saveMember.getId());
+
+        roomPostService.deleteRoomPost(deleteRoomPostRequest);
+
+        // then
+        Assertions.assertThat(cachedResponse.getImagesList()).hasSize(1);
+
+        Assertions.assertThatThrownBy(() -> roomPostService.getRoomPost(saveRoomPost.getId()))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.ROOM_POST_NOT_FOUND.getMessage());
+    }
+
+
     @Test
     @DisplayName("글리스트 조회 성공")
     void searchRoomPostList(){
@@ -199,13 +266,125 @@ class RoomPostServiceTest {
         when(pageable.getOffset()).thenReturn(5L);
 
         // when
-        Page<RoomPostResponse> roomPostResponseList = roomPostService.searchRoomPostList(searchOption, searchContent, pageable);
+        Page<RoomPostResponse> roomPostResponseList = roomPostService.searchRoomPostList(searchOption, searchContent, new RoomPostFilterRequest(), pageable);
 
         // then
         Assertions.assertThat(roomPostResponseList.getSize()).isEqualTo(roomPostRepository.count());
     }
 
 
+    @Test
+    @DisplayName("글리스트 조회 성공 : 글 별 이미지와 회원 정보가 함께 조회")
+    void searchRoomPostListWithImages(){
+
+        // given
+        Member member = Member.builder()
+                .email("yongjun@gmail.com")
+                .password(passwordEncoder.encode("qwer!1234"))
+                .role(Role.ADMIN)
+                .name("김용준")
+                .build();
+
+        Member saveMember = memberRepository.save(member);
+
+        for (int i = 0; i < 3; i++) {
+
+            RoomPost roomPost = RoomPost.builder()
+                    .title("제목" + i)
+                    .roomOwner("방주인")
+                    .depositPrice("전세금")
+                    .roomStatus(RoomStatus.임대)
+                    .deposit(Deposit.전세)
+                    .content("내용입니다. 10글자 이상입니다...")
+                    .member(saveMember)
+                    .monthlyPrice("보증금")
+                    .squareFootage("4")
+                    .address("주소")
+                    .detailAddress("상세 주소")
+                    .build();
+
+            RoomPost saveRoomPost = roomPostRepository.save(roomPost);
+
+            // 글 마다 i + 1 개의 이미지
+            for (int j = 0; j <= i; j++) {
+                imagesRepository.save(Images.builder()
+                        .roomPost(saveRoomPost)
+                        .path("테스트 경로")
+                        .name("테스트 이름" + j)
+                        .build());
+            }
+        }
+
+        // when
+        Page<RoomPostResponse> roomPostResponseList =
+                roomPostService.searchRoomPostList("title", "", new RoomPostFilterRequest(), PageRequest.of(0, 10));
+
+        // then
+        List<RoomPostResponse> content = roomPostResponseList.getContent();
+
+        Assertions.assertThat(content).hasSize(3);
+        Assertions.assertThat(content.get(0).getTitle()).isEqualTo("제목2");
+        Assertions.assertThat(content.get(0).getImagesList()).hasSize(3);
+        Assertions.assertThat(content.get(2).getImagesList()).hasSize(1);
+        Assertions.assertThat(content.get(0).getMember().getEmail()).isEqualTo(saveMember.getEmail());
+    }
+
+
+    @Test
+    @DisplayName("글리스트 검색 성공 : 인덱스 생성 이후에 저장된 글도 검색")
+    void searchRoomPostListWithSearchIndex(){
+
+        // given
+        Member member = Member.builder()
+                .email("yongjun@gmail.com")
+                .password(passwordEncoder.encode("qwer!1234"))
+                .role(Role.ADMIN)
+                .name("김용준")
+                .build();
 
+        Member saveMember = memberRepository.save(member);
 
-}
\ No newline at end of file
+        RoomPost indexedRoomPost = roomPostRepository.save(RoomPost.builder()
+                .title("강남역 원룸")
+                .roomOwner("방주인")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.전세)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(saveMember)
+                .address("주소")
+                .build());
+
+        roomPostRepository.save(RoomPost.builder()
+                .title("홍대입구 투룸")
+                .roomOwner("방주인")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.전세)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(saveMember)
+                .address("주소")
+                .build());
+
+        roomPostSearchIndex.rebuild();
+
+        // 인덱스에 아직 반영되지 않은 글
+        RoomPost notIndexedRoomPost = roomPostRepository.save(RoomPost.builder()
+                .title("강남구청 투룸")
+                .roomOwner("방주인")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.전세)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(saveMember)
+                .address("주소")
+                .build());
+
+        // when
+        Page<RoomPostResponse> roomPostResponseList =
+                roomPostService.searchRoomPostList("title", "강남", new RoomPostFilterRequest(), PageRequest.of(0, 10));
+
+        // then
+        Assertions.assertThat(roomPostResponseList.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(roomPostResponseList.getContent())
+                .extracting(RoomPostResponse::getId)
+                .containsExactly(notIndexedRoomPost.getId(), indexedRoomPost.getId());
+    }
+}
@@ -0,0 +1,167 @@
+package springboot.yongjunstore.service.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.response.RoomPostResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RoomPostCacheTest {
+
+    private static final Long ROOM_POST_ID = -1L;
+    private static final Long NOT_INDEXED_ROOM_POST_ID = Long.MAX_VALUE - 1;
+    private static final int THREAD_COUNT = 10;
+
+    @Autowired private RoomPostCache roomPostCache;
+
+    @BeforeEach
+    void setUp(){
+        roomPostCache.evict(ROOM_POST_ID);
+        roomPostCache.evict(NOT_INDEXED_ROOM_POST_ID);
+    }
+
+    @Test
+    @DisplayName("동시에 발생한 캐시 miss 는 한 번만 조회")
+    void getCoalescesConcurrentMisses() throws Exception {
+
+        // given
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        RoomPostResponse roomPostResponse = new RoomPostResponse();
+        roomPostResponse.setId(ROOM_POST_ID);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        List<Future<RoomPostResponse>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return roomPostCache.get(ROOM_POST_ID, () -> {
+                    loadCount.incrementAndGet();
+                    sleep(300);
+                    return roomPostResponse;
+                });
+            }));
+        }
+
+        start.countDown();
+
+        // then
+        for (Future<RoomPostResponse> future : futures) {
+            Assertions.assertThat(future.get(5, TimeUnit.SECONDS).getId()).isEqualTo(ROOM_POST_ID);
+        }
+
+        Assertions.assertThat(loadCount.get()).isEqualTo(1);
+
+        executorService.shutdown();
+    }
+
+    @Test
+    @DisplayName("조회에 실패하면 기다리던 요청에도 같은 예외 전달")
+    void getPropagatesLoaderFailure() throws Exception {
+
+        // given
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        List<Future<RoomPostResponse>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return roomPostCache.get(ROOM_POST_ID, () -> {
+                    sleep(300);
+                    throw new GlobalException(ErrorCode.ROOM_POST_NOT_FOUND);
+                });
+            }));
+        }
+
+        start.countDown();
+
+        // then
+        for (Future<RoomPostResponse> future : futures) {
+            Assertions.assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(GlobalException.class)
+                    .hasMessageContaining(ErrorCode.ROOM_POST_NOT_FOUND.getMessage());
+        }
+
+        executorService.shutdown();
+    }
+
+    @Test
+    @DisplayName("조회 중에 삭제되면 이전 값을 캐시에 저장하지 않음")
+    void getSkipsStoreWhenEvictedDuringLoad(){
+
+        // given
+        AtomicInteger loadCount = new AtomicInteger();
+
+        RoomPostResponse stale = new RoomPostResponse();
+        stale.setId(ROOM_POST_ID);
+        stale.setTitle("이전 제목");
+
+        RoomPostResponse updated = new RoomPostResponse();
+        updated.setId(ROOM_POST_ID);
+        updated.setTitle("수정된 제목");
+
+        // when
+        roomPostCache.get(ROOM_POST_ID, () -> {
+            loadCount.incrementAndGet();
+            roomPostCache.evict(ROOM_POST_ID);
+            return stale;
+        });
+
+        RoomPostResponse roomPostResponse = roomPostCache.get(ROOM_POST_ID, () -> {
+            loadCount.incrementAndGet();
+            return updated;
+        });
+
+        // then
+        Assertions.assertThat(roomPostResponse.getTitle()).isEqualTo("수정된 제목");
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Bloom filter 에 아직 반영되지 않은 id 는 없는 글로 기록하지 않고, 종료된 글은 기록")
+    void missingOnlyIndexedOrTerminated(){
+
+        // when
+        Assertions.assertThatThrownBy(() -> roomPostCache.get(NOT_INDEXED_ROOM_POST_ID, () -> {
+                    throw new GlobalException(ErrorCode.ROOM_POST_NOT_FOUND);
+                }))
+                .isInstanceOf(GlobalException.class);
+
+        // then
+        Assertions.assertThat(roomPostCache.isMissing(NOT_INDEXED_ROOM_POST_ID)).isFalse();
+
+        roomPostCache.evictAsMissing(NOT_INDEXED_ROOM_POST_ID);
+
+        Assertions.assertThat(roomPostCache.isMissing(NOT_INDEXED_ROOM_POST_ID)).isTrue();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
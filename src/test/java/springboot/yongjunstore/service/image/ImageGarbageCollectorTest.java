@@ -0,0 +1,210 @@
+package springboot.yongjunstore.service.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.TestImageData;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.Role;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.ImageStorage;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.ImageBlobRepository;
+import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.service.FileService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest
+// grace 시간 없이, 속도 제한 없이 모든 폴더를 한 번에 정리
+@TestPropertySource(properties = {
+        "fileUpload.upload.local.path=/uploads",
+        "fileUpload.gc.grace-minutes=0",
+        "fileUpload.gc.deletes-per-second=0",
+        "fileUpload.gc.local-folders-per-run=256",
+        "fileUpload.gc.s3.enabled=false"})
+class ImageGarbageCollectorTest {
+
+    @Autowired private ImageGarbageCollector imageGarbageCollector;
+    @Autowired private FileService fileService;
+    @Autowired private ImagesRepository imagesRepository;
+    @Autowired private ImageBlobRepository imageBlobRepository;
+    @Autowired private RoomPostRepository roomPostRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ImageBlobService imageBlobService;
+
+    private RoomPost roomPost;
+
+    @BeforeEach
+    void setUp(){
+        imagesRepository.deleteAll();
+        imageBlobRepository.deleteAll();
+        roomPostRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        Member member = memberRepository.save(Member.builder()
+                .email("gc@gmail.com")
+                .password("qwer!1234")
+                .role(Role.MEMBER)
+                .name("김용준")
+                .build());
+
+        roomPost = roomPostRepository.save(RoomPost.builder()
+                .title("제목")
+                .roomOwner("방주인")
+                .depositPrice("1000")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.보증금)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(member)
+                .monthlyPrice("50")
+                .squareFootage("10")
+                .address("주소")
+                .detailAddress("상세 주소")
+                .build());
+    }
+
+
+    @Test
+    @DisplayName("이미지 정리 : 참조가 없는 원본과 DB 에 등록되지 않은 파일은 삭제하고, 글이 참조하는 원본은 유지")
+    void sweepUnreferenced() throws Exception {
+        // given
+        StoredImage referenced = storeImage();
+        fileService.saveImages(List.of(referenced), roomPost);
+
+        // Images 저장 전에 실패해서 참조 수가 0 으로 남은 원본
+        StoredImage unreferenced = storeImage();
+
+        // 파일 저장 후 원본 등록 전에 서버가 종료되어 남은 파일
+        String orphanHash = UUID.randomUUID().toString().replace("-", "") + UUID.randomUUID().toString().replace("-", "");
+        Path orphanFile = Paths.get("/uploads", orphanHash.substring(0, 2), orphanHash.substring(2, 4), orphanHash + ".jpg");
+        Files.createDirectories(orphanFile.getParent());
+        Files.write(orphanFile, TestImageData.uniqueJpeg());
+        Files.setLastModifiedTime(orphanFile, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+
+        Path referencedFile = Paths.get("/uploads", referenced.getStorageKey());
+        Path unreferencedFile = Paths.get("/uploads", unreferenced.getStorageKey());
+        setOld(referencedFile);
+        setOld(unreferencedFile);
+
+        // when
+        imageGarbageCollector.sweep();
+
+        // then
+        assertThat(imageBlobRepository.findById(referenced.getImageBlobId())).isPresent();
+        assertThat(Files.exists(referencedFile)).isTrue();
+
+        assertThat(imageBlobRepository.findById(unreferenced.getImageBlobId())).isEmpty();
+        assertThat(Files.exists(unreferencedFile)).isFalse();
+
+        assertThat(Files.exists(orphanFile)).isFalse();
+    }
+
+
+    @Test
+    @DisplayName("이미지 정리 : 종료된 글의 이미지와 원본 삭제")
+    void sweepTerminatedRoomPost() throws Exception {
+        // given
+        StoredImage storedImage = storeImage();
+        fileService.saveImages(List.of(storedImage), roomPost);
+
+        Path file = Paths.get("/uploads", storedImage.getStorageKey());
+        setOld(file);
+
+        transactionTemplate.executeWithoutResult((status) ->
+                roomPostRepository.deleteByRoomPostId(roomPost.getId(), LocalDateTime.now().minusMinutes(1)));
+
+        // when
+        imageGarbageCollector.sweep();
+
+        // then
+        assertThat(imagesRepository.findByRoomPostId(roomPost.getId())).isEmpty();
+        assertThat(imageBlobRepository.findById(storedImage.getImageBlobId())).isEmpty();
+        assertThat(Files.exists(file)).isFalse();
+    }
+
+
+    @Test
+    @DisplayName("이미지 정리 : 삭제 중으로 표시한 원본은 조회, 참조, 같은 내용의 재등록이 되지 않고 정리 후에는 다시 저장 가능")
+    void sweepMarkedBlocksRegistration() throws Exception {
+        // given
+        byte[] imageData = TestImageData.uniqueJpeg();
+
+        StoredImage storedImage = storeImage(imageData);
+        Path file = Paths.get("/uploads", storedImage.getStorageKey());
+        setOld(file);
+
+        String contentHash = imageBlobRepository.findById(storedImage.getImageBlobId()).orElseThrow().getContentHash();
+
+        // 정리가 파일을 삭제하는 중
+        assertThat(imageBlobService.markDeleting(storedImage.getImageBlobId())).isTrue();
+
+        // then
+        assertThat(imageBlobService.find(ImageStorage.LOCAL, contentHash)).isEmpty();
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult((status) ->
+                imageBlobService.acquire(storedImage.getImageBlobId())))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.IMAGE_FILE_NOT_UPLOAD.getMessage());
+
+        assertThatThrownBy(() -> storeImage(imageData))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.IMAGE_FILE_NOT_UPLOAD.getMessage());
+
+        // when
+        imageGarbageCollector.sweep();
+
+        // then
+        assertThat(imageBlobRepository.findById(storedImage.getImageBlobId())).isEmpty();
+        assertThat(Files.exists(file)).isFalse();
+
+        StoredImage restored = storeImage(imageData);
+
+        assertThat(restored.getStorageKey()).isEqualTo(storedImage.getStorageKey());
+        assertThat(Files.exists(file)).isTrue();
+    }
+
+
+    // 매번 다른 내용의 JPEG 로 판별되는 테스트 이미지 저장
+    private StoredImage storeImage() {
+        return storeImage(TestImageData.uniqueJpeg());
+    }
+
+
+    private StoredImage storeImage(byte[] imageData) {
+
+        MockMultipartFile file = new MockMultipartFile(
+                "uploadImages", "filename.jpg", "image/jpeg", imageData);
+
+        return fileService.storeLocalFiles(List.of(file)).get(0);
+    }
+
+
+    private void setOld(Path file) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+    }
+}
@@ -0,0 +1,147 @@
+package springboot.yongjunstore.service.image;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.Role;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.Images;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RoomPostRepository;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class ImageResizePipelineTest {
+
+    @Autowired private ImageResizePipeline imageResizePipeline;
+    @Autowired private ImagesRepository imagesRepository;
+    @Autowired private RoomPostRepository roomPostRepository;
+    @Autowired private MemberRepository memberRepository;
+
+    @TempDir
+    Path uploadFolder;
+
+    @BeforeEach
+    void setUp(){
+        imagesRepository.deleteAll();
+        roomPostRepository.deleteAll();
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("원본 이미지로 크기별 이미지를 만들고 Images 에 기록")
+    void resizeLocal() throws Exception {
+
+        // given
+        Path savePath = uploadFolder.resolve("original.png");
+        ImageIO.write(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_ARGB), "png", savePath.toFile());
+
+        Images saveImages = saveImages("original.png");
+
+        // when
+        imageResizePipeline.resizeLocal(saveImages.getId(), savePath);
+
+        // then
+        Images findImages = imagesRepository.findById(saveImages.getId()).orElseThrow();
+
+        Assertions.assertThat(findImages.getThumbnailName()).isEqualTo("original_thumbnail.jpg");
+        Assertions.assertThat(findImages.getCardName()).isEqualTo("original_card.jpg");
+
+        // 원본이 상세용 크기보다 작으면 원본을 그대로 사용
+        Assertions.assertThat(findImages.getDetailName()).isEqualTo("original.png");
+
+        BufferedImage thumbnail = ImageIO.read(uploadFolder.resolve("original_thumbnail.jpg").toFile());
+        Assertions.assertThat(thumbnail.getWidth()).isEqualTo(200);
+        Assertions.assertThat(thumbnail.getHeight()).isEqualTo(100);
+
+        Assertions.assertThat(Files.exists(uploadFolder.resolve("original_detail.jpg"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("이미지로 읽을 수 없는 파일이면 원본만 사용")
+    void resizeLocalNotImage() throws Exception {
+
+        // given
+        Path savePath = uploadFolder.resolve("broken.jpg");
+        Files.write(savePath, "imageData".getBytes());
+
+        Images saveImages = saveImages("broken.jpg");
+
+        // when
+        imageResizePipeline.resizeLocal(saveImages.getId(), savePath);
+
+        // then
+        Images findImages = imagesRepository.findById(saveImages.getId()).orElseThrow();
+
+        Assertions.assertThat(findImages.getThumbnailName()).isNull();
+        Assertions.assertThat(findImages.getCardName()).isNull();
+        Assertions.assertThat(findImages.getDetailName()).isNull();
+    }
+
+    @Test
+    @DisplayName("가로 x 세로가 max-pixels 를 넘는 이미지는 디코딩하지 않고 원본만 사용")
+    void resizeLocalTooManyPixels() throws Exception {
+
+        // given
+        // 3천만 픽셀 (기본 제한 2천5백만), 한 가지 색이라 파일은 작음
+        Path savePath = uploadFolder.resolve("large.png");
+        ImageIO.write(new BufferedImage(6000, 5000, BufferedImage.TYPE_BYTE_BINARY), "png", savePath.toFile());
+
+        Images saveImages = saveImages("large.png");
+
+        // when
+        imageResizePipeline.resizeLocal(saveImages.getId(), savePath);
+
+        // then
+        Images findImages = imagesRepository.findById(saveImages.getId()).orElseThrow();
+
+        Assertions.assertThat(findImages.getThumbnailName()).isNull();
+        Assertions.assertThat(findImages.getCardName()).isNull();
+        Assertions.assertThat(findImages.getDetailName()).isNull();
+        Assertions.assertThat(Files.exists(uploadFolder.resolve("large_thumbnail.jpg"))).isFalse();
+    }
+
+    private Images saveImages(String name) {
+
+        Member member = memberRepository.save(Member.builder()
+                .email("resize@gmail.com")
+                .password("qwer!1234")
+                .role(Role.MEMBER)
+                .name("김용준")
+                .build());
+
+        RoomPost roomPost = roomPostRepository.save(RoomPost.builder()
+                .title("제목")
+                .roomOwner("방주인")
+                .depositPrice("1000")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.보증금)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(member)
+                .monthlyPrice("50")
+                .squareFootage("10")
+                .address("주소")
+                .detailAddress("상세 주소")
+                .build());
+
+        return imagesRepository.save(Images.builder()
+                .roomPost(roomPost)
+                .path(uploadFolder.toString())
+                .name(name)
+                .build());
+    }
+}
@@ -0,0 +1,155 @@
+package springboot.yongjunstore.service.image;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.S3Object;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@SpringBootTest
+// 이미지 100 byte 기준 2개까지만 남도록 설정
+@TestPropertySource(properties = {
+        "fileUpload.upload.local.path=/uploads",
+        "fileUpload.s3.cache.path=/uploads/s3-cache",
+        "fileUpload.s3.cache.max-bytes=250"})
+class S3ImageCacheTest {
+
+    private final byte[] imageData = new byte[100];
+
+    @Autowired
+    private S3ImageCache s3ImageCache;
+
+    @MockBean
+    private AmazonS3 amazonS3;
+
+    @Value("${cloud.aws.s3.bucket}")
+    private String bucket;
+
+    @BeforeEach
+    void setUp() {
+        s3ImageCache.clear();
+        reset(amazonS3);
+
+        for (int i = 0; i < imageData.length; i++) {
+            imageData[i] = (byte) i;
+        }
+
+        // 호출할 때마다 새 S3Object 를 반환 (내용 stream 은 한 번만 읽을 수 있음)
+        when(amazonS3.getObject(eq(bucket), anyString())).thenAnswer((invocation) -> {
+            S3Object s3Object = new S3Object();
+            s3Object.setKey(invocation.getArgument(1));
+            s3Object.setObjectContent(new ByteArrayInputStream(imageData));
+            return s3Object;
+        });
+    }
+
+
+    @Test
+    @DisplayName("S3 이미지 조회 성공 : 두 번째 조회는 S3 를 호출하지 않고 디스크 캐시 사용")
+    void findCached() throws Exception {
+        // given
+        String key = UUID.randomUUID() + ".jpg";
+
+        // when
+        LocalImageFile first = s3ImageCache.find("/" + key);
+        LocalImageFile second = s3ImageCache.find("/" + key);
+
+        // then
+        verify(amazonS3, times(1)).getObject(bucket, key);
+
+        assertThat(second.getPath()).isEqualTo(first.getPath());
+        assertThat(second.getETag()).isEqualTo("\"s3/" + key + "\"");
+        assertThat(second.isImmutable()).isTrue();
+        assertThat(second.getMediaType().toString()).isEqualTo("image/jpeg");
+        assertThat(Files.readAllBytes(second.getPath())).isEqualTo(imageData);
+    }
+
+
+    @Test
+    @DisplayName("S3 이미지 캐시 삭제 : 최대 크기를 넘으면 가장 오래 사용하지 않은 이미지부터 제외하고, 삭제 대기 시간이 지난 후 삭제")
+    void evictLeastRecentlyUsed() {
+        // given
+        String key1 = UUID.randomUUID() + ".jpg";
+        String key2 = UUID.randomUUID() + ".jpg";
+        String key3 = UUID.randomUUID() + ".jpg";
+
+        LocalImageFile image1 = s3ImageCache.find(key1);
+        LocalImageFile image2 = s3ImageCache.find(key2);
+
+        // key1 을 다시 사용해서 key2 가 가장 오래된 이미지가 됨
+        s3ImageCache.find(key1);
+
+        // when
+        s3ImageCache.find(key3);
+
+        // then
+        assertThat(s3ImageCache.totalBytes()).isEqualTo(200);
+        assertThat(Files.exists(image1.getPath())).isTrue();
+
+        // 이미 조회한 경로로 전송 중일 수 있으므로 바로 삭제하지 않음
+        assertThat(Files.exists(image2.getPath())).isTrue();
+
+        s3ImageCache.sweepEvicted(System.currentTimeMillis());
+        assertThat(Files.exists(image2.getPath())).isTrue();
+
+        // 삭제 대기 시간이 지난 후
+        s3ImageCache.sweepEvicted(Long.MAX_VALUE);
+        assertThat(Files.exists(image2.getPath())).isFalse();
+
+        // 삭제된 이미지는 다시 S3 에서 받음
+        s3ImageCache.find(key2);
+
+        verify(amazonS3, times(1)).getObject(bucket, key1);
+        verify(amazonS3, times(2)).getObject(bucket, key2);
+    }
+
+
+    @Test
+    @DisplayName("S3 이미지 조회 실패 : S3 에 없는 이미지")
+    void findNotFound() {
+        // given
+        AmazonS3Exception notFound = new AmazonS3Exception("Not Found");
+        notFound.setStatusCode(404);
+
+        when(amazonS3.getObject(bucket, "missing.jpg")).thenThrow(notFound);
+
+        // when, then
+        assertThatThrownBy(() -> s3ImageCache.find("missing.jpg"))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.IMAGE_FILE_NOT_FOUND.getMessage());
+    }
+
+
+    @Test
+    @DisplayName("S3 이미지 조회 실패 : 이미지가 아닌 object")
+    void findNotImage() {
+
+        // expected
+        assertThatThrownBy(() -> s3ImageCache.find("secret.txt"))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.IMAGE_FILE_NOT_FOUND.getMessage());
+    }
+}
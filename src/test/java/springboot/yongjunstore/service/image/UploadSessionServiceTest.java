@@ -0,0 +1,171 @@
+package springboot.yongjunstore.service.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.multipart.MultipartFile;
+import springboot.yongjunstore.TestImageData;
+import springboot.yongjunstore.common.exception.GlobalException;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.Role;
+import springboot.yongjunstore.domain.room.UploadStatus;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.UploadSessionRepository;
+import springboot.yongjunstore.request.UploadSessionRequest;
+import springboot.yongjunstore.response.UploadSessionResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@TestPropertySource(properties = {"fileUpload.upload.local.path=/uploads"})
+class UploadSessionServiceTest {
+
+    private final byte[] imageData = TestImageData.jpeg();
+
+    @Autowired private UploadSessionService uploadSessionService;
+    @Autowired private UploadSessionRepository uploadSessionRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private BCryptPasswordEncoder passwordEncoder;
+
+    private Member member;
+
+    @BeforeEach
+    void setUp(){
+        uploadSessionRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        member = memberRepository.save(Member.builder()
+                .email("yongjun@gmail.com")
+                .password(passwordEncoder.encode("qwer!1234"))
+                .role(Role.MEMBER)
+                .name("김용준")
+                .build());
+    }
+
+
+    @Test
+    @DisplayName("이어 올리기 성공 : 끊긴 위치부터 이어서 보내고 완료한 파일을 글 생성에 사용")
+    void appendAndComplete() throws IOException {
+        // given
+        UploadSessionResponse session = create(imageData.length);
+        String uploadId = session.getUploadId();
+
+        // 첫 chunk 를 보내는 중 연결이 끊김 (4 byte 만 도착)
+        uploadSessionService.append(uploadId, member.getId(), "bytes 0-7/" + imageData.length, new ByteArrayInputStream(imageData, 0, 4));
+
+        // when
+        UploadSessionResponse resumed = uploadSessionService.find(uploadId, member.getId());
+
+        uploadSessionService.append(uploadId, member.getId(), "bytes 4-" + (imageData.length - 1) + "/" + imageData.length,
+                new ByteArrayInputStream(Arrays.copyOfRange(imageData, 4, imageData.length)));
+
+        UploadSessionResponse completed = uploadSessionService.complete(uploadId, member.getId());
+
+        // then
+        assertThat(resumed.getUploadedSize()).isEqualTo(4);
+        assertThat(completed.getStatus()).isEqualTo(UploadStatus.COMPLETED);
+        assertThat(completed.getUploadedSize()).isEqualTo(imageData.length);
+
+        List<MultipartFile> files = uploadSessionService.loadCompletedFiles(List.of(uploadId), member.getId());
+
+        assertThat(files).hasSize(1);
+        assertThat(files.get(0).getContentType()).isEqualTo("image/jpeg");
+
+        try (InputStream inputStream = files.get(0).getInputStream()) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(imageData);
+        }
+    }
+
+
+    @Test
+    @DisplayName("이어 올리기 실패 : 받은 위치와 다른 위치부터 보낸 경우")
+    void appendOffsetMismatch() {
+        // given
+        UploadSessionResponse session = create(imageData.length);
+
+        // when, then
+        assertThatThrownBy(() -> uploadSessionService.append(session.getUploadId(), member.getId(), "bytes 4-7/" + imageData.length,
+                new ByteArrayInputStream(imageData, 4, 4)))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.UPLOAD_SESSION_OFFSET_MISMATCH.getMessage());
+    }
+
+
+    @Test
+    @DisplayName("이어 올리기 실패 : 모든 데이터를 받기 전에 완료한 경우")
+    void completeIncomplete() {
+        // given
+        UploadSessionResponse session = create(imageData.length);
+
+        uploadSessionService.append(session.getUploadId(), member.getId(), "bytes 0-3/" + imageData.length, new ByteArrayInputStream(imageData, 0, 4));
+
+        // when, then
+        assertThatThrownBy(() -> uploadSessionService.complete(session.getUploadId(), member.getId()))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.UPLOAD_SESSION_INCOMPLETE.getMessage());
+    }
+
+
+    @Test
+    @DisplayName("글 생성 실패 : 다른 회원의 업로드를 사용한 경우")
+    void loadCompletedFilesForbidden() {
+        // given
+        UploadSessionResponse session = create(imageData.length);
+
+        uploadSessionService.append(session.getUploadId(), member.getId(), "bytes 0-" + (imageData.length - 1) + "/" + imageData.length,
+                new ByteArrayInputStream(imageData));
+        uploadSessionService.complete(session.getUploadId(), member.getId());
+
+        // when, then
+        assertThatThrownBy(() -> uploadSessionService.loadCompletedFiles(List.of(session.getUploadId()), member.getId() + 1))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.UPLOAD_SESSION_FORBIDDEN.getMessage());
+    }
+
+
+    @Test
+    @DisplayName("이어 올리기 실패 : 다른 회원의 업로드 세션을 조회, 전송, 완료하는 경우")
+    void otherMemberForbidden() {
+        // given
+        UploadSessionResponse session = create(imageData.length);
+        Long otherMemberId = member.getId() + 1;
+
+        // when, then
+        assertThatThrownBy(() -> uploadSessionService.find(session.getUploadId(), otherMemberId))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.UPLOAD_SESSION_FORBIDDEN.getMessage());
+
+        assertThatThrownBy(() -> uploadSessionService.append(session.getUploadId(), otherMemberId,
+                "bytes 0-" + (imageData.length - 1) + "/" + imageData.length, new ByteArrayInputStream(imageData)))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.UPLOAD_SESSION_FORBIDDEN.getMessage());
+
+        assertThatThrownBy(() -> uploadSessionService.complete(session.getUploadId(), otherMemberId))
+                .isInstanceOf(GlobalException.class)
+                .hasMessageContaining(ErrorCode.UPLOAD_SESSION_FORBIDDEN.getMessage());
+
+        assertThat(uploadSessionService.find(session.getUploadId(), member.getId()).getUploadedSize()).isEqualTo(0);
+    }
+
+
+    private UploadSessionResponse create(long totalSize) {
+        return uploadSessionService.create(UploadSessionRequest.builder()
+                .fileName("room.jpg")
+                .totalSize(totalSize)
+                .build(), member.getId());
+    }
+}
@@ -0,0 +1,189 @@
+package springboot.yongjunstore.service.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.Role;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.repository.condition.RoomPostSearchCondition;
+import springboot.yongjunstore.response.RoomPostFacetResponse;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RoomPostFacetIndexTest {
+
+    @Autowired private RoomPostRepository roomPostRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private ImagesRepository imagesRepository;
+    @Autowired private RoomPostFacetIndex roomPostFacetIndex;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Member saveMember;
+
+    @BeforeEach
+    void setUp(){
+        imagesRepository.deleteAll();
+        roomPostRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        saveMember = memberRepository.save(Member.builder()
+                .email("yongjun@gmail.com")
+                .password("qwer!1234")
+                .role(Role.ADMIN)
+                .name("김용준")
+                .build());
+    }
+
+    @Test
+    @DisplayName("facet 별 개수는 나머지 조건만 적용해서 계산")
+    void facetCounts(){
+
+        // given
+        roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시 강남구 역삼동"));
+        roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.보증금, "서울시 강남구 논현동"));
+        roomPostRepository.save(roomPost(RoomStatus.매매, Deposit.전세, "서울시 마포구 합정동"));
+        roomPostRepository.save(roomPost(RoomStatus.종료, Deposit.전세, "서울시 강남구 역삼동"));
+
+        roomPostFacetIndex.rebuild();
+
+        // when
+        RoomPostFacetResponse response = roomPostFacetIndex.facetCounts(RoomStatus.임대, null, "서울시 강남구");
+
+        // then
+        Assertions.assertThat(response.getTotal()).isEqualTo(2);
+        Assertions.assertThat(response.getRoomStatus()).containsEntry("임대", 2L).doesNotContainKey("종료");
+        Assertions.assertThat(response.getDeposit()).containsEntry("전세", 1L).containsEntry("보증금", 1L);
+        Assertions.assertThat(response.getRegion()).containsEntry("서울시 강남구", 2L).doesNotContainKey("서울시 마포구");
+    }
+
+    @Test
+    @DisplayName("한 단어 지역은 그 시의 모든 구를 포함하고, 조건에 맞는 후보 id 를 추가")
+    void narrow(){
+
+        // given
+        RoomPost gangnam = roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시 강남구 역삼동"));
+        RoomPost mapo = roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시 마포구 합정동"));
+        roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "부산시 해운대구 우동"));
+        roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.보증금, "서울시 강남구 논현동"));
+
+        roomPostFacetIndex.rebuild();
+
+        RoomPostSearchCondition condition = RoomPostSearchCondition.builder()
+                .searchOption("title")
+                .deposit(Deposit.전세)
+                .region("서울시")
+                .build();
+
+        // when
+        RoomPostSearchCondition narrowed = roomPostFacetIndex.narrow(condition);
+
+        // then
+        Assertions.assertThat(narrowed.getFacetCandidateIds()).containsExactly(mapo.getId(), gangnam.getId());
+        Assertions.assertThat(narrowed.getFacetIndexedRoomPostId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("지역 조건은 bitmap 인덱스와 DB 조건에서 같은 글을 찾음 (단어 단위 일치)")
+    void regionMatchesDatabase(){
+
+        // given
+        RoomPost city = roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시"));
+        RoomPost gangnam = roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시 강남구 역삼동"));
+        RoomPost mapo = roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시 마포구"));
+        roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시강남구 역삼동"));
+        roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울 강남구 역삼동"));
+
+        roomPostFacetIndex.rebuild();
+
+        for (String region : List.of("서울시", "서울시 강남구")) {
+
+            RoomPostSearchCondition condition = RoomPostSearchCondition.builder()
+                    .searchOption("title")
+                    .region(RoomPostFacetIndex.normalizeRegion(region))
+                    .build();
+
+            // when
+            List<Long> facetIds = roomPostFacetIndex.narrow(condition).getFacetCandidateIds();
+            List<Long> databaseIds = roomPostRepository.searchRoomPostListByCursor(condition, null, 10).stream()
+                    .map(RoomPost::getId)
+                    .toList();
+
+            // then
+            Assertions.assertThat(facetIds).containsExactlyElementsOf(databaseIds);
+        }
+
+        Assertions.assertThat(roomPostFacetIndex.narrow(RoomPostSearchCondition.builder()
+                        .searchOption("title")
+                        .region("서울시")
+                        .build()).getFacetCandidateIds())
+                .containsExactly(mapo.getId(), gangnam.getId(), city.getId());
+    }
+
+    @Test
+    @DisplayName("스캔 위치보다 작은 id 로 늦게 커밋된 글도 다음 갱신에서 반영")
+    void refreshLateCommit() throws Exception {
+
+        // given
+        roomPostFacetIndex.rebuild();
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        // 먼저 id 를 발급받은 글이 커밋되기 전에, 다른 트랜잭션의 글이 커밋되고 갱신됨
+        Long lateRoomPostId = transactionTemplate.execute((status) -> {
+            RoomPost late = roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시 강남구 역삼동"));
+
+            try {
+                executorService.submit(() -> {
+                    roomPostRepository.save(roomPost(RoomStatus.임대, Deposit.전세, "서울시 마포구 합정동"));
+                    roomPostFacetIndex.refresh();
+                }).get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            return late.getId();
+        });
+
+        executorService.shutdown();
+
+        // when
+        roomPostFacetIndex.refresh();
+
+        RoomPostSearchCondition narrowed = roomPostFacetIndex.narrow(RoomPostSearchCondition.builder()
+                .searchOption("title")
+                .region("서울시 강남구")
+                .build());
+
+        // then
+        Assertions.assertThat(narrowed.getFacetIndexedRoomPostId()).isGreaterThan(lateRoomPostId);
+        Assertions.assertThat(narrowed.getFacetCandidateIds()).containsExactly(lateRoomPostId);
+    }
+
+    private RoomPost roomPost(RoomStatus roomStatus, Deposit deposit, String address){
+        return RoomPost.builder()
+                .title("제목")
+                .roomOwner("방주인")
+                .roomStatus(roomStatus)
+                .deposit(deposit)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(saveMember)
+                .address(address)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package springboot.yongjunstore.service.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.Role;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RoomPostRepository;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RoomPostIdBloomFilterTest {
+
+    @Autowired private RoomPostRepository roomPostRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private ImagesRepository imagesRepository;
+    @Autowired private RoomPostIdBloomFilter roomPostIdBloomFilter;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Member saveMember;
+
+    @BeforeEach
+    void setUp(){
+        imagesRepository.deleteAll();
+        roomPostRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        saveMember = memberRepository.save(Member.builder()
+                .email("yongjun@gmail.com")
+                .password("qwer!1234")
+                .role(Role.ADMIN)
+                .name("김용준")
+                .build());
+    }
+
+    @Test
+    @DisplayName("저장된 id 는 true, 삭제된 id 는 false")
+    void mightContain(){
+
+        // given
+        RoomPost first = roomPostRepository.save(roomPost());
+        RoomPost deleted = roomPostRepository.save(roomPost());
+        RoomPost last = roomPostRepository.save(roomPost());
+
+        roomPostRepository.delete(deleted);
+
+        // when
+        roomPostIdBloomFilter.rebuild();
+
+        // then
+        Assertions.assertThat(roomPostIdBloomFilter.mightContain(first.getId())).isTrue();
+        Assertions.assertThat(roomPostIdBloomFilter.mightContain(last.getId())).isTrue();
+        Assertions.assertThat(roomPostIdBloomFilter.mightContain(deleted.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("아직 반영되지 않은 id 와 add 로 추가한 id 는 true")
+    void mightContainNotIndexed(){
+
+        // given
+        RoomPost saveRoomPost = roomPostRepository.save(roomPost());
+
+        roomPostIdBloomFilter.rebuild();
+
+        // when
+        RoomPost afterRebuild = roomPostRepository.save(roomPost());
+
+        // then
+        Assertions.assertThat(roomPostIdBloomFilter.mightContain(afterRebuild.getId())).isTrue();
+        Assertions.assertThat(roomPostIdBloomFilter.mightContain(saveRoomPost.getId() + 1000)).isTrue();
+
+        roomPostIdBloomFilter.add(saveRoomPost.getId() - 1);
+        Assertions.assertThat(roomPostIdBloomFilter.mightContain(saveRoomPost.getId() - 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("작은 id 가 더 큰 id 보다 늦게 커밋되어도 다음 갱신에서 반영")
+    void refreshLateCommit() throws Exception {
+
+        // given
+        roomPostIdBloomFilter.rebuild();
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        // 먼저 id 를 발급받은 글이 커밋되기 전에, 다른 트랜잭션의 글이 커밋되고 갱신됨
+        Long lateRoomPostId = transactionTemplate.execute((status) -> {
+            RoomPost late = roomPostRepository.save(roomPost());
+
+            try {
+                executorService.submit(() -> {
+                    roomPostRepository.save(roomPost());
+                    roomPostIdBloomFilter.refresh();
+                }).get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            return late.getId();
+        });
+
+        executorService.shutdown();
+
+        // when
+        roomPostIdBloomFilter.refresh();
+
+        // then
+        Assertions.assertThat(roomPostIdBloomFilter.mightContain(lateRoomPostId)).isTrue();
+    }
+
+    private RoomPost roomPost(){
+        return RoomPost.builder()
+                .title("제목")
+                .roomOwner("방주인")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.전세)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(saveMember)
+                .address("주소")
+                .build();
+    }
+}
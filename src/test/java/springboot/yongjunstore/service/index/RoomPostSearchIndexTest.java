@@ -0,0 +1,165 @@
+package springboot.yongjunstore.service.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.Role;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.RoomPost;
+import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.repository.condition.RoomPostSearchCondition;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RoomPostSearchIndexTest {
+
+    @Autowired private RoomPostRepository roomPostRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private ImagesRepository imagesRepository;
+    @Autowired private RoomPostSearchIndex roomPostSearchIndex;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Member saveMember;
+
+    @BeforeEach
+    void setUp(){
+        imagesRepository.deleteAll();
+        roomPostRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        saveMember = memberRepository.save(Member.builder()
+                .email("yongjun@gmail.com")
+                .password("qwer!1234")
+                .role(Role.ADMIN)
+                .name("김용준")
+                .build());
+    }
+
+    @Test
+    @DisplayName("검색어의 bigram 을 모두 포함하는 글만 후보로 반환")
+    void searchCondition(){
+
+        // given
+        RoomPost gangnam = roomPostRepository.save(roomPost("강남역 원룸", "서울 강남구"));
+        RoomPost hongdae = roomPostRepository.save(roomPost("홍대입구 투룸", "서울 마포구"));
+
+        roomPostSearchIndex.rebuild();
+
+        // when
+        RoomPostSearchCondition condition = roomPostSearchIndex.searchCondition("title", "강남");
+
+        // then
+        Assertions.assertThat(condition.getCandidateIds()).containsExactly(gangnam.getId());
+        Assertions.assertThat(condition.getCandidateIds()).doesNotContain(hongdae.getId());
+        Assertions.assertThat(condition.getIndexedRoomPostId()).isEqualTo(hongdae.getId());
+    }
+
+    @Test
+    @DisplayName("1글자 검색어와 email 검색은 인덱스를 사용하지 않음")
+    void searchConditionWithoutIndex(){
+
+        // given
+        roomPostRepository.save(roomPost("강남역 원룸", "서울 강남구"));
+
+        roomPostSearchIndex.rebuild();
+
+        // when
+        RoomPostSearchCondition oneLetter = roomPostSearchIndex.searchCondition("title", "강");
+        RoomPostSearchCondition email = roomPostSearchIndex.searchCondition("email", "yongjun");
+
+        // then
+        Assertions.assertThat(oneLetter.getCandidateIds()).isNull();
+        Assertions.assertThat(email.getCandidateIds()).isNull();
+    }
+
+    @Test
+    @DisplayName("제목 + 내용 검색은 두 필드의 후보를 합친다")
+    void searchConditionTitleContent(){
+
+        // given
+        RoomPost titleMatch = roomPostRepository.save(roomPost("역세권 원룸", "서울 강남구"));
+        RoomPost contentMatch = roomPostRepository.save(RoomPost.builder()
+                .title("투룸")
+                .roomOwner("방주인")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.전세)
+                .content("역세권 10분 거리입니다.")
+                .address("서울 마포구")
+                .member(saveMember)
+                .build());
+
+        roomPostSearchIndex.rebuild();
+
+        // when
+        RoomPostSearchCondition condition = roomPostSearchIndex.searchCondition("titleContent", "역세권");
+
+        // then
+        Assertions.assertThat(condition.getCandidateIds()).containsExactly(contentMatch.getId(), titleMatch.getId());
+    }
+
+    @Test
+    @DisplayName("작은 id 가 더 큰 id 보다 늦게 커밋되어도 다음 갱신에서 후보에 반영")
+    void refreshLateCommit() throws Exception {
+
+        // given
+        roomPostSearchIndex.rebuild();
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        // 먼저 id 를 발급받은 글이 커밋되기 전에, 다른 트랜잭션의 글이 커밋되고 갱신됨
+        Long lateRoomPostId = transactionTemplate.execute((status) -> {
+            RoomPost late = roomPostRepository.save(roomPost("강남역 원룸", "서울 강남구"));
+
+            try {
+                executorService.submit(() -> {
+                    roomPostRepository.save(roomPost("홍대입구 투룸", "서울 마포구"));
+                    roomPostSearchIndex.refresh();
+                }).get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            return late.getId();
+        });
+
+        executorService.shutdown();
+
+        // when
+        roomPostSearchIndex.refresh();
+
+        RoomPostSearchCondition condition = roomPostSearchIndex.searchCondition("title", "강남");
+
+        // then
+        Assertions.assertThat(condition.getIndexedRoomPostId()).isGreaterThan(lateRoomPostId);
+        Assertions.assertThat(condition.getCandidateIds()).containsExactly(lateRoomPostId);
+    }
+
+    private RoomPost roomPost(String title, String address){
+        return RoomPost.builder()
+                .title(title)
+                .roomOwner("방주인")
+                .depositPrice("전세금")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.전세)
+                .content("내용입니다. 10글자 이상입니다...")
+                .member(saveMember)
+                .monthlyPrice("보증금")
+                .squareFootage("4")
+                .address(address)
+                .detailAddress("상세 주소")
+                .build();
+    }
+}
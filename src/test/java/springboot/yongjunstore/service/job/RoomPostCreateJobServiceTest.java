@@ -0,0 +1,221 @@
+package springboot.yongjunstore.service.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import springboot.yongjunstore.TestImageData;
+import springboot.yongjunstore.common.exceptioncode.ErrorCode;
+import springboot.yongjunstore.domain.Member;
+import springboot.yongjunstore.domain.Role;
+import springboot.yongjunstore.domain.room.CreateJobStatus;
+import springboot.yongjunstore.domain.room.Deposit;
+import springboot.yongjunstore.domain.room.ImageStorage;
+import springboot.yongjunstore.domain.room.RoomPostCreateJob;
+import springboot.yongjunstore.domain.room.RoomStatus;
+import springboot.yongjunstore.repository.ImagesRepository;
+import springboot.yongjunstore.repository.MemberRepository;
+import springboot.yongjunstore.repository.RoomPostCreateJobRepository;
+import springboot.yongjunstore.repository.RoomPostRepository;
+import springboot.yongjunstore.request.RoomPostRequest;
+import springboot.yongjunstore.response.RoomPostCreateJobResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@TestPropertySource(properties = {"fileUpload.upload.local.path=/uploads"})
+class RoomPostCreateJobServiceTest {
+
+    private final byte[] imageData = TestImageData.jpeg();
+
+    @Autowired private RoomPostCreateJobService roomPostCreateJobService;
+    @Autowired private RoomPostCreateJobRepository roomPostCreateJobRepository;
+    @Autowired private RoomPostRepository roomPostRepository;
+    @Autowired private ImagesRepository imagesRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Member member;
+
+    @BeforeEach
+    void setUp(){
+        roomPostCreateJobRepository.deleteAll();
+        memberRepository.deleteAll();
+        imagesRepository.deleteAll();
+        roomPostRepository.deleteAll();
+
+        member = memberRepository.save(Member.builder()
+                .email("yongjun@gmail.com")
+                .password(passwordEncoder.encode("qwer!1234"))
+                .role(Role.MEMBER)
+                .name("김용준")
+                .build());
+    }
+
+
+    @Test
+    @DisplayName("비동기 글 생성 성공 : PENDING 으로 접수되고 처리가 끝나면 글이 생성됨")
+    void enqueueAndProcess() throws InterruptedException {
+        // given
+        MockMultipartFile file = new MockMultipartFile(
+                "uploadImages", "filename.jpg", "image/jpeg", imageData);
+
+        // when
+        RoomPostCreateJobResponse accepted = roomPostCreateJobService.enqueue(roomPostRequest(), List.of(file), ImageStorage.LOCAL);
+
+        // then
+        assertThat(accepted.getStatus()).isEqualTo(CreateJobStatus.PENDING);
+        assertThat(accepted.getStatusUrl()).isEqualTo("/room-post/create-jobs/" + accepted.getJobId());
+
+        RoomPostCreateJobResponse finished = waitUntilFinished(accepted.getJobId());
+
+        assertThat(finished.getStatus()).isEqualTo(CreateJobStatus.COMPLETED);
+        assertThat(roomPostRepository.findById(finished.getRoomPostId())).isPresent();
+    }
+
+
+    @Test
+    @DisplayName("비동기 글 생성 실패 : 이미지가 아닌 파일은 FAILED 로 기록되고 글은 생성되지 않음")
+    void enqueueAndFail() throws InterruptedException {
+        // given
+        MockMultipartFile file = new MockMultipartFile(
+                "uploadImages", "filename.jpg", "image/jpeg", "%PDF-1.7 testData".getBytes());
+
+        // when
+        RoomPostCreateJobResponse accepted = roomPostCreateJobService.enqueue(roomPostRequest(), List.of(file), ImageStorage.LOCAL);
+
+        // then
+        RoomPostCreateJobResponse finished = waitUntilFinished(accepted.getJobId());
+
+        assertThat(finished.getStatus()).isEqualTo(CreateJobStatus.FAILED);
+        assertThat(finished.getErrorCode()).isEqualTo(ErrorCode.IMAGE_FILE_SIGNATURE_MISMATCH.getCode());
+        assertThat(roomPostRepository.count()).isEqualTo(0);
+    }
+
+
+    @Test
+    @DisplayName("비동기 글 생성 : 멈춘 작업으로 판단되어 다시 가져간 작업을 두 작업자가 동시에 처리해도 글은 한 번만 생성됨")
+    void processReclaimedJob() throws Exception {
+        // given
+        String jobId = UUID.randomUUID().toString();
+        Path jobFolder = Paths.get("/uploads", "tmp", "jobs", jobId);
+
+        Files.createDirectories(jobFolder);
+        Files.write(jobFolder.resolve("0"), imageData);
+
+        String request = objectMapper.writeValueAsString(roomPostRequest());
+        String images = objectMapper.writeValueAsString(List.of(new StagedImage("filename.jpg", "image/jpeg")));
+
+        // 첫 작업자가 가져간 뒤(attempts 1) 멈춘 작업으로 대기 상태가 되고, 두 번째 작업자가 다시 가져감(attempts 2)
+        // 한 트랜잭션으로 저장해서 스케줄러가 대기 상태의 작업을 가져가지 않도록 함
+        Long roomPostCreateJobId = transactionTemplate.execute((status) -> {
+            RoomPostCreateJob roomPostCreateJob = roomPostCreateJobRepository.save(RoomPostCreateJob.builder()
+                    .jobId(jobId)
+                    .memberId(member.getId())
+                    .storage(ImageStorage.LOCAL)
+                    .request(request)
+                    .images(images)
+                    .build());
+
+            Long id = roomPostCreateJob.getId();
+            LocalDateTime now = LocalDateTime.now();
+
+            roomPostCreateJobRepository.claim(id, CreateJobStatus.PENDING, CreateJobStatus.PROCESSING, 0, now);
+            roomPostCreateJobRepository.retry(id, CreateJobStatus.PROCESSING, CreateJobStatus.PENDING, 1, now);
+            roomPostCreateJobRepository.claim(id, CreateJobStatus.PENDING, CreateJobStatus.PROCESSING, 1, now);
+
+            return id;
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int claimedAttempts = 1; claimedAttempts <= 2; claimedAttempts++) {
+            int attempts = claimedAttempts;
+
+            futures.add(executorService.submit(() -> {
+                start.await();
+                roomPostCreateJobService.process(roomPostCreateJobId, attempts);
+                return null;
+            }));
+        }
+
+        // when
+        start.countDown();
+
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        executorService.shutdown();
+
+        // then
+        RoomPostCreateJob finished = roomPostCreateJobRepository.findById(roomPostCreateJobId).get();
+
+        assertThat(roomPostRepository.count()).isEqualTo(1);
+        assertThat(finished.getStatus()).isEqualTo(CreateJobStatus.COMPLETED);
+        assertThat(finished.getAttempts()).isEqualTo(2);
+        assertThat(roomPostRepository.findAll().get(0).getId()).isEqualTo(finished.getRoomPostId());
+    }
+
+
+    private RoomPostCreateJobResponse waitUntilFinished(String jobId) throws InterruptedException {
+
+        for (int i = 0; i < 100; i++) {
+            roomPostCreateJobService.poll();
+
+            RoomPostCreateJobResponse response = roomPostCreateJobService.find(jobId);
+
+            if (response.getStatus() == CreateJobStatus.COMPLETED || response.getStatus() == CreateJobStatus.FAILED) {
+                return response;
+            }
+
+            Thread.sleep(100);
+        }
+
+        return roomPostCreateJobService.find(jobId);
+    }
+
+
+    private RoomPostRequest roomPostRequest() {
+        return RoomPostRequest.builder()
+                .title("제목")
+                .roomOwner("방주인")
+                .depositPrice("10000")
+                .roomStatus(RoomStatus.임대)
+                .deposit(Deposit.전세)
+                .content("내용입니다. 10글자 이상입니다...")
+                .memberId(member.getId())
+                .monthlyPrice("10")
+                .squareFootage("4")
+                .address("주소")
+                .detailAddress("상세 주소")
+                .build();
+    }
+}